@@ -15,6 +15,7 @@ import io.agenttel.agent.reporting.ExecutiveSummaryBuilder;
 import io.agenttel.agent.reporting.SloReportGenerator;
 import io.agenttel.agent.reporting.TrendAnalyzer;
 import io.agenttel.core.anomaly.IncidentPattern;
+import io.agenttel.core.baseline.ErrorRateTracker;
 import io.agenttel.core.baseline.RollingBaselineProvider;
 import io.agenttel.core.baseline.RollingWindow;
 import io.agenttel.core.anomaly.PatternMatcher;
@@ -124,11 +125,15 @@ public class AgentContextProvider {
         if (opHealth.isEmpty()) return List.of();
 
         var op = opHealth.get();
-        RollingWindow.Snapshot snapshot = rollingBaselines != null
-                ? rollingBaselines.getSnapshot(operationName).orElse(null)
-                : null;
+        RollingWindow.Snapshot snapshot = null;
+        ErrorRateTracker errorRates = null;
+        if (rollingBaselines != null) {
+            snapshot = rollingBaselines.getSnapshot(operationName).orElse(null);
+            errorRates = rollingBaselines.errorRates(operationName);
+        }
 
-        return patternMatcher.detectPatterns(operationName, op.latencyP50Ms(), op.errorRate() > 0.01, snapshot);
+        return patternMatcher.detectPatterns(operationName, op.latencyP50Ms(), op.errorRate() > 0.01,
+                snapshot, errorRates);
     }
 
     public String getRecentActions() {
@@ -2,6 +2,9 @@ package io.agenttel.agent.health;
 
 import io.agenttel.core.baseline.RollingBaselineProvider;
 import io.agenttel.core.baseline.RollingWindow;
+import io.agenttel.core.enrichment.AgentTelSpanProcessor;
+import io.agenttel.core.operation.OperationRegistry;
+import io.agenttel.core.operation.OperationSlots;
 import io.agenttel.core.slo.SloTracker;
 
 import java.time.Instant;
@@ -17,20 +20,57 @@ public class ServiceHealthAggregator {
 
     private final RollingBaselineProvider rollingBaselines;
     private final SloTracker sloTracker;
-    private final ConcurrentHashMap<String, OperationHealth> operationHealthMap = new ConcurrentHashMap<>();
+    private final OperationRegistry registry;
+    private final OperationSlots<OperationHealth> operationHealth;
     private final ConcurrentHashMap<String, DependencyHealth> dependencyHealthMap = new ConcurrentHashMap<>();
 
     public ServiceHealthAggregator(RollingBaselineProvider rollingBaselines, SloTracker sloTracker) {
         this.rollingBaselines = rollingBaselines;
         this.sloTracker = sloTracker;
+        // Share the baseline provider's registry so operation ids from the span processor apply here
+        this.registry = rollingBaselines != null ? rollingBaselines.operationRegistry() : new OperationRegistry();
+        this.operationHealth = new OperationSlots<>(registry);
     }
 
     /**
      * Records a span completion for health tracking.
      */
     public void recordSpan(String operationName, double latencyMs, boolean isError) {
-        operationHealthMap.computeIfAbsent(operationName, k -> new OperationHealth())
-                .record(latencyMs, isError);
+        recordSpan(registry.intern(operationName), latencyMs, isError);
+    }
+
+    /**
+     * Records a span completion for an operation id from the rolling baseline provider's registry.
+     */
+    public void recordSpan(int operationId, double latencyMs, boolean isError) {
+        OperationHealth health = operationHealth.get(operationId);
+        if (health == null) {
+            health = operationHealth.computeIfAbsent(operationId, k -> new OperationHealth());
+        }
+        health.record(latencyMs, isError);
+    }
+
+    /**
+     * Returns a span completion listener feeding this aggregator. Operation ids from the
+     * processor are used directly when it interns names with the same registry.
+     */
+    public AgentTelSpanProcessor.SpanCompletionListener spanCompletionListener(OperationRegistry processorOperations) {
+        boolean sharedIds = processorOperations == registry;
+        return new AgentTelSpanProcessor.SpanCompletionListener() {
+            @Override
+            public void onSpanCompleted(String operationName, double latencyMs, boolean isError) {
+                recordSpan(operationName, latencyMs, isError);
+            }
+
+            @Override
+            public void onSpanCompleted(int operationId, String operationName, double latencyMs, boolean isError) {
+                if (sharedIds) {
+                    recordSpan(operationId, latencyMs, isError);
+                } else {
+                    recordSpan(operationName, latencyMs, isError);
+                }
+            }
+        };
     }
 
     /**
@@ -46,13 +86,13 @@ public class ServiceHealthAggregator {
      */
     public ServiceHealthSummary getHealthSummary(String serviceName) {
         List<OperationSummary> operations = new ArrayList<>();
-        for (var entry : operationHealthMap.entrySet()) {
-            OperationHealth health = entry.getValue();
+        operationHealth.forEach((health, operationId) -> {
+            String operationName = registry.nameOf(operationId);
             RollingWindow.Snapshot baseline = rollingBaselines != null
-                    ? rollingBaselines.getSnapshot(entry.getKey()).orElse(null)
+                    ? rollingBaselines.getSnapshot(operationName).orElse(null)
                     : null;
-            operations.add(health.toSummary(entry.getKey(), baseline));
-        }
+            operations.add(health.toSummary(operationName, baseline));
+        });
 
         List<DependencySummary> dependencies = new ArrayList<>();
         for (var entry : dependencyHealthMap.entrySet()) {
@@ -79,7 +119,8 @@ public class ServiceHealthAggregator {
      * Returns health for a single operation.
      */
     public Optional<OperationSummary> getOperationHealth(String operationName) {
-        OperationHealth health = operationHealthMap.get(operationName);
+        int operationId = registry.find(operationName);
+        OperationHealth health = operationId == OperationRegistry.NOT_FOUND ? null : operationHealth.get(operationId);
         if (health == null) return Optional.empty();
 
         RollingWindow.Snapshot baseline = rollingBaselines != null
@@ -4,7 +4,13 @@ public enum BaselineSource {
     STATIC("static"),
     ROLLING_7D("rolling_7d"),
     ML_MODEL("ml_model"),
-    SLO("slo");
+    SLO("slo"),
+    /** The last N samples, however long they took to arrive. */
+    ROLLING_COUNT("rolling_count"),
+    ROLLING_1M("rolling_1m"),
+    ROLLING_5M("rolling_5m"),
+    ROLLING_1H("rolling_1h"),
+    ROLLING_24H("rolling_24h");
 
     private final String value;
 
@@ -11,4 +11,5 @@ public final class AgentTelEvents {
     public static final String DEPENDENCY_STATE_CHANGE = "agenttel.dependency.state_change";
     public static final String SLO_BUDGET_ALERT = "agenttel.slo.budget_alert";
     public static final String CIRCUIT_BREAKER_STATE_CHANGE = "agenttel.circuit_breaker.state_change";
+    public static final String EVENTS_SUPPRESSED = "agenttel.events.suppressed";
 }
@@ -0,0 +1,27 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+description = "AgentTel Benchmarks - JMH microbenchmarks for the telemetry hot path (not published)"
+
+dependencies {
+    jmh(project(":agenttel-core"))
+    jmh(platform("io.opentelemetry:opentelemetry-bom:${rootProject.extra["otelVersion"]}"))
+    jmh("io.opentelemetry:opentelemetry-sdk")
+}
+
+// Run all benchmarks:        ./gradlew :agenttel-benchmarks:jmh
+// Run a subset (regex):      ./gradlew :agenttel-benchmarks:jmh -PjmhIncludes=RollingWindow
+// Override thread count:     ./gradlew :agenttel-benchmarks:jmh -PjmhThreads=16
+jmh {
+    jmhVersion.set(rootProject.extra["jmhVersion"] as String)
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+    (project.findProperty("jmhThreads") as String?)?.let { threads.set(it.toInt()) }
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+}
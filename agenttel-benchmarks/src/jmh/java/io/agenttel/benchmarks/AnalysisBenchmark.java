@@ -0,0 +1,114 @@
+package io.agenttel.benchmarks;
+
+import io.agenttel.core.anomaly.IncidentPattern;
+import io.agenttel.core.anomaly.PatternMatcher;
+import io.agenttel.core.baseline.RollingWindow;
+import io.agenttel.core.error.ErrorClassifier;
+import io.agenttel.core.slo.SloDefinition;
+import io.agenttel.core.slo.SloTracker;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-span analysis components on their own: pattern detection, SLO recording and
+ * error classification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class AnalysisBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int operations;
+
+    private PatternMatcher patternMatcher;
+    private SloTracker sloTracker;
+    private ErrorClassifier errorClassifier;
+    private String[] operationNames;
+    private double[] latencies;
+    private RollingWindow.Snapshot snapshot;
+    private SpanData[] errorSpans;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpanData[] spans = SpanFixtures.toSpanData(
+                SpanFixtures.endedSpans(operations, SpanFixtures.POOL_SIZE));
+        operationNames = new String[spans.length];
+        latencies = new double[spans.length];
+        for (int i = 0; i < spans.length; i++) {
+            operationNames[i] = spans[i].getName();
+            latencies[i] = (spans[i].getEndEpochNanos() - spans[i].getStartEpochNanos()) / 1_000_000.0;
+        }
+
+        patternMatcher = new PatternMatcher();
+        RollingWindow window = new RollingWindow(1000);
+        for (int i = 0; i < spans.length; i++) {
+            patternMatcher.recordLatency(operationNames[i], latencies[i]);
+            window.record(latencies[i]);
+        }
+        window.recordError();
+        snapshot = window.snapshot();
+
+        sloTracker = new SloTracker();
+        for (int i = 0; i < operations; i++) {
+            String name = SpanFixtures.operationName(i);
+            sloTracker.register(SloDefinition.builder(name + "-availability")
+                    .operationName(name)
+                    .type(SloDefinition.SloType.AVAILABILITY)
+                    .target(0.999)
+                    .build());
+        }
+
+        errorClassifier = new ErrorClassifier();
+        List<SpanData> errors = new ArrayList<>();
+        for (SpanData span : spans) {
+            if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+                errors.add(span);
+            }
+        }
+        // Repeat the error spans to fill a pool the cursor can index
+        errorSpans = new SpanData[SpanFixtures.POOL_SIZE];
+        for (int i = 0; i < errorSpans.length; i++) {
+            errorSpans[i] = errors.get(i % errors.size());
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<IncidentPattern> detectPatterns(Cursor cursor) {
+        int i = cursor.next();
+        return patternMatcher.detectPatterns(operationNames[i], latencies[i], false, snapshot, null);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void sloRecordSuccess(Cursor cursor) {
+        sloTracker.recordSuccess(operationNames[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void sloRecordSuccess_8threads(Cursor cursor) {
+        sloTracker.recordSuccess(operationNames[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ErrorClassifier.ErrorClassification classifyError(Cursor cursor) {
+        return errorClassifier.classify(errorSpans[cursor.next()]);
+    }
+}
@@ -0,0 +1,89 @@
+package io.agenttel.benchmarks;
+
+import io.agenttel.core.anomaly.AnomalyScorer;
+import io.agenttel.core.anomaly.AnomalyStrategy;
+import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.baseline.RollingWindow;
+import io.agenttel.core.operation.OperationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-span cost of each {@link AnomalyStrategy}, including the baseline reads the span
+ * processor makes for it, across operation cardinalities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class AnomalyScorerBenchmark {
+
+    @Param({"z_score", "ewma", "median_mad", "cusum"})
+    public String strategy;
+
+    @Param({"1", "100"})
+    public int operations;
+
+    private RollingBaselineProvider baselines;
+    private AnomalyScorer scorer;
+    private double[] latencies;
+    private int[] operationIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        latencies = new double[SpanFixtures.POOL_SIZE];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = Math.exp(Math.log(50.0) + random.nextDouble(-1.0, 1.0));
+        }
+
+        OperationRegistry registry = new OperationRegistry();
+        baselines = RollingBaselineProvider.builder().operationRegistry(registry).build();
+        scorer = AnomalyStrategy.fromValue(strategy).create(registry);
+        operationIds = new int[SpanFixtures.POOL_SIZE];
+        for (int i = 0; i < operationIds.length; i++) {
+            operationIds[i] = registry.intern(SpanFixtures.operationName(i % operations));
+        }
+        for (int i = 0; i < 2000 * operations; i++) {
+            int j = i & (SpanFixtures.POOL_SIZE - 1);
+            baselines.recordLatency(operationIds[j], latencies[j]);
+        }
+    }
+
+    /** Scoring alone, as the processor runs it after recording the sample. */
+    @Benchmark
+    @Threads(1)
+    public double score(Cursor cursor) {
+        int i = cursor.next();
+        int operationId = operationIds[i];
+        RollingWindow.MeanStddev expected = baselines.meanStddev(operationId);
+        return scorer.score(operationId, latencies[i], expected, baselines);
+    }
+
+    /** Recording plus scoring, so the median/MAD scorer pays for its snapshot refreshes. */
+    @Benchmark
+    @Threads(1)
+    public double recordAndScore(Cursor cursor) {
+        int i = cursor.next();
+        int operationId = operationIds[i];
+        baselines.recordLatency(operationId, latencies[i]);
+        RollingWindow.MeanStddev expected = baselines.meanStddev(operationId);
+        return scorer.score(operationId, latencies[i], expected, baselines);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double recordAndScoreContended(Cursor cursor) {
+        return recordAndScore(cursor);
+    }
+}
@@ -0,0 +1,18 @@
+package io.agenttel.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread position in a fixture pool of {@link SpanFixtures#POOL_SIZE} entries.
+ * Threads start at different offsets so they do not walk the pool in lockstep.
+ */
+@State(Scope.Thread)
+public class Cursor {
+
+    private int next = (int) (Thread.currentThread().getId() * 0x9E3779B9L);
+
+    int next() {
+        return next++ & (SpanFixtures.POOL_SIZE - 1);
+    }
+}
@@ -0,0 +1,138 @@
+package io.agenttel.benchmarks;
+
+import io.agenttel.api.ServiceTier;
+import io.agenttel.core.anomaly.AnomalyDetector;
+import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.causality.CausalityTracker;
+import io.agenttel.core.causality.OperationDependencyTracker;
+import io.agenttel.core.error.ErrorClassifier;
+import io.agenttel.core.export.AgentTelEnrichingSpanExporter;
+import io.agenttel.core.slo.SloDefinition;
+import io.agenttel.core.slo.SloTracker;
+import io.agenttel.core.topology.TopologyRegistry;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link AgentTelEnrichingSpanExporter#export} per batch, as handed over by a
+ * {@code BatchSpanProcessor}. The delegate exporter only touches the enriched attributes,
+ * so the score is the enrichment overhead plus attribute materialization.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class EnrichingExporterBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int operations;
+
+    @Param({"64", "512"})
+    public int batchSize;
+
+    /** Extra enrichment threads; 0 enriches on the export thread only. */
+    @Param({"0", "3"})
+    public int exportWorkers;
+
+    private AgentTelEnrichingSpanExporter exporter;
+    private List<Collection<SpanData>> batches;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpanData[] spans = SpanFixtures.toSpanData(
+                SpanFixtures.endedSpans(operations, SpanFixtures.POOL_SIZE));
+
+        RollingBaselineProvider rollingBaselines = new RollingBaselineProvider();
+        SloTracker sloTracker = new SloTracker();
+        for (int i = 0; i < operations; i++) {
+            String name = SpanFixtures.operationName(i);
+            sloTracker.register(SloDefinition.builder(name + "-availability")
+                    .operationName(name)
+                    .type(SloDefinition.SloType.AVAILABILITY)
+                    .target(0.999)
+                    .build());
+        }
+        for (int round = 0; round < 4; round++) {
+            for (SpanData span : spans) {
+                double latencyMs = (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0;
+                rollingBaselines.recordLatency(span.getName(), latencyMs);
+                sloTracker.recordSuccess(span.getName());
+            }
+        }
+
+        TopologyRegistry topology = new TopologyRegistry();
+        topology.setTier(ServiceTier.CRITICAL);
+        OperationDependencyTracker dependencyTracker = new OperationDependencyTracker();
+        exporter = new AgentTelEnrichingSpanExporter(
+                new AttributeTouchingExporter(),
+                rollingBaselines,
+                sloTracker,
+                new CausalityTracker(dependencyTracker),
+                new AnomalyDetector(3.0),
+                new ErrorClassifier(),
+                topology);
+        if (exportWorkers > 0) {
+            exporter.enableParallelEnrichment(exportWorkers, 256);
+        }
+
+        batches = new ArrayList<>();
+        for (int from = 0; from + batchSize <= spans.length; from += batchSize) {
+            batches.add(Arrays.asList(Arrays.copyOfRange(spans, from, from + batchSize)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        exporter.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public CompletableResultCode export(Cursor cursor) {
+        return exporter.export(batches.get(cursor.next() % batches.size()));
+    }
+
+    /**
+     * Reads every enriched attribute map, the least any real exporter does.
+     */
+    private static final class AttributeTouchingExporter implements SpanExporter {
+        private volatile int attributeCount;
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            int count = 0;
+            for (SpanData span : spans) {
+                count += span.getAttributes().size();
+            }
+            attributeCount = count;
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
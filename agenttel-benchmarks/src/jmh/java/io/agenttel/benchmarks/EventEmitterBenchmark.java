@@ -0,0 +1,82 @@
+package io.agenttel.benchmarks;
+
+import io.agenttel.api.events.AgentTelEvents;
+import io.agenttel.core.events.AgentTelEventEmitter;
+import io.agenttel.core.events.AsyncEventSink;
+import io.agenttel.core.events.LogEventSink;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.logs.Severity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of emitting an anomaly event on the thread that raises it, for each body format and
+ * with or without the asynchronous sink. Logs go to the no-op SDK, so the score is body
+ * conversion and hand-off; with {@code async} it is the queue offer, or the drop once the
+ * worker falls behind.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class EventEmitterBenchmark {
+
+    @Param({"json", "structured"})
+    public String bodyFormat;
+
+    @Param({"false", "true"})
+    public boolean async;
+
+    private AgentTelEventEmitter emitter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AgentTelEventEmitter.Builder builder = AgentTelEventEmitter.builder(OpenTelemetry.noop())
+                .bodyFormat(LogEventSink.BodyFormat.fromValue(bodyFormat));
+        if (async) {
+            builder.async(AsyncEventSink.builder());
+        }
+        emitter = builder.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emitter.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void emit() {
+        emitter.emitEvent(AgentTelEvents.ANOMALY_DETECTED, body(), Severity.WARN);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void emitContended() {
+        emit();
+    }
+
+    private static Map<String, Object> body() {
+        // Built per event, as the span processor does
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("operation", "GET /api/orders/{id}");
+        body.put("latency_ms", 412.5);
+        body.put("anomaly_score", 0.92);
+        body.put("z_score", 4.7);
+        body.put("pattern", "latency_degradation");
+        body.put("pattern_description", "Latency is significantly above baseline");
+        return body;
+    }
+}
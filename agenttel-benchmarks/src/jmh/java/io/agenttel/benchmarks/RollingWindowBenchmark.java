@@ -0,0 +1,92 @@
+package io.agenttel.benchmarks;
+
+import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.baseline.RollingWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RollingWindow} writes and snapshot reads at several window sizes, and the
+ * provider-level record/read path at several operation cardinalities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RollingWindowBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int capacity;
+
+    @Param({"1", "100", "1000"})
+    public int operations;
+
+    private RollingWindow window;
+    private RollingBaselineProvider provider;
+    private double[] latencies;
+    private String[] operationNames;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        latencies = new double[SpanFixtures.POOL_SIZE];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = Math.exp(Math.log(50.0) + random.nextDouble(-1.0, 1.0));
+        }
+        operationNames = new String[SpanFixtures.POOL_SIZE];
+        for (int i = 0; i < operationNames.length; i++) {
+            operationNames[i] = SpanFixtures.operationName(i % operations);
+        }
+
+        window = new RollingWindow(capacity);
+        provider = RollingBaselineProvider.builder().windowSize(capacity).build();
+        for (int i = 0; i < capacity * 2; i++) {
+            double latency = latencies[i & (SpanFixtures.POOL_SIZE - 1)];
+            window.record(latency);
+            provider.recordLatency(operationNames[i & (SpanFixtures.POOL_SIZE - 1)], latency);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void record(Cursor cursor) {
+        window.record(latencies[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public RollingWindow.Snapshot snapshot() {
+        return window.snapshot();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void providerRecordLatency(Cursor cursor) {
+        int i = cursor.next();
+        provider.recordLatency(operationNames[i], latencies[i]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<RollingWindow.Snapshot> providerGetSnapshot(Cursor cursor) {
+        return provider.getSnapshot(operationNames[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void providerRecordLatency_8threads(Cursor cursor) {
+        int i = cursor.next();
+        provider.recordLatency(operationNames[i], latencies[i]);
+    }
+}
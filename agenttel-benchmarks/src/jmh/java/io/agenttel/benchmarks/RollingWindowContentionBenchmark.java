@@ -0,0 +1,74 @@
+package io.agenttel.benchmarks;
+
+import io.agenttel.core.baseline.BaselineWindow;
+import io.agenttel.core.baseline.LogHistogramSketch;
+import io.agenttel.core.baseline.RollingWindow;
+import io.agenttel.core.baseline.StripedRollingWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads writing to one hot operation's window: the single-ring {@link RollingWindow}
+ * against the {@link StripedRollingWindow}. All threads share one window instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RollingWindowContentionBenchmark {
+
+    @Param({"ring", "striped"})
+    public String impl;
+
+    @Param({"1000"})
+    public int capacity;
+
+    private BaselineWindow window;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        window = switch (impl) {
+            case "ring" -> new RollingWindow(capacity);
+            case "striped" -> new StripedRollingWindow(capacity, 64, LogHistogramSketch::new);
+            default -> throw new IllegalArgumentException("Unknown impl: " + impl);
+        };
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void record_1thread() {
+        record();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void record_8threads() {
+        record();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void record_32threads() {
+        record();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void record_64threads() {
+        record();
+    }
+
+    private void record() {
+        window.record(20.0 + ThreadLocalRandom.current().nextDouble(80.0));
+    }
+}
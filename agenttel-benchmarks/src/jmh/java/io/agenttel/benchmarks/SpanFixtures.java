@@ -0,0 +1,97 @@
+package io.agenttel.benchmarks;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.net.SocketTimeoutException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-built spans for the benchmarks, created up front so that span construction is not
+ * part of any measurement. Spans come from a bare {@link SdkTracerProvider} with no
+ * processors; ended spans are immutable, so all benchmark threads can share them.
+ *
+ * <p>The mix is fixed by the seed: about 20% client spans to a database, 2% errors split
+ * between timeouts and HTTP 5xx responses, and log-normal latencies around 50 ms.
+ */
+final class SpanFixtures {
+
+    /** Pool size used by the benchmarks; a power of two so cursors can mask. */
+    static final int POOL_SIZE = 4096;
+
+    private static final long SEED = 42L;
+    private static final AttributeKey<String> DB_SYSTEM = AttributeKey.stringKey("db.system");
+    private static final AttributeKey<Long> HTTP_STATUS = AttributeKey.longKey("http.response.status_code");
+    private static final Tracer TRACER = SdkTracerProvider.builder().build().get("agenttel-benchmarks");
+
+    private SpanFixtures() {}
+
+    static String operationName(int index) {
+        return "GET /api/resource/" + index;
+    }
+
+    /**
+     * Ended spans spread evenly over {@code operations} operation names.
+     */
+    static ReadableSpan[] endedSpans(int operations, int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        ReadableSpan[] spans = new ReadableSpan[count];
+        long start = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        for (int i = 0; i < count; i++) {
+            boolean client = random.nextInt(5) == 0;
+            Span span = TRACER.spanBuilder(operationName(i % operations))
+                    .setSpanKind(client ? SpanKind.CLIENT : SpanKind.SERVER)
+                    .setParent(Context.root())
+                    .setStartTimestamp(start, TimeUnit.NANOSECONDS)
+                    .startSpan();
+            if (client) {
+                span.setAttribute(DB_SYSTEM, random.nextBoolean() ? "postgresql" : "redis");
+            }
+            int roll = random.nextInt(100);
+            if (roll == 0) {
+                span.recordException(new SocketTimeoutException("Read timed out"));
+                span.setStatus(StatusCode.ERROR);
+            } else if (roll == 1) {
+                span.setAttribute(HTTP_STATUS, 503L);
+                span.setStatus(StatusCode.ERROR);
+            } else {
+                span.setAttribute(HTTP_STATUS, 200L);
+            }
+            double latencyMs = Math.exp(Math.log(50.0) + random.nextDouble(-0.5, 0.5));
+            span.end(start + (long) (latencyMs * 1_000_000), TimeUnit.NANOSECONDS);
+            spans[i] = (ReadableSpan) span;
+        }
+        return spans;
+    }
+
+    /**
+     * Started, never-ended spans for {@code onStart} benchmarks.
+     */
+    static ReadWriteSpan[] openSpans(int operations, int count) {
+        ReadWriteSpan[] spans = new ReadWriteSpan[count];
+        for (int i = 0; i < count; i++) {
+            spans[i] = (ReadWriteSpan) TRACER.spanBuilder(operationName(i % operations))
+                    .setSpanKind(SpanKind.SERVER)
+                    .setParent(Context.root())
+                    .startSpan();
+        }
+        return spans;
+    }
+
+    static SpanData[] toSpanData(ReadableSpan[] spans) {
+        SpanData[] data = new SpanData[spans.length];
+        for (int i = 0; i < spans.length; i++) {
+            data[i] = spans[i].toSpanData();
+        }
+        return data;
+    }
+}
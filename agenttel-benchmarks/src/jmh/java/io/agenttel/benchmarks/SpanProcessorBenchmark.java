@@ -0,0 +1,126 @@
+package io.agenttel.benchmarks;
+
+import io.agenttel.api.BaselineSource;
+import io.agenttel.api.EscalationLevel;
+import io.agenttel.api.baseline.OperationBaseline;
+import io.agenttel.core.anomaly.AnomalyDetector;
+import io.agenttel.core.anomaly.PatternMatcher;
+import io.agenttel.core.baseline.CompositeBaselineProvider;
+import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.baseline.StaticBaselineProvider;
+import io.agenttel.core.causality.CausalityTracker;
+import io.agenttel.core.causality.OperationDependencyTracker;
+import io.agenttel.core.enrichment.AgentTelSpanProcessor;
+import io.agenttel.core.enrichment.OperationContext;
+import io.agenttel.core.enrichment.OperationContextRegistry;
+import io.agenttel.core.events.AgentTelEventEmitter;
+import io.agenttel.core.operation.OperationRegistry;
+import io.agenttel.core.slo.SloDefinition;
+import io.agenttel.core.slo.SloTracker;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-span cost of {@link AgentTelSpanProcessor} with every analysis component enabled,
+ * as wired by the Spring Boot starter and the javaagent extension. Events go to a no-op
+ * OpenTelemetry logs bridge, so event serialization is measured but export is not.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SpanProcessorBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int operations;
+
+    private AgentTelSpanProcessor processor;
+    private ReadableSpan[] endedSpans;
+    private ReadWriteSpan[] openSpans;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StaticBaselineProvider staticBaselines = new StaticBaselineProvider();
+        OperationContextRegistry contexts = new OperationContextRegistry();
+        SloTracker sloTracker = new SloTracker();
+        for (int i = 0; i < operations; i++) {
+            String name = SpanFixtures.operationName(i);
+            staticBaselines.register(name, OperationBaseline.builder(name)
+                    .latencyP50Ms(45.0)
+                    .latencyP99Ms(200.0)
+                    .errorRate(0.001)
+                    .source(BaselineSource.STATIC)
+                    .build());
+            contexts.register(name, new OperationContext(true, true, "https://wiki/runbooks/" + i,
+                    "cached response", EscalationLevel.NOTIFY_TEAM, true));
+            sloTracker.register(SloDefinition.builder(name + "-availability")
+                    .operationName(name)
+                    .type(SloDefinition.SloType.AVAILABILITY)
+                    .target(0.999)
+                    .build());
+        }
+
+        OperationRegistry operationRegistry = new OperationRegistry();
+        RollingBaselineProvider rollingBaselines = RollingBaselineProvider.builder()
+                .operationRegistry(operationRegistry)
+                .build();
+        OperationDependencyTracker dependencyTracker = new OperationDependencyTracker();
+        processor = new AgentTelSpanProcessor(
+                new CompositeBaselineProvider(staticBaselines, rollingBaselines),
+                contexts,
+                new AnomalyDetector(3.0),
+                new PatternMatcher(operationRegistry),
+                rollingBaselines,
+                sloTracker,
+                new AgentTelEventEmitter(OpenTelemetry.noop()),
+                dependencyTracker,
+                new CausalityTracker(dependencyTracker));
+
+        endedSpans = SpanFixtures.endedSpans(operations, SpanFixtures.POOL_SIZE);
+        openSpans = SpanFixtures.openSpans(operations, SpanFixtures.POOL_SIZE);
+
+        // Warm every operation's rolling window past its minimum sample count
+        for (int round = 0; round < 4; round++) {
+            for (ReadableSpan span : endedSpans) {
+                processor.onEnd(span);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void onStart(Cursor cursor) {
+        processor.onStart(Context.root(), openSpans[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void onStart_8threads(Cursor cursor) {
+        processor.onStart(Context.root(), openSpans[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void onEnd(Cursor cursor) {
+        processor.onEnd(endedSpans[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void onEnd_8threads(Cursor cursor) {
+        processor.onEnd(endedSpans[cursor.next()]);
+    }
+}
@@ -1,15 +1,105 @@
 package io.agenttel.core.anomaly;
 
+import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.baseline.RollingWindow;
+import io.agenttel.core.operation.OperationRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
- * Lightweight anomaly detection using z-score comparison against baselines.
+ * Lightweight anomaly detection: a score in standard deviations compared with a threshold.
  * This is intentionally simple — not an ML system.
+ *
+ * <p>How a latency is scored is an {@link AnomalyScorer} strategy: the z-score by default, or
+ * one of the other {@link AnomalyStrategy} scorers, which hold up better against heavy-tailed
+ * latencies. Operations can use a different scorer than the default via
+ * {@link #setScorer(String, AnomalyScorer)}.
  */
 public class AnomalyDetector {
 
     private final double zScoreThreshold;
+    private final AnomalyScorer defaultScorer;
+    private final Map<String, AnomalyScorer> operationScorers = new ConcurrentHashMap<>();
 
     public AnomalyDetector(double zScoreThreshold) {
+        this(zScoreThreshold, ZScoreScorer.INSTANCE);
+    }
+
+    /**
+     * @param zScoreThreshold score, in standard deviations, above which a sample is anomalous
+     * @param defaultScorer   scorer for operations without one of their own
+     */
+    public AnomalyDetector(double zScoreThreshold, AnomalyScorer defaultScorer) {
         this.zScoreThreshold = zScoreThreshold;
+        this.defaultScorer = defaultScorer;
+    }
+
+    /**
+     * Creates a detector from strategy names, sharing one scorer per strategy.
+     *
+     * @param defaultStrategy     strategy for operations not listed
+     * @param operationStrategies strategy per operation name
+     * @param operations          registry whose ids the detector is scored with
+     */
+    public static AnomalyDetector create(double zScoreThreshold, AnomalyStrategy defaultStrategy,
+                                         Map<String, AnomalyStrategy> operationStrategies,
+                                         OperationRegistry operations) {
+        Map<AnomalyStrategy, AnomalyScorer> scorers = new EnumMap<>(AnomalyStrategy.class);
+        AnomalyDetector detector = new AnomalyDetector(zScoreThreshold,
+                scorers.computeIfAbsent(defaultStrategy, s -> s.create(operations)));
+        operationStrategies.forEach((operationName, strategy) ->
+                detector.setScorer(operationName, scorers.computeIfAbsent(strategy, s -> s.create(operations))));
+        return detector;
+    }
+
+    /**
+     * Scores one operation with a different scorer than the default.
+     */
+    public void setScorer(String operationName, AnomalyScorer scorer) {
+        operationScorers.put(operationName, scorer);
+    }
+
+    /**
+     * Returns the scorer used for an operation.
+     */
+    public AnomalyScorer scorerFor(String operationName) {
+        // Most deployments configure no overrides; skip the lookup then
+        if (operationScorers.isEmpty()) {
+            return defaultScorer;
+        }
+        return operationScorers.getOrDefault(operationName, defaultScorer);
+    }
+
+    /**
+     * Scores a latency sample with the operation's scorer, which learns from it if it keeps
+     * state. Compare the result with {@link #isAnomaly(double)}.
+     *
+     * @see AnomalyScorer#score
+     */
+    public double score(int operationId, String operationName, double latencyMs,
+                        RollingWindow.MeanStddev expected, RollingBaselineProvider baselines) {
+        return scorerFor(operationName).score(operationId, latencyMs, expected, baselines);
+    }
+
+    /**
+     * Same as {@link #score(int, String, double, RollingWindow.MeanStddev, RollingBaselineProvider)}
+     * with the expectation as two values, so the per-span path allocates nothing.
+     */
+    public double score(int operationId, String operationName, double latencyMs,
+                        double expectedMean, double expectedStddev, RollingBaselineProvider baselines) {
+        return scorerFor(operationName).score(operationId, latencyMs, expectedMean, expectedStddev, baselines);
+    }
+
+    /**
+     * Re-scores a sample the operation's scorer has already seen, without learning from it.
+     *
+     * @see AnomalyScorer#peek
+     */
+    public double peek(int operationId, String operationName, double latencyMs,
+                       double expectedMean, double expectedStddev, RollingBaselineProvider baselines) {
+        return scorerFor(operationName).peek(operationId, latencyMs, expectedMean, expectedStddev, baselines);
     }
 
     /**
@@ -26,9 +116,30 @@ public class AnomalyDetector {
         if (baselineStddev <= 0) {
             return AnomalyResult.normal();
         }
-        double zScore = (currentValue - baselineMean) / baselineStddev;
-        double anomalyScore = Math.min(1.0, Math.abs(zScore) / 4.0);
-        boolean isAnomaly = Math.abs(zScore) > zScoreThreshold;
-        return new AnomalyResult(anomalyScore, isAnomaly, zScore);
+        double zScore = zScore(currentValue, baselineMean, baselineStddev);
+        return new AnomalyResult(anomalyScore(zScore), isAnomaly(zScore), zScore);
+    }
+
+    /**
+     * Returns the z-score of a value against the baseline, or 0 if the baseline has no spread.
+     * Together with {@link #isAnomaly(double)} this lets hot paths test for anomalies without
+     * allocating an {@link AnomalyResult}.
+     */
+    public double zScore(double currentValue, double baselineMean, double baselineStddev) {
+        return baselineStddev > 0 ? (currentValue - baselineMean) / baselineStddev : 0.0;
+    }
+
+    /**
+     * Returns whether a z-score exceeds the configured threshold.
+     */
+    public boolean isAnomaly(double zScore) {
+        return Math.abs(zScore) > zScoreThreshold;
+    }
+
+    /**
+     * Maps a z-score to an anomaly score in [0, 1].
+     */
+    public static double anomalyScore(double zScore) {
+        return Math.min(1.0, Math.abs(zScore) / 4.0);
     }
 }
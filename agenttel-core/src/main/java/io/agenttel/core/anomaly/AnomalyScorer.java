@@ -0,0 +1,59 @@
+package io.agenttel.core.anomaly;
+
+import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.baseline.RollingWindow;
+
+/**
+ * Strategy that scores how far a latency sample is from what its operation normally shows.
+ *
+ * <p>Scores are in standard deviations, positive for slower than expected, so every strategy
+ * is compared with the same {@link AnomalyDetector} threshold. Scoring is O(1) per sample.
+ * Scorers that keep their own per-operation state learn from every sample they score, so
+ * each sample must be scored exactly once; {@link #peek} re-scores a sample without learning.
+ *
+ * @see AnomalyStrategy
+ */
+public interface AnomalyScorer {
+
+    /**
+     * Scores a latency sample, then learns from it if the scorer keeps state.
+     *
+     * @param operationId    id from the operation registry the scorer was created with
+     * @param latencyMs      the observed latency
+     * @param expectedMean   expected mean (rolling, or blended with the hour-of-week profile
+     *                       when seasonal baselines are enabled)
+     * @param expectedStddev expected standard deviation, from the same source
+     * @param baselines      the rolling baselines, for scorers that read the window's
+     *                       percentiles; may be null
+     * @return the deviation in standard deviations, or 0 while there is too little history
+     */
+    double score(int operationId, double latencyMs, double expectedMean, double expectedStddev,
+                 RollingBaselineProvider baselines);
+
+    /**
+     * Scores a sample that {@link #score} has already seen, without learning from it, as when
+     * spans are enriched at export time. Scorers that keep state must override this; for the
+     * others it is the same as {@link #score}.
+     */
+    default double peek(int operationId, double latencyMs, double expectedMean, double expectedStddev,
+                        RollingBaselineProvider baselines) {
+        return score(operationId, latencyMs, expectedMean, expectedStddev, baselines);
+    }
+
+    /**
+     * Name reported with the scores in anomaly events. The built-in scorers use their
+     * {@link AnomalyStrategy#getValue()}.
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Same as {@link #score(int, double, double, double, RollingBaselineProvider)} with the
+     * expectation as a record.
+     */
+    default double score(int operationId, double latencyMs, RollingWindow.MeanStddev expected,
+                         RollingBaselineProvider baselines) {
+        return score(operationId, latencyMs, expected.mean(), expected.stddev(), baselines);
+    }
+}
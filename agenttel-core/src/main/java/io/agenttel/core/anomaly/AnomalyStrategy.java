@@ -0,0 +1,45 @@
+package io.agenttel.core.anomaly;
+
+import io.agenttel.core.operation.OperationRegistry;
+
+import java.util.Locale;
+
+/**
+ * The built-in {@link AnomalyScorer}s, selectable by name in configuration.
+ */
+public enum AnomalyStrategy {
+    /** Mean and standard deviation of the baseline window; see {@link ZScoreScorer}. */
+    Z_SCORE,
+    /** Exponentially weighted mean and variance; see {@link EwmaScorer}. */
+    EWMA,
+    /** Median and MAD from the window's quantile sketch; see {@link MedianMadScorer}. */
+    MEDIAN_MAD,
+    /** Cumulative sum change-point detection; see {@link CusumScorer}. */
+    CUSUM;
+
+    /**
+     * Creates a scorer with default parameters. Scorers with per-operation state index it by
+     * ids from {@code operations}.
+     */
+    public AnomalyScorer create(OperationRegistry operations) {
+        return switch (this) {
+            case Z_SCORE -> ZScoreScorer.INSTANCE;
+            case EWMA -> new EwmaScorer(operations);
+            case MEDIAN_MAD -> new MedianMadScorer();
+            case CUSUM -> new CusumScorer(operations);
+        };
+    }
+
+    public String getValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static AnomalyStrategy fromValue(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown anomaly strategy: " + value
+                    + " (expected z_score, ewma, median_mad or cusum)");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.agenttel.core.anomaly;
+
+import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.operation.OperationRegistry;
+import io.agenttel.core.operation.OperationSlots;
+
+/**
+ * Two-sided CUSUM change-point detector over standardized latencies.
+ *
+ * <p>Each sample's z-score against the expected mean and standard deviation, minus a
+ * {@code slack} of allowed drift, is added to an upper sum (and its negation to a lower sum);
+ * sums never drop below zero. A small sustained shift that no single request would flag
+ * builds up until the sum crosses the detector's threshold, which acts as the CUSUM decision
+ * interval: with the default slack of 0.5 and a threshold of 3, a one-standard-deviation
+ * slowdown is reported on the seventh request. The score is the larger sum, negative for the
+ * lower one. Sums are capped at {@code maxSum} so the detector recovers promptly after a
+ * long incident. State is two doubles per operation.
+ */
+public final class CusumScorer implements AnomalyScorer {
+
+    public static final double DEFAULT_SLACK = 0.5;
+    public static final double DEFAULT_MAX_SUM = 10.0;
+
+    private final double slack;
+    private final double maxSum;
+    private final OperationSlots<Sums> states;
+
+    public CusumScorer(OperationRegistry operations) {
+        this(operations, DEFAULT_SLACK, DEFAULT_MAX_SUM);
+    }
+
+    /**
+     * @param operations registry whose ids the scorer is called with
+     * @param slack      drift per sample, in standard deviations, that is not accumulated
+     * @param maxSum     cap on either sum
+     */
+    public CusumScorer(OperationRegistry operations, double slack, double maxSum) {
+        if (slack < 0 || maxSum <= 0) {
+            throw new IllegalArgumentException("Invalid CUSUM parameters: slack " + slack + ", max sum " + maxSum);
+        }
+        this.slack = slack;
+        this.maxSum = maxSum;
+        this.states = new OperationSlots<>(operations);
+    }
+
+    @Override
+    public double score(int operationId, double latencyMs, double expectedMean, double expectedStddev,
+                        RollingBaselineProvider baselines) {
+        if (expectedStddev <= 0) {
+            return 0.0;
+        }
+        double z = (latencyMs - expectedMean) / expectedStddev;
+        Sums sums = states.get(operationId);
+        if (sums == null) {
+            sums = states.computeIfAbsent(operationId, k -> new Sums());
+        }
+        synchronized (sums) {
+            sums.upper = Math.min(maxSum, Math.max(0.0, sums.upper + z - slack));
+            sums.lower = Math.min(maxSum, Math.max(0.0, sums.lower - z - slack));
+            return sums.upper >= sums.lower ? sums.upper : -sums.lower;
+        }
+    }
+
+    /**
+     * Returns the operation's sums as they stand; the sample itself was accumulated when it
+     * was scored.
+     */
+    @Override
+    public double peek(int operationId, double latencyMs, double expectedMean, double expectedStddev,
+                       RollingBaselineProvider baselines) {
+        Sums sums = operationId >= 0 ? states.get(operationId) : null;
+        if (sums == null) {
+            return 0.0;
+        }
+        synchronized (sums) {
+            return sums.upper >= sums.lower ? sums.upper : -sums.lower;
+        }
+    }
+
+    @Override
+    public String name() {
+        return AnomalyStrategy.CUSUM.getValue();
+    }
+
+    /** Guarded by its own monitor. */
+    private static final class Sums {
+        double upper;
+        double lower;
+    }
+}
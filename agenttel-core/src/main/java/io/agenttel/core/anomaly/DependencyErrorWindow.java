@@ -0,0 +1,201 @@
+package io.agenttel.core.anomaly;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-dependency error counts over a sliding time window, with a running count of the
+ * dependencies that are currently failing.
+ *
+ * <p>Each dependency keeps a small ring of time buckets, so its count covers only the last
+ * {@code windowMs}. A dependency becomes failing when an error brings its count to
+ * {@code minErrors}, which increments the failing count. Dependencies stop failing when their
+ * errors slide out of the window: once per bucket width, the first reader of
+ * {@link #failingCount()} rechecks the failing dependencies, and only those. Reading the count
+ * is therefore O(1) per span, and a dependency with no errors costs nothing after it recovers.
+ *
+ * <p>At most {@value #MAX_DEPENDENCIES} dependencies are tracked. When a new one arrives at the
+ * cap, dependencies whose window is empty are dropped, at most once per bucket width; if all of
+ * them still have errors in the window, the new dependency is not tracked.
+ */
+final class DependencyErrorWindow {
+
+    static final int MAX_DEPENDENCIES = 500;
+
+    private final long bucketMs;
+    private final int buckets;
+    private final int minErrors;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, DependencyErrors> dependencies = new ConcurrentHashMap<>();
+    private final Set<DependencyErrors> failing = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger failingCount = new AtomicInteger();
+    private final AtomicLong nextSweepMs;
+    private final AtomicLong nextPruneMs;
+
+    /**
+     * @param windowMs  how long an error keeps its dependency failing
+     * @param buckets   buckets the window is split into; expiry is accurate to one bucket
+     * @param minErrors errors within the window for a dependency to count as failing
+     * @param clock     wall clock in milliseconds
+     */
+    DependencyErrorWindow(long windowMs, int buckets, int minErrors, LongSupplier clock) {
+        if (windowMs < buckets || buckets <= 0 || minErrors <= 0) {
+            throw new IllegalArgumentException("Invalid dependency error window: " + windowMs
+                    + "ms in " + buckets + " buckets, " + minErrors + " errors");
+        }
+        this.bucketMs = windowMs / buckets;
+        this.buckets = buckets;
+        this.minErrors = minErrors;
+        this.clock = clock;
+        this.nextSweepMs = new AtomicLong(clock.getAsLong() + bucketMs);
+        this.nextPruneMs = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    void recordError(String dependency) {
+        while (true) {
+            DependencyErrors errors = dependencies.get(dependency);
+            if (errors == null) {
+                if (dependencies.size() >= MAX_DEPENDENCIES && !prune()) {
+                    return;
+                }
+                errors = dependencies.computeIfAbsent(dependency, k -> new DependencyErrors(buckets));
+            }
+            long epoch = clock.getAsLong() / bucketMs;
+            synchronized (errors) {
+                // Pruned between the lookup and the lock; record into its replacement
+                if (errors.removed) continue;
+                errors.add(epoch);
+                if (!errors.failing && errors.count(epoch) >= minErrors) {
+                    errors.failing = true;
+                    failing.add(errors);
+                    failingCount.incrementAndGet();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Number of dependencies with at least {@code minErrors} errors in the window.
+     */
+    int failingCount() {
+        long now = clock.getAsLong();
+        long due = nextSweepMs.get();
+        if (now >= due && nextSweepMs.compareAndSet(due, now + bucketMs)) {
+            sweep(now / bucketMs);
+        }
+        return failingCount.get();
+    }
+
+    /**
+     * Errors a dependency reported within the window.
+     */
+    long recentErrors(String dependency) {
+        DependencyErrors errors = dependencies.get(dependency);
+        if (errors == null) {
+            return 0;
+        }
+        long epoch = clock.getAsLong() / bucketMs;
+        synchronized (errors) {
+            return errors.count(epoch);
+        }
+    }
+
+    void clear() {
+        for (DependencyErrors errors : dependencies.values()) {
+            synchronized (errors) {
+                errors.clear();
+                unflag(errors);
+            }
+        }
+    }
+
+    /**
+     * Drops the dependencies whose window is empty, unless that was already tried within the
+     * last bucket width.
+     *
+     * @return whether there is room for another dependency
+     */
+    private boolean prune() {
+        long now = clock.getAsLong();
+        long due = nextPruneMs.get();
+        if (now >= due && nextPruneMs.compareAndSet(due, now + bucketMs)) {
+            long epoch = now / bucketMs;
+            dependencies.forEach((dependency, errors) -> {
+                synchronized (errors) {
+                    if (errors.count(epoch) == 0) {
+                        unflag(errors);
+                        errors.removed = true;
+                        dependencies.remove(dependency, errors);
+                    }
+                }
+            });
+        }
+        return dependencies.size() < MAX_DEPENDENCIES;
+    }
+
+    private void sweep(long epoch) {
+        for (DependencyErrors errors : failing) {
+            synchronized (errors) {
+                if (errors.count(epoch) < minErrors) {
+                    unflag(errors);
+                }
+            }
+        }
+    }
+
+    // Callers hold the dependency's lock, so the flag, the set and the count change together
+    private void unflag(DependencyErrors errors) {
+        if (errors.failing) {
+            errors.failing = false;
+            failing.remove(errors);
+            failingCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Error counts in a ring of buckets, each tagged with the bucket epoch it counts.
+     * Guarded by its own monitor.
+     */
+    private static final class DependencyErrors {
+        final long[] epochs;
+        final long[] counts;
+        boolean failing;
+        boolean removed;
+
+        DependencyErrors(int buckets) {
+            this.epochs = new long[buckets];
+            this.counts = new long[buckets];
+            Arrays.fill(epochs, Long.MIN_VALUE);
+        }
+
+        void add(long epoch) {
+            int slot = (int) Math.floorMod(epoch, (long) epochs.length);
+            if (epochs[slot] != epoch) {
+                epochs[slot] = epoch;
+                counts[slot] = 0;
+            }
+            counts[slot]++;
+        }
+
+        long count(long epoch) {
+            long oldest = epoch - epochs.length + 1;
+            long total = 0;
+            for (int i = 0; i < epochs.length; i++) {
+                if (epochs[i] >= oldest && epochs[i] <= epoch) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        void clear() {
+            Arrays.fill(epochs, Long.MIN_VALUE);
+            Arrays.fill(counts, 0L);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package io.agenttel.core.anomaly;
+
+import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.operation.OperationRegistry;
+import io.agenttel.core.operation.OperationSlots;
+
+/**
+ * Scores each sample against an exponentially weighted mean and variance of the operation's
+ * earlier samples, then folds it in.
+ *
+ * <p>An outlier raises the weighted variance once and its weight then shrinks by
+ * {@code 1 - alpha} per sample, so a GC pause stops masking regressions after a few dozen
+ * requests instead of staying in the window until it is evicted. Until {@code 1 / alpha}
+ * samples are seen, the weight is {@code 1 / n} so the first samples are not biased towards
+ * zero. State is two doubles and a count per operation.
+ */
+public final class EwmaScorer implements AnomalyScorer {
+
+    public static final double DEFAULT_ALPHA = 0.05;
+    public static final int DEFAULT_WARMUP = 30;
+
+    private final double alpha;
+    private final int warmup;
+    private final OperationSlots<Ewma> states;
+
+    public EwmaScorer(OperationRegistry operations) {
+        this(operations, DEFAULT_ALPHA, DEFAULT_WARMUP);
+    }
+
+    /**
+     * @param operations registry whose ids the scorer is called with
+     * @param alpha      weight of each new sample, in (0, 1)
+     * @param warmup     samples before scores are reported
+     */
+    public EwmaScorer(OperationRegistry operations, double alpha, int warmup) {
+        if (alpha <= 0 || alpha >= 1) {
+            throw new IllegalArgumentException("EWMA alpha must be in (0, 1): " + alpha);
+        }
+        this.alpha = alpha;
+        this.warmup = warmup;
+        this.states = new OperationSlots<>(operations);
+    }
+
+    @Override
+    public double score(int operationId, double latencyMs, double expectedMean, double expectedStddev,
+                        RollingBaselineProvider baselines) {
+        Ewma state = states.get(operationId);
+        if (state == null) {
+            state = states.computeIfAbsent(operationId, k -> new Ewma());
+        }
+        synchronized (state) {
+            double score = state.count >= warmup && state.variance > 0
+                    ? (latencyMs - state.mean) / Math.sqrt(state.variance)
+                    : 0.0;
+            state.add(latencyMs, alpha);
+            return score;
+        }
+    }
+
+    @Override
+    public double peek(int operationId, double latencyMs, double expectedMean, double expectedStddev,
+                       RollingBaselineProvider baselines) {
+        Ewma state = operationId >= 0 ? states.get(operationId) : null;
+        if (state == null) {
+            return 0.0;
+        }
+        synchronized (state) {
+            return state.count >= warmup && state.variance > 0
+                    ? (latencyMs - state.mean) / Math.sqrt(state.variance)
+                    : 0.0;
+        }
+    }
+
+    @Override
+    public String name() {
+        return AnomalyStrategy.EWMA.getValue();
+    }
+
+    /** Guarded by its own monitor. */
+    private static final class Ewma {
+        long count;
+        double mean;
+        double variance;
+
+        void add(double value, double alpha) {
+            count++;
+            double weight = Math.max(alpha, 1.0 / count);
+            double delta = value - mean;
+            double increment = weight * delta;
+            mean += increment;
+            variance = (1 - weight) * (variance + delta * increment);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package io.agenttel.core.anomaly;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Known incident patterns that can be detected from span telemetry.
  */
@@ -28,6 +32,37 @@ public enum IncidentPattern {
         return description;
     }
 
+    /**
+     * Returns this pattern's bit in a pattern mask, as produced by
+     * {@link PatternMatcher#detectPatternMask}.
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Returns whether this pattern's bit is set in the given mask.
+     */
+    public boolean isIn(int mask) {
+        return (mask & mask()) != 0;
+    }
+
+    /**
+     * Expands a pattern mask into the patterns it contains, in declaration order.
+     */
+    public static List<IncidentPattern> fromMask(int mask) {
+        if (mask == 0) {
+            return Collections.emptyList();
+        }
+        List<IncidentPattern> patterns = new ArrayList<>(Integer.bitCount(mask));
+        for (IncidentPattern p : values()) {
+            if (p.isIn(mask)) {
+                patterns.add(p);
+            }
+        }
+        return patterns;
+    }
+
     public static IncidentPattern fromValue(String value) {
         for (IncidentPattern p : values()) {
             if (p.value.equals(value)) {
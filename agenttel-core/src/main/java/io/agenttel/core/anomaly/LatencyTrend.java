@@ -0,0 +1,183 @@
+package io.agenttel.core.anomaly;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency trend of one operation: a least-squares line through its per-interval mean latency,
+ * used to spot the steady climb of a memory leak.
+ *
+ * <p>Requests add to the current interval's adders without locking. When an interval ends,
+ * its mean becomes the newest point of a sliding window of {@code capacity} points, and the
+ * regression sums (&Sigma;y and &Sigma;xy, with x the point's position in the window) are
+ * updated in O(1); &Sigma;x and &Sigma;x&sup2; follow from the point count. The fitted line is
+ * published as one immutable object, so {@link #isMonotonicallyIncreasing()} is a field read.
+ * Intervals without traffic add no point. The sums are recomputed from the points once per
+ * full pass over the window, so rounding errors do not build up.
+ *
+ * <p>With the default one-second interval and 120 points, a leak is judged on the last two
+ * minutes of traffic rather than the last few dozen requests.
+ */
+final class LatencyTrend {
+
+    static final long DEFAULT_INTERVAL_MS = 1000;
+    static final int DEFAULT_POINTS = 120;
+    /** Fitted increase across the window, relative to the mean, that counts as a leak. */
+    static final double DEFAULT_MIN_RELATIVE_INCREASE = 0.5;
+    private static final int MIN_POINTS = 30;
+
+    private final long intervalMs;
+    private final int capacity;
+    private final double minRelativeIncrease;
+    private final LongSupplier clock;
+    private volatile Interval current;
+    private volatile Fit fit = Fit.NONE;
+
+    // Guarded by this; only touched when an interval ends
+    private final double[] means;
+    private int head;
+    private int size;
+    private double sumY;
+    private double sumXY;
+
+    LatencyTrend(LongSupplier clock) {
+        this(DEFAULT_INTERVAL_MS, DEFAULT_POINTS, DEFAULT_MIN_RELATIVE_INCREASE, clock);
+    }
+
+    /**
+     * @param intervalMs          width of the interval each point averages
+     * @param capacity            points in the sliding window
+     * @param minRelativeIncrease fitted increase across the window, relative to the mean, to report
+     * @param clock               wall clock in milliseconds
+     */
+    LatencyTrend(long intervalMs, int capacity, double minRelativeIncrease, LongSupplier clock) {
+        if (intervalMs <= 0 || capacity < 2) {
+            throw new IllegalArgumentException("Invalid trend window: " + capacity + " x " + intervalMs + "ms");
+        }
+        this.intervalMs = intervalMs;
+        this.capacity = capacity;
+        this.minRelativeIncrease = minRelativeIncrease;
+        this.clock = clock;
+        this.means = new double[capacity];
+        this.current = new Interval(clock.getAsLong() / intervalMs);
+    }
+
+    void record(double latencyMs) {
+        Interval interval = advance();
+        interval.sum.add(latencyMs);
+        interval.count.increment();
+    }
+
+    /**
+     * Whether the fitted line rises across the window by at least the configured fraction of
+     * the mean latency. Needs {@value #MIN_POINTS} points.
+     */
+    boolean isMonotonicallyIncreasing() {
+        advance();
+        return fit.increasing;
+    }
+
+    /** Slope of the fitted line, in milliseconds per interval. */
+    double slope() {
+        advance();
+        return fit.slope;
+    }
+
+    int points() {
+        advance();
+        return fit.points;
+    }
+
+    private Interval advance() {
+        Interval interval = current;
+        long epoch = clock.getAsLong() / intervalMs;
+        // A thread whose clock read lags another's keeps writing to the newer interval
+        return interval.epoch >= epoch ? interval : roll(epoch);
+    }
+
+    private synchronized Interval roll(long epoch) {
+        Interval finished = current;
+        if (finished.epoch >= epoch) {
+            return finished;
+        }
+        Interval next = new Interval(epoch);
+        current = next;
+        // Writers that read the old interval just before the swap may still land in it
+        long count = finished.count.sum();
+        if (count > 0) {
+            append(finished.sum.sum() / count);
+            fit = fit();
+        }
+        return next;
+    }
+
+    private void append(double mean) {
+        if (size < capacity) {
+            int slot = (head + size) % capacity;
+            sumXY += size * mean;
+            sumY += mean;
+            means[slot] = mean;
+            size++;
+            return;
+        }
+        // Drop the oldest point and shift the others one position left: each remaining y loses one x
+        double remaining = sumY - means[head];
+        sumXY = sumXY - remaining + (capacity - 1) * mean;
+        sumY = remaining + mean;
+        means[head] = mean;
+        head = (head + 1) % capacity;
+        if (head == 0) {
+            recomputeSums();
+        }
+    }
+
+    private void recomputeSums() {
+        double y = 0;
+        double xy = 0;
+        for (int i = 0; i < size; i++) {
+            double value = means[(head + i) % capacity];
+            y += value;
+            xy += i * value;
+        }
+        sumY = y;
+        sumXY = xy;
+    }
+
+    private Fit fit() {
+        int n = size;
+        if (n < MIN_POINTS) {
+            return new Fit(0.0, n, false);
+        }
+        double sumX = n * (n - 1) / 2.0;
+        double sumX2 = (n - 1) * (double) n * (2 * n - 1) / 6.0;
+        double slope = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
+        double mean = sumY / n;
+        boolean increasing = mean > 0 && slope > 0 && slope * (n - 1) / mean >= minRelativeIncrease;
+        return new Fit(slope, n, increasing);
+    }
+
+    private static final class Interval {
+        final long epoch;
+        final DoubleAdder sum = new DoubleAdder();
+        final LongAdder count = new LongAdder();
+
+        Interval(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    private static final class Fit {
+        static final Fit NONE = new Fit(0.0, 0, false);
+
+        final double slope;
+        final int points;
+        final boolean increasing;
+
+        Fit(double slope, int points, boolean increasing) {
+            this.slope = slope;
+            this.points = points;
+            this.increasing = increasing;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.agenttel.core.anomaly;
+
+import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.baseline.RollingWindow;
+
+/**
+ * Robust z-score: distance from the window's median, scaled by a median absolute deviation
+ * estimated from the sketch's quantiles.
+ *
+ * <p>The window's quantile sketch answers p50 and p95 but not the MAD itself, so the MAD is
+ * taken as {@code 0.6745 * (p95 - p50) / 1.645}, exact for normally distributed latencies.
+ * The robust z-score {@code 0.6745 * (x - median) / MAD} then reduces to
+ * {@code 1.645 * (x - p50) / (p95 - p50)}. Neither quantile moves when the slowest 5% of the
+ * window are extreme, so a GC pause does not raise the bar for the requests after it. Reads
+ * the provider's memoized snapshot, so scoring does not compute quantiles.
+ */
+public final class MedianMadScorer implements AnomalyScorer {
+
+    /** Standard normal quantile at 0.95: p95 - p50 in standard deviations. */
+    private static final double NORMAL_P95 = 1.6448536269514722;
+    public static final int DEFAULT_MIN_SAMPLES = 30;
+
+    private final int minSamples;
+
+    public MedianMadScorer() {
+        this(DEFAULT_MIN_SAMPLES);
+    }
+
+    /**
+     * @param minSamples window samples before scores are reported
+     */
+    public MedianMadScorer(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    @Override
+    public double score(int operationId, double latencyMs, double expectedMean, double expectedStddev,
+                        RollingBaselineProvider baselines) {
+        if (baselines == null) {
+            return 0.0;
+        }
+        RollingWindow.Snapshot snapshot = baselines.currentSnapshot(operationId);
+        double spread = snapshot.p95() - snapshot.p50();
+        if (snapshot.sampleCount() < minSamples || spread <= 0) {
+            return 0.0;
+        }
+        return NORMAL_P95 * (latencyMs - snapshot.p50()) / spread;
+    }
+
+    @Override
+    public String name() {
+        return AnomalyStrategy.MEDIAN_MAD.getValue();
+    }
+}
@@ -1,66 +1,151 @@
 package io.agenttel.core.anomaly;
 
+import io.agenttel.core.baseline.ErrorRateTracker;
 import io.agenttel.core.baseline.RollingWindow;
+import io.agenttel.core.operation.OperationRegistry;
+import io.agenttel.core.operation.OperationSlots;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 /**
  * Detects known incident patterns from span telemetry data.
  * Uses rolling statistics and recent observations to identify patterns like
  * cascade failures, latency degradation, and error rate spikes.
+ *
+ * <p>Per-operation trends are indexed by {@link OperationRegistry} id; pass the registry
+ * shared with {@code RollingBaselineProvider} to use the id overloads on the span path.
+ *
+ * <p>A dependency counts towards a cascade failure while it has reported an error within the
+ * cascade window (default 60 seconds). The number of such dependencies is maintained as errors
+ * arrive and expire, so the cascade check does not scan the dependencies.
+ *
+ * <p>Error rate spikes compare the short- and long-window rates of the operation's
+ * {@link ErrorRateTracker}, which the baseline window keeps; only the overloads that take a
+ * tracker can detect them, and the ones that do not are deprecated.
  */
 public class PatternMatcher {
 
+    public static final long DEFAULT_CASCADE_WINDOW_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final int CASCADE_WINDOW_BUCKETS = 12;
+    // Requests the short window needs before its error rate is trusted
+    private static final long MIN_SPIKE_REQUESTS = 10;
+
     private final double latencyDegradationThreshold;
     private final double errorRateSpikeThreshold;
     private final int cascadeFailureMinServices;
 
-    // Tracks recent errors per dependency for cascade detection
-    private final ConcurrentHashMap<String, AtomicLong> recentErrors = new ConcurrentHashMap<>();
-    // Tracks recent latency trend (operation -> list of recent latencies)
-    private final ConcurrentHashMap<String, LatencyTrend> latencyTrends = new ConcurrentHashMap<>();
+    // Recent errors per dependency, and how many dependencies are failing, for cascade detection
+    private final DependencyErrorWindow dependencyErrors;
+    private final OperationRegistry operations;
+    // Per-second latency trend per operation, for memory leak detection
+    private final OperationSlots<LatencyTrend> latencyTrends;
+    private final LongSupplier clock;
 
     public PatternMatcher() {
         this(2.0, 5.0, 3);
     }
 
+    public PatternMatcher(OperationRegistry operations) {
+        this(2.0, 5.0, 3, operations);
+    }
+
     /**
      * @param latencyDegradationThreshold multiplier over P50 to consider degraded
-     * @param errorRateSpikeThreshold     multiplier over baseline error rate to consider a spike
+     * @param errorRateSpikeThreshold     multiplier of the long-window error rate that the
+     *                                    short-window rate must exceed to be a spike
      * @param cascadeFailureMinServices   minimum services failing to trigger cascade pattern
      */
     public PatternMatcher(double latencyDegradationThreshold, double errorRateSpikeThreshold,
                           int cascadeFailureMinServices) {
+        this(latencyDegradationThreshold, errorRateSpikeThreshold, cascadeFailureMinServices,
+                new OperationRegistry());
+    }
+
+    /**
+     * @param operations registry assigning the operation ids accepted by the id overloads
+     */
+    public PatternMatcher(double latencyDegradationThreshold, double errorRateSpikeThreshold,
+                          int cascadeFailureMinServices, OperationRegistry operations) {
+        this(latencyDegradationThreshold, errorRateSpikeThreshold, cascadeFailureMinServices,
+                operations, DEFAULT_CASCADE_WINDOW_MS);
+    }
+
+    /**
+     * @param cascadeWindowMs how long a dependency error counts towards a cascade failure
+     */
+    public PatternMatcher(double latencyDegradationThreshold, double errorRateSpikeThreshold,
+                          int cascadeFailureMinServices, OperationRegistry operations,
+                          long cascadeWindowMs) {
+        this(latencyDegradationThreshold, errorRateSpikeThreshold, cascadeFailureMinServices,
+                operations, cascadeWindowMs, System::currentTimeMillis);
+    }
+
+    PatternMatcher(double latencyDegradationThreshold, double errorRateSpikeThreshold,
+                   int cascadeFailureMinServices, OperationRegistry operations,
+                   long cascadeWindowMs, LongSupplier clock) {
         this.latencyDegradationThreshold = latencyDegradationThreshold;
         this.errorRateSpikeThreshold = errorRateSpikeThreshold;
         this.cascadeFailureMinServices = cascadeFailureMinServices;
+        this.operations = operations;
+        this.latencyTrends = new OperationSlots<>(operations);
+        this.clock = clock;
+        this.dependencyErrors = new DependencyErrorWindow(cascadeWindowMs, CASCADE_WINDOW_BUCKETS, 1, clock);
+    }
+
+    /**
+     * Returns the registry that assigns the operation ids accepted by the id overloads.
+     */
+    public OperationRegistry operationRegistry() {
+        return operations;
     }
 
     /**
      * Records a dependency error for cascade failure detection.
      */
     public void recordDependencyError(String dependency) {
-        recentErrors.computeIfAbsent(dependency, k -> new AtomicLong(0)).incrementAndGet();
+        dependencyErrors.recordError(dependency);
+    }
+
+    /**
+     * Number of dependencies that reported an error within the cascade window.
+     */
+    public int failingDependencyCount() {
+        return dependencyErrors.failingCount();
+    }
+
+    /**
+     * Errors a dependency reported within the cascade window.
+     */
+    public long recentDependencyErrors(String dependency) {
+        return dependencyErrors.recentErrors(dependency);
     }
 
     /**
      * Records a latency observation for trend analysis.
      */
     public void recordLatency(String operationName, double latencyMs) {
-        latencyTrends.computeIfAbsent(operationName, k -> new LatencyTrend(50))
-                .record(latencyMs);
+        recordLatency(operations.intern(operationName), latencyMs);
     }
 
     /**
-     * Clears dependency error counts (call periodically, e.g., every minute).
+     * Records a latency observation for an operation id from {@link #operationRegistry()}.
+     */
+    public void recordLatency(int operationId, double latencyMs) {
+        LatencyTrend trend = latencyTrends.get(operationId);
+        if (trend == null) {
+            trend = latencyTrends.computeIfAbsent(operationId, k -> new LatencyTrend(clock));
+        }
+        trend.record(latencyMs);
+    }
+
+    /**
+     * Clears dependency error counts. Not needed for expiry: errors older than the cascade
+     * window stop counting on their own.
      */
     public void resetDependencyErrors() {
-        recentErrors.clear();
+        dependencyErrors.clear();
     }
 
     /**
@@ -70,108 +155,105 @@ public class PatternMatcher {
      * @param currentLatencyMs the observed latency
      * @param isError whether the span was an error
      * @param snapshot rolling baseline snapshot (may be null)
+     * @param errorRates the operation's error rate tracker, from
+     *                   {@code RollingBaselineProvider.errorRates} (may be null)
      * @return list of detected patterns (may be empty)
      */
+    public List<IncidentPattern> detectPatterns(String operationName, double currentLatencyMs,
+                                                 boolean isError, RollingWindow.Snapshot snapshot,
+                                                 ErrorRateTracker errorRates) {
+        return IncidentPattern.fromMask(
+                detectPatternMask(operationName, currentLatencyMs, isError, snapshot, errorRates));
+    }
+
+    /**
+     * Detects patterns without an error rate tracker.
+     *
+     * @deprecated never reports {@link IncidentPattern#ERROR_RATE_SPIKE}. Use
+     *             {@link #detectPatterns(String, double, boolean, RollingWindow.Snapshot, ErrorRateTracker)}.
+     */
+    @Deprecated
     public List<IncidentPattern> detectPatterns(String operationName, double currentLatencyMs,
                                                  boolean isError,
                                                  RollingWindow.Snapshot snapshot) {
+        return detectPatterns(operationName, currentLatencyMs, isError, snapshot, null);
+    }
+
+    /**
+     * Allocation-free variant of {@link #detectPatterns} for the per-span hot path.
+     *
+     * @param errorRates the operation's error rate tracker (may be null)
+     * @return bitmask of detected patterns (see {@link IncidentPattern#mask()}), 0 if none
+     */
+    public int detectPatternMask(String operationName, double currentLatencyMs, boolean isError,
+                                 RollingWindow.Snapshot snapshot, ErrorRateTracker errorRates) {
+        return detectPatternMask(operations.find(operationName), currentLatencyMs, isError, snapshot, errorRates);
+    }
+
+    /**
+     * Detects patterns without an error rate tracker.
+     *
+     * @deprecated never reports {@link IncidentPattern#ERROR_RATE_SPIKE}. Use
+     *             {@link #detectPatternMask(String, double, boolean, RollingWindow.Snapshot, ErrorRateTracker)}.
+     */
+    @Deprecated
+    public int detectPatternMask(String operationName, double currentLatencyMs,
+                                 boolean isError, RollingWindow.Snapshot snapshot) {
+        return detectPatternMask(operationName, currentLatencyMs, isError, snapshot, null);
+    }
+
+    /**
+     * Detects patterns without an error rate tracker.
+     *
+     * @deprecated never reports {@link IncidentPattern#ERROR_RATE_SPIKE}. Use
+     *             {@link #detectPatternMask(int, double, boolean, RollingWindow.Snapshot, ErrorRateTracker)}.
+     */
+    @Deprecated
+    public int detectPatternMask(int operationId, double currentLatencyMs,
+                                 boolean isError, RollingWindow.Snapshot snapshot) {
+        return detectPatternMask(operationId, currentLatencyMs, isError, snapshot, null);
+    }
+
+    /**
+     * Same as {@link #detectPatternMask(String, double, boolean, RollingWindow.Snapshot, ErrorRateTracker)}
+     * for an operation id from {@link #operationRegistry()}.
+     */
+    public int detectPatternMask(int operationId, double currentLatencyMs, boolean isError,
+                                 RollingWindow.Snapshot snapshot, ErrorRateTracker errorRates) {
         if (snapshot == null || snapshot.isEmpty()) {
-            return Collections.emptyList();
+            return 0;
         }
 
-        List<IncidentPattern> detected = new ArrayList<>();
+        int detected = 0;
 
         // Latency degradation: current latency significantly above P50
         if (snapshot.p50() > 0 && currentLatencyMs > snapshot.p50() * latencyDegradationThreshold) {
-            detected.add(IncidentPattern.LATENCY_DEGRADATION);
+            detected |= IncidentPattern.LATENCY_DEGRADATION.mask();
         }
 
-        // Error rate spike: current error rate significantly above baseline
-        if (snapshot.errorRate() > 0 && isError) {
-            // Check if trend shows increasing errors
-            double recentErrorRate = estimateRecentErrorRate(operationName);
-            if (recentErrorRate > snapshot.errorRate() * errorRateSpikeThreshold) {
-                detected.add(IncidentPattern.ERROR_RATE_SPIKE);
+        // Error rate spike: the short window fails at a multiple of the long window's rate
+        if (isError && errorRates != null && errorRates.shortWindowRequests() >= MIN_SPIKE_REQUESTS) {
+            double longWindowRate = errorRates.longWindowRate();
+            if (longWindowRate > 0 && errorRates.shortWindowRate() > longWindowRate * errorRateSpikeThreshold) {
+                detected |= IncidentPattern.ERROR_RATE_SPIKE.mask();
             }
         }
 
         // Cascade failure: multiple dependencies reporting errors
-        long failingServices = recentErrors.values().stream()
-                .filter(c -> c.get() > 0)
-                .count();
-        if (failingServices >= cascadeFailureMinServices) {
-            detected.add(IncidentPattern.CASCADE_FAILURE);
+        if (dependencyErrors.failingCount() >= cascadeFailureMinServices) {
+            detected |= IncidentPattern.CASCADE_FAILURE.mask();
         }
 
         // Memory leak pattern: steadily increasing latency trend
-        LatencyTrend trend = latencyTrends.get(operationName);
+        LatencyTrend trend = trendFor(operationId);
         if (trend != null && trend.isMonotonicallyIncreasing()) {
-            detected.add(IncidentPattern.MEMORY_LEAK);
+            detected |= IncidentPattern.MEMORY_LEAK.mask();
         }
 
         return detected;
     }
 
-    private double estimateRecentErrorRate(String operationName) {
-        LatencyTrend trend = latencyTrends.get(operationName);
-        if (trend == null) return 0.0;
-        return trend.errorRate();
-    }
-
-    /**
-     * Tracks recent latency observations for trend detection.
-     */
-    static class LatencyTrend {
-        private final double[] values;
-        private final boolean[] errors;
-        private final int capacity;
-        private int writeIndex = 0;
-        private int count = 0;
-        private int errorCount = 0;
-
-        LatencyTrend(int capacity) {
-            this.capacity = capacity;
-            this.values = new double[capacity];
-            this.errors = new boolean[capacity];
-        }
-
-        synchronized void record(double latencyMs) {
-            values[writeIndex] = latencyMs;
-            errors[writeIndex] = false;
-            writeIndex = (writeIndex + 1) % capacity;
-            if (count < capacity) count++;
-        }
-
-        synchronized void recordError() {
-            errors[writeIndex > 0 ? writeIndex - 1 : capacity - 1] = true;
-            errorCount++;
-        }
-
-        synchronized double errorRate() {
-            return count > 0 ? (double) errorCount / count : 0.0;
-        }
-
-        /**
-         * Checks if the last N observations show a monotonically increasing trend.
-         * Uses simple linear regression slope.
-         */
-        synchronized boolean isMonotonicallyIncreasing() {
-            if (count < 10) return false;
-
-            int n = Math.min(count, capacity);
-            // Calculate slope using least squares
-            double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
-            for (int i = 0; i < n; i++) {
-                int idx = (writeIndex - n + i + capacity) % capacity;
-                sumX += i;
-                sumY += values[idx];
-                sumXY += i * values[idx];
-                sumX2 += (double) i * i;
-            }
-            double slope = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
-            // Positive slope with meaningful magnitude
-            double mean = sumY / n;
-            return mean > 0 && slope > 0 && (slope / mean) > 0.01;
-        }
+    private LatencyTrend trendFor(int operationId) {
+        return operationId == OperationRegistry.NOT_FOUND ? null : latencyTrends.get(operationId);
     }
 }
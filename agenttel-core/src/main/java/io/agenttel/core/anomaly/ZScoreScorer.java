@@ -0,0 +1,25 @@
+package io.agenttel.core.anomaly;
+
+import io.agenttel.core.baseline.RollingBaselineProvider;
+
+/**
+ * Classic z-score against the expected mean and standard deviation. Cheapest, but one extreme
+ * outlier inflates the window's standard deviation and hides real regressions until it leaves.
+ */
+public final class ZScoreScorer implements AnomalyScorer {
+
+    public static final ZScoreScorer INSTANCE = new ZScoreScorer();
+
+    private ZScoreScorer() {}
+
+    @Override
+    public double score(int operationId, double latencyMs, double expectedMean, double expectedStddev,
+                        RollingBaselineProvider baselines) {
+        return expectedStddev > 0 ? (latencyMs - expectedMean) / expectedStddev : 0.0;
+    }
+
+    @Override
+    public String name() {
+        return AnomalyStrategy.Z_SCORE.getValue();
+    }
+}
@@ -0,0 +1,111 @@
+package io.agenttel.core.baseline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mean and variance of a changing set of samples, updated without locks.
+ *
+ * <p>This replaces Welford's update for the windows' write path. Welford removes a sample
+ * by reading and rewriting the mean and M2 together, so concurrent writers would need a lock.
+ * Here the count and the sums of {@code x - shift} and {@code (x - shift)^2} live in
+ * {@link LongAdder} and {@link DoubleAdder} cells instead. Concurrent writers never wait on
+ * each other, and adds and removals commute.
+ *
+ * <p>The shift is the first sample recorded, and it is never moved: adders cannot be
+ * re-centered while writers are adding to them. The sums grow with how far samples lie from
+ * that first sample, not with their magnitude. So a large mean with a small spread keeps its
+ * precision, where plain sums of squares lose it all. The relative error of the variance is
+ * about {@code 2^-52 * ((mean - shift) / stddev)^2}. A distribution that drifts 1,000
+ * standard deviations from the first sample still keeps about ten significant digits, and
+ * one that drifts a million keeps about four. {@link SlidingTimeWindow} starts a new instance
+ * in every time bucket, which re-centers it each bucket width. The count-based windows keep
+ * one for their lifetime.
+ *
+ * <p>Reads add up the cells without stopping writers, so under concurrent writes the count
+ * and sums may reflect slightly different sets of samples, like the rest of the window.
+ */
+final class AtomicMoments {
+
+    private static final long UNSET = Double.doubleToRawLongBits(Double.NaN);
+
+    private final AtomicLong shiftBits = new AtomicLong(UNSET);
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    private final DoubleAdder sumOfSquares = new DoubleAdder();
+
+    void add(double value) {
+        double delta = value - shift(value);
+        count.increment();
+        sum.add(delta);
+        sumOfSquares.add(delta * delta);
+    }
+
+    /**
+     * Replaces one sample with another, leaving the count unchanged.
+     */
+    void replace(double oldValue, double newValue) {
+        double shift = shift(newValue);
+        double oldDelta = oldValue - shift;
+        double newDelta = newValue - shift;
+        sum.add(newDelta - oldDelta);
+        sumOfSquares.add(newDelta * newDelta - oldDelta * oldDelta);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    /**
+     * Folds these moments into {@code target}.
+     */
+    void addTo(RunningMoments target) {
+        long n = count.sum();
+        if (n <= 0) {
+            return;
+        }
+        double shifted = sum.sum() / n;
+        double m2 = Math.max(0.0, sumOfSquares.sum() - shifted * shifted * n);
+        target.combine(n, Double.longBitsToDouble(shiftBits.get()) + shifted, m2);
+    }
+
+    /**
+     * Returns the mean and population standard deviation, or {@link RollingWindow.MeanStddev#EMPTY}.
+     */
+    RollingWindow.MeanStddev meanStddev() {
+        long n = count.sum();
+        if (n <= 0) {
+            return RollingWindow.MeanStddev.EMPTY;
+        }
+        double shifted = sum.sum() / n;
+        double variance = Math.max(0.0, sumOfSquares.sum() / n - shifted * shifted);
+        return new RollingWindow.MeanStddev(Double.longBitsToDouble(shiftBits.get()) + shifted,
+                Math.sqrt(variance), (int) Math.min(n, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Same as {@link #meanStddev()}, written into {@code into} instead of a new record.
+     */
+    void read(RollingWindow.MeanStddevBuffer into) {
+        long n = count.sum();
+        if (n <= 0) {
+            into.clear();
+            return;
+        }
+        double shifted = sum.sum() / n;
+        double variance = Math.max(0.0, sumOfSquares.sum() / n - shifted * shifted);
+        into.set(Double.longBitsToDouble(shiftBits.get()) + shifted,
+                Math.sqrt(variance), (int) Math.min(n, Integer.MAX_VALUE));
+    }
+
+    private double shift(double value) {
+        long bits = shiftBits.get();
+        if (bits == UNSET) {
+            // The first writer's sample becomes the shift; later writers read the winner's
+            shiftBits.compareAndSet(UNSET, Double.doubleToRawLongBits(value));
+            bits = shiftBits.get();
+        }
+        return Double.longBitsToDouble(bits);
+    }
+}
@@ -0,0 +1,76 @@
+package io.agenttel.core.baseline;
+
+import io.agenttel.api.BaselineSource;
+
+/**
+ * Per-operation window of recent observations that a rolling baseline is computed from.
+ *
+ * <p>{@link RollingWindow} keeps the last N samples; {@link SlidingTimeWindow} keeps
+ * everything observed in the last fixed wall-clock period. Implementations must be
+ * thread-safe for concurrent writers.
+ */
+public interface BaselineWindow {
+
+    /**
+     * Records a latency/metric sample.
+     */
+    void record(double value);
+
+    /**
+     * Records a failed request.
+     */
+    void recordError();
+
+    /**
+     * Returns summary statistics over the samples currently in the window.
+     */
+    RollingWindow.Snapshot snapshot();
+
+    /**
+     * Returns the mean and standard deviation of the samples currently in the window.
+     * Cheaper than {@link #snapshot()} because no percentiles are computed; use it where
+     * only a z-score is needed.
+     */
+    default RollingWindow.MeanStddev meanStddev() {
+        RollingWindow.Snapshot snapshot = snapshot();
+        return snapshot.isEmpty()
+                ? RollingWindow.MeanStddev.EMPTY
+                : new RollingWindow.MeanStddev(snapshot.mean(), snapshot.stddev(), snapshot.sampleCount());
+    }
+
+    /**
+     * Writes the same values as {@link #meanStddev()} into {@code into}. Windows override this
+     * to read their moments without allocating a {@link RollingWindow.MeanStddev}.
+     */
+    default void readMeanStddev(RollingWindow.MeanStddevBuffer into) {
+        into.set(meanStddev());
+    }
+
+    /**
+     * Returns the per-second error rate tracker fed by {@link #record} and {@link #recordError},
+     * or null if the window does not keep one. Shared with pattern detection, which compares
+     * its short- and long-window rates to spot error rate spikes.
+     */
+    default ErrorRateTracker errorRates() {
+        return null;
+    }
+
+    /**
+     * Returns the source reported on baselines computed from this window: which span of
+     * traffic they describe. Count-based windows report {@link BaselineSource#ROLLING_COUNT}.
+     */
+    default BaselineSource source() {
+        return BaselineSource.ROLLING_COUNT;
+    }
+
+    /**
+     * Returns the number of samples currently in the window.
+     */
+    int size();
+
+    /**
+     * Returns a counter that changes whenever the window contents may have changed.
+     * Two equal versions mean a previously taken snapshot is still exact.
+     */
+    long version();
+}
@@ -0,0 +1,199 @@
+package io.agenttel.core.baseline;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Request and error counts in per-second buckets, with error rates over a short and a long
+ * trailing window.
+ *
+ * <p>One tracker per operation is shared by the baseline window, whose snapshot reports the
+ * long-window rate, and by {@code PatternMatcher}, which flags an error rate spike when the
+ * short-window rate is a multiple of the long-window rate. Requests increment the current
+ * second's {@link LongAdder}s. When a second ends, its counts are stored in a ring of
+ * {@code longWindowSeconds} ints and added to both windows' running totals, and seconds that
+ * slid out are subtracted, so recording and reading a rate are O(1).
+ *
+ * <p>Both rates include the current, partial second. As with the other bucketed counters, a
+ * writer that read the current second just before it closed may land its count after the fold,
+ * and that request is missing from the closed totals.
+ */
+public final class ErrorRateTracker {
+
+    public static final int DEFAULT_SHORT_WINDOW_SECONDS = 30;
+    public static final int DEFAULT_LONG_WINDOW_SECONDS = 300;
+
+    private static final long MILLIS_PER_SECOND = 1000;
+    // Layout of the closed totals: requests then errors, short window then long
+    private static final int SHORT_REQUESTS = 0;
+    private static final int SHORT_ERRORS = 1;
+    private static final int LONG_REQUESTS = 2;
+    private static final int LONG_ERRORS = 3;
+
+    private final int shortWindow;
+    private final int longWindow;
+    private final LongSupplier clock;
+    // Guarded by this; indexed by second modulo longWindow
+    private final int[] requests;
+    private final int[] errors;
+    private volatile State state;
+
+    public ErrorRateTracker() {
+        this(DEFAULT_SHORT_WINDOW_SECONDS, DEFAULT_LONG_WINDOW_SECONDS);
+    }
+
+    /**
+     * @param shortWindowSeconds window for the recent rate
+     * @param longWindowSeconds  window for the reference rate; at least the short window
+     */
+    public ErrorRateTracker(int shortWindowSeconds, int longWindowSeconds) {
+        this(shortWindowSeconds, longWindowSeconds, System::currentTimeMillis);
+    }
+
+    ErrorRateTracker(int shortWindowSeconds, int longWindowSeconds, LongSupplier clock) {
+        if (shortWindowSeconds <= 0 || longWindowSeconds < shortWindowSeconds) {
+            throw new IllegalArgumentException("Invalid error rate windows: " + shortWindowSeconds
+                    + "s and " + longWindowSeconds + "s");
+        }
+        this.shortWindow = shortWindowSeconds;
+        this.longWindow = longWindowSeconds;
+        this.clock = clock;
+        this.requests = new int[longWindowSeconds];
+        this.errors = new int[longWindowSeconds];
+        this.state = new State(new Second(clock.getAsLong() / MILLIS_PER_SECOND), new long[4]);
+    }
+
+    public void recordSuccess() {
+        advance().current.requests.increment();
+    }
+
+    public void recordError() {
+        Second second = advance().current;
+        second.requests.increment();
+        second.errors.increment();
+    }
+
+    /** Errors per request over the short window, 0 without traffic. */
+    public double shortWindowRate() {
+        State s = advance();
+        return rate(s.closed[SHORT_ERRORS] + s.current.errors.sum(), s.closed[SHORT_REQUESTS] + s.current.requests.sum());
+    }
+
+    /** Errors per request over the long window, 0 without traffic. */
+    public double longWindowRate() {
+        State s = advance();
+        return rate(s.closed[LONG_ERRORS] + s.current.errors.sum(), s.closed[LONG_REQUESTS] + s.current.requests.sum());
+    }
+
+    public long shortWindowRequests() {
+        State s = advance();
+        return s.closed[SHORT_REQUESTS] + s.current.requests.sum();
+    }
+
+    public long longWindowRequests() {
+        State s = advance();
+        return s.closed[LONG_REQUESTS] + s.current.requests.sum();
+    }
+
+    public int shortWindowSeconds() {
+        return shortWindow;
+    }
+
+    public int longWindowSeconds() {
+        return longWindow;
+    }
+
+    private static double rate(long errorCount, long requestCount) {
+        return requestCount > 0 ? (double) errorCount / requestCount : 0.0;
+    }
+
+    private State advance() {
+        long epoch = clock.getAsLong() / MILLIS_PER_SECOND;
+        State s = state;
+        // A thread whose clock read lags another's keeps writing to the newer second
+        return s.current.epoch >= epoch ? s : roll(epoch);
+    }
+
+    private synchronized State roll(long epoch) {
+        State s = state;
+        Second finished = s.current;
+        if (finished.epoch >= epoch) {
+            return s;
+        }
+        long from = finished.epoch;
+        int finishedRequests = (int) Math.min(finished.requests.sum(), Integer.MAX_VALUE);
+        int finishedErrors = (int) Math.min(finished.errors.sum(), Integer.MAX_VALUE);
+
+        long[] closed = s.closed.clone();
+        // Subtract the seconds that slide out before their ring slots are reused below
+        expire(closed, SHORT_REQUESTS, shortWindow, from, epoch);
+        expire(closed, LONG_REQUESTS, longWindow, from, epoch);
+        if (from > epoch - shortWindow) {
+            closed[SHORT_REQUESTS] += finishedRequests;
+            closed[SHORT_ERRORS] += finishedErrors;
+        }
+        if (from > epoch - longWindow) {
+            closed[LONG_REQUESTS] += finishedRequests;
+            closed[LONG_ERRORS] += finishedErrors;
+        }
+
+        int slot = slot(from);
+        requests[slot] = finishedRequests;
+        errors[slot] = finishedErrors;
+        // Seconds without traffic still overwrite what the ring held a full window ago
+        long lastGap = Math.min(epoch - 1, from + longWindow);
+        for (long gap = from + 1; gap <= lastGap; gap++) {
+            requests[slot(gap)] = 0;
+            errors[slot(gap)] = 0;
+        }
+
+        State rolled = new State(new Second(epoch), closed);
+        state = rolled;
+        return rolled;
+    }
+
+    /**
+     * Closed totals cover {@code [from - window + 1, from - 1]} before the roll and
+     * {@code [epoch - window + 1, epoch - 1]} after it.
+     */
+    private void expire(long[] closed, int base, int window, long from, long epoch) {
+        if (epoch - from >= window) {
+            closed[base] = 0;
+            closed[base + 1] = 0;
+            return;
+        }
+        for (long expired = from - window + 1; expired <= epoch - window; expired++) {
+            int slot = slot(expired);
+            closed[base] -= requests[slot];
+            closed[base + 1] -= errors[slot];
+        }
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) longWindow);
+    }
+
+    /**
+     * The second being written plus the windows' totals over the seconds before it,
+     * published together so readers never count a second twice.
+     */
+    private static final class State {
+        final Second current;
+        final long[] closed;
+
+        State(Second current, long[] closed) {
+            this.current = current;
+            this.closed = closed;
+        }
+    }
+
+    private static final class Second {
+        final long epoch;
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        Second(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
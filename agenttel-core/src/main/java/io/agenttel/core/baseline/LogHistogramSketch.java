@@ -0,0 +1,295 @@
+package io.agenttel.core.baseline;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free log-bucketed histogram (DDSketch-style) with bounded relative error.
+ *
+ * <p>Bucket {@code k} covers {@code (gamma^(k-1), gamma^k]} with {@code gamma = 1 + relativeAccuracy}.
+ * Each bucket keeps a sample count and a running sum, and a quantile is answered with the
+ * mean of the bucket it falls in. That mean always lies inside the bucket, so the estimate is
+ * within {@code relativeAccuracy} of the true value (and exact when a bucket holds a single
+ * distinct value). Values at or below {@code minValue} share the first bucket, values at or
+ * above {@code maxValue} share the last one.
+ *
+ * <p>Buckets are allocated lazily in chunks of {@value #CHUNK_SIZE}, so memory follows the
+ * range of latencies actually observed rather than the configured range. At the default
+ * accuracy a chunk covers a 1.37x range of values and takes about 620 bytes, so samples that
+ * span a 10x range touch 8 chunks, about 5 KB. A {@link SlidingTimeWindow} keeps one sketch per
+ * time bucket, so an operation's window can hold that many times more.
+ *
+ * <p>Each chunk also keeps its sample count, so a quantile read steps over chunks that lie
+ * wholly below the requested rank and scans buckets only in the chunk the rank falls in. A read
+ * costs O(touched chunks + {@value #CHUNK_SIZE}) per quantile, independent of how many samples
+ * were recorded.
+ */
+public class LogHistogramSketch implements QuantileSketch {
+
+    /** Default relative accuracy: estimates within 1% of the true value. */
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    /** Default lower bound of the tracked range: 1 microsecond, in milliseconds. */
+    public static final double DEFAULT_MIN_VALUE = 0.001;
+    /** Default upper bound of the tracked range: 1 hour, in milliseconds. */
+    public static final double DEFAULT_MAX_VALUE = 3_600_000.0;
+
+    private static final int CHUNK_SHIFT = 5;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final double relativeAccuracy;
+    private final double minValue;
+    private final double maxValue;
+    private final double gamma;
+    private final double logGamma;
+    private final int minKey;
+    private final int bucketCount;
+    private final AtomicReferenceArray<Chunk> chunks;
+    private final AtomicLong count = new AtomicLong(0);
+    private final AtomicInteger lowestChunk = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicInteger highestChunk = new AtomicInteger(-1);
+
+    public LogHistogramSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MIN_VALUE, DEFAULT_MAX_VALUE);
+    }
+
+    public LogHistogramSketch(double relativeAccuracy) {
+        this(relativeAccuracy, DEFAULT_MIN_VALUE, DEFAULT_MAX_VALUE);
+    }
+
+    /**
+     * @param relativeAccuracy maximum relative error of quantile estimates (e.g., 0.01 for 1%)
+     * @param minValue         smallest value tracked with full accuracy (must be positive)
+     * @param maxValue         largest value tracked with full accuracy
+     */
+    public LogHistogramSketch(double relativeAccuracy, double minValue, double maxValue) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1)");
+        }
+        if (minValue <= 0 || maxValue <= minValue) {
+            throw new IllegalArgumentException("Range must satisfy 0 < minValue < maxValue");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.gamma = 1.0 + relativeAccuracy;
+        this.logGamma = Math.log(gamma);
+        this.minKey = (int) Math.ceil(Math.log(minValue) / logGamma);
+        int maxKey = (int) Math.ceil(Math.log(maxValue) / logGamma);
+        this.bucketCount = maxKey - minKey + 1;
+        this.chunks = new AtomicReferenceArray<>((bucketCount + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+    }
+
+    /**
+     * Creates an empty sketch with the same accuracy and range as this one.
+     */
+    public LogHistogramSketch emptyCopy() {
+        return new LogHistogramSketch(relativeAccuracy, minValue, maxValue);
+    }
+
+    public double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    @Override
+    public void add(double value) {
+        if (Double.isNaN(value)) return;
+        int bucket = bucketIndex(value);
+        chunkFor(bucket).add(bucket & CHUNK_MASK, 1, value);
+        count.incrementAndGet();
+    }
+
+    @Override
+    public void remove(double value) {
+        if (Double.isNaN(value)) return;
+        int bucket = bucketIndex(value);
+        Chunk chunk = chunks.get(bucket >>> CHUNK_SHIFT);
+        if (chunk == null) return;
+        chunk.add(bucket & CHUNK_MASK, -1, -value);
+        count.decrementAndGet();
+    }
+
+    @Override
+    public long count() {
+        return Math.max(0, count.get());
+    }
+
+    @Override
+    public double quantile(double q) {
+        return quantiles(q)[0];
+    }
+
+    @Override
+    public double[] quantiles(double... qs) {
+        double[] result = new double[qs.length];
+        long n = count();
+        if (n == 0) {
+            return result;
+        }
+
+        // Every quantile interpolates between the samples at ranks floor(q*(n-1)) and the next one
+        long[] ranks = new long[qs.length * 2];
+        double[] values = new double[ranks.length];
+        for (int i = 0; i < qs.length; i++) {
+            double rank = clamp(qs[i], 0.0, 1.0) * (n - 1);
+            long lower = (long) Math.floor(rank);
+            ranks[2 * i] = lower;
+            ranks[2 * i + 1] = Math.min(lower + 1, n - 1);
+        }
+        valuesAtRanks(ranks, values);
+
+        for (int i = 0; i < qs.length; i++) {
+            double rank = clamp(qs[i], 0.0, 1.0) * (n - 1);
+            double fraction = rank - Math.floor(rank);
+            double lower = values[2 * i];
+            double upper = values[2 * i + 1];
+            result[i] = lower + fraction * (upper - lower);
+        }
+        return result;
+    }
+
+    @Override
+    public void merge(QuantileSketch other) {
+        if (!(other instanceof LogHistogramSketch o)
+                || o.bucketCount != bucketCount || o.minKey != minKey || o.gamma != gamma) {
+            throw new IllegalArgumentException("Can only merge LogHistogramSketch instances with the same layout");
+        }
+        int hi = o.highestChunk.get();
+        for (int c = Math.max(0, o.lowestChunk.get()); c <= hi; c++) {
+            Chunk source = o.chunks.get(c);
+            if (source == null) continue;
+            Chunk target = null;
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                long samples = source.counts.get(i);
+                if (samples <= 0) continue;
+                if (target == null) {
+                    target = chunkAt(c);
+                }
+                target.add(i, samples, Double.longBitsToDouble(source.sums.get(i)));
+                count.addAndGet(samples);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int c = 0; c < chunks.length(); c++) {
+            chunks.set(c, null);
+        }
+        count.set(0);
+        lowestChunk.set(Integer.MAX_VALUE);
+        highestChunk.set(-1);
+    }
+
+    /**
+     * Fills {@code out} with the estimated values at the given ranks in one ascending scan.
+     */
+    private void valuesAtRanks(long[] ranks, double[] out) {
+        // Visit ranks in ascending order; the arrays are tiny, so insertion sort is enough
+        int[] order = new int[ranks.length];
+        for (int i = 0; i < order.length; i++) {
+            int j = i;
+            while (j > 0 && ranks[order[j - 1]] > ranks[i]) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+
+        int next = 0;
+        long cumulative = 0;
+        double last = 0.0;
+        int hi = highestChunk.get();
+        for (int c = Math.max(0, lowestChunk.get()); c <= hi && next < order.length; c++) {
+            Chunk chunk = chunks.get(c);
+            if (chunk == null) continue;
+            long chunkSamples = chunk.total.get();
+            if (chunkSamples <= 0) continue;
+            if (ranks[order[next]] >= cumulative + chunkSamples) {
+                // The next rank lies beyond this chunk
+                cumulative += chunkSamples;
+                continue;
+            }
+            for (int i = 0; i < CHUNK_SIZE && next < order.length; i++) {
+                long samples = chunk.counts.get(i);
+                if (samples <= 0) continue;
+                cumulative += samples;
+                if (ranks[order[next]] >= cumulative) continue;
+                int bucket = (c << CHUNK_SHIFT) + i;
+                last = representative(bucket, Double.longBitsToDouble(chunk.sums.get(i)) / samples);
+                while (next < order.length && ranks[order[next]] < cumulative) {
+                    out[order[next++]] = last;
+                }
+            }
+        }
+        // Concurrent removals can leave the scan short of the requested rank
+        while (next < order.length) {
+            out[order[next++]] = last;
+        }
+    }
+
+    /**
+     * Clamps a bucket mean into the bucket bounds, guarding against floating-point drift
+     * from repeated add/remove of the same values.
+     */
+    private double representative(int bucket, double mean) {
+        double lower = bucket == 0 ? Double.NEGATIVE_INFINITY : Math.pow(gamma, bucket + minKey - 1);
+        double upper = bucket == bucketCount - 1 ? Double.POSITIVE_INFINITY : Math.pow(gamma, bucket + minKey);
+        return clamp(mean, lower, upper);
+    }
+
+    private int bucketIndex(double value) {
+        if (value <= minValue) return 0;
+        if (value >= maxValue) return bucketCount - 1;
+        int bucket = (int) Math.ceil(Math.log(value) / logGamma) - minKey;
+        return Math.max(0, Math.min(bucketCount - 1, bucket));
+    }
+
+    private Chunk chunkFor(int bucket) {
+        int c = bucket >>> CHUNK_SHIFT;
+        Chunk chunk = chunks.get(c);
+        return chunk != null ? chunk : chunkAt(c);
+    }
+
+    private Chunk chunkAt(int c) {
+        Chunk chunk = chunks.get(c);
+        if (chunk == null) {
+            Chunk created = new Chunk();
+            chunk = chunks.compareAndSet(c, null, created) ? created : chunks.get(c);
+        }
+        if (c < lowestChunk.get()) {
+            lowestChunk.accumulateAndGet(c, Math::min);
+        }
+        if (c > highestChunk.get()) {
+            highestChunk.accumulateAndGet(c, Math::max);
+        }
+        return chunk;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * A block of adjacent buckets and their total count. Sums are stored as raw double bits
+     * and updated by CAS.
+     */
+    private static final class Chunk {
+        final AtomicLongArray counts = new AtomicLongArray(CHUNK_SIZE);
+        final AtomicLongArray sums = new AtomicLongArray(CHUNK_SIZE);
+        final AtomicLong total = new AtomicLong();
+
+        void add(int i, long countDelta, double sumDelta) {
+            counts.addAndGet(i, countDelta);
+            total.addAndGet(countDelta);
+            long prev;
+            long next;
+            do {
+                prev = sums.get(i);
+                next = Double.doubleToRawLongBits(Double.longBitsToDouble(prev) + sumDelta);
+            } while (!sums.compareAndSet(i, prev, next));
+        }
+    }
+}
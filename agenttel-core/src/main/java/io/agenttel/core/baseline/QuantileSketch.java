@@ -0,0 +1,61 @@
+package io.agenttel.core.baseline;
+
+/**
+ * Streaming quantile estimator backing {@link RollingWindow}.
+ *
+ * <p>Implementations keep their state up to date on every {@link #add}/{@link #remove},
+ * so quantile reads cost the same no matter how many samples the window holds.
+ * Sketches must support removal because the rolling window evicts the oldest sample
+ * whenever it overwrites a ring slot.
+ *
+ * <p>Implementations must be thread-safe for concurrent writers. Reads may be
+ * eventually consistent with in-flight writes.
+ */
+public interface QuantileSketch {
+
+    /**
+     * Adds a sample to the sketch.
+     */
+    void add(double value);
+
+    /**
+     * Removes a sample previously passed to {@link #add}.
+     */
+    void remove(double value);
+
+    /**
+     * Returns the number of samples currently held by the sketch.
+     */
+    long count();
+
+    /**
+     * Returns the estimated value at quantile {@code q} (0.0-1.0), or 0.0 if empty.
+     */
+    double quantile(double q);
+
+    /**
+     * Returns the estimated values for several quantiles at once.
+     * Implementations should override this to answer all quantiles in a single pass.
+     *
+     * @param qs quantiles in ascending order
+     */
+    default double[] quantiles(double... qs) {
+        double[] result = new double[qs.length];
+        for (int i = 0; i < qs.length; i++) {
+            result[i] = quantile(qs[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Adds all samples of {@code other} into this sketch.
+     *
+     * @throws IllegalArgumentException if the sketches are not compatible
+     */
+    void merge(QuantileSketch other);
+
+    /**
+     * Removes all samples. Not atomic with respect to concurrent writers.
+     */
+    void clear();
+}
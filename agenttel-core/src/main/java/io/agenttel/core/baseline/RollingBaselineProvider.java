@@ -2,55 +2,207 @@ package io.agenttel.core.baseline;
 
 import io.agenttel.api.BaselineSource;
 import io.agenttel.api.baseline.OperationBaseline;
+import io.agenttel.core.operation.OperationRegistry;
+import io.agenttel.core.operation.OperationSlots;
 
 import java.time.Instant;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Baseline provider that computes baselines from a sliding window of observed span latencies.
- * Each operation gets its own {@link RollingWindow} ring buffer.
+ * Each operation gets its own {@link BaselineWindow}: by default a count-based
+ * {@link RollingWindow} ring buffer, a {@link StripedRollingWindow} for heavily concurrent
+ * writers, or a wall-clock {@link SlidingTimeWindow} when configured with {@link Builder#timeWindow}.
+ *
+ * <p>Snapshots are memoized per operation. A cached snapshot is served until the window has
+ * taken {@code maxStaleSamples} new writes or the snapshot is {@code maxStaleMs} old, so the
+ * several reads made for every span share one computation. Windows still below
+ * {@code minSamples} are always recomputed so a baseline appears as soon as it is valid.
+ *
+ * <p>Windows are indexed by {@link OperationRegistry} id. Share the registry with the other
+ * trackers and use the id overloads to resolve each span's name once; names beyond the
+ * registry's capacity are pooled under {@link OperationRegistry#OVERFLOW_OPERATION}.
  */
 public class RollingBaselineProvider implements BaselineProvider {
 
-    private final int windowSize;
     private final int minSamples;
-    private final ConcurrentHashMap<String, RollingWindow> windows = new ConcurrentHashMap<>();
+    private final Supplier<BaselineWindow> windowFactory;
+    private final long maxStaleSamples;
+    private final long maxStaleMs;
+    private final OperationRegistry operations;
+    private final OperationSlots<OperationWindow> windows;
 
     public RollingBaselineProvider() {
         this(1000, 10);
     }
 
     public RollingBaselineProvider(int windowSize, int minSamples) {
-        this.windowSize = windowSize;
-        this.minSamples = minSamples;
+        this(windowSize, minSamples, LogHistogramSketch::new);
+    }
+
+    /**
+     * @param windowSize    number of recent samples kept per operation
+     * @param minSamples    samples required before a baseline is reported
+     * @param sketchFactory creates the quantile sketch for each operation's window
+     */
+    public RollingBaselineProvider(int windowSize, int minSamples, Supplier<QuantileSketch> sketchFactory) {
+        this(builder().windowSize(windowSize).minSamples(minSamples).sketchFactory(sketchFactory));
+    }
+
+    private RollingBaselineProvider(Builder builder) {
+        this.minSamples = builder.minSamples;
+        this.windowFactory = builder.resolveWindowFactory();
+        this.maxStaleSamples = builder.maxStaleSamples;
+        this.maxStaleMs = builder.maxStaleMs;
+        this.operations = builder.operationRegistry != null ? builder.operationRegistry : new OperationRegistry();
+        this.windows = new OperationSlots<>(operations);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the registry that assigns the operation ids accepted by the id overloads.
+     */
+    public OperationRegistry operationRegistry() {
+        return operations;
     }
 
     /**
      * Records a latency sample for the given operation.
      */
     public void recordLatency(String operationName, double latencyMs) {
-        windows.computeIfAbsent(operationName, k -> new RollingWindow(windowSize))
-                .record(latencyMs);
+        recordLatency(operations.intern(operationName), latencyMs);
+    }
+
+    /**
+     * Records a latency sample for an operation id from {@link #operationRegistry()}.
+     */
+    public void recordLatency(int operationId, double latencyMs) {
+        windowFor(operationId).window.record(latencyMs);
     }
 
     /**
      * Records an error for the given operation.
      */
     public void recordError(String operationName) {
-        windows.computeIfAbsent(operationName, k -> new RollingWindow(windowSize))
-                .recordError();
+        recordError(operations.intern(operationName));
+    }
+
+    /**
+     * Records an error for an operation id from {@link #operationRegistry()}.
+     */
+    public void recordError(int operationId) {
+        windowFor(operationId).window.recordError();
     }
 
     @Override
     public Optional<OperationBaseline> getBaseline(String operationName) {
-        RollingWindow window = windows.get(operationName);
-        if (window == null) {
+        OperationWindow entry = existingWindow(operationName);
+        if (entry == null) {
             return Optional.empty();
         }
 
-        RollingWindow.Snapshot snapshot = window.snapshot();
-        if (snapshot.isEmpty() || snapshot.sampleCount() < minSamples) {
+        CachedSnapshot cached = entry.current(this);
+        Optional<OperationBaseline> baseline = cached.baseline;
+        if (baseline == null) {
+            baseline = toBaseline(operationName, cached, entry.window.source());
+            cached.baseline = baseline;
+        }
+        return baseline;
+    }
+
+    /**
+     * Returns the rolling window snapshot for an operation, or empty if not enough samples.
+     */
+    public Optional<RollingWindow.Snapshot> getSnapshot(String operationName) {
+        OperationWindow entry = existingWindow(operationName);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        return entry.current(this).snapshot;
+    }
+
+    /**
+     * Returns the rolling window snapshot for an operation, or {@link RollingWindow.Snapshot#EMPTY}
+     * if the operation has no samples. Allocation-free while the cached snapshot is fresh,
+     * for use on the per-span path.
+     */
+    public RollingWindow.Snapshot currentSnapshot(String operationName) {
+        int operationId = operations.find(operationName);
+        return operationId == OperationRegistry.NOT_FOUND
+                ? RollingWindow.Snapshot.EMPTY
+                : currentSnapshot(operationId);
+    }
+
+    /**
+     * Same as {@link #currentSnapshot(String)} for an operation id from {@link #operationRegistry()}.
+     */
+    public RollingWindow.Snapshot currentSnapshot(int operationId) {
+        OperationWindow entry = windows.get(operationId);
+        if (entry == null) {
+            return RollingWindow.Snapshot.EMPTY;
+        }
+        return entry.current(this).raw;
+    }
+
+    /**
+     * Returns the current mean and standard deviation for an operation, or
+     * {@link RollingWindow.MeanStddev#EMPTY} if it has no samples. Read straight from the
+     * window rather than the cached snapshot, so it is always exact and never computes
+     * percentiles; for {@link RollingWindow} it is O(1).
+     */
+    public RollingWindow.MeanStddev meanStddev(String operationName) {
+        OperationWindow entry = existingWindow(operationName);
+        return entry != null ? entry.window.meanStddev() : RollingWindow.MeanStddev.EMPTY;
+    }
+
+    /**
+     * Same as {@link #meanStddev(String)} for an operation id from {@link #operationRegistry()}.
+     */
+    public RollingWindow.MeanStddev meanStddev(int operationId) {
+        OperationWindow entry = windows.get(operationId);
+        return entry != null ? entry.window.meanStddev() : RollingWindow.MeanStddev.EMPTY;
+    }
+
+    /**
+     * Same as {@link #meanStddev(int)}, written into {@code into} instead of a new record.
+     */
+    public void readMeanStddev(int operationId, RollingWindow.MeanStddevBuffer into) {
+        OperationWindow entry = windows.get(operationId);
+        if (entry != null) {
+            entry.window.readMeanStddev(into);
+        } else {
+            into.clear();
+        }
+    }
+
+    /**
+     * Returns the error rate tracker of an operation's window, or null if the operation has
+     * no window yet or its window keeps no tracker.
+     */
+    public ErrorRateTracker errorRates(String operationName) {
+        OperationWindow entry = existingWindow(operationName);
+        return entry != null ? entry.window.errorRates() : null;
+    }
+
+    /**
+     * Same as {@link #errorRates(String)} for an operation id from {@link #operationRegistry()}.
+     */
+    public ErrorRateTracker errorRates(int operationId) {
+        OperationWindow entry = windows.get(operationId);
+        return entry != null ? entry.window.errorRates() : null;
+    }
+
+    private Optional<OperationBaseline> toBaseline(String operationName, CachedSnapshot cached,
+                                                   BaselineSource source) {
+        if (cached.snapshot.isEmpty()) {
+            return Optional.empty();
+        }
+        RollingWindow.Snapshot snapshot = cached.snapshot.get();
+        if (snapshot.sampleCount() < minSamples) {
             return Optional.empty();
         }
 
@@ -58,20 +210,197 @@ public class RollingBaselineProvider implements BaselineProvider {
                 .latencyP50Ms(snapshot.p50())
                 .latencyP99Ms(snapshot.p99())
                 .errorRate(snapshot.errorRate())
-                .source(BaselineSource.ROLLING_7D)
-                .updatedAt(Instant.now().toString())
+                .source(source)
+                .updatedAt(Instant.ofEpochMilli(cached.computedAtMs).toString())
                 .build());
     }
 
+    private boolean isFresh(CachedSnapshot cached, long version, long nowMs) {
+        if (version == cached.version) {
+            return true;
+        }
+        if (cached.sampleCount < minSamples) {
+            return false;
+        }
+        return version - cached.version < maxStaleSamples
+                && nowMs - cached.computedAtMs < maxStaleMs;
+    }
+
+    private OperationWindow existingWindow(String operationName) {
+        // Reads never intern, so lookups for unknown names do not use up registry capacity
+        int operationId = operations.find(operationName);
+        return operationId == OperationRegistry.NOT_FOUND ? null : windows.get(operationId);
+    }
+
+    private OperationWindow windowFor(int operationId) {
+        // Plain lookup first: computeIfAbsent would allocate a capturing lambda on every call
+        OperationWindow entry = windows.get(operationId);
+        return entry != null ? entry : windows.computeIfAbsent(operationId, k -> newWindow());
+    }
+
+    private OperationWindow newWindow() {
+        return new OperationWindow(windowFactory.get());
+    }
+
     /**
-     * Returns the rolling window snapshot for an operation, or empty if not enough samples.
+     * An operation's window together with its most recently computed snapshot.
      */
-    public Optional<RollingWindow.Snapshot> getSnapshot(String operationName) {
-        RollingWindow window = windows.get(operationName);
-        if (window == null) {
-            return Optional.empty();
+    private static final class OperationWindow {
+        final BaselineWindow window;
+        volatile CachedSnapshot cached;
+
+        OperationWindow(BaselineWindow window) {
+            this.window = window;
+        }
+
+        CachedSnapshot current(RollingBaselineProvider provider) {
+            long version = window.version();
+            long nowMs = System.currentTimeMillis();
+            CachedSnapshot snapshot = cached;
+            if (snapshot != null && provider.isFresh(snapshot, version, nowMs)) {
+                return snapshot;
+            }
+            // Concurrent readers may both recompute; the last one wins, which is harmless
+            snapshot = new CachedSnapshot(window.snapshot(), version, nowMs);
+            cached = snapshot;
+            return snapshot;
+        }
+    }
+
+    /**
+     * Immutable snapshot plus the window version it was computed at.
+     * The derived baseline is built lazily on first request.
+     */
+    private static final class CachedSnapshot {
+        final RollingWindow.Snapshot raw;
+        final Optional<RollingWindow.Snapshot> snapshot;
+        final int sampleCount;
+        final long version;
+        final long computedAtMs;
+        volatile Optional<OperationBaseline> baseline;
+
+        CachedSnapshot(RollingWindow.Snapshot snapshot, long version, long computedAtMs) {
+            this.raw = snapshot;
+            this.snapshot = snapshot.isEmpty() ? Optional.empty() : Optional.of(snapshot);
+            this.sampleCount = snapshot.sampleCount();
+            this.version = version;
+            this.computedAtMs = computedAtMs;
+        }
+    }
+
+    public static class Builder {
+        private int windowSize = 1000;
+        private int minSamples = 10;
+        private Supplier<QuantileSketch> sketchFactory = LogHistogramSketch::new;
+        private SlidingTimeWindow.Length timeWindow;
+        private int stripes = 1;
+        private Supplier<BaselineWindow> windowFactory;
+        private long maxStaleSamples = 32;
+        private long maxStaleMs = 1000;
+        private OperationRegistry operationRegistry;
+
+        Builder() {}
+
+        public Builder windowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        public Builder minSamples(int minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Sets the quantile engine used by each operation's window.
+         * Defaults to a {@link LogHistogramSketch} with 1% relative accuracy.
+         */
+        public Builder sketchFactory(Supplier<QuantileSketch> sketchFactory) {
+            this.sketchFactory = sketchFactory;
+            return this;
+        }
+
+        /**
+         * Splits each count-based window into this many sub-rings to cut write contention on
+         * operations recorded by many threads at once. Defaults to 1 (a single {@link RollingWindow}).
+         *
+         * @see StripedRollingWindow
+         */
+        public Builder stripes(int stripes) {
+            this.stripes = stripes;
+            return this;
+        }
+
+        /**
+         * Keeps a wall-clock window of the given length per operation instead of the last
+         * {@code windowSize} samples, so the baseline covers the same period at any traffic level.
+         */
+        public Builder timeWindow(SlidingTimeWindow.Length timeWindow) {
+            this.timeWindow = timeWindow;
+            return this;
+        }
+
+        /**
+         * Same as {@link #timeWindow(SlidingTimeWindow.Length)} with a label such as
+         * {@code "1h"} or {@code "7d"}. A {@code null} or blank label keeps the count-based window.
+         *
+         * @throws IllegalArgumentException if the label is not a supported length
+         */
+        public Builder timeWindow(String label) {
+            this.timeWindow = label == null || label.isBlank() ? null : SlidingTimeWindow.Length.fromLabel(label);
+            return this;
+        }
+
+        /**
+         * Supplies a custom window for each operation. Takes precedence over
+         * {@link #windowSize}, {@link #sketchFactory} and {@link #timeWindow}.
+         */
+        public Builder windowFactory(Supplier<BaselineWindow> windowFactory) {
+            this.windowFactory = windowFactory;
+            return this;
+        }
+
+        /**
+         * Sets how stale a cached snapshot may get before it is recomputed.
+         * Defaults to 32 writes or 1 second; {@code (0, 0)} recomputes after every write.
+         *
+         * @param maxStaleSamples writes to the window tolerated since the snapshot was computed
+         * @param maxStaleMs      age in milliseconds tolerated since the snapshot was computed
+         */
+        public Builder maxStaleness(long maxStaleSamples, long maxStaleMs) {
+            this.maxStaleSamples = maxStaleSamples;
+            this.maxStaleMs = maxStaleMs;
+            return this;
+        }
+
+        /**
+         * Shares an operation registry with the other trackers so a span's name is interned once.
+         * Defaults to a private registry with {@link OperationRegistry#DEFAULT_MAX_OPERATIONS}.
+         */
+        public Builder operationRegistry(OperationRegistry operationRegistry) {
+            this.operationRegistry = operationRegistry;
+            return this;
+        }
+
+        public RollingBaselineProvider build() {
+            return new RollingBaselineProvider(this);
+        }
+
+        private Supplier<BaselineWindow> resolveWindowFactory() {
+            if (windowFactory != null) {
+                return windowFactory;
+            }
+            Supplier<QuantileSketch> sketches = sketchFactory;
+            if (timeWindow != null) {
+                SlidingTimeWindow.Length length = timeWindow;
+                return () -> new SlidingTimeWindow(length.duration(), length.buckets(), sketches);
+            }
+            int size = windowSize;
+            if (stripes > 1) {
+                int stripeCount = stripes;
+                return () -> new StripedRollingWindow(size, stripeCount, sketches);
+            }
+            return () -> new RollingWindow(size, sketches.get());
         }
-        RollingWindow.Snapshot snapshot = window.snapshot();
-        return snapshot.isEmpty() ? Optional.empty() : Optional.of(snapshot);
     }
 }
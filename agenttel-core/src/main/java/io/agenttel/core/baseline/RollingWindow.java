@@ -1,100 +1,142 @@
 package io.agenttel.core.baseline;
 
-import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Lock-free ring buffer for collecting latency/metric samples.
  * Thread-safe for concurrent writes; snapshot reads are eventually consistent.
+ *
+ * <p>Percentiles come from a {@link QuantileSketch} that is updated as samples enter and
+ * leave the ring, so {@link #snapshot()} never copies or sorts the ring. Mean and stddev come
+ * from {@link AtomicMoments}, lock-free sums shifted by the first sample that add each sample
+ * and remove the one it overwrites. {@link #meanStddev()} reads them in O(1) without touching
+ * the sketch.
+ *
+ * <p>The window is count-based: how much wall-clock time it spans depends on traffic.
+ * Use {@link SlidingTimeWindow} for a fixed time span. The error rate is the exception: it
+ * comes from an {@link ErrorRateTracker} and covers the last five minutes.
  */
-public class RollingWindow {
+public class RollingWindow implements BaselineWindow {
 
-    private final double[] samples;
+    private static final long EMPTY_SLOT = Double.doubleToRawLongBits(Double.NaN);
+
+    private final AtomicLongArray samples;
     private final int capacity;
+    private final QuantileSketch sketch;
     private final AtomicInteger writeIndex = new AtomicInteger(0);
     private final AtomicInteger count = new AtomicInteger(0);
-    private final AtomicLong errorCount = new AtomicLong(0);
+    private final AtomicMoments moments = new AtomicMoments();
+    private final ErrorRateTracker errorRates;
     private final AtomicLong totalCount = new AtomicLong(0);
     private final AtomicLong firstSampleTimeMs = new AtomicLong(0);
 
     public RollingWindow(int capacity) {
+        this(capacity, new LogHistogramSketch());
+    }
+
+    /**
+     * @param capacity number of most recent samples kept in the window
+     * @param sketch   empty quantile sketch used for percentile estimates
+     */
+    public RollingWindow(int capacity, QuantileSketch sketch) {
+        this(capacity, sketch, new ErrorRateTracker());
+    }
+
+    /**
+     * @param errorRates tracker fed with every sample and error, for the snapshot's error rate
+     */
+    public RollingWindow(int capacity, QuantileSketch sketch, ErrorRateTracker errorRates) {
         if (capacity <= 0) {
             throw new IllegalArgumentException("Capacity must be positive");
         }
         this.capacity = capacity;
-        this.samples = new double[capacity];
+        this.sketch = sketch;
+        this.errorRates = errorRates;
+        this.samples = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            samples.set(i, EMPTY_SLOT);
+        }
     }
 
+    @Override
     public void record(double value) {
+        if (Double.isNaN(value)) return;
         firstSampleTimeMs.compareAndSet(0, System.currentTimeMillis());
         int idx = writeIndex.getAndUpdate(i -> (i + 1) % capacity);
-        samples[idx] = value;
-        int currentCount = count.get();
-        if (currentCount < capacity) {
-            count.compareAndSet(currentCount, currentCount + 1);
+        // The swap hands each overwritten sample to exactly one writer, which removes it
+        long previous = samples.getAndSet(idx, Double.doubleToRawLongBits(value));
+
+        sketch.add(value);
+        if (previous == EMPTY_SLOT) {
+            moments.add(value);
+            count.incrementAndGet();
+        } else {
+            double overwritten = Double.longBitsToDouble(previous);
+            moments.replace(overwritten, value);
+            sketch.remove(overwritten);
         }
+        errorRates.recordSuccess();
         totalCount.incrementAndGet();
     }
 
+    @Override
     public void recordError() {
-        errorCount.incrementAndGet();
+        errorRates.recordError();
         totalCount.incrementAndGet();
     }
 
+    @Override
     public Snapshot snapshot() {
-        int n = Math.min(count.get(), capacity);
-        if (n == 0) {
+        MeanStddev moments = meanStddev();
+        if (moments.isEmpty()) {
             return Snapshot.EMPTY;
         }
 
-        double[] copy = new double[n];
-        System.arraycopy(samples, 0, copy, 0, n);
-        Arrays.sort(copy);
-
-        double sum = 0;
-        for (int i = 0; i < n; i++) {
-            sum += copy[i];
-        }
-        double mean = sum / n;
-
-        double variance = 0;
-        for (int i = 0; i < n; i++) {
-            double diff = copy[i] - mean;
-            variance += diff * diff;
-        }
-        double stddev = Math.sqrt(variance / n);
-
-        double p50 = percentile(copy, 0.50);
-        double p95 = percentile(copy, 0.95);
-        double p99 = percentile(copy, 0.99);
+        double[] percentiles = sketch.quantiles(0.50, 0.95, 0.99);
 
-        long total = totalCount.get();
-        long errors = errorCount.get();
-        double errorRate = total > 0 ? (double) errors / total : 0.0;
+        double errorRate = errorRates.longWindowRate();
 
         long firstTime = firstSampleTimeMs.get();
         long ageMs = firstTime > 0 ? System.currentTimeMillis() - firstTime : 0;
 
-        return new Snapshot(mean, stddev, p50, p95, p99, errorRate, n, ageMs);
+        return new Snapshot(moments.mean(), moments.stddev(), percentiles[0], percentiles[1],
+                percentiles[2], errorRate, moments.sampleCount(), ageMs);
+    }
+
+    @Override
+    public MeanStddev meanStddev() {
+        return moments.meanStddev();
+    }
+
+    @Override
+    public void readMeanStddev(MeanStddevBuffer into) {
+        moments.read(into);
     }
 
-    private static double percentile(double[] sorted, double p) {
-        if (sorted.length == 1) return sorted[0];
-        double rank = p * (sorted.length - 1);
-        int lower = (int) Math.floor(rank);
-        int upper = Math.min(lower + 1, sorted.length - 1);
-        double fraction = rank - lower;
-        return sorted[lower] + fraction * (sorted[upper] - sorted[lower]);
+    @Override
+    public ErrorRateTracker errorRates() {
+        return errorRates;
     }
 
+    @Override
     public int size() {
         return Math.min(count.get(), capacity);
     }
 
+    /**
+     * Returns a counter that increases with every write (sample or error).
+     * Two equal versions mean the window has not changed in between.
+     */
+    @Override
+    public long version() {
+        return totalCount.get();
+    }
+
     public record Snapshot(double mean, double stddev, double p50, double p95, double p99,
                            double errorRate, int sampleCount, long ageMs) {
-        static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0, 0, 0, 0);
+        public static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0, 0, 0, 0);
 
         public boolean isEmpty() {
             return sampleCount == 0;
@@ -110,4 +152,56 @@ public class RollingWindow {
             return "high";
         }
     }
+
+    /**
+     * Mean and standard deviation of the samples in a window, without percentiles.
+     */
+    public record MeanStddev(double mean, double stddev, int sampleCount) {
+        public static final MeanStddev EMPTY = new MeanStddev(0, 0, 0);
+
+        public boolean isEmpty() {
+            return sampleCount == 0;
+        }
+    }
+
+    /**
+     * Reusable holder for the same values as {@link MeanStddev}, filled by
+     * {@link BaselineWindow#readMeanStddev} so the per-span path reads them without allocating.
+     * Not thread-safe: keep one per thread.
+     */
+    public static final class MeanStddevBuffer {
+        private double mean;
+        private double stddev;
+        private int sampleCount;
+
+        public double mean() {
+            return mean;
+        }
+
+        public double stddev() {
+            return stddev;
+        }
+
+        public int sampleCount() {
+            return sampleCount;
+        }
+
+        public boolean isEmpty() {
+            return sampleCount == 0;
+        }
+
+        void set(double mean, double stddev, int sampleCount) {
+            this.mean = mean;
+            this.stddev = stddev;
+            this.sampleCount = sampleCount;
+        }
+
+        void set(MeanStddev moments) {
+            set(moments.mean(), moments.stddev(), moments.sampleCount());
+        }
+
+        void clear() {
+            set(0, 0, 0);
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package io.agenttel.core.baseline;
+
+/**
+ * Mean and variance of a changing set of samples, maintained with Welford's algorithm.
+ *
+ * <p>Supports removing and replacing samples, and combining with other moments, which is how
+ * {@link StripedRollingWindow} merges its stripes' {@link AtomicMoments} on read. Unlike
+ * running sums of values and squares, the update never subtracts two large, nearly equal
+ * numbers, so the variance stays accurate for latencies with a large mean and a small spread.
+ *
+ * <p>Not thread-safe: meant for one reader's local accumulation.
+ */
+final class RunningMoments {
+
+    private long count;
+    private double mean;
+    private double m2;
+
+    void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    void remove(double value) {
+        if (count <= 1) {
+            clear();
+            return;
+        }
+        count--;
+        double delta = value - mean;
+        mean -= delta / count;
+        m2 = Math.max(0.0, m2 - delta * (value - mean));
+    }
+
+    /**
+     * Replaces one sample with another, leaving the count unchanged.
+     */
+    void replace(double oldValue, double newValue) {
+        if (count == 0) {
+            add(newValue);
+            return;
+        }
+        double previousMean = mean;
+        mean += (newValue - oldValue) / count;
+        m2 = Math.max(0.0, m2 + (newValue - oldValue) * (newValue - mean + oldValue - previousMean));
+    }
+
+    /**
+     * Folds another set of moments into this one (Chan et al.'s parallel combination).
+     */
+    void combine(RunningMoments other) {
+        combine(other.count, other.mean, other.m2);
+    }
+
+    /**
+     * Folds in a set of {@code otherCount} samples with the given mean and sum of squared
+     * deviations.
+     */
+    void combine(long otherCount, double otherMean, double otherM2) {
+        if (otherCount == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = otherCount;
+            mean = otherMean;
+            m2 = otherM2;
+            return;
+        }
+        long total = count + otherCount;
+        double delta = otherMean - mean;
+        mean += delta * otherCount / total;
+        m2 += otherM2 + delta * delta * ((double) count * otherCount / total);
+        count = total;
+    }
+
+    void copyFrom(RunningMoments other) {
+        count = other.count;
+        mean = other.mean;
+        m2 = other.m2;
+    }
+
+    void clear() {
+        count = 0;
+        mean = 0.0;
+        m2 = 0.0;
+    }
+
+    long count() {
+        return count;
+    }
+
+    double mean() {
+        return mean;
+    }
+
+    /** Population standard deviation, matching the divisor used by the snapshots. */
+    double stddev() {
+        return count > 0 ? Math.sqrt(m2 / count) : 0.0;
+    }
+}
@@ -0,0 +1,499 @@
+package io.agenttel.core.baseline;
+
+import io.agenttel.api.BaselineSource;
+import io.agenttel.api.baseline.OperationBaseline;
+import io.agenttel.core.operation.OperationRegistry;
+import io.agenttel.core.operation.OperationSlots;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Baseline provider that learns what each hour of the week normally looks like, so daily
+ * peaks are not reported as anomalies and regressions during quiet hours are.
+ *
+ * <p>Each operation keeps up to {@value #HOURS_PER_WEEK} hour-of-week summaries (count, mean,
+ * variance, p50 and p99). Requests add to the current hour's adders and sketch without
+ * locking; when the hour ends, its summary is folded into that hour-of-week's summary with
+ * Chan's parallel combination, after the older weeks are decayed by {@code weeklyDecay} per
+ * week. Summaries are a few fields each and combine exactly for the moments (percentiles are
+ * count-weighted averages), so memory per operation is bounded and independent of traffic.
+ *
+ * <p>Expectations blend the summary of the current hour of the week with the operation's
+ * {@link RollingBaselineProvider} window: {@code seasonalWeight} of the seasonal mean and
+ * variance plus the rest of the rolling ones. Until an hour of the week has seen
+ * {@code minSamples} requests, the rolling baseline is used alone. The current hour's
+ * summary is published with the hour itself, so a read is a volatile read and a clock check.
+ *
+ * <p>Operations are indexed by the rolling provider's {@link OperationRegistry}; use the id
+ * overloads with the ids it assigns.
+ */
+public class SeasonalBaselineProvider implements BaselineProvider {
+
+    public static final int HOURS_PER_WEEK = 168;
+    public static final double DEFAULT_SEASONAL_WEIGHT = 0.7;
+    public static final double DEFAULT_WEEKLY_DECAY = 0.5;
+    public static final int DEFAULT_MIN_SAMPLES = 30;
+
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    /** The epoch started on a Thursday; hours of the week count from Monday 00:00. */
+    private static final int EPOCH_HOUR_OF_WEEK = 72;
+
+    private final RollingBaselineProvider rolling;
+    private final OperationRegistry operations;
+    private final OperationSlots<SeasonalProfile> profiles;
+    private final double seasonalWeight;
+    private final double weeklyDecay;
+    private final int minSamples;
+    private final ZoneId zone;
+    private final Supplier<QuantileSketch> sketchFactory;
+    private final LongSupplier clock;
+
+    private SeasonalBaselineProvider(Builder builder) {
+        this.rolling = builder.rolling;
+        this.operations = rolling.operationRegistry();
+        this.profiles = new OperationSlots<>(operations);
+        this.seasonalWeight = builder.seasonalWeight;
+        this.weeklyDecay = builder.weeklyDecay;
+        this.minSamples = builder.minSamples;
+        this.zone = builder.zone;
+        this.sketchFactory = builder.sketchFactory;
+        this.clock = builder.clock;
+    }
+
+    /**
+     * @param rolling the rolling baselines to blend with; its registry indexes the profiles
+     */
+    public static Builder builder(RollingBaselineProvider rolling) {
+        return new Builder(rolling);
+    }
+
+    public OperationRegistry operationRegistry() {
+        return operations;
+    }
+
+    public RollingBaselineProvider rollingBaselines() {
+        return rolling;
+    }
+
+    /**
+     * Records a latency sample for the given operation.
+     */
+    public void recordLatency(String operationName, double latencyMs) {
+        recordLatency(operations.intern(operationName), latencyMs);
+    }
+
+    /**
+     * Records a latency sample for an operation id from {@link #operationRegistry()}.
+     */
+    public void recordLatency(int operationId, double latencyMs) {
+        if (Double.isNaN(latencyMs)) {
+            return;
+        }
+        profileFor(operationId).advance().add(latencyMs);
+    }
+
+    /**
+     * Returns the expected mean and standard deviation for an operation right now: the
+     * current hour of the week blended with the rolling window, or the rolling window alone
+     * while that hour has too few samples.
+     */
+    public RollingWindow.MeanStddev meanStddev(String operationName) {
+        int operationId = operations.find(operationName);
+        return operationId == OperationRegistry.NOT_FOUND
+                ? RollingWindow.MeanStddev.EMPTY
+                : meanStddev(operationId);
+    }
+
+    /**
+     * Same as {@link #meanStddev(String)} for an operation id from {@link #operationRegistry()}.
+     */
+    public RollingWindow.MeanStddev meanStddev(int operationId) {
+        RollingWindow.MeanStddev current = rolling.meanStddev(operationId);
+        HourStats seasonal = seasonalStats(operationId);
+        if (seasonal == null) {
+            return current;
+        }
+        if (current.isEmpty()) {
+            return new RollingWindow.MeanStddev(seasonal.mean, seasonal.stddev(), 0);
+        }
+        double w = seasonalWeight;
+        double mean = w * seasonal.mean + (1 - w) * current.mean();
+        double variance = w * seasonal.variance() + (1 - w) * current.stddev() * current.stddev();
+        return new RollingWindow.MeanStddev(mean, Math.sqrt(variance), current.sampleCount());
+    }
+
+    /**
+     * Same as {@link #meanStddev(int)}, written into {@code into} instead of a new record.
+     */
+    public void readMeanStddev(int operationId, RollingWindow.MeanStddevBuffer into) {
+        rolling.readMeanStddev(operationId, into);
+        HourStats seasonal = seasonalStats(operationId);
+        if (seasonal == null) {
+            return;
+        }
+        if (into.isEmpty()) {
+            into.set(seasonal.mean, seasonal.stddev(), 0);
+            return;
+        }
+        double w = seasonalWeight;
+        double mean = w * seasonal.mean + (1 - w) * into.mean();
+        double variance = w * seasonal.variance() + (1 - w) * into.stddev() * into.stddev();
+        into.set(mean, Math.sqrt(variance), into.sampleCount());
+    }
+
+    /**
+     * Returns the summary learned for the current hour of the week, blended with the rolling
+     * baseline, or the rolling baseline while that hour has too few samples.
+     */
+    @Override
+    public Optional<OperationBaseline> getBaseline(String operationName) {
+        int operationId = operations.find(operationName);
+        if (operationId == OperationRegistry.NOT_FOUND) {
+            return Optional.empty();
+        }
+        SeasonalProfile profile = profiles.get(operationId);
+        Hour hour = profile != null ? profile.advance() : null;
+        if (hour == null || !isReady(hour.seasonal)) {
+            return rolling.getBaseline(operationName);
+        }
+        // The rolling provider returns the same snapshot object while it is fresh, so a
+        // baseline cached for this hour and snapshot is still exact
+        RollingWindow.Snapshot snapshot = rolling.currentSnapshot(operationId);
+        CachedBaseline cached = profile.cached;
+        if (cached != null && cached.hour == hour && cached.snapshot == snapshot) {
+            return cached.baseline;
+        }
+        Optional<OperationBaseline> baseline = Optional.of(toBaseline(operationName, hour, snapshot));
+        profile.cached = new CachedBaseline(hour, snapshot, baseline);
+        return baseline;
+    }
+
+    /**
+     * Returns what an operation has learned for one hour of the week, or empty if that hour
+     * has no samples yet.
+     *
+     * @param hourOfWeek 0 for Monday 00:00-01:00 in the configured zone, up to 167
+     */
+    public Optional<HourSummary> hourSummary(String operationName, int hourOfWeek) {
+        if (hourOfWeek < 0 || hourOfWeek >= HOURS_PER_WEEK) {
+            throw new IllegalArgumentException("Hour of week must be in [0, 168): " + hourOfWeek);
+        }
+        int operationId = operations.find(operationName);
+        SeasonalProfile profile = operationId == OperationRegistry.NOT_FOUND ? null : profiles.get(operationId);
+        if (profile == null) {
+            return Optional.empty();
+        }
+        profile.advance();
+        HourStats stats = profile.slot(hourOfWeek);
+        return stats == null
+                ? Optional.empty()
+                : Optional.of(new HourSummary(stats.weight, stats.mean, stats.stddev(), stats.p50, stats.p99));
+    }
+
+    /**
+     * Returns the hour of the week a wall-clock time falls in, 0 for Monday 00:00-01:00.
+     */
+    public int hourOfWeek(long epochMs) {
+        long epochHour = Math.floorDiv(epochMs, MILLIS_PER_HOUR);
+        return hourOfWeek(epochHour, zone);
+    }
+
+    private HourStats seasonalStats(int operationId) {
+        SeasonalProfile profile = profiles.get(operationId);
+        if (profile == null) {
+            return null;
+        }
+        HourStats seasonal = profile.advance().seasonal;
+        return isReady(seasonal) ? seasonal : null;
+    }
+
+    private boolean isReady(HourStats seasonal) {
+        return seasonal != null && seasonal.weight >= minSamples;
+    }
+
+    private OperationBaseline toBaseline(String operationName, Hour hour, RollingWindow.Snapshot snapshot) {
+        HourStats seasonal = hour.seasonal;
+        double p50 = seasonal.p50;
+        double p99 = seasonal.p99;
+        double errorRate = 0.0;
+        if (!snapshot.isEmpty()) {
+            double w = seasonalWeight;
+            p50 = w * p50 + (1 - w) * snapshot.p50();
+            p99 = w * p99 + (1 - w) * snapshot.p99();
+            errorRate = snapshot.errorRate();
+        }
+        return OperationBaseline.builder(operationName)
+                .latencyP50Ms(p50)
+                .latencyP99Ms(p99)
+                .errorRate(errorRate)
+                .source(BaselineSource.ROLLING_7D)
+                .updatedAt(Instant.ofEpochMilli(hour.epochHour * MILLIS_PER_HOUR).toString())
+                .build();
+    }
+
+    private SeasonalProfile profileFor(int operationId) {
+        // Plain lookup first: computeIfAbsent would allocate a capturing lambda on every call
+        SeasonalProfile profile = profiles.get(operationId);
+        return profile != null ? profile : profiles.computeIfAbsent(operationId, SeasonalProfile::new);
+    }
+
+    private static int hourOfWeek(long epochHour, ZoneId zone) {
+        long offsetSeconds = zone instanceof ZoneOffset fixed
+                ? fixed.getTotalSeconds()
+                : zone.getRules().getOffset(Instant.ofEpochSecond(epochHour * 3600)).getTotalSeconds();
+        long localHour = Math.floorDiv(epochHour * 3600 + offsetSeconds, 3600L);
+        return (int) Math.floorMod(localHour + EPOCH_HOUR_OF_WEEK, (long) HOURS_PER_WEEK);
+    }
+
+    /**
+     * An operation's learned summary for one hour of the week.
+     *
+     * @param weight decayed number of samples behind the summary
+     */
+    public record HourSummary(double weight, double mean, double stddev, double p50, double p99) {}
+
+    /**
+     * One operation's hour-of-week summaries and the hour being recorded.
+     */
+    private final class SeasonalProfile {
+        private final int operationId;
+        // Guarded by this; written only when an hour ends
+        private final HourStats[] hours = new HourStats[HOURS_PER_WEEK];
+        private volatile Hour current;
+        volatile CachedBaseline cached;
+
+        SeasonalProfile(int operationId) {
+            this.operationId = operationId;
+            long epochHour = Math.floorDiv(clock.getAsLong(), MILLIS_PER_HOUR);
+            this.current = newHour(epochHour, null);
+        }
+
+        Hour advance() {
+            Hour hour = current;
+            long epochHour = Math.floorDiv(clock.getAsLong(), MILLIS_PER_HOUR);
+            // A thread whose clock read lags another's keeps writing to the newer hour
+            return hour.epochHour >= epochHour ? hour : roll(epochHour);
+        }
+
+        synchronized HourStats slot(int hourOfWeek) {
+            return hours[hourOfWeek];
+        }
+
+        private synchronized Hour roll(long epochHour) {
+            Hour finished = current;
+            if (finished.epochHour >= epochHour) {
+                return finished;
+            }
+            // Writers that read the old hour just before the swap may still land in it
+            HourStats stats = finished.toStats();
+            if (stats != null) {
+                HourStats previous = hours[finished.hourOfWeek];
+                hours[finished.hourOfWeek] = previous == null ? stats : previous.decayedTo(stats.epochHour, weeklyDecay).combine(stats);
+            }
+            Hour next = newHour(epochHour, hours[hourOfWeek(epochHour, zone)]);
+            current = next;
+            return next;
+        }
+
+        private Hour newHour(long epochHour, HourStats seasonal) {
+            // Shift sums by the expected mean so the variance does not cancel catastrophically
+            double reference = seasonal != null ? seasonal.mean : rolling.meanStddev(operationId).mean();
+            return new Hour(epochHour, hourOfWeek(epochHour, zone), reference, seasonal, sketchFactory.get());
+        }
+    }
+
+    /**
+     * The hour being recorded, with the summary learned for the same hour in past weeks.
+     * Samples are accumulated as sums of their difference from {@code reference}.
+     */
+    private static final class Hour {
+        final long epochHour;
+        final int hourOfWeek;
+        final double reference;
+        final HourStats seasonal;
+        final QuantileSketch sketch;
+        final LongAdder count = new LongAdder();
+        final DoubleAdder shiftedSum = new DoubleAdder();
+        final DoubleAdder shiftedSquares = new DoubleAdder();
+
+        Hour(long epochHour, int hourOfWeek, double reference, HourStats seasonal, QuantileSketch sketch) {
+            this.epochHour = epochHour;
+            this.hourOfWeek = hourOfWeek;
+            this.reference = reference;
+            this.seasonal = seasonal;
+            this.sketch = sketch;
+        }
+
+        void add(double value) {
+            double shifted = value - reference;
+            shiftedSum.add(shifted);
+            shiftedSquares.add(shifted * shifted);
+            sketch.add(value);
+            count.increment();
+        }
+
+        HourStats toStats() {
+            long n = count.sum();
+            if (n == 0) {
+                return null;
+            }
+            double meanShift = shiftedSum.sum() / n;
+            double m2 = Math.max(0.0, shiftedSquares.sum() - n * meanShift * meanShift);
+            double[] quantiles = sketch.quantiles(0.5, 0.99);
+            return new HourStats(epochHour, n, reference + meanShift, m2, quantiles[0], quantiles[1]);
+        }
+    }
+
+    /**
+     * Immutable summary of one hour of the week. {@code weight} is the decayed sample count.
+     */
+    private static final class HourStats {
+        final long epochHour;
+        final double weight;
+        final double mean;
+        final double m2;
+        final double p50;
+        final double p99;
+
+        HourStats(long epochHour, double weight, double mean, double m2, double p50, double p99) {
+            this.epochHour = epochHour;
+            this.weight = weight;
+            this.mean = mean;
+            this.m2 = m2;
+            this.p50 = p50;
+            this.p99 = p99;
+        }
+
+        double variance() {
+            return weight > 0 ? m2 / weight : 0.0;
+        }
+
+        double stddev() {
+            return Math.sqrt(variance());
+        }
+
+        /**
+         * Scales the weight down by {@code weeklyDecay} for every week between this summary and
+         * {@code epochHour}; the mean and variance are unchanged.
+         */
+        HourStats decayedTo(long epochHour, double weeklyDecay) {
+            long weeks = Math.max(1, (epochHour - this.epochHour) / HOURS_PER_WEEK);
+            double factor = Math.pow(weeklyDecay, weeks);
+            return new HourStats(this.epochHour, weight * factor, mean, m2 * factor, p50, p99);
+        }
+
+        /**
+         * Chan et al.'s parallel combination of the moments; percentiles are weight-averaged.
+         */
+        HourStats combine(HourStats other) {
+            double total = weight + other.weight;
+            if (total <= 0) {
+                return other;
+            }
+            double delta = other.mean - mean;
+            double combinedMean = mean + delta * other.weight / total;
+            double combinedM2 = m2 + other.m2 + delta * delta * weight * other.weight / total;
+            double combinedP50 = (p50 * weight + other.p50 * other.weight) / total;
+            double combinedP99 = (p99 * weight + other.p99 * other.weight) / total;
+            return new HourStats(Math.max(epochHour, other.epochHour), total, combinedMean, combinedM2,
+                    combinedP50, combinedP99);
+        }
+    }
+
+    private static final class CachedBaseline {
+        final Hour hour;
+        final RollingWindow.Snapshot snapshot;
+        final Optional<OperationBaseline> baseline;
+
+        CachedBaseline(Hour hour, RollingWindow.Snapshot snapshot, Optional<OperationBaseline> baseline) {
+            this.hour = hour;
+            this.snapshot = snapshot;
+            this.baseline = baseline;
+        }
+    }
+
+    public static class Builder {
+        private final RollingBaselineProvider rolling;
+        private double seasonalWeight = DEFAULT_SEASONAL_WEIGHT;
+        private double weeklyDecay = DEFAULT_WEEKLY_DECAY;
+        private int minSamples = DEFAULT_MIN_SAMPLES;
+        private ZoneId zone = ZoneOffset.UTC;
+        private Supplier<QuantileSketch> sketchFactory = () -> new LogHistogramSketch(0.05);
+        private LongSupplier clock = System::currentTimeMillis;
+
+        Builder(RollingBaselineProvider rolling) {
+            if (rolling == null) {
+                throw new IllegalArgumentException("Seasonal baselines need rolling baselines to blend with");
+            }
+            this.rolling = rolling;
+        }
+
+        /**
+         * Share of the seasonal expectation in the blend, in [0, 1]. Defaults to 0.7.
+         */
+        public Builder seasonalWeight(double seasonalWeight) {
+            if (seasonalWeight < 0 || seasonalWeight > 1) {
+                throw new IllegalArgumentException("Seasonal weight must be in [0, 1]: " + seasonalWeight);
+            }
+            this.seasonalWeight = seasonalWeight;
+            return this;
+        }
+
+        /**
+         * Weight kept by each past week when a new week's hour is folded in, in (0, 1].
+         * Defaults to 0.5, so last week counts as much as all earlier weeks together.
+         */
+        public Builder weeklyDecay(double weeklyDecay) {
+            if (weeklyDecay <= 0 || weeklyDecay > 1) {
+                throw new IllegalArgumentException("Weekly decay must be in (0, 1]: " + weeklyDecay);
+            }
+            this.weeklyDecay = weeklyDecay;
+            return this;
+        }
+
+        /**
+         * Decayed samples an hour of the week needs before it is used. Defaults to 30.
+         */
+        public Builder minSamples(int minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Time zone whose hours and weekdays the profile follows. Defaults to UTC.
+         */
+        public Builder zone(ZoneId zone) {
+            this.zone = zone;
+            return this;
+        }
+
+        /**
+         * Sketch that collects the current hour's percentiles. Defaults to a
+         * {@link LogHistogramSketch} with 5% relative accuracy.
+         */
+        public Builder sketchFactory(Supplier<QuantileSketch> sketchFactory) {
+            this.sketchFactory = sketchFactory;
+            return this;
+        }
+
+        /**
+         * Wall clock in epoch milliseconds that decides the current hour of the week.
+         * Defaults to {@link System#currentTimeMillis()}.
+         */
+        public Builder clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public SeasonalBaselineProvider build() {
+            return new SeasonalBaselineProvider(this);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package io.agenttel.core.baseline;
+
+import io.agenttel.api.BaselineSource;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Wall-clock sliding window made of fixed-width time buckets in a circular array.
+ *
+ * <p>Each bucket holds its own quantile sketch and {@link AtomicMoments}. Writes go to the bucket
+ * for the current time slice; a bucket whose slice has passed out of the window is replaced
+ * the next time its slot is written. Reads merge the live buckets' sketches and combine their
+ * moments with {@link RunningMoments}' parallel combination, so a snapshot costs
+ * O(buckets) regardless of traffic and always covers the same span of time, whether the
+ * operation sees ten requests a second or fifty thousand.
+ *
+ * <p>Expiry is bucket-granular: the window covers between {@code (buckets - 1)} and
+ * {@code buckets} bucket widths of history.
+ *
+ * <p>A bucket's moments are shifted by its own first sample, so every time slice starts
+ * from a shift near the latencies of the moment. Even a 24h or 7d window whose mean drifts
+ * far from where it started keeps the precision of a variance computed about its mean,
+ * where the plain {@code sumOfSquares / n - mean^2} loses it for a large mean and a small
+ * spread.
+ *
+ * <p>Memory grows with the bucket count: every live bucket keeps its own sketch, sized by the
+ * range of latencies seen in its time slice. With the default {@link LogHistogramSketch}, a
+ * 60-bucket window over latencies spanning a 10x range holds about 60 x 5 KB per operation.
+ */
+public class SlidingTimeWindow implements BaselineWindow {
+
+    /**
+     * Standard window lengths with bucket layouts sized to keep memory bounded.
+     */
+    public enum Length {
+        ONE_MINUTE("1m", Duration.ofMinutes(1), 60, BaselineSource.ROLLING_1M),
+        FIVE_MINUTES("5m", Duration.ofMinutes(5), 60, BaselineSource.ROLLING_5M),
+        ONE_HOUR("1h", Duration.ofHours(1), 60, BaselineSource.ROLLING_1H),
+        ONE_DAY("24h", Duration.ofDays(1), 96, BaselineSource.ROLLING_24H),
+        SEVEN_DAYS("7d", Duration.ofDays(7), 168, BaselineSource.ROLLING_7D);
+
+        private final String label;
+        private final Duration duration;
+        private final int buckets;
+        private final BaselineSource source;
+
+        Length(String label, Duration duration, int buckets, BaselineSource source) {
+            this.label = label;
+            this.duration = duration;
+            this.buckets = buckets;
+            this.source = source;
+        }
+
+        public String label() { return label; }
+        public Duration duration() { return duration; }
+        public int buckets() { return buckets; }
+        public BaselineSource source() { return source; }
+
+        /**
+         * Returns the standard length closest to {@code window}, comparing by ratio.
+         */
+        static Length closestTo(Duration window) {
+            Length closest = ONE_MINUTE;
+            double best = Double.MAX_VALUE;
+            for (Length length : values()) {
+                double distance = Math.abs(Math.log((double) window.toMillis() / length.duration.toMillis()));
+                if (distance < best) {
+                    best = distance;
+                    closest = length;
+                }
+            }
+            return closest;
+        }
+
+        /**
+         * Parses a label such as {@code "1h"} or {@code "7d"}.
+         *
+         * @throws IllegalArgumentException if the label is not a supported length
+         */
+        public static Length fromLabel(String label) {
+            String normalized = label.trim().toLowerCase(Locale.ROOT);
+            for (Length length : values()) {
+                if (length.label.equals(normalized)) {
+                    return length;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported window length: " + label
+                    + " (expected one of 1m, 5m, 1h, 24h, 7d)");
+        }
+    }
+
+    private final long bucketMs;
+    private final int bucketCount;
+    private final Supplier<QuantileSketch> sketchFactory;
+    private final LongSupplier clock;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final AtomicLong writes = new AtomicLong(0);
+    private final ErrorRateTracker errorRates;
+    private final BaselineSource source;
+
+    public SlidingTimeWindow(Length length) {
+        this(length.duration(), length.buckets());
+    }
+
+    public SlidingTimeWindow(Duration window, int bucketCount) {
+        this(window, bucketCount, LogHistogramSketch::new);
+    }
+
+    /**
+     * @param window        wall-clock span covered by the window
+     * @param bucketCount   number of time buckets the span is divided into
+     * @param sketchFactory creates the per-bucket quantile sketches; all sketches it
+     *                      returns must be mergeable with each other
+     */
+    public SlidingTimeWindow(Duration window, int bucketCount, Supplier<QuantileSketch> sketchFactory) {
+        this(window, bucketCount, sketchFactory, System::currentTimeMillis);
+    }
+
+    SlidingTimeWindow(Duration window, int bucketCount, Supplier<QuantileSketch> sketchFactory,
+                      LongSupplier clock) {
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException("Bucket count must be positive");
+        }
+        long windowMs = window.toMillis();
+        if (windowMs < bucketCount) {
+            throw new IllegalArgumentException("Window must be at least one millisecond per bucket");
+        }
+        this.bucketMs = windowMs / bucketCount;
+        this.bucketCount = bucketCount;
+        this.sketchFactory = sketchFactory;
+        this.clock = clock;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+        this.errorRates = new ErrorRateTracker(ErrorRateTracker.DEFAULT_SHORT_WINDOW_SECONDS,
+                ErrorRateTracker.DEFAULT_LONG_WINDOW_SECONDS, clock);
+        this.source = Length.closestTo(window).source();
+    }
+
+    @Override
+    public void record(double value) {
+        if (Double.isNaN(value)) return;
+        Bucket bucket = currentBucket();
+        bucket.sketch.add(value);
+        bucket.moments.add(value);
+        errorRates.recordSuccess();
+        writes.incrementAndGet();
+    }
+
+    @Override
+    public void recordError() {
+        currentBucket().errors.increment();
+        errorRates.recordError();
+        writes.incrementAndGet();
+    }
+
+    @Override
+    public RollingWindow.Snapshot snapshot() {
+        long nowMs = clock.getAsLong();
+        long epoch = nowMs / bucketMs;
+        long oldestLive = epoch - bucketCount + 1;
+
+        QuantileSketch merged = sketchFactory.get();
+        RunningMoments moments = new RunningMoments();
+        long errors = 0;
+        long oldestWithData = Long.MAX_VALUE;
+        for (int i = 0; i < bucketCount; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket == null || bucket.epoch < oldestLive) continue;
+            errors += bucket.errors.sum();
+            if (bucket.moments.count() == 0) continue;
+            bucket.moments.addTo(moments);
+            merged.merge(bucket.sketch);
+            oldestWithData = Math.min(oldestWithData, bucket.epoch);
+        }
+        long n = moments.count();
+        if (n == 0) {
+            return RollingWindow.Snapshot.EMPTY;
+        }
+
+        double[] percentiles = merged.quantiles(0.50, 0.95, 0.99);
+        double errorRate = (double) errors / (n + errors);
+        long ageMs = nowMs - oldestWithData * bucketMs;
+
+        return new RollingWindow.Snapshot(moments.mean(), moments.stddev(),
+                percentiles[0], percentiles[1], percentiles[2],
+                errorRate, (int) Math.min(n, Integer.MAX_VALUE), ageMs);
+    }
+
+    /**
+     * Combines the live buckets' moments without merging their sketches.
+     */
+    @Override
+    public RollingWindow.MeanStddev meanStddev() {
+        RollingWindow.MeanStddevBuffer moments = new RollingWindow.MeanStddevBuffer();
+        readMeanStddev(moments);
+        return moments.isEmpty()
+                ? RollingWindow.MeanStddev.EMPTY
+                : new RollingWindow.MeanStddev(moments.mean(), moments.stddev(), moments.sampleCount());
+    }
+
+    @Override
+    public void readMeanStddev(RollingWindow.MeanStddevBuffer into) {
+        long oldestLive = clock.getAsLong() / bucketMs - bucketCount + 1;
+        RunningMoments moments = new RunningMoments();
+        for (int i = 0; i < bucketCount; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket == null || bucket.epoch < oldestLive) continue;
+            bucket.moments.addTo(moments);
+        }
+        long n = moments.count();
+        if (n == 0) {
+            into.clear();
+            return;
+        }
+        into.set(moments.mean(), moments.stddev(), (int) Math.min(n, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Short- and long-window error rates for spike detection; the snapshot's error rate
+     * covers this window's own span instead.
+     */
+    @Override
+    public ErrorRateTracker errorRates() {
+        return errorRates;
+    }
+
+    /**
+     * The source of the standard {@link Length} closest to this window's span.
+     */
+    @Override
+    public BaselineSource source() {
+        return source;
+    }
+
+    @Override
+    public int size() {
+        long oldestLive = clock.getAsLong() / bucketMs - bucketCount + 1;
+        long n = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch >= oldestLive) {
+                n += bucket.moments.count();
+            }
+        }
+        return (int) Math.min(n, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Changes on every write and whenever the current time moves into a new bucket,
+     * since expiring a bucket changes the window contents without a write.
+     */
+    @Override
+    public long version() {
+        return writes.get() + clock.getAsLong() / bucketMs;
+    }
+
+    public Duration bucketWidth() {
+        return Duration.ofMillis(bucketMs);
+    }
+
+    public int bucketCount() {
+        return bucketCount;
+    }
+
+    private Bucket currentBucket() {
+        long epoch = clock.getAsLong() / bucketMs;
+        int slot = (int) (epoch % bucketCount);
+        Bucket bucket = buckets.get(slot);
+        // Replace an expired bucket with a fresh one; a writer still holding the old
+        // bucket loses its sample, which only happens right at a bucket boundary
+        while (bucket == null || bucket.epoch < epoch) {
+            Bucket fresh = new Bucket(epoch, sketchFactory.get());
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+            bucket = buckets.get(slot);
+        }
+        return bucket;
+    }
+
+    /**
+     * Samples observed during one time slice.
+     */
+    private static final class Bucket {
+        final long epoch;
+        final QuantileSketch sketch;
+        final AtomicMoments moments = new AtomicMoments();
+        final LongAdder errors = new LongAdder();
+
+        Bucket(long epoch, QuantileSketch sketch) {
+            this.epoch = epoch;
+            this.sketch = sketch;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package io.agenttel.core.baseline;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Count-based window for hot operations written by many threads at once.
+ *
+ * <p>{@link RollingWindow} sends every writer through one shared write index and counter,
+ * a single cache line that every request thread contends on. This variant splits the window
+ * into independent sub-rings, each with its own index, moments and quantile sketch, and picks a
+ * stripe from the writing thread's id. The total count is a {@link LongAdder}, and errors go
+ * to an {@link ErrorRateTracker}.
+ * {@link #snapshot()} merges the stripes.
+ *
+ * <p>Each stripe holds the most recent {@code capacity / stripes} samples written to it, so
+ * the window as a whole holds about {@code capacity} recent samples when writes are spread
+ * over many threads. An operation written by a single thread only fills one stripe, so use
+ * this variant for hot endpoints and keep {@link RollingWindow} for the rest.
+ */
+public class StripedRollingWindow implements BaselineWindow {
+
+    private static final long EMPTY_SLOT = Double.doubleToRawLongBits(Double.NaN);
+    private static final int MAX_STRIPES = 64;
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final Supplier<QuantileSketch> sketchFactory;
+    private final ErrorRateTracker errorRates = new ErrorRateTracker();
+    private final LongAdder totalCount = new LongAdder();
+    private final AtomicLong firstSampleTimeMs = new AtomicLong(0);
+
+    public StripedRollingWindow(int capacity) {
+        this(capacity, defaultStripes(), LogHistogramSketch::new);
+    }
+
+    /**
+     * @param capacity      total number of recent samples kept across all stripes
+     * @param stripes       number of sub-rings, rounded up to a power of two
+     * @param sketchFactory creates each stripe's quantile sketch; all sketches it returns
+     *                      must be mergeable with each other
+     */
+    public StripedRollingWindow(int capacity, int stripes, Supplier<QuantileSketch> sketchFactory) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int count = Math.min(Integer.highestOneBit(Math.min(stripes, MAX_STRIPES) * 2 - 1), capacity);
+        count = Integer.highestOneBit(count);
+        int stripeCapacity = (capacity + count - 1) / count;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(stripeCapacity, sketchFactory.get());
+        }
+        this.mask = count - 1;
+        this.sketchFactory = sketchFactory;
+    }
+
+    /**
+     * One stripe per available processor, rounded up to a power of two.
+     */
+    public static int defaultStripes() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public void record(double value) {
+        if (Double.isNaN(value)) return;
+        if (firstSampleTimeMs.get() == 0) {
+            firstSampleTimeMs.compareAndSet(0, System.currentTimeMillis());
+        }
+        stripeForCurrentThread().record(value);
+        errorRates.recordSuccess();
+        totalCount.increment();
+    }
+
+    @Override
+    public void recordError() {
+        errorRates.recordError();
+        totalCount.increment();
+    }
+
+    @Override
+    public RollingWindow.Snapshot snapshot() {
+        QuantileSketch merged = sketchFactory.get();
+        RunningMoments moments = new RunningMoments();
+        for (Stripe stripe : stripes) {
+            if (stripe.size() == 0) continue;
+            stripe.addMomentsTo(moments);
+            merged.merge(stripe.sketch);
+        }
+        long n = moments.count();
+        if (n == 0) {
+            return RollingWindow.Snapshot.EMPTY;
+        }
+
+        double[] percentiles = merged.quantiles(0.50, 0.95, 0.99);
+
+        double errorRate = errorRates.longWindowRate();
+
+        long firstTime = firstSampleTimeMs.get();
+        long ageMs = firstTime > 0 ? System.currentTimeMillis() - firstTime : 0;
+
+        return new RollingWindow.Snapshot(moments.mean(), moments.stddev(),
+                percentiles[0], percentiles[1], percentiles[2], errorRate, (int) n, ageMs);
+    }
+
+    /**
+     * Combines the stripes' moments without merging their sketches.
+     */
+    @Override
+    public RollingWindow.MeanStddev meanStddev() {
+        RunningMoments moments = new RunningMoments();
+        for (Stripe stripe : stripes) {
+            stripe.addMomentsTo(moments);
+        }
+        long n = moments.count();
+        return n == 0
+                ? RollingWindow.MeanStddev.EMPTY
+                : new RollingWindow.MeanStddev(moments.mean(), moments.stddev(), (int) n);
+    }
+
+    @Override
+    public void readMeanStddev(RollingWindow.MeanStddevBuffer into) {
+        // The accumulator does not escape, so the JIT can keep it in registers
+        RunningMoments moments = new RunningMoments();
+        for (Stripe stripe : stripes) {
+            stripe.addMomentsTo(moments);
+        }
+        long n = moments.count();
+        if (n == 0) {
+            into.clear();
+        } else {
+            into.set(moments.mean(), moments.stddev(), (int) n);
+        }
+    }
+
+    @Override
+    public ErrorRateTracker errorRates() {
+        return errorRates;
+    }
+
+    @Override
+    public int size() {
+        int n = 0;
+        for (Stripe stripe : stripes) {
+            n += stripe.size();
+        }
+        return n;
+    }
+
+    @Override
+    public long version() {
+        return totalCount.sum();
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    private Stripe stripeForCurrentThread() {
+        // Fibonacci hashing spreads sequential thread ids across stripes
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & mask];
+    }
+
+    /**
+     * Independent sub-ring. Contended only by the threads that hash to it.
+     */
+    private static final class Stripe {
+        final AtomicLongArray samples;
+        final int capacity;
+        final QuantileSketch sketch;
+        final AtomicInteger writeIndex = new AtomicInteger(0);
+        final AtomicInteger count = new AtomicInteger(0);
+        final AtomicMoments moments = new AtomicMoments();
+
+        Stripe(int capacity, QuantileSketch sketch) {
+            this.capacity = capacity;
+            this.sketch = sketch;
+            this.samples = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                samples.set(i, EMPTY_SLOT);
+            }
+        }
+
+        void record(double value) {
+            int idx = (int) (Integer.toUnsignedLong(writeIndex.getAndIncrement()) % capacity);
+            long previous = samples.getAndSet(idx, Double.doubleToRawLongBits(value));
+
+            sketch.add(value);
+            if (previous == EMPTY_SLOT) {
+                moments.add(value);
+                count.incrementAndGet();
+            } else {
+                double overwritten = Double.longBitsToDouble(previous);
+                moments.replace(overwritten, value);
+                sketch.remove(overwritten);
+            }
+        }
+
+        void addMomentsTo(RunningMoments target) {
+            moments.addTo(target);
+        }
+
+        int size() {
+            return Math.min(count.get(), capacity);
+        }
+    }
+}
@@ -6,5 +6,11 @@
  *   <li>{@link io.agenttel.core.baseline.RollingBaselineProvider} — Sliding window from observed traffic</li>
  *   <li>{@link io.agenttel.core.baseline.CompositeBaselineProvider} — Chains multiple providers with fallback</li>
  * </ul>
+ *
+ * <p>Rolling windows estimate percentiles with a pluggable
+ * {@link io.agenttel.core.baseline.QuantileSketch}; the default
+ * {@link io.agenttel.core.baseline.LogHistogramSketch} bounds relative error at 1%.
+ * A window is either count-based ({@link io.agenttel.core.baseline.RollingWindow}) or spans
+ * fixed wall-clock time ({@link io.agenttel.core.baseline.SlidingTimeWindow}).
  */
 package io.agenttel.core.baseline;
@@ -3,42 +3,82 @@ package io.agenttel.core.causality;
 import io.agenttel.api.DependencyState;
 import io.agenttel.api.ErrorCategory;
 
-import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
 /**
  * Tracks dependency health states and provides causal analysis for error diagnosis.
  * Enhanced with operation-to-dependency mapping for targeted root cause identification.
+ *
+ * <p>Health comes from two sources. Client spans feed {@link #recordDependencyCall}, which
+ * counts calls, errors and latency per dependency over a trailing window and derives the state
+ * from rates with hysteresis (see {@link DependencyHealth}), so one failed call among many
+ * successful ones neither marks a dependency unhealthy nor is erased by the next success.
+ * {@link #reportDependencyState} records an explicit state, for instance from a health check;
+ * it stays in effect until replaced. When both exist the more severe one is reported. Evidence
+ * strings and timestamps are only built when a state is read.
  */
 public class CausalityTracker {
 
-    private final ConcurrentHashMap<String, DependencyHealthState> dependencyStates = new ConcurrentHashMap<>();
+    private static final int MAX_DEPENDENCIES = 500;
+    private static final long STALE_STATE_MS = 5 * 60 * 1000L;
+
+    private final ConcurrentHashMap<String, DependencyHealth> dependencyHealth = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DependencyHealthState> reportedStates = new ConcurrentHashMap<>();
     private final OperationDependencyTracker dependencyTracker;
+    private final LongSupplier clock;
 
     public CausalityTracker() {
         this(null);
     }
 
     public CausalityTracker(OperationDependencyTracker dependencyTracker) {
+        this(dependencyTracker, System::currentTimeMillis);
+    }
+
+    CausalityTracker(OperationDependencyTracker dependencyTracker, LongSupplier clock) {
         this.dependencyTracker = dependencyTracker;
+        this.clock = clock;
+    }
+
+    /**
+     * Records the outcome of one call to a dependency. Lock-free and allocation-free once the
+     * dependency is known; dependencies beyond the first {@value #MAX_DEPENDENCIES} are not tracked.
+     */
+    public void recordDependencyCall(String dependency, double latencyMs, boolean isError) {
+        DependencyHealth health = dependencyHealth.get(dependency);
+        if (health == null) {
+            if (dependencyHealth.size() >= MAX_DEPENDENCIES) {
+                return;
+            }
+            health = dependencyHealth.computeIfAbsent(dependency, k -> new DependencyHealth(clock));
+        }
+        health.record(latencyMs, isError);
     }
 
     /**
-     * Reports the current health state of a dependency.
+     * Reports the current health state of a dependency explicitly. The state holds until the
+     * next report for the same dependency.
      */
     public void reportDependencyState(String dependency, DependencyState state, String evidence) {
-        dependencyStates.put(dependency, new DependencyHealthState(dependency, state, evidence, Instant.now()));
+        if (state == DependencyState.HEALTHY) {
+            // A healthy report over a healthy one carries nothing new to record
+            DependencyHealthState current = reportedStates.get(dependency);
+            if (current != null && current.state() == DependencyState.HEALTHY) {
+                return;
+            }
+        }
+        reportedStates.put(dependency, new DependencyHealthState(dependency, state, evidence,
+                Instant.ofEpochMilli(clock.getAsLong())));
     }
 
     /**
      * Returns a causal hint if any dependency is unhealthy or degraded.
      */
     public Optional<String> getCauseHint() {
-        return dependencyStates.values().stream()
-                .filter(s -> s.state() != DependencyState.HEALTHY && s.state() != DependencyState.UNKNOWN)
-                .findFirst()
+        return mostSevere(allDependencies())
                 .map(s -> "Dependency " + s.name() + " is " + s.state().getValue()
                         + " since " + s.since() + ": " + s.evidence());
     }
@@ -47,7 +87,17 @@ public class CausalityTracker {
      * Returns the state of a specific dependency.
      */
     public Optional<DependencyHealthState> getDependencyState(String dependency) {
-        return Optional.ofNullable(dependencyStates.get(dependency));
+        DependencyHealthState reported = reportedStates.get(dependency);
+        DependencyHealth health = dependencyHealth.get(dependency);
+        if (health == null) {
+            return Optional.ofNullable(reported);
+        }
+        DependencyHealth.Status status = health.status();
+        if (reported != null && severityWeight(reported.state()) >= severityWeight(status.state)) {
+            return Optional.of(reported);
+        }
+        return Optional.of(new DependencyHealthState(dependency, status.state, status.evidence(),
+                Instant.ofEpochMilli(status.sinceMs)));
     }
 
     /**
@@ -73,10 +123,8 @@ public class CausalityTracker {
 
         List<DependencyHealthState> unhealthyDeps = new ArrayList<>();
         for (String dep : operationDeps) {
-            DependencyHealthState state = dependencyStates.get(dep);
-            if (state != null && state.state() != DependencyState.HEALTHY
-                    && state.state() != DependencyState.UNKNOWN) {
-                unhealthyDeps.add(state);
+            if (isUnhealthy(dep)) {
+                getDependencyState(dep).ifPresent(unhealthyDeps::add);
             }
         }
 
@@ -104,9 +152,7 @@ public class CausalityTracker {
     }
 
     private CausalAnalysis analyzeAllDependencies(String operationName, ErrorCategory errorCategory) {
-        Optional<DependencyHealthState> unhealthy = dependencyStates.values().stream()
-                .filter(s -> s.state() != DependencyState.HEALTHY && s.state() != DependencyState.UNKNOWN)
-                .max(Comparator.comparingInt(s -> severityWeight(s.state())));
+        Optional<DependencyHealthState> unhealthy = mostSevere(allDependencies());
 
         if (unhealthy.isPresent()) {
             DependencyHealthState dep = unhealthy.get();
@@ -157,14 +203,54 @@ public class CausalityTracker {
         }
 
         // Decay confidence for stale states (>5 minutes old)
-        Duration age = Duration.between(dep.since(), Instant.now());
-        if (age.toMinutes() > 5) {
+        if (clock.getAsLong() - dep.since().toEpochMilli() > STALE_STATE_MS) {
             base *= 0.8;
         }
 
         return Math.round(base * 100.0) / 100.0;
     }
 
+    private Set<String> allDependencies() {
+        Set<String> names = new HashSet<>(dependencyHealth.keySet());
+        names.addAll(reportedStates.keySet());
+        return names;
+    }
+
+    /**
+     * The most severe unhealthy or degraded dependency among {@code names}. States are compared
+     * before any evidence is built, so only the returned one pays for it.
+     */
+    private Optional<DependencyHealthState> mostSevere(Collection<String> names) {
+        String worst = null;
+        int worstWeight = 0;
+        for (String name : names) {
+            int weight = isUnhealthy(name) ? severityWeight(effectiveState(name)) : 0;
+            if (weight > worstWeight) {
+                worst = name;
+                worstWeight = weight;
+            }
+        }
+        return worst != null ? getDependencyState(worst) : Optional.empty();
+    }
+
+    private boolean isUnhealthy(String dependency) {
+        DependencyState state = effectiveState(dependency);
+        return state == DependencyState.UNHEALTHY || state == DependencyState.DEGRADED;
+    }
+
+    private DependencyState effectiveState(String dependency) {
+        DependencyHealthState reported = reportedStates.get(dependency);
+        DependencyHealth health = dependencyHealth.get(dependency);
+        DependencyState derived = health != null ? health.status().state : null;
+        if (reported == null) {
+            return derived;
+        }
+        if (derived == null) {
+            return reported.state();
+        }
+        return severityWeight(reported.state()) >= severityWeight(derived) ? reported.state() : derived;
+    }
+
     private int severityWeight(DependencyState state) {
         return switch (state) {
             case UNHEALTHY -> 3;
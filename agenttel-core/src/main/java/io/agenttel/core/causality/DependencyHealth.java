@@ -0,0 +1,210 @@
+package io.agenttel.core.causality;
+
+import io.agenttel.api.DependencyState;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Health of one dependency, derived from its calls over a trailing window rather than from
+ * the outcome of the last call.
+ *
+ * <p>Calls add to the current second's adders without locking. When a second ends, its counts
+ * go into a ring of {@value #WINDOW_SECONDS} seconds and the state is re-derived from the
+ * window's error rate and mean latency, so reading the state is a field read. Transitions use
+ * hysteresis: a dependency turns unhealthy at a {@value #UNHEALTHY_ERROR_RATE} error rate but
+ * only recovers below {@value #UNHEALTHY_RECOVERY_ERROR_RATE}, and likewise for degraded, so a
+ * rate hovering at a threshold does not flap. Latency counts against a reference learned from
+ * the seconds the dependency was healthy. Windows with fewer than {@value #MIN_CALLS} calls keep
+ * the previous state; a window without calls resets it to healthy.
+ */
+final class DependencyHealth {
+
+    static final int WINDOW_SECONDS = 60;
+    static final int MIN_CALLS = 10;
+    static final double UNHEALTHY_ERROR_RATE = 0.5;
+    static final double UNHEALTHY_RECOVERY_ERROR_RATE = 0.25;
+    static final double DEGRADED_ERROR_RATE = 0.1;
+    static final double DEGRADED_RECOVERY_ERROR_RATE = 0.05;
+    /** Mean latency, as a multiple of the healthy reference, that degrades a dependency. */
+    static final double SLOW_LATENCY_FACTOR = 3.0;
+    static final double SLOW_RECOVERY_LATENCY_FACTOR = 2.0;
+
+    private static final long MILLIS_PER_SECOND = 1000;
+    private static final double REFERENCE_ALPHA = 0.1;
+    private static final int MIN_REFERENCE_SECONDS = 10;
+
+    private final LongSupplier clock;
+    private volatile Second current;
+    private volatile Status status;
+
+    // Guarded by this; indexed by second modulo the window
+    private final long[] epochs = new long[WINDOW_SECONDS];
+    private final int[] calls = new int[WINDOW_SECONDS];
+    private final int[] errors = new int[WINDOW_SECONDS];
+    private final double[] latencySums = new double[WINDOW_SECONDS];
+    private double referenceLatency;
+    private int referenceSeconds;
+
+    DependencyHealth(LongSupplier clock) {
+        this.clock = clock;
+        long now = clock.getAsLong();
+        this.current = new Second(now / MILLIS_PER_SECOND);
+        this.status = new Status(DependencyState.HEALTHY, now, 0, 0, 0.0, 0.0);
+        Arrays.fill(epochs, Long.MIN_VALUE);
+    }
+
+    /**
+     * Records one call. Latency is only averaged over successful calls, since failures are
+     * often fast rejections.
+     */
+    void record(double latencyMs, boolean error) {
+        Second second = advance();
+        second.calls.increment();
+        if (error) {
+            second.errors.increment();
+        } else {
+            second.latencySum.add(latencyMs);
+        }
+    }
+
+    /** The state derived when the last second ended. */
+    Status status() {
+        advance();
+        return status;
+    }
+
+    private Second advance() {
+        Second second = current;
+        long epoch = clock.getAsLong() / MILLIS_PER_SECOND;
+        // A thread whose clock read lags another's keeps writing to the newer second
+        return second.epoch >= epoch ? second : roll(epoch);
+    }
+
+    private synchronized Second roll(long epoch) {
+        Second finished = current;
+        if (finished.epoch >= epoch) {
+            return finished;
+        }
+        Second next = new Second(epoch);
+        current = next;
+
+        // Writers that read the old second just before the swap may still land in it
+        int finishedCalls = (int) Math.min(finished.calls.sum(), Integer.MAX_VALUE);
+        int finishedErrors = (int) Math.min(finished.errors.sum(), Integer.MAX_VALUE);
+        double finishedLatency = finished.latencySum.sum();
+        int slot = (int) Math.floorMod(finished.epoch, (long) WINDOW_SECONDS);
+        epochs[slot] = finished.epoch;
+        calls[slot] = finishedCalls;
+        errors[slot] = finishedErrors;
+        latencySums[slot] = finishedLatency;
+
+        long windowCalls = 0;
+        long windowErrors = 0;
+        double windowLatency = 0;
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            if (epochs[i] >= epoch - WINDOW_SECONDS) {
+                windowCalls += calls[i];
+                windowErrors += errors[i];
+                windowLatency += latencySums[i];
+            }
+        }
+        long successes = windowCalls - windowErrors;
+        double meanLatency = successes > 0 ? windowLatency / successes : 0.0;
+        double reference = referenceSeconds >= MIN_REFERENCE_SECONDS ? referenceLatency : 0.0;
+
+        Status previous = status;
+        DependencyState state = nextState(previous.state, windowCalls, windowErrors, meanLatency, reference);
+        long since = state == previous.state ? previous.sinceMs : clock.getAsLong();
+        status = new Status(state, since, windowCalls, windowErrors, meanLatency, reference);
+
+        // Learn the reference only from healthy seconds, so an incident does not become the norm
+        int finishedSuccesses = finishedCalls - finishedErrors;
+        if (state == DependencyState.HEALTHY && finishedSuccesses > 0) {
+            double mean = finishedLatency / finishedSuccesses;
+            referenceLatency = referenceSeconds == 0 ? mean : referenceLatency + REFERENCE_ALPHA * (mean - referenceLatency);
+            referenceSeconds++;
+        }
+        return next;
+    }
+
+    static DependencyState nextState(DependencyState state, long windowCalls, long windowErrors,
+                                     double meanLatency, double referenceLatency) {
+        if (windowCalls == 0) {
+            return DependencyState.HEALTHY;
+        }
+        if (windowCalls < MIN_CALLS) {
+            return state;
+        }
+        double errorRate = (double) windowErrors / windowCalls;
+        double slowness = referenceLatency > 0 ? meanLatency / referenceLatency : 0.0;
+        switch (state) {
+            case UNHEALTHY:
+                if (errorRate >= UNHEALTHY_RECOVERY_ERROR_RATE) {
+                    return DependencyState.UNHEALTHY;
+                }
+                break;
+            case DEGRADED:
+                if (errorRate >= UNHEALTHY_ERROR_RATE) {
+                    return DependencyState.UNHEALTHY;
+                }
+                break;
+            default:
+                if (errorRate >= UNHEALTHY_ERROR_RATE) {
+                    return DependencyState.UNHEALTHY;
+                }
+                return errorRate >= DEGRADED_ERROR_RATE || slowness >= SLOW_LATENCY_FACTOR
+                        ? DependencyState.DEGRADED : DependencyState.HEALTHY;
+        }
+        // Leaving UNHEALTHY or staying DEGRADED takes the lower, recovery thresholds
+        return errorRate >= DEGRADED_RECOVERY_ERROR_RATE || slowness >= SLOW_RECOVERY_LATENCY_FACTOR
+                ? DependencyState.DEGRADED : DependencyState.HEALTHY;
+    }
+
+    /** State and the window it was derived from; evidence text is only built on request. */
+    static final class Status {
+        final DependencyState state;
+        final long sinceMs;
+        final long calls;
+        final long errors;
+        final double meanLatencyMs;
+        final double referenceLatencyMs;
+
+        Status(DependencyState state, long sinceMs, long calls, long errors,
+               double meanLatencyMs, double referenceLatencyMs) {
+            this.state = state;
+            this.sinceMs = sinceMs;
+            this.calls = calls;
+            this.errors = errors;
+            this.meanLatencyMs = meanLatencyMs;
+            this.referenceLatencyMs = referenceLatencyMs;
+        }
+
+        String evidence() {
+            StringBuilder evidence = new StringBuilder()
+                    .append(errors).append(" of ").append(calls)
+                    .append(" calls failed in the last ").append(WINDOW_SECONDS).append(" s");
+            if (calls > errors) {
+                evidence.append(String.format(Locale.ROOT, ", mean latency %.1f ms", meanLatencyMs));
+                if (referenceLatencyMs > 0) {
+                    evidence.append(String.format(Locale.ROOT, " (usually %.1f ms)", referenceLatencyMs));
+                }
+            }
+            return evidence.toString();
+        }
+    }
+
+    private static final class Second {
+        final long epoch;
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final DoubleAdder latencySum = new DoubleAdder();
+
+        Second(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
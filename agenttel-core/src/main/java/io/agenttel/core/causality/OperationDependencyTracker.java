@@ -1,5 +1,8 @@
 package io.agenttel.core.causality;
 
+import io.agenttel.core.operation.OperationRegistry;
+import io.agenttel.core.operation.OperationSlots;
+
 import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -8,32 +11,56 @@ import java.util.concurrent.ConcurrentHashMap;
  * Runtime tracker mapping operations to their dependencies.
  * Learned from observed span relationships (parent SERVER span → child CLIENT span).
  * Thread-safe for concurrent recording and querying.
+ *
+ * <p>Operations are bounded by an {@link OperationRegistry}: names it has no room for are not
+ * tracked, and an operation evicted from the registry loses its learned dependencies.
  */
 public class OperationDependencyTracker {
 
     private static final int MAX_OPERATIONS = 500;
     private static final int MAX_DEPS_PER_OPERATION = 50;
 
-    private final ConcurrentHashMap<String, Set<String>> operationToDeps = new ConcurrentHashMap<>();
+    private final OperationRegistry operations;
+    private final OperationSlots<Set<String>> operationToDeps;
     private final ConcurrentHashMap<String, Set<String>> depToOperations = new ConcurrentHashMap<>();
 
+    public OperationDependencyTracker() {
+        this(new OperationRegistry(MAX_OPERATIONS));
+    }
+
+    /**
+     * @param operations registry shared with the other trackers, bounding the operations tracked
+     */
+    public OperationDependencyTracker(OperationRegistry operations) {
+        this.operations = operations;
+        // Registered before the slots' own listener so the evicted dependencies are still readable
+        operations.addEvictionListener(this::forgetOperation);
+        this.operationToDeps = new OperationSlots<>(operations);
+    }
+
     /**
-     * Records that an operation called a dependency.
+     * Records that an operation called a dependency. Called for every client span whose caller
+     * is known, so an already learned edge returns after a lookup.
      */
     public void recordDependencyCall(String operationName, String dependencyName) {
         if (operationName == null || dependencyName == null) return;
 
+        int operationId = operations.intern(operationName);
+        if (operationId == OperationRegistry.OVERFLOW_ID) return;
+
         // Forward mapping: operation → dependencies
-        operationToDeps.compute(operationName, (key, existing) -> {
-            if (existing == null) {
-                if (operationToDeps.size() >= MAX_OPERATIONS) return null;
-                existing = ConcurrentHashMap.newKeySet();
+        Set<String> deps = operationToDeps.get(operationId);
+        if (deps == null) {
+            deps = operationToDeps.computeIfAbsent(operationId, k -> ConcurrentHashMap.newKeySet());
+        } else if (deps.contains(dependencyName)) {
+            // Edges are learned once; recording a known one is a lookup, without allocation
+            return;
+        }
+        synchronized (deps) {
+            if (deps.size() < MAX_DEPS_PER_OPERATION) {
+                deps.add(dependencyName);
             }
-            if (existing.size() < MAX_DEPS_PER_OPERATION) {
-                existing.add(dependencyName);
-            }
-            return existing;
-        });
+        }
 
         // Reverse mapping: dependency → operations
         depToOperations.compute(dependencyName, (key, existing) -> {
@@ -49,7 +76,8 @@ public class OperationDependencyTracker {
      * Returns the dependencies known to be called by an operation.
      */
     public Set<String> getDependencies(String operationName) {
-        Set<String> deps = operationToDeps.get(operationName);
+        int operationId = operations.find(operationName);
+        Set<String> deps = operationId > OperationRegistry.OVERFLOW_ID ? operationToDeps.get(operationId) : null;
         return deps != null ? Collections.unmodifiableSet(deps) : Collections.emptySet();
     }
 
@@ -65,6 +93,26 @@ public class OperationDependencyTracker {
      * Returns the total number of tracked operations.
      */
     public int operationCount() {
-        return operationToDeps.size();
+        int[] count = {0};
+        operationToDeps.forEach((deps, operationId) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Returns the registry bounding the tracked operations.
+     */
+    public OperationRegistry operationRegistry() {
+        return operations;
+    }
+
+    private void forgetOperation(int operationId, String operationName) {
+        Set<String> deps = operationToDeps.get(operationId);
+        if (deps == null) return;
+        for (String dependency : deps) {
+            Set<String> ops = depToOperations.get(dependency);
+            if (ops != null) {
+                ops.remove(operationName);
+            }
+        }
     }
 }
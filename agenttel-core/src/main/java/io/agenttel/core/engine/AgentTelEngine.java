@@ -5,16 +5,21 @@ import io.agenttel.core.anomaly.PatternMatcher;
 import io.agenttel.core.baseline.BaselineProvider;
 import io.agenttel.core.baseline.CompositeBaselineProvider;
 import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.baseline.SeasonalBaselineProvider;
 import io.agenttel.core.baseline.StaticBaselineProvider;
 import io.agenttel.core.causality.CausalityTracker;
 import io.agenttel.core.enrichment.AgentTelSpanProcessor;
 import io.agenttel.core.enrichment.OperationContextRegistry;
 import io.agenttel.core.events.AgentTelEventEmitter;
 import io.agenttel.core.events.DeploymentEventEmitter;
+import io.agenttel.core.events.EventGate;
+import io.agenttel.core.operation.OperationRegistry;
 import io.agenttel.core.slo.SloTracker;
 import io.agenttel.core.topology.TopologyRegistry;
 import io.opentelemetry.api.OpenTelemetry;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Main orchestrator for AgentTel. Ties together topology, baselines,
  * enrichment, events, anomaly detection, SLO tracking, and causality tracking.
@@ -27,10 +32,12 @@ public class AgentTelEngine {
     private final AnomalyDetector anomalyDetector;
     private final PatternMatcher patternMatcher;
     private final RollingBaselineProvider rollingBaselines;
+    private final SeasonalBaselineProvider seasonalBaselines;
     private final SloTracker sloTracker;
     private final CausalityTracker causalityTracker;
     private final AgentTelEventEmitter eventEmitter;
     private final DeploymentEventEmitter deploymentEventEmitter;
+    private final EventGate eventGate;
     private final OpenTelemetry openTelemetry;
 
     private AgentTelEngine(Builder builder) {
@@ -39,20 +46,23 @@ public class AgentTelEngine {
         this.anomalyDetector = builder.anomalyDetector;
         this.patternMatcher = builder.patternMatcher;
         this.rollingBaselines = builder.rollingBaselines;
+        this.seasonalBaselines = builder.seasonalBaselines;
         this.sloTracker = builder.sloTracker;
         this.causalityTracker = builder.causalityTracker;
         this.openTelemetry = builder.openTelemetry;
-        this.eventEmitter = new AgentTelEventEmitter(openTelemetry);
+        this.eventEmitter = builder.eventEmitter != null ? builder.eventEmitter : new AgentTelEventEmitter(openTelemetry);
         this.deploymentEventEmitter = new DeploymentEventEmitter(eventEmitter);
+        this.eventGate = builder.eventGate;
 
-        // Build composite baseline: static takes precedence, then rolling
-        if (builder.baselineProvider != null && builder.rollingBaselines != null) {
-            this.baselineProvider = new CompositeBaselineProvider(
-                    builder.baselineProvider, builder.rollingBaselines);
+        // Build composite baseline: static takes precedence, then seasonal (which falls back
+        // to rolling on its own), then rolling
+        BaselineProvider learned = builder.seasonalBaselines != null ? builder.seasonalBaselines : builder.rollingBaselines;
+        if (builder.baselineProvider != null && learned != null) {
+            this.baselineProvider = new CompositeBaselineProvider(builder.baselineProvider, learned);
         } else if (builder.baselineProvider != null) {
             this.baselineProvider = builder.baselineProvider;
-        } else if (builder.rollingBaselines != null) {
-            this.baselineProvider = builder.rollingBaselines;
+        } else if (learned != null) {
+            this.baselineProvider = learned;
         } else {
             this.baselineProvider = new StaticBaselineProvider();
         }
@@ -68,19 +78,31 @@ public class AgentTelEngine {
     public AnomalyDetector anomalyDetector() { return anomalyDetector; }
     public PatternMatcher patternMatcher() { return patternMatcher; }
     public RollingBaselineProvider rollingBaselines() { return rollingBaselines; }
+    public SeasonalBaselineProvider seasonalBaselines() { return seasonalBaselines; }
     public SloTracker sloTracker() { return sloTracker; }
     public CausalityTracker causalityTracker() { return causalityTracker; }
     public AgentTelEventEmitter events() { return eventEmitter; }
     public DeploymentEventEmitter deploymentEvents() { return deploymentEventEmitter; }
+    public EventGate eventGate() { return eventGate; }
     public OpenTelemetry openTelemetry() { return openTelemetry; }
 
+    /**
+     * Delivers pending events and stops the event sink. Waits at most five seconds.
+     */
+    public void shutdown() {
+        eventEmitter.shutdown(5, TimeUnit.SECONDS);
+    }
+
     /**
      * Creates the SpanProcessor that enriches spans with AgentTel attributes.
      */
     public AgentTelSpanProcessor createSpanProcessor() {
-        return new AgentTelSpanProcessor(
+        AgentTelSpanProcessor processor = new AgentTelSpanProcessor(
                 baselineProvider, operationContexts,
                 anomalyDetector, patternMatcher, rollingBaselines, sloTracker, eventEmitter);
+        processor.setEventGate(eventGate);
+        processor.setSeasonalBaselines(seasonalBaselines);
+        return processor;
     }
 
     public static class Builder {
@@ -88,10 +110,17 @@ public class AgentTelEngine {
         private BaselineProvider baselineProvider = new StaticBaselineProvider();
         private OperationContextRegistry operationContexts = new OperationContextRegistry();
         private AnomalyDetector anomalyDetector = new AnomalyDetector(3.0);
-        private PatternMatcher patternMatcher = new PatternMatcher();
-        private RollingBaselineProvider rollingBaselines = new RollingBaselineProvider();
+        // The default trackers share one registry so the span processor interns each name once
+        private final OperationRegistry defaultOperations = new OperationRegistry();
+        private PatternMatcher patternMatcher = new PatternMatcher(defaultOperations);
+        private RollingBaselineProvider rollingBaselines = RollingBaselineProvider.builder()
+                .operationRegistry(defaultOperations)
+                .build();
+        private SeasonalBaselineProvider seasonalBaselines;
         private SloTracker sloTracker = new SloTracker();
         private CausalityTracker causalityTracker = new CausalityTracker();
+        private EventGate eventGate = EventGate.defaults();
+        private AgentTelEventEmitter eventEmitter;
         private OpenTelemetry openTelemetry = OpenTelemetry.noop();
 
         public Builder topologyRegistry(TopologyRegistry topologyRegistry) {
@@ -124,6 +153,14 @@ public class AgentTelEngine {
             return this;
         }
 
+        /**
+         * Enables hour-of-week baselines. The provider must wrap the engine's rolling baselines.
+         */
+        public Builder seasonalBaselines(SeasonalBaselineProvider seasonalBaselines) {
+            this.seasonalBaselines = seasonalBaselines;
+            return this;
+        }
+
         public Builder sloTracker(SloTracker sloTracker) {
             this.sloTracker = sloTracker;
             return this;
@@ -134,6 +171,23 @@ public class AgentTelEngine {
             return this;
         }
 
+        /**
+         * Sets the gate that debounces anomaly and SLO budget events before they are emitted.
+         */
+        public Builder eventGate(EventGate eventGate) {
+            this.eventGate = eventGate;
+            return this;
+        }
+
+        /**
+         * Sets the emitter for structured events. Defaults to one writing JSON log bodies
+         * through {@link #openTelemetry} on the calling thread.
+         */
+        public Builder eventEmitter(AgentTelEventEmitter eventEmitter) {
+            this.eventEmitter = eventEmitter;
+            return this;
+        }
+
         public Builder openTelemetry(OpenTelemetry openTelemetry) {
             this.openTelemetry = openTelemetry;
             return this;
@@ -3,19 +3,24 @@ package io.agenttel.core.enrichment;
 import io.agenttel.api.attributes.AgentTelAttributes;
 import io.agenttel.api.events.AgentTelEvents;
 import io.agenttel.core.anomaly.AnomalyDetector;
-import io.agenttel.core.anomaly.AnomalyResult;
+import io.agenttel.core.anomaly.AnomalyStrategy;
 import io.agenttel.core.anomaly.IncidentPattern;
 import io.agenttel.core.anomaly.PatternMatcher;
-import io.agenttel.api.DependencyState;
 import io.agenttel.core.baseline.BaselineProvider;
+import io.agenttel.core.baseline.ErrorRateTracker;
 import io.agenttel.core.baseline.RollingBaselineProvider;
 import io.agenttel.core.baseline.RollingWindow;
+import io.agenttel.core.baseline.SeasonalBaselineProvider;
 import io.agenttel.core.causality.CausalityTracker;
 import io.agenttel.core.causality.OperationDependencyTracker;
 import io.agenttel.core.events.AgentTelEventEmitter;
+import io.agenttel.core.events.EventGate;
+import io.agenttel.core.operation.OperationRegistry;
 import io.agenttel.core.slo.SloTracker;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.context.Context;
@@ -24,6 +29,7 @@ import io.opentelemetry.sdk.trace.ReadWriteSpan;
 import io.opentelemetry.sdk.trace.ReadableSpan;
 import io.opentelemetry.sdk.trace.SpanProcessor;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,9 +38,12 @@ import java.util.concurrent.TimeUnit;
 /**
  * OTel SpanProcessor that enriches spans with AgentTel attributes.
  *
- * <p>On span start (onStart): attaches baselines and decision metadata.
+ * <p>On span start (onStart): attaches baselines and decision metadata, and with an
+ * {@link OperationDependencyTracker} notes which operation span owns each in-flight span, so
+ * a CLIENT span's end records the edge from its calling operation to the dependency.
  * On span end (onEnd): performs anomaly detection, pattern matching, SLO tracking,
- * and emits structured events for detected anomalies and SLO budget alerts.
+ * and emits structured events for detected anomalies and SLO budget alerts. With
+ * {@link #enableAsyncAnalysis} that work runs on background workers instead.
  */
 public class AgentTelSpanProcessor implements SpanProcessor {
 
@@ -45,8 +54,22 @@ public class AgentTelSpanProcessor implements SpanProcessor {
     @FunctionalInterface
     public interface SpanCompletionListener {
         void onSpanCompleted(String operationName, double latencyMs, boolean isError);
+
+        /**
+         * Called instead of {@link #onSpanCompleted(String, double, boolean)} when the processor
+         * has interned the name; {@code operationId} comes from {@link AgentTelSpanProcessor#operationRegistry()}.
+         */
+        default void onSpanCompleted(int operationId, String operationName, double latencyMs, boolean isError) {
+            onSpanCompleted(operationName, latencyMs, isError);
+        }
     }
 
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final AttributeKey<String> DB_SYSTEM = AttributeKey.stringKey("db.system");
+    private static final AttributeKey<String> PEER_SERVICE = AttributeKey.stringKey("peer.service");
+    private static final AttributeKey<String> SERVER_ADDRESS = AttributeKey.stringKey("server.address");
+
     private final BaselineProvider baselineProvider;
     private final OperationContextRegistry operationContexts;
     private final AnomalyDetector anomalyDetector;
@@ -56,7 +79,16 @@ public class AgentTelSpanProcessor implements SpanProcessor {
     private final AgentTelEventEmitter eventEmitter;
     private final OperationDependencyTracker dependencyTracker;
     private final CausalityTracker causalityTracker;
+    private final InFlightSpanTable inFlightSpans;
+    private final OperationRegistry operations;
+    private final boolean patternIdsShared;
     private volatile SpanCompletionListener spanCompletionListener;
+    private volatile EventGate eventGate = EventGate.defaults();
+    private volatile SeasonalBaselineProvider seasonalBaselines;
+    private volatile AsyncAnalysisPipeline asyncPipeline;
+    /** Per analysing thread, so expected moments are read without allocating. */
+    private final ThreadLocal<RollingWindow.MeanStddevBuffer> expectedMoments =
+            ThreadLocal.withInitial(RollingWindow.MeanStddevBuffer::new);
 
     public AgentTelSpanProcessor(BaselineProvider baselineProvider,
                                   OperationContextRegistry operationContexts) {
@@ -92,6 +124,18 @@ public class AgentTelSpanProcessor implements SpanProcessor {
         this.eventEmitter = eventEmitter;
         this.dependencyTracker = dependencyTracker;
         this.causalityTracker = causalityTracker;
+        this.inFlightSpans = dependencyTracker != null ? new InFlightSpanTable() : null;
+        // The rolling baselines own the operation ids; other trackers use them only if they share the registry
+        this.operations = rollingBaselines != null ? rollingBaselines.operationRegistry() : null;
+        this.patternIdsShared = patternMatcher != null && patternMatcher.operationRegistry() == operations;
+    }
+
+    /**
+     * Returns the registry the processor interns operation names with, or null when there
+     * are no rolling baselines.
+     */
+    public OperationRegistry operationRegistry() {
+        return operations;
     }
 
     /**
@@ -102,6 +146,34 @@ public class AgentTelSpanProcessor implements SpanProcessor {
         this.spanCompletionListener = listener;
     }
 
+    /**
+     * Sets the gate that debounces anomaly and SLO events. Defaults to {@link EventGate#defaults()}.
+     */
+    public void setEventGate(EventGate eventGate) {
+        this.eventGate = eventGate;
+    }
+
+    public EventGate eventGate() {
+        return eventGate;
+    }
+
+    /**
+     * Learns hour-of-week latency profiles and makes z-score detection compare against them,
+     * blended with the rolling baseline. Must wrap this processor's rolling baselines.
+     *
+     * @throws IllegalArgumentException if the provider uses a different operation registry
+     */
+    public void setSeasonalBaselines(SeasonalBaselineProvider seasonalBaselines) {
+        if (seasonalBaselines != null && seasonalBaselines.operationRegistry() != operations) {
+            throw new IllegalArgumentException("Seasonal baselines must share the rolling baselines' operation registry");
+        }
+        this.seasonalBaselines = seasonalBaselines;
+    }
+
+    public SeasonalBaselineProvider seasonalBaselines() {
+        return seasonalBaselines;
+    }
+
     @Override
     public void onStart(Context parentContext, ReadWriteSpan span) {
         // Topology is set once on the OTel Resource via AgentTelResourceProvider (SPI),
@@ -114,6 +186,32 @@ public class AgentTelSpanProcessor implements SpanProcessor {
 
         // Attach decision metadata if available
         enrichWithDecisionMetadata(span, operationName);
+
+        if (inFlightSpans != null) {
+            trackInFlight(parentContext, span);
+        }
+    }
+
+    /**
+     * Maps the span to its owning operation span so a CLIENT descendant can name its caller.
+     * Spans under a remote parent, or under a parent that is not in flight, have no owner.
+     */
+    private void trackInFlight(Context parentContext, ReadWriteSpan span) {
+        SpanKind kind = span.getKind();
+        ReadableSpan owner;
+        if (kind == SpanKind.SERVER || kind == SpanKind.INTERNAL) {
+            owner = span;
+        } else {
+            SpanContext parent = Span.fromContext(parentContext).getSpanContext();
+            if (!parent.isValid() || parent.isRemote()) {
+                return;
+            }
+            owner = inFlightSpans.get(InFlightSpanTable.spanId(parent.getSpanId()));
+            if (owner == null) {
+                return;
+            }
+        }
+        inFlightSpans.put(InFlightSpanTable.spanId(span.getSpanContext().getSpanId()), owner);
     }
 
     @Override
@@ -123,98 +221,165 @@ public class AgentTelSpanProcessor implements SpanProcessor {
 
     @Override
     public void onEnd(ReadableSpan span) {
+        // Kind, latency and attributes are read from the span directly. ReadableSpan exposes the
+        // status only through toSpanData(), so that one SDK wrapper is the span's only allocation
+        // here unless an event is emitted
         String operationName = span.getName();
-        long durationNanos = span.getLatencyNanos();
-        double latencyMs = (double) durationNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        double latencyMs = (double) span.getLatencyNanos() / NANOS_PER_MILLI;
         boolean isError = span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR;
 
         // Track operation-to-dependency relationships from client spans
-        if (dependencyTracker != null && span.toSpanData().getKind() == SpanKind.CLIENT) {
-            String parentOp = span.toSpanData().getParentSpanContext().isValid()
-                    ? operationName : null;
-            // For client spans, the span name is typically the dependency operation
-            // Extract the dependency name from attributes
-            var spanAttrs = span.toSpanData().getAttributes();
-            String depName = spanAttrs.get(AttributeKey.stringKey("db.system"));
-            if (depName == null) depName = spanAttrs.get(AttributeKey.stringKey("peer.service"));
-            if (depName == null) depName = spanAttrs.get(AttributeKey.stringKey("server.address"));
-            if (depName == null) depName = operationName;
-
-            // Feed dependency error state to causality tracker
-            if (causalityTracker != null) {
-                if (isError) {
-                    causalityTracker.reportDependencyState(depName,
-                            DependencyState.UNHEALTHY,
-                            "Error in client span: " + operationName);
-                    if (patternMatcher != null) {
-                        patternMatcher.recordDependencyError(depName);
-                    }
-                } else {
-                    causalityTracker.reportDependencyState(depName,
-                            DependencyState.HEALTHY, "Successful call");
-                }
+        boolean isClient = dependencyTracker != null && span.getKind() == SpanKind.CLIENT;
+        String dependency = isClient ? dependencyName(span, operationName) : null;
+        if (inFlightSpans != null) {
+            ReadableSpan owner = inFlightSpans.remove(InFlightSpanTable.spanId(span.getSpanContext().getSpanId()));
+            if (isClient && owner != null) {
+                // The owner may still be renamed (HTTP route resolution), so its name is read now
+                dependencyTracker.recordDependencyCall(owner.getName(), dependency);
             }
         }
 
+        AsyncAnalysisPipeline pipeline = this.asyncPipeline;
+        if (pipeline != null) {
+            pipeline.offer(operationName, latencyMs, isError, isClient, dependency);
+        } else {
+            analyze(operationName, latencyMs, isError, isClient, dependency);
+        }
+    }
+
+    /**
+     * Moves baseline, SLO, anomaly, pattern and causality work off the span-ending thread.
+     * {@link #onEnd} then only extracts a compact record and enqueues it; the pipeline's
+     * workers run the analysis. Call once, before the processor is registered.
+     *
+     * @return the started pipeline, for its drop and sampling counters
+     */
+    public synchronized AsyncAnalysisPipeline enableAsyncAnalysis(AsyncAnalysisPipeline.Builder builder) {
+        if (asyncPipeline != null) {
+            throw new IllegalStateException("Async analysis is already enabled");
+        }
+        AsyncAnalysisPipeline pipeline = builder.build(this::analyze);
+        pipeline.start();
+        this.asyncPipeline = pipeline;
+        return pipeline;
+    }
+
+    /**
+     * Returns the async analysis pipeline, or null when analysis runs on the span-ending thread.
+     */
+    public AsyncAnalysisPipeline asyncAnalysis() {
+        return asyncPipeline;
+    }
+
+    private void analyze(String operationName, double latencyMs, boolean isError,
+                         boolean isClient, String dependency) {
+        if (isClient) {
+            recordDependencyOutcome(dependency, latencyMs, isError);
+        }
+
+        // Resolve the name once; the trackers below index their state by this id
+        int operationId = operations != null ? operations.intern(operationName) : OperationRegistry.NOT_FOUND;
+
         // Feed rolling baselines
+        SeasonalBaselineProvider seasonal = this.seasonalBaselines;
         if (rollingBaselines != null) {
             if (isError) {
-                rollingBaselines.recordError(operationName);
+                rollingBaselines.recordError(operationId);
             } else {
-                rollingBaselines.recordLatency(operationName, latencyMs);
+                rollingBaselines.recordLatency(operationId, latencyMs);
+                if (seasonal != null) {
+                    seasonal.recordLatency(operationId, latencyMs);
+                }
             }
         }
 
         // Notify health aggregation listener
         SpanCompletionListener listener = this.spanCompletionListener;
         if (listener != null) {
-            listener.onSpanCompleted(operationName, latencyMs, isError);
+            if (operationId != OperationRegistry.NOT_FOUND) {
+                listener.onSpanCompleted(operationId, operationName, latencyMs, isError);
+            } else {
+                listener.onSpanCompleted(operationName, latencyMs, isError);
+            }
+        }
+
+        // Report what the event gate suppressed, at most once per summary interval
+        if (eventEmitter != null && eventGate.summaryDue()) {
+            emitSuppressedSummary();
         }
 
         // SLO tracking
         if (sloTracker != null) {
-            if (isError) {
-                sloTracker.recordFailure(operationName);
-            } else {
-                sloTracker.recordSuccess(operationName);
-            }
+            sloTracker.recordRequest(operationName, latencyMs, isError);
 
-            // Check and emit SLO budget alerts
-            if (eventEmitter != null) {
+            // Emit SLO budget alerts only when an SLO's severity changed
+            if (eventEmitter != null && sloTracker.hasAlertChanges()) {
                 emitSloAlerts();
             }
         }
 
-        // Anomaly detection + pattern matching
-        if (anomalyDetector != null && rollingBaselines != null) {
-            rollingBaselines.getSnapshot(operationName).ifPresent(snapshot -> {
-                // Z-score anomaly detection
-                if (snapshot.stddev() > 0) {
-                    AnomalyResult result = anomalyDetector.evaluate(
-                            "latency", latencyMs, snapshot.mean(), snapshot.stddev());
-                    if (result.isAnomaly() && eventEmitter != null) {
-                        emitAnomalyEvent(operationName, latencyMs, result, null);
-                    }
-                }
-            });
+        if (rollingBaselines == null || (anomalyDetector == null && patternMatcher == null)) {
+            return;
+        }
+
+        // Anomaly scoring against mean/stddev; the median/MAD scorer reads the memoized snapshot.
+        // With seasonal baselines the expectation is this hour of the week blended with the window
+        if (anomalyDetector != null) {
+            RollingWindow.MeanStddevBuffer moments = expectedMoments.get();
+            if (seasonal != null) {
+                seasonal.readMeanStddev(operationId, moments);
+            } else {
+                rollingBaselines.readMeanStddev(operationId, moments);
+            }
+            double score = anomalyDetector.score(operationId, operationName, latencyMs,
+                    moments.mean(), moments.stddev(), rollingBaselines);
+            if (anomalyDetector.isAnomaly(score) && eventEmitter != null) {
+                emitAnomalyEvent(operationName, latencyMs,
+                        anomalyDetector.scorerFor(operationName).name(), score, null);
+            }
         }
 
         // Pattern matching
-        if (patternMatcher != null && rollingBaselines != null) {
-            patternMatcher.recordLatency(operationName, latencyMs);
-            RollingWindow.Snapshot snapshot = rollingBaselines.getSnapshot(operationName)
-                    .orElse(null);
-            List<IncidentPattern> patterns = patternMatcher.detectPatterns(
-                    operationName, latencyMs, isError, snapshot);
-
-            if (!patterns.isEmpty() && eventEmitter != null) {
-                for (IncidentPattern pattern : patterns) {
-                    emitAnomalyEvent(operationName, latencyMs, null, pattern);
+        if (patternMatcher != null) {
+            RollingWindow.Snapshot snapshot = rollingBaselines.currentSnapshot(operationId);
+            // The baseline window's error rates are shared, so spike detection sees every request
+            ErrorRateTracker errorRates = rollingBaselines.errorRates(operationId);
+            int patterns;
+            if (patternIdsShared) {
+                patternMatcher.recordLatency(operationId, latencyMs);
+                patterns = patternMatcher.detectPatternMask(operationId, latencyMs, isError, snapshot, errorRates);
+            } else {
+                patternMatcher.recordLatency(operationName, latencyMs);
+                patterns = patternMatcher.detectPatternMask(operationName, latencyMs, isError, snapshot, errorRates);
+            }
+            if (patterns != 0 && eventEmitter != null) {
+                for (IncidentPattern pattern : IncidentPattern.fromMask(patterns)) {
+                    emitAnomalyEvent(operationName, latencyMs, null, 0.0, pattern);
                 }
             }
         }
     }
 
+    private static String dependencyName(ReadableSpan span, String operationName) {
+        // For client spans, the span name is typically the dependency operation
+        // Extract the dependency name from attributes
+        String depName = span.getAttribute(DB_SYSTEM);
+        if (depName == null) depName = span.getAttribute(PEER_SERVICE);
+        if (depName == null) depName = span.getAttribute(SERVER_ADDRESS);
+        if (depName == null) depName = operationName;
+        return depName;
+    }
+
+    private void recordDependencyOutcome(String depName, double latencyMs, boolean isError) {
+        // Feed the call to the causality tracker's windowed dependency health
+        if (causalityTracker != null) {
+            causalityTracker.recordDependencyCall(depName, latencyMs, isError);
+            if (isError && patternMatcher != null) {
+                patternMatcher.recordDependencyError(depName);
+            }
+        }
+    }
+
     @Override
     public boolean isEndRequired() {
         return anomalyDetector != null || rollingBaselines != null || sloTracker != null
@@ -223,23 +388,43 @@ public class AgentTelSpanProcessor implements SpanProcessor {
 
     @Override
     public CompletableResultCode shutdown() {
+        AsyncAnalysisPipeline pipeline = this.asyncPipeline;
+        if (pipeline != null) {
+            pipeline.shutdown(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
         return CompletableResultCode.ofSuccess();
     }
 
     @Override
     public CompletableResultCode forceFlush() {
+        AsyncAnalysisPipeline pipeline = this.asyncPipeline;
+        if (pipeline != null && !pipeline.flush(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            return CompletableResultCode.ofFailure();
+        }
         return CompletableResultCode.ofSuccess();
     }
 
+    /**
+     * Emits a pattern event, or a scorer's event when {@code strategy} is set. The score is the
+     * strategy's own statistic, so it is reported as {@code z_score} only for the z-score strategy.
+     */
     private void emitAnomalyEvent(String operationName, double latencyMs,
-                                   AnomalyResult anomalyResult, IncidentPattern pattern) {
+                                   String strategy, double score, IncidentPattern pattern) {
+        String kind = pattern != null ? pattern.getValue() : strategy;
+        if (!eventGate.tryAcquire(AgentTelEvents.ANOMALY_DETECTED, operationName, kind)) {
+            return;
+        }
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("operation", operationName);
         body.put("latency_ms", latencyMs);
 
-        if (anomalyResult != null) {
-            body.put("anomaly_score", anomalyResult.anomalyScore());
-            body.put("z_score", anomalyResult.zScore());
+        if (strategy != null) {
+            body.put("anomaly_score", AnomalyDetector.anomalyScore(score));
+            body.put("strategy", strategy);
+            body.put("score", score);
+            if (AnomalyStrategy.Z_SCORE.getValue().equals(strategy)) {
+                body.put("z_score", score);
+            }
         }
         if (pattern != null) {
             body.put("pattern", pattern.getValue());
@@ -250,7 +435,21 @@ public class AgentTelSpanProcessor implements SpanProcessor {
     }
 
     private void emitSloAlerts() {
-        for (SloTracker.SloAlert alert : sloTracker.checkAlerts()) {
+        // The tracker marks an alert reported only once the gate admits it, so rejected ones are retried
+        SloTracker.AlertFilter filter = new SloTracker.AlertFilter() {
+            final EventGate gate = eventGate;
+
+            @Override
+            public boolean admit(String sloName, SloTracker.AlertSeverity severity) {
+                return gate.tryAcquire(AgentTelEvents.SLO_BUDGET_ALERT, sloName, severity.name());
+            }
+
+            @Override
+            public void recovered(String sloName) {
+                gate.clearState(AgentTelEvents.SLO_BUDGET_ALERT, sloName);
+            }
+        };
+        for (SloTracker.SloAlert alert : sloTracker.drainAlertChanges(filter)) {
             Map<String, Object> body = new LinkedHashMap<>();
             body.put("slo_name", alert.sloName());
             body.put("severity", alert.severity().name());
@@ -267,6 +466,30 @@ public class AgentTelSpanProcessor implements SpanProcessor {
         }
     }
 
+    private void emitSuppressedSummary() {
+        EventGate gate = this.eventGate;
+        List<EventGate.Suppressed> suppressed = gate.drainSuppressed();
+        if (suppressed.isEmpty()) {
+            return;
+        }
+        long total = 0;
+        List<Map<String, Object>> keys = new ArrayList<>(suppressed.size());
+        for (EventGate.Suppressed entry : suppressed) {
+            Map<String, Object> key = new LinkedHashMap<>();
+            key.put("event_name", entry.eventName());
+            key.put("subject", entry.subject());
+            key.put("state", entry.state());
+            key.put("suppressed_count", entry.count());
+            keys.add(key);
+            total += entry.count();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("interval_ms", gate.summaryIntervalMs());
+        body.put("suppressed_count", total);
+        body.put("keys", keys);
+        eventEmitter.emitEvent(AgentTelEvents.EVENTS_SUPPRESSED, body, Severity.INFO);
+    }
+
     private void enrichWithBaseline(ReadWriteSpan span, String operationName) {
         baselineProvider.getBaseline(operationName).ifPresent(baseline -> {
             if (baseline.latencyP50Ms() > 0) {
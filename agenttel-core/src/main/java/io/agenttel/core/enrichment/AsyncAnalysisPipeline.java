@@ -0,0 +1,366 @@
+package io.agenttel.core.enrichment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves per-span analysis off the thread that ends the span.
+ *
+ * <p>{@link #offer} copies a compact record (operation, latency, error and client flags,
+ * dependency) into a bounded lock-free ring buffer, and background workers drain it in
+ * batches into a {@link SpanAnalyzer}. The ring is a sequence-numbered array queue, safe for
+ * many producers and one or more consumers, and its payload lives in parallel arrays so
+ * enqueueing allocates nothing.
+ *
+ * <p>When the ring is full the {@link OverflowPolicy} decides what happens. Every record
+ * that is not enqueued is counted, so baseline gaps can be told apart from quiet traffic.
+ */
+public class AsyncAnalysisPipeline {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncAnalysisPipeline.class);
+
+    private static final byte FLAG_ERROR = 1;
+    private static final byte FLAG_CLIENT = 2;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * What {@link #offer} does when the ring is full.
+     */
+    public enum OverflowPolicy {
+        /** Discard the new record. The span-ending thread never waits. */
+        DROP,
+        /**
+         * Once the ring is half full, admit only one in {@code sampleRate} records, and drop
+         * when full. Keeps some signal from every operation under sustained overload.
+         */
+        SAMPLE,
+        /** Wait for space. Never loses records, but puts backpressure on application threads. */
+        BLOCK;
+
+        public static OverflowPolicy fromValue(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown overflow policy: " + value
+                        + " (expected drop, sample or block)");
+            }
+        }
+    }
+
+    /**
+     * Receives the records drained from the ring, on a worker thread.
+     */
+    @FunctionalInterface
+    public interface SpanAnalyzer {
+        void analyze(String operationName, double latencyMs, boolean isError,
+                     boolean isClient, String dependency);
+    }
+
+    private final SpanAnalyzer analyzer;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final int batchSize;
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicLongArray sequences;
+    private final String[] operations;
+    private final double[] latencies;
+    private final byte[] flags;
+    private final String[] dependencies;
+    private final AtomicLong tail = new AtomicLong(0);
+    private final AtomicLong head = new AtomicLong(0);
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+
+    private final Thread[] workers;
+    private volatile boolean running;
+    // Set once by shutdown; unlike !running it does not reject records offered before start
+    private volatile boolean shutDown;
+
+    private AsyncAnalysisPipeline(Builder builder, SpanAnalyzer analyzer) {
+        if (builder.queueCapacity <= 0 || builder.workers <= 0 || builder.batchSize <= 0
+                || builder.sampleRate <= 0) {
+            throw new IllegalArgumentException("Queue capacity, workers, batch size and sample rate must be positive");
+        }
+        this.analyzer = analyzer;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.sampleRate = builder.sampleRate;
+        this.batchSize = builder.batchSize;
+        this.capacity = Integer.highestOneBit(Math.max(2, builder.queueCapacity) * 2 - 1);
+        this.mask = capacity - 1;
+
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.operations = new String[capacity];
+        this.latencies = new double[capacity];
+        this.flags = new byte[capacity];
+        this.dependencies = new String[capacity];
+
+        this.workers = new Thread[builder.workers];
+        for (int i = 0; i < workers.length; i++) {
+            Thread worker = new Thread(this::runWorker, builder.threadNamePrefix + "-" + i);
+            worker.setDaemon(true);
+            workers[i] = worker;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts the worker threads. Called once by the owner; further calls are ignored.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        for (Thread worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Enqueues a span record for analysis, applying the overflow policy when the ring is full.
+     * After {@link #shutdown} every record is dropped, whatever the policy.
+     *
+     * @return true if the record was enqueued
+     */
+    public boolean offer(String operationName, double latencyMs, boolean isError,
+                         boolean isClient, String dependency) {
+        if (shutDown) {
+            dropped.increment();
+            return false;
+        }
+        byte recordFlags = (byte) ((isError ? FLAG_ERROR : 0) | (isClient ? FLAG_CLIENT : 0));
+
+        if (overflowPolicy == OverflowPolicy.SAMPLE && size() >= capacity / 2
+                && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            sampledOut.increment();
+            return false;
+        }
+        if (tryOffer(operationName, latencyMs, recordFlags, dependency)) {
+            return true;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            while (running) {
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (tryOffer(operationName, latencyMs, recordFlags, dependency)) {
+                    return true;
+                }
+            }
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * Waits until every record enqueued before this call has been analyzed.
+     *
+     * @return true if the ring drained within the timeout
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        // Rejected records never claim a position, so tail counts exactly the enqueued ones
+        long target = tail.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (processed.sum() < target) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting records, lets the workers drain what is queued, and waits for them.
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        shutDown = true;
+        running = false;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread worker : workers) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) break;
+            try {
+                worker.join(remainingMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** Records discarded because the ring was full or the pipeline was shut down. */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /** Records skipped by {@link OverflowPolicy#SAMPLE} while the ring was above half full. */
+    public long sampledOutCount() {
+        return sampledOut.sum();
+    }
+
+    /** Records handed to the analyzer. */
+    public long processedCount() {
+        return processed.sum();
+    }
+
+    /** Records currently waiting in the ring. */
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head.get()));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    private boolean tryOffer(String operationName, double latencyMs, byte recordFlags, String dependency) {
+        long pos = tail.get();
+        while (true) {
+            int idx = (int) (pos & mask);
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    operations[idx] = operationName;
+                    latencies[idx] = latencyMs;
+                    flags[idx] = recordFlags;
+                    dependencies[idx] = dependency;
+                    // Publishes the payload to the consumer that claims this slot
+                    sequences.set(idx, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // Full: the slot still holds an unconsumed record
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Claims one record and analyzes it.
+     *
+     * @return false if the ring was empty
+     */
+    private boolean pollAndAnalyze() {
+        long pos = head.get();
+        while (true) {
+            int idx = (int) (pos & mask);
+            long diff = sequences.get(idx) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    String operationName = operations[idx];
+                    double latencyMs = latencies[idx];
+                    byte recordFlags = flags[idx];
+                    String dependency = dependencies[idx];
+                    operations[idx] = null;
+                    dependencies[idx] = null;
+                    // Hands the slot back to producers for the next lap
+                    sequences.set(idx, pos + capacity);
+                    analyze(operationName, latencyMs, recordFlags, dependency);
+                    return true;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return false; // Empty
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    private void analyze(String operationName, double latencyMs, byte recordFlags, String dependency) {
+        try {
+            analyzer.analyze(operationName, latencyMs, (recordFlags & FLAG_ERROR) != 0,
+                    (recordFlags & FLAG_CLIENT) != 0, dependency);
+        } catch (RuntimeException e) {
+            LOG.warn("Span analysis failed for {}: {}", operationName, e.toString());
+        } finally {
+            processed.increment();
+        }
+    }
+
+    private void runWorker() {
+        while (running || size() > 0) {
+            int drained = 0;
+            while (drained < batchSize && pollAndAnalyze()) {
+                drained++;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    public static class Builder {
+        private int queueCapacity = 8192;
+        private int workers = 1;
+        private int batchSize = 256;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+        private int sampleRate = 10;
+        private String threadNamePrefix = "agenttel-analysis";
+
+        Builder() {}
+
+        /** Ring capacity, rounded up to a power of two. Defaults to 8192. */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /** Number of worker threads draining the ring. Defaults to 1. */
+        public Builder workers(int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        /** Records a worker drains before checking for shutdown. Defaults to 256. */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /** Defaults to {@link OverflowPolicy#DROP}. */
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /** One in {@code sampleRate} records is kept under {@link OverflowPolicy#SAMPLE}. Defaults to 10. */
+        public Builder sampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        public Builder threadNamePrefix(String threadNamePrefix) {
+            this.threadNamePrefix = threadNamePrefix;
+            return this;
+        }
+
+        /**
+         * Creates the pipeline. Workers are not started until {@link AsyncAnalysisPipeline#start()}.
+         */
+        public AsyncAnalysisPipeline build(SpanAnalyzer analyzer) {
+            return new AsyncAnalysisPipeline(this, analyzer);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package io.agenttel.core.enrichment;
+
+import io.opentelemetry.sdk.trace.ReadableSpan;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Started, not yet ended spans, each mapped to the SERVER or INTERNAL span that owns it: the
+ * span itself for those kinds, the nearest such ancestor for the others. A CLIENT span ending
+ * looks up its owner to learn which operation called the dependency.
+ *
+ * <p>A fixed-size open-addressing table keyed by the 64-bit span id, split into stripes that
+ * each lock only their own slots. A key probes at most {@value #MAX_PROBES} slots. Entries
+ * normally leave when their span ends; spans that never end expire after the TTL, and when
+ * every probed slot is live the entry expiring soonest is overwritten, so memory stays fixed
+ * however many spans are open. A lost entry only costs the dependency edges of its subtree.
+ */
+final class InFlightSpanTable {
+
+    static final int DEFAULT_CAPACITY = 8192;
+    static final long DEFAULT_TTL_NANOS = 5L * 60 * 1_000_000_000L;
+
+    private static final int STRIPES = 16;
+    private static final int MAX_PROBES = 8;
+    /** Span id 0 is invalid in OTel, so it marks an empty slot. */
+    private static final long EMPTY = 0L;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LongAdder overwritten = new LongAdder();
+
+    InFlightSpanTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_TTL_NANOS, System::nanoTime);
+    }
+
+    /**
+     * @param capacity  total slots, rounded up to a power of two of at least {@value #STRIPES} x {@value #MAX_PROBES}
+     * @param ttlNanos  how long an entry outlives a span that never ends
+     * @param nanoClock monotonic clock in nanoseconds
+     */
+    InFlightSpanTable(int capacity, long ttlNanos, LongSupplier nanoClock) {
+        if (capacity <= 0 || ttlNanos <= 0) {
+            throw new IllegalArgumentException("Capacity and TTL must be positive");
+        }
+        int slots = Integer.highestOneBit(Math.max(STRIPES * MAX_PROBES, capacity) * 2 - 1);
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(slots / STRIPES);
+        }
+        this.stripeMask = STRIPES - 1;
+        this.ttlNanos = ttlNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    void put(long spanId, ReadableSpan owner) {
+        if (spanId == EMPTY) return;
+        long hash = mix(spanId);
+        long now = nanoClock.getAsLong();
+        if (stripe(hash).put(spanId, owner, slot(hash), now, now + ttlNanos)) {
+            overwritten.increment();
+        }
+    }
+
+    /** Returns the owner of a span still in flight, or null. */
+    ReadableSpan get(long spanId) {
+        if (spanId == EMPTY) return null;
+        long hash = mix(spanId);
+        return stripe(hash).get(spanId, slot(hash), nanoClock.getAsLong());
+    }
+
+    /** Removes a span and returns its owner, or null if it was not in flight. */
+    ReadableSpan remove(long spanId) {
+        if (spanId == EMPTY) return null;
+        long hash = mix(spanId);
+        return stripe(hash).remove(spanId, slot(hash), nanoClock.getAsLong());
+    }
+
+    /** Live entries overwritten because all their probe slots were taken. */
+    long overwrittenCount() {
+        return overwritten.sum();
+    }
+
+    int capacity() {
+        return stripes.length * stripes[0].keys.length;
+    }
+
+    /**
+     * Parses a 16-character lowercase hex span id without allocating.
+     *
+     * @return the id, or 0 if it is malformed
+     */
+    static long spanId(String hex) {
+        if (hex == null || hex.length() != 16) return EMPTY;
+        long id = 0;
+        for (int i = 0; i < 16; i++) {
+            int digit = Character.digit(hex.charAt(i), 16);
+            if (digit < 0) return EMPTY;
+            id = (id << 4) | digit;
+        }
+        return id;
+    }
+
+    private Stripe stripe(long hash) {
+        return stripes[(int) (hash >>> 60) & stripeMask];
+    }
+
+    private static int slot(long hash) {
+        return (int) hash & Integer.MAX_VALUE;
+    }
+
+    private static long mix(long id) {
+        // Span ids are random, but not all generators guarantee it
+        long h = id * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private static final class Stripe {
+        final long[] keys;
+        final long[] expiries;
+        final ReadableSpan[] owners;
+        final int mask;
+
+        Stripe(int size) {
+            this.keys = new long[size];
+            this.expiries = new long[size];
+            this.owners = new ReadableSpan[size];
+            this.mask = size - 1;
+        }
+
+        /** @return true if a live entry was overwritten */
+        synchronized boolean put(long key, ReadableSpan owner, int home, long now, long expiry) {
+            int free = -1;
+            int soonest = home & mask;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int i = (home + probe) & mask;
+                if (keys[i] == key) {
+                    owners[i] = owner;
+                    expiries[i] = expiry;
+                    return false;
+                }
+                if (free < 0 && (keys[i] == EMPTY || expiries[i] - now < 0)) {
+                    free = i;
+                }
+                if (expiries[i] - expiries[soonest] < 0) {
+                    soonest = i;
+                }
+            }
+            boolean evicted = free < 0;
+            int target = evicted ? soonest : free;
+            keys[target] = key;
+            owners[target] = owner;
+            expiries[target] = expiry;
+            return evicted;
+        }
+
+        synchronized ReadableSpan get(long key, int home, long now) {
+            int i = find(key, home);
+            if (i < 0) return null;
+            if (expiries[i] - now < 0) {
+                clear(i);
+                return null;
+            }
+            return owners[i];
+        }
+
+        synchronized ReadableSpan remove(long key, int home, long now) {
+            int i = find(key, home);
+            if (i < 0) return null;
+            ReadableSpan owner = expiries[i] - now < 0 ? null : owners[i];
+            clear(i);
+            return owner;
+        }
+
+        private int find(long key, int home) {
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int i = (home + probe) & mask;
+                if (keys[i] == key) return i;
+            }
+            return -1;
+        }
+
+        private void clear(int i) {
+            keys[i] = EMPTY;
+            owners[i] = null;
+            expiries[i] = 0;
+        }
+    }
+}
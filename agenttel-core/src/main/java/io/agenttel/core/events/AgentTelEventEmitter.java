@@ -1,28 +1,63 @@
 package io.agenttel.core.events;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.agenttel.api.events.AgentTelEvents;
 import io.opentelemetry.api.OpenTelemetry;
-import io.opentelemetry.api.logs.Logger;
 import io.opentelemetry.api.logs.Severity;
-import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Emits structured AgentTel events via the OTel Logs API.
+ *
+ * <p>Events go to an {@link EventSink}, by default a {@link LogEventSink} that writes the body
+ * as a JSON string on the calling thread. {@link #builder} can write structured bodies
+ * instead, deliver through an {@link AsyncEventSink} so event bursts never cost the calling
+ * thread more than a queue offer, and keep one in N events of a given name. Sampling happens
+ * before the sink, so a sampled-out event costs one counter increment.
+ *
+ * <p>Events that report a state change cannot be sampled: each one is emitted once per
+ * transition, after its source has recorded the transition as reported, so a sampled-out
+ * SLO alert or dependency state change would never be seen or retried.
  */
 public class AgentTelEventEmitter {
 
-    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(AgentTelEventEmitter.class);
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    /** Event names emitted once per transition, which {@link Builder#sampleRate} rejects. */
+    public static final Set<String> STATE_CHANGE_EVENTS = Set.of(
+            AgentTelEvents.SLO_BUDGET_ALERT,
+            AgentTelEvents.DEPENDENCY_STATE_CHANGE,
+            AgentTelEvents.CIRCUIT_BREAKER_STATE_CHANGE,
+            AgentTelEvents.DEPLOYMENT_INFO,
+            AgentTelEvents.EVENTS_SUPPRESSED);
 
-    private final Logger otelLogger;
+    private final EventSink sink;
+    private final Map<String, Sampler> samplers;
+    private final LongAdder sampledOut = new LongAdder();
 
     public AgentTelEventEmitter(OpenTelemetry openTelemetry) {
-        this.otelLogger = openTelemetry.getLogsBridge()
-                .loggerBuilder("io.agenttel")
-                .build();
+        this(new LogEventSink(openTelemetry, LogEventSink.BodyFormat.JSON));
+    }
+
+    /**
+     * Emits every event to the given sink.
+     */
+    public AgentTelEventEmitter(EventSink sink) {
+        this(sink, Map.of());
+    }
+
+    private AgentTelEventEmitter(EventSink sink, Map<String, Integer> sampleRates) {
+        this.sink = sink;
+        Map<String, Sampler> byName = new HashMap<>();
+        sampleRates.forEach((eventName, rate) -> byName.put(eventName, new Sampler(rate)));
+        this.samplers = byName;
+    }
+
+    public static Builder builder(OpenTelemetry openTelemetry) {
+        return new Builder(openTelemetry);
     }
 
     /**
@@ -33,18 +68,122 @@ public class AgentTelEventEmitter {
     }
 
     /**
-     * Emits a structured event with the given name, body, and severity.
+     * Emits a structured event with the given name, body, and severity. The body must not be
+     * changed afterwards, since an asynchronous sink reads it later.
      */
     public void emitEvent(String eventName, Map<String, Object> body, Severity severity) {
-        try {
-            String bodyJson = OBJECT_MAPPER.writeValueAsString(body);
-            otelLogger.logRecordBuilder()
-                    .setSeverity(severity)
-                    .setAttribute(io.opentelemetry.api.common.AttributeKey.stringKey("event.name"), eventName)
-                    .setBody(bodyJson)
-                    .emit();
-        } catch (JsonProcessingException e) {
-            LOG.warn("Failed to serialize event body for {}: {}", eventName, e.getMessage());
+        Sampler sampler = samplers.get(eventName);
+        if (sampler != null && !sampler.sample()) {
+            sampledOut.increment();
+            return;
+        }
+        sink.emit(eventName, body, severity);
+    }
+
+    /**
+     * Waits until the events emitted before this call have been delivered.
+     *
+     * @return true if delivery finished within the timeout
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        return sink.flush(timeout, unit);
+    }
+
+    /**
+     * Delivers pending events, within the timeout, and stops the sink.
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        sink.shutdown(timeout, unit);
+    }
+
+    /** Events skipped by per-name sampling. */
+    public long sampledOutCount() {
+        return sampledOut.sum();
+    }
+
+    /** Events dropped because the asynchronous sink's queue was full; 0 for other sinks. */
+    public long droppedCount() {
+        return sink instanceof AsyncEventSink async ? async.droppedCount() : 0;
+    }
+
+    public EventSink sink() {
+        return sink;
+    }
+
+    /**
+     * Keeps the first of every {@code rate} events, so a rare event name is never sampled away
+     * entirely.
+     */
+    private static final class Sampler {
+        final int rate;
+        final AtomicLong count = new AtomicLong();
+
+        Sampler(int rate) {
+            this.rate = rate;
+        }
+
+        boolean sample() {
+            return count.getAndIncrement() % rate == 0;
+        }
+    }
+
+    public static class Builder {
+        private final OpenTelemetry openTelemetry;
+        private LogEventSink.BodyFormat bodyFormat = LogEventSink.BodyFormat.JSON;
+        private EventSink sink;
+        private AsyncEventSink.Builder async;
+        private final Map<String, Integer> sampleRates = new HashMap<>();
+
+        Builder(OpenTelemetry openTelemetry) {
+            this.openTelemetry = openTelemetry;
+        }
+
+        /** How bodies are written to log records. Defaults to {@link LogEventSink.BodyFormat#JSON}. */
+        public Builder bodyFormat(LogEventSink.BodyFormat bodyFormat) {
+            this.bodyFormat = bodyFormat;
+            return this;
+        }
+
+        /** Delivers events to this sink instead of OTel logs; the body format then does not apply. */
+        public Builder sink(EventSink sink) {
+            this.sink = sink;
+            return this;
+        }
+
+        /** Delivers events on a background thread through a queue built by {@code async}. */
+        public Builder async(AsyncEventSink.Builder async) {
+            this.async = async;
+            return this;
+        }
+
+        /**
+         * Keeps one in {@code oneIn} events with this name; 1 keeps them all.
+         *
+         * @throws IllegalArgumentException if the rate is not positive, or is above 1 for one of
+         *                                  the {@link #STATE_CHANGE_EVENTS}
+         */
+        public Builder sampleRate(String eventName, int oneIn) {
+            if (oneIn <= 0) {
+                throw new IllegalArgumentException("Sample rate must be positive: " + oneIn);
+            }
+            if (oneIn > 1 && STATE_CHANGE_EVENTS.contains(eventName)) {
+                throw new IllegalArgumentException(eventName
+                        + " reports state changes once each and cannot be sampled");
+            }
+            if (oneIn == 1) {
+                sampleRates.remove(eventName);
+            } else {
+                sampleRates.put(eventName, oneIn);
+            }
+            return this;
+        }
+
+        public AgentTelEventEmitter build() {
+            EventSink target = sink != null ? sink : new LogEventSink(openTelemetry, bodyFormat);
+            if (async != null) {
+                target = async.build(target);
+            }
+            return new AgentTelEventEmitter(target, sampleRates);
         }
     }
 }
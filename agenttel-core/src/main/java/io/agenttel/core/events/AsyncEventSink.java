@@ -0,0 +1,173 @@
+package io.agenttel.core.events;
+
+import io.opentelemetry.api.logs.Severity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands events to another sink on a background thread, so the thread that raises an event
+ * never serializes or exports it.
+ *
+ * <p>Events wait in a bounded queue that one daemon worker drains in batches. When the queue
+ * is full the event is dropped and counted: during an incident, when event volume peaks, the
+ * application threads raising them never wait on telemetry.
+ */
+public class AsyncEventSink implements EventSink {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncEventSink.class);
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final long FLUSH_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final EventSink delegate;
+    private final ArrayBlockingQueue<Event> queue;
+    private final int batchSize;
+    private final Thread worker;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+
+    private AsyncEventSink(Builder builder, EventSink delegate) {
+        if (builder.queueCapacity <= 0 || builder.batchSize <= 0) {
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive");
+        }
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+        this.batchSize = builder.batchSize;
+        this.worker = new Thread(this::runWorker, builder.threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Queues the event, or drops it if the queue is full or the sink is shut down.
+     */
+    @Override
+    public void emit(String eventName, Map<String, Object> body, Severity severity) {
+        if (running && queue.offer(new Event(eventName, body, severity))) {
+            accepted.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public boolean flush(long timeout, TimeUnit unit) {
+        long target = accepted.sum();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (delivered.sum() < target) {
+            if (System.nanoTime() - deadline >= 0 || !worker.isAlive()) {
+                return false;
+            }
+            LockSupport.parkNanos(FLUSH_PARK_NANOS);
+        }
+        return delegate.flush(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops accepting events, lets the worker deliver what is queued, then shuts down the
+     * delegate with whatever time is left.
+     */
+    @Override
+    public void shutdown(long timeout, TimeUnit unit) {
+        running = false;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            worker.join(Math.max(1, unit.toMillis(timeout)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.shutdown(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /** Events discarded because the queue was full or the sink was shut down. */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /** Events handed to the delegate. */
+    public long deliveredCount() {
+        return delivered.sum();
+    }
+
+    /** Events currently waiting in the queue. */
+    public int size() {
+        return queue.size();
+    }
+
+    private void runWorker() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Event first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // Treated as shutdown: what is queued is still delivered
+                running = false;
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            for (Event event : batch) {
+                deliver(event);
+            }
+            batch.clear();
+        }
+    }
+
+    private void deliver(Event event) {
+        try {
+            delegate.emit(event.eventName(), event.body(), event.severity());
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to emit event {}: {}", event.eventName(), e.toString());
+        } finally {
+            delivered.increment();
+        }
+    }
+
+    private record Event(String eventName, Map<String, Object> body, Severity severity) {}
+
+    public static class Builder {
+        private int queueCapacity = 1024;
+        private int batchSize = 64;
+        private String threadName = "agenttel-events";
+
+        Builder() {}
+
+        /** Events that may wait for the worker before new ones are dropped. Defaults to 1024. */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /** Events the worker takes from the queue at a time. Defaults to 64. */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder threadName(String threadName) {
+            this.threadName = threadName;
+            return this;
+        }
+
+        /**
+         * Creates the sink and starts its worker.
+         */
+        public AsyncEventSink build(EventSink delegate) {
+            return new AsyncEventSink(this, delegate);
+        }
+    }
+}
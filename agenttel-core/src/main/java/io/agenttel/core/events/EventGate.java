@@ -0,0 +1,335 @@
+package io.agenttel.core.events;
+
+import io.agenttel.api.events.AgentTelEvents;
+import io.agenttel.core.operation.OperationRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which structured events are emitted, so a sustained incident produces a handful of
+ * log records instead of one per request.
+ *
+ * <p>Events are keyed by (event name, subject, state): the subject is the operation or SLO the
+ * event is about, and the state is the severity, tier or pattern it reports. Each event name
+ * has its own {@link Policy}:
+ * <ul>
+ *   <li><b>on change</b> &mdash; a subject's event is emitted only when its state differs from
+ *       the last one emitted for that subject;</li>
+ *   <li><b>rate limit</b> &mdash; each key emits at most {@code maxEvents} per period, as a
+ *       burst or spread out (a GCRA token bucket).</li>
+ * </ul>
+ * Event names without a policy always pass. Suppressed events are counted per key, and
+ * {@link #drainSuppressed()} returns the counts accumulated since the previous call for a
+ * periodic summary event; {@link #summaryDue()} says when one is due.
+ *
+ * <p>{@link #tryAcquire} is lock-free: a key's state is one CAS on its bucket and, for
+ * on-change policies, one CAS on the subject's last state. Only the first event for a new
+ * subject or state allocates. At most {@code maxSubjects} subjects are tracked; beyond that,
+ * new subjects share {@link OperationRegistry#OVERFLOW_OPERATION}.
+ */
+public final class EventGate {
+
+    public static final int DEFAULT_MAX_SUBJECTS = 10_000;
+
+    private final Map<String, EventPolicy> policies;
+    private final int maxSubjects;
+    private final long summaryIntervalNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger subjectCount = new AtomicInteger();
+    private final AtomicLong nextSummaryNanos;
+    private final LongAdder suppressed = new LongAdder();
+
+    private EventGate(Builder builder) {
+        this.maxSubjects = builder.maxSubjects;
+        this.summaryIntervalNanos = builder.summaryIntervalNanos;
+        this.nanoClock = builder.nanoClock;
+        Map<String, EventPolicy> byName = new HashMap<>();
+        builder.policies.forEach((eventName, policy) -> byName.put(eventName, new EventPolicy(eventName, policy)));
+        this.policies = byName;
+        this.nextSummaryNanos = new AtomicLong(nanoClock.getAsLong() + summaryIntervalNanos);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A gate with the default policies: SLO budget alerts at most once per SLO and severity
+     * per minute, and anomaly events at most once per operation and pattern every 30 seconds.
+     * SLO alerts are not gated on change because {@link io.agenttel.core.slo.SloTracker}
+     * already reports only severity changes and re-offers the ones the gate rejects.
+     * Summaries are due every minute.
+     */
+    public static EventGate defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Returns whether an event should be emitted, counting it as suppressed if not.
+     *
+     * @param eventName event name, one of {@link AgentTelEvents}
+     * @param subject   operation or SLO the event is about
+     * @param state     severity, tier or pattern the event reports
+     */
+    public boolean tryAcquire(String eventName, String subject, String state) {
+        EventPolicy policy = policies.get(eventName);
+        if (policy == null) {
+            return true;
+        }
+        SubjectState subjectState = policy.subject(subject);
+        KeyState key = subjectState.key(state);
+        if (policy.onChange && state.equals(subjectState.lastState.get())) {
+            return suppress(key);
+        }
+        if (policy.emissionIntervalNanos > 0 && !key.tryConsume(nanoClock.getAsLong(), policy)) {
+            return suppress(key);
+        }
+        // Only an emitted transition updates the last state, so a rate-limited one can be offered again
+        if (policy.onChange) {
+            String last = subjectState.lastState.get();
+            if (state.equals(last) || !subjectState.lastState.compareAndSet(last, state)) {
+                // Another thread emitted this transition, or a different one, first
+                return suppress(key);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Forgets the last state emitted for a subject, so its next event passes an on-change
+     * policy whatever it reports. Call when the subject recovers without an event of its own.
+     */
+    public void clearState(String eventName, String subject) {
+        EventPolicy policy = policies.get(eventName);
+        if (policy == null || !policy.onChange) {
+            return;
+        }
+        SubjectState subjectState = policy.subjects.get(subject);
+        if (subjectState != null) {
+            subjectState.lastState.set(null);
+        }
+    }
+
+    /**
+     * Returns true at most once per summary interval, to the caller that should emit the
+     * summary of {@link #drainSuppressed()}.
+     */
+    public boolean summaryDue() {
+        long due = nextSummaryNanos.get();
+        long now = nanoClock.getAsLong();
+        return now - due >= 0 && nextSummaryNanos.compareAndSet(due, now + summaryIntervalNanos);
+    }
+
+    /**
+     * Returns the keys that suppressed events since the previous call, with their counts.
+     * Meant to be called by one thread at a time, typically the winner of {@link #summaryDue()}.
+     */
+    public List<Suppressed> drainSuppressed() {
+        List<Suppressed> drained = new ArrayList<>();
+        for (EventPolicy policy : policies.values()) {
+            policy.subjects.forEach((subject, subjectState) ->
+                    subjectState.keys.forEach((state, key) -> {
+                        long count = key.drain();
+                        if (count > 0) {
+                            drained.add(new Suppressed(policy.eventName, subject, state, count));
+                        }
+                    }));
+        }
+        return drained;
+    }
+
+    /** Total events suppressed since the gate was created. */
+    public long suppressedCount() {
+        return suppressed.sum();
+    }
+
+    public long summaryIntervalMs() {
+        return TimeUnit.NANOSECONDS.toMillis(summaryIntervalNanos);
+    }
+
+    private boolean suppress(KeyState key) {
+        key.suppressed.increment();
+        suppressed.increment();
+        return false;
+    }
+
+    /**
+     * Events a key suppressed since the previous summary.
+     */
+    public record Suppressed(String eventName, String subject, String state, long count) {}
+
+    /**
+     * How events with one name are gated.
+     *
+     * @param onChange   emit only when the state differs from the subject's last emitted state
+     * @param maxEvents  events a key may emit per period; 0 for no rate limit
+     * @param periodMs   rate limit period in milliseconds
+     */
+    public record Policy(boolean onChange, int maxEvents, long periodMs) {
+
+        public Policy {
+            if (maxEvents < 0 || (maxEvents > 0 && periodMs <= 0)) {
+                throw new IllegalArgumentException(
+                        "Rate limit needs a positive period: " + maxEvents + " per " + periodMs + "ms");
+            }
+        }
+
+        /** Emit on state changes only, without a rate limit. */
+        public static Policy onStateChange() {
+            return new Policy(true, 0, 0);
+        }
+
+        /** At most {@code maxEvents} per key per period. */
+        public static Policy rateLimited(int maxEvents, long period, TimeUnit unit) {
+            return new Policy(false, maxEvents, unit.toMillis(period));
+        }
+
+        /** Keeps this policy's state-change setting and adds a rate limit. */
+        public Policy withRateLimit(int maxEvents, long period, TimeUnit unit) {
+            return new Policy(onChange, maxEvents, unit.toMillis(period));
+        }
+    }
+
+    private final class EventPolicy {
+        final String eventName;
+        final boolean onChange;
+        final long emissionIntervalNanos;
+        final long burstToleranceNanos;
+        final ConcurrentHashMap<String, SubjectState> subjects = new ConcurrentHashMap<>();
+
+        EventPolicy(String eventName, Policy policy) {
+            this.eventName = eventName;
+            this.onChange = policy.onChange();
+            if (policy.maxEvents() > 0) {
+                long periodNanos = TimeUnit.MILLISECONDS.toNanos(policy.periodMs());
+                this.emissionIntervalNanos = periodNanos / policy.maxEvents();
+                this.burstToleranceNanos = periodNanos - emissionIntervalNanos;
+            } else {
+                this.emissionIntervalNanos = 0;
+                this.burstToleranceNanos = 0;
+            }
+        }
+
+        SubjectState subject(String subject) {
+            SubjectState state = subjects.get(subject);
+            if (state != null) {
+                return state;
+            }
+            if (subjectCount.incrementAndGet() > maxSubjects) {
+                subjectCount.decrementAndGet();
+                return subjects.computeIfAbsent(OperationRegistry.OVERFLOW_OPERATION, k -> new SubjectState());
+            }
+            SubjectState created = new SubjectState();
+            SubjectState existing = subjects.putIfAbsent(subject, created);
+            if (existing != null) {
+                subjectCount.decrementAndGet();
+                return existing;
+            }
+            return created;
+        }
+    }
+
+    private final class SubjectState {
+        final AtomicReference<String> lastState = new AtomicReference<>();
+        final ConcurrentHashMap<String, KeyState> keys = new ConcurrentHashMap<>(4);
+
+        KeyState key(String state) {
+            KeyState key = keys.get(state);
+            return key != null ? key : keys.computeIfAbsent(state, k -> new KeyState(nanoClock.getAsLong()));
+        }
+    }
+
+    private static final class KeyState {
+        /** GCRA theoretical arrival time: when the bucket would be full again. */
+        final AtomicLong arrivalNanos;
+        final LongAdder suppressed = new LongAdder();
+        /** Suppressions already reported; only the draining thread touches it. */
+        long reported;
+
+        KeyState(long nowNanos) {
+            this.arrivalNanos = new AtomicLong(nowNanos);
+        }
+
+        boolean tryConsume(long now, EventPolicy policy) {
+            while (true) {
+                long arrival = arrivalNanos.get();
+                if (arrival - now > policy.burstToleranceNanos) {
+                    return false;
+                }
+                long next = (now - arrival > 0 ? now : arrival) + policy.emissionIntervalNanos;
+                if (arrivalNanos.compareAndSet(arrival, next)) {
+                    return true;
+                }
+            }
+        }
+
+        long drain() {
+            // Counting up from a running total loses nothing to concurrent increments
+            long total = suppressed.sum();
+            long count = total - reported;
+            reported = total;
+            return count;
+        }
+    }
+
+    public static class Builder {
+        private final Map<String, Policy> policies = new HashMap<>();
+        private int maxSubjects = DEFAULT_MAX_SUBJECTS;
+        private long summaryIntervalNanos = TimeUnit.MINUTES.toNanos(1);
+        private LongSupplier nanoClock = System::nanoTime;
+
+        Builder() {
+            policies.put(AgentTelEvents.SLO_BUDGET_ALERT, Policy.rateLimited(1, 1, TimeUnit.MINUTES));
+            policies.put(AgentTelEvents.ANOMALY_DETECTED, Policy.rateLimited(1, 30, TimeUnit.SECONDS));
+        }
+
+        /** Sets the policy for an event name, replacing the default. */
+        public Builder policy(String eventName, Policy policy) {
+            policies.put(eventName, policy);
+            return this;
+        }
+
+        /** Lets every event with this name through. */
+        public Builder ungated(String eventName) {
+            policies.remove(eventName);
+            return this;
+        }
+
+        /** Subjects tracked across all gated event names before new ones share the overflow key. Defaults to 10,000. */
+        public Builder maxSubjects(int maxSubjects) {
+            if (maxSubjects <= 0) {
+                throw new IllegalArgumentException("maxSubjects must be positive: " + maxSubjects);
+            }
+            this.maxSubjects = maxSubjects;
+            return this;
+        }
+
+        /** How often {@link #summaryDue()} returns true. Defaults to 1 minute. */
+        public Builder summaryInterval(long interval, TimeUnit unit) {
+            if (interval <= 0) {
+                throw new IllegalArgumentException("Summary interval must be positive: " + interval);
+            }
+            this.summaryIntervalNanos = unit.toNanos(interval);
+            return this;
+        }
+
+        Builder nanoClock(LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        public EventGate build() {
+            return new EventGate(this);
+        }
+    }
+}
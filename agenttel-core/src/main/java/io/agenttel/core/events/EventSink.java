@@ -0,0 +1,34 @@
+package io.agenttel.core.events;
+
+import io.opentelemetry.api.logs.Severity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where {@link AgentTelEventEmitter} delivers the events it lets through.
+ *
+ * <p>{@link LogEventSink} writes them as OTel log records; {@link AsyncEventSink} queues them
+ * for another sink on a background thread. A sink owns the body map it is given, which the
+ * caller must not change afterwards.
+ */
+@FunctionalInterface
+public interface EventSink {
+
+    void emit(String eventName, Map<String, Object> body, Severity severity);
+
+    /**
+     * Waits until every event accepted before this call has been delivered.
+     *
+     * @return true if delivery finished within the timeout
+     */
+    default boolean flush(long timeout, TimeUnit unit) {
+        return true;
+    }
+
+    /**
+     * Delivers what is pending, within the timeout, and releases the sink's resources.
+     */
+    default void shutdown(long timeout, TimeUnit unit) {
+    }
+}
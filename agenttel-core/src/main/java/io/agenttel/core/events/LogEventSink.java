@@ -0,0 +1,124 @@
+package io.agenttel.core.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.KeyValue;
+import io.opentelemetry.api.common.Value;
+import io.opentelemetry.api.logs.LogRecordBuilder;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.logs.Severity;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes events as OTel log records, named by the {@code event.name} attribute, with the
+ * body either serialized to a JSON string or mapped to a structured log body.
+ */
+public class LogEventSink implements EventSink {
+
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(LogEventSink.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final AttributeKey<String> EVENT_NAME = AttributeKey.stringKey("event.name");
+
+    /**
+     * How an event body becomes a log record body.
+     */
+    public enum BodyFormat {
+        /** A JSON string, readable by any log backend. */
+        JSON,
+        /**
+         * A key-value list {@code AnyValue}, built directly from the body map with no
+         * serialization. Nested maps and collections keep their structure; numbers, booleans
+         * and strings keep their types; anything else is written as its string form.
+         */
+        STRUCTURED;
+
+        public static BodyFormat fromValue(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown event body format: " + value
+                        + " (expected json or structured)");
+            }
+        }
+    }
+
+    private final Logger otelLogger;
+    private final BodyFormat bodyFormat;
+
+    public LogEventSink(OpenTelemetry openTelemetry, BodyFormat bodyFormat) {
+        this.otelLogger = openTelemetry.getLogsBridge()
+                .loggerBuilder("io.agenttel")
+                .build();
+        this.bodyFormat = bodyFormat;
+    }
+
+    @Override
+    public void emit(String eventName, Map<String, Object> body, Severity severity) {
+        LogRecordBuilder record = otelLogger.logRecordBuilder()
+                .setSeverity(severity)
+                .setAttribute(EVENT_NAME, eventName);
+        if (bodyFormat == BodyFormat.STRUCTURED) {
+            record.setBody(toValue(body));
+        } else {
+            try {
+                record.setBody(OBJECT_MAPPER.writeValueAsString(body));
+            } catch (JsonProcessingException e) {
+                LOG.warn("Failed to serialize event body for {}: {}", eventName, e.getMessage());
+                return;
+            }
+        }
+        record.emit();
+    }
+
+    public BodyFormat bodyFormat() {
+        return bodyFormat;
+    }
+
+    /**
+     * Maps an event body value to an {@code AnyValue}. Null map entries and list elements are left out.
+     */
+    static Value<?> toValue(Object value) {
+        if (value instanceof String s) {
+            return Value.of(s);
+        }
+        if (value instanceof Boolean b) {
+            return Value.of(b);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return Value.of(((Number) value).doubleValue());
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return Value.of(((Number) value).longValue());
+        }
+        if (value instanceof Map<?, ?> map) {
+            List<KeyValue> entries = new ArrayList<>(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (entry.getValue() != null) {
+                    entries.add(KeyValue.of(String.valueOf(entry.getKey()), toValue(entry.getValue())));
+                }
+            }
+            return Value.of(entries.toArray(new KeyValue[0]));
+        }
+        if (value instanceof Collection<?> collection) {
+            List<Value<?>> elements = new ArrayList<>(collection.size());
+            for (Object element : collection) {
+                if (element != null) {
+                    elements.add(toValue(element));
+                }
+            }
+            return Value.of(elements);
+        }
+        if (value instanceof Enum<?> constant) {
+            return Value.of(constant.name());
+        }
+        return Value.of(String.valueOf(value));
+    }
+}
@@ -4,13 +4,15 @@ import io.agenttel.api.ErrorCategory;
 import io.agenttel.api.ServiceTier;
 import io.agenttel.api.attributes.AgentTelAttributes;
 import io.agenttel.core.anomaly.AnomalyDetector;
-import io.agenttel.core.anomaly.AnomalyResult;
+import io.agenttel.core.anomaly.AnomalyStrategy;
 import io.agenttel.core.anomaly.IncidentPattern;
 import io.agenttel.core.anomaly.PatternMatcher;
 import io.agenttel.core.baseline.RollingBaselineProvider;
 import io.agenttel.core.baseline.RollingWindow;
+import io.agenttel.core.baseline.SeasonalBaselineProvider;
 import io.agenttel.core.causality.CausalityTracker;
 import io.agenttel.core.error.ErrorClassifier;
+import io.agenttel.core.operation.OperationRegistry;
 import io.agenttel.core.slo.SloTracker;
 import io.agenttel.core.topology.TopologyRegistry;
 import io.opentelemetry.api.common.AttributeKey;
@@ -20,7 +22,12 @@ import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
 
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Enriching SpanExporter that adds computed attributes to spans at export time.
@@ -38,6 +45,12 @@ import java.util.concurrent.TimeUnit;
  *   <li>{@code agenttel.severity.*} — severity assessment</li>
  *   <li>{@code agenttel.baseline.sample_count/confidence} — baseline reliability</li>
  * </ul>
+ *
+ * <p>A batch is grouped by operation name, and what depends only on the operation — the
+ * baseline snapshot and the latency expectation anomalies are scored against, the status of the SLO bound to the operation and the causal analysis per
+ * error category — is computed once per group. With
+ * {@link #enableParallelEnrichment} large batches are split by group across a bounded pool,
+ * the export thread enriching one share itself; span order is kept either way.
  */
 public class AgentTelEnrichingSpanExporter implements SpanExporter {
 
@@ -48,6 +61,9 @@ public class AgentTelEnrichingSpanExporter implements SpanExporter {
     private final AnomalyDetector anomalyDetector;
     private final ErrorClassifier errorClassifier;
     private final TopologyRegistry topology;
+    private volatile SeasonalBaselineProvider seasonalBaselines;
+    private volatile ThreadPoolExecutor enrichmentPool;
+    private volatile int parallelMinBatchSize;
 
     public AgentTelEnrichingSpanExporter(SpanExporter delegate,
                                           RollingBaselineProvider rollingBaselines,
@@ -65,13 +81,63 @@ public class AgentTelEnrichingSpanExporter implements SpanExporter {
         this.topology = topology;
     }
 
+    /**
+     * Scores spans against the hour-of-week expectation blended with the rolling baseline,
+     * as the span processor does. Pass the processor's own provider so both compare a span
+     * with the same expectation.
+     *
+     * @throws IllegalArgumentException if the provider uses a different operation registry
+     */
+    public void setSeasonalBaselines(SeasonalBaselineProvider seasonalBaselines) {
+        if (seasonalBaselines != null && (rollingBaselines == null
+                || seasonalBaselines.operationRegistry() != rollingBaselines.operationRegistry())) {
+            throw new IllegalArgumentException("Seasonal baselines must share the rolling baselines' operation registry");
+        }
+        this.seasonalBaselines = seasonalBaselines;
+    }
+
+    /**
+     * Enriches batches of at least {@code minBatchSize} spans on {@code workers} pool threads
+     * plus the export thread. The pool's queue is bounded; when it is full the export thread
+     * runs the work itself. Call once, before the exporter is registered; {@link #shutdown()}
+     * stops the pool.
+     */
+    public synchronized void enableParallelEnrichment(int workers, int minBatchSize) {
+        if (workers <= 0 || minBatchSize <= 0) {
+            throw new IllegalArgumentException("Workers and minimum batch size must be positive");
+        }
+        if (enrichmentPool != null) {
+            throw new IllegalStateException("Parallel enrichment is already enabled");
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "agenttel-export-" + threadCount.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Unlike CallerRunsPolicy, also runs work rejected after shutdown, which export waits on
+                (task, executor) -> task.run());
+        this.parallelMinBatchSize = minBatchSize;
+        this.enrichmentPool = pool;
+    }
+
     @Override
     public CompletableResultCode export(Collection<SpanData> spans) {
-        List<SpanData> enriched = new ArrayList<>(spans.size());
-        for (SpanData span : spans) {
-            enriched.add(enrich(span));
+        SpanData[] batch = spans.toArray(new SpanData[0]);
+        List<OperationGroup> groups = groupByOperation(batch);
+
+        SpanData[] enriched = new SpanData[batch.length];
+        ThreadPoolExecutor pool = this.enrichmentPool;
+        if (pool != null && batch.length >= parallelMinBatchSize && groups.size() > 1) {
+            enrichInParallel(pool, groups, batch, enriched);
+        } else {
+            for (OperationGroup group : groups) {
+                enrichGroup(group, batch, enriched);
+            }
         }
-        return delegate.export(enriched);
+        return delegate.export(Arrays.asList(enriched));
     }
 
     @Override
@@ -81,24 +147,110 @@ public class AgentTelEnrichingSpanExporter implements SpanExporter {
 
     @Override
     public CompletableResultCode shutdown() {
+        ThreadPoolExecutor pool = this.enrichmentPool;
+        if (pool != null) {
+            pool.shutdown();
+        }
         return delegate.shutdown();
     }
 
-    private SpanData enrich(SpanData span) {
+    private static List<OperationGroup> groupByOperation(SpanData[] batch) {
+        Map<String, OperationGroup> byName = new HashMap<>();
+        List<OperationGroup> groups = new ArrayList<>();
+        for (int i = 0; i < batch.length; i++) {
+            String operationName = batch[i].getName();
+            OperationGroup group = byName.get(operationName);
+            if (group == null) {
+                group = new OperationGroup(operationName);
+                byName.put(operationName, group);
+                groups.add(group);
+            }
+            group.add(i);
+        }
+        return groups;
+    }
+
+    /**
+     * Deals the groups into one share per worker plus one for the calling thread, each to the
+     * share with the fewest spans so far, and waits for all of them.
+     */
+    private void enrichInParallel(ThreadPoolExecutor pool, List<OperationGroup> groups, SpanData[] batch,
+                                  SpanData[] enriched) {
+        int shareCount = Math.min(pool.getMaximumPoolSize() + 1, groups.size());
+        List<List<OperationGroup>> shares = new ArrayList<>(shareCount);
+        int[] shareSpans = new int[shareCount];
+        for (int i = 0; i < shareCount; i++) {
+            shares.add(new ArrayList<>());
+        }
+        for (OperationGroup group : groups) {
+            int smallest = 0;
+            for (int i = 1; i < shareCount; i++) {
+                if (shareSpans[i] < shareSpans[smallest]) smallest = i;
+            }
+            shares.get(smallest).add(group);
+            shareSpans[smallest] += group.size;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(shareCount - 1);
+        for (int i = 1; i < shareCount; i++) {
+            List<OperationGroup> share = shares.get(i);
+            futures.add(pool.submit(() -> {
+                for (OperationGroup group : share) {
+                    enrichGroup(group, batch, enriched);
+                }
+            }));
+        }
+        for (OperationGroup group : shares.get(0)) {
+            enrichGroup(group, batch, enriched);
+        }
+
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                future.cancel(false);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtime) throw runtime;
+                if (cause instanceof Error error) throw error;
+                throw new IllegalStateException(cause);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            // Spans whose share did not finish are exported as they are
+            for (int i = 0; i < enriched.length; i++) {
+                if (enriched[i] == null) enriched[i] = batch[i];
+            }
+        }
+    }
+
+    private void enrichGroup(OperationGroup group, SpanData[] batch, SpanData[] enriched) {
+        OperationContext context = new OperationContext(group.operationName,
+                rollingBaselines != null ? rollingBaselines.getSnapshot(group.operationName).orElse(null) : null,
+                sloTracker != null ? sloTracker.getStatusForOperation(group.operationName) : null);
+        for (int i = 0; i < group.size; i++) {
+            int index = group.spans[i];
+            enriched[index] = enrich(batch[index], context);
+        }
+    }
+
+    private SpanData enrich(SpanData span, OperationContext context) {
         Map<AttributeKey<?>, Object> extra = new LinkedHashMap<>();
-        String operationName = span.getName();
         double latencyMs = (double) (span.getEndEpochNanos() - span.getStartEpochNanos())
                 / TimeUnit.MILLISECONDS.toNanos(1);
         boolean isError = span.getStatus().getStatusCode() == StatusCode.ERROR;
 
         // --- Anomaly detection ---
-        enrichAnomaly(extra, operationName, latencyMs, isError);
+        enrichAnomaly(extra, context, latencyMs);
 
         // --- SLO context ---
-        enrichSlo(extra, operationName);
+        enrichSlo(extra, context.sloStatus);
 
         // --- Baseline confidence ---
-        enrichBaselineConfidence(extra, operationName);
+        enrichBaselineConfidence(extra, context.snapshot);
 
         // --- Error classification ---
         ErrorCategory errorCategory = null;
@@ -108,7 +260,7 @@ public class AgentTelEnrichingSpanExporter implements SpanExporter {
 
         // --- Causality analysis ---
         if (isError || !extra.isEmpty()) {
-            enrichCausality(extra, operationName, errorCategory);
+            enrichCausality(extra, context, errorCategory);
         }
 
         // --- Severity assessment ---
@@ -118,48 +270,43 @@ public class AgentTelEnrichingSpanExporter implements SpanExporter {
             return span;
         }
 
-        return new EnrichedSpanData(span, extra);
+        return EnrichedSpanData.withAttributes(span, extra);
     }
 
+    /**
+     * Re-scores the span with its operation's scorer, without learning from it: the span
+     * processor already fed the sample to the scorer when the span ended.
+     */
     private void enrichAnomaly(Map<AttributeKey<?>, Object> extra,
-                                String operationName, double latencyMs, boolean isError) {
-        if (anomalyDetector == null || rollingBaselines == null) return;
-
-        rollingBaselines.getSnapshot(operationName).ifPresent(snapshot -> {
-            if (snapshot.stddev() > 0) {
-                AnomalyResult result = anomalyDetector.evaluate(
-                        "latency", latencyMs, snapshot.mean(), snapshot.stddev());
-                extra.put(AgentTelAttributes.ANOMALY_DETECTED, result.isAnomaly());
-                extra.put(AgentTelAttributes.ANOMALY_SCORE, result.anomalyScore());
-                extra.put(AgentTelAttributes.ANOMALY_LATENCY_Z_SCORE, result.zScore());
+                                OperationContext context, double latencyMs) {
+        RollingWindow.MeanStddev expected = context.expected;
+        if (anomalyDetector == null || expected == null) return;
+
+        if (expected.stddev() > 0) {
+            double score = anomalyDetector.peek(context.operationId, context.operationName, latencyMs,
+                    expected.mean(), expected.stddev(), rollingBaselines);
+            extra.put(AgentTelAttributes.ANOMALY_DETECTED, anomalyDetector.isAnomaly(score));
+            extra.put(AgentTelAttributes.ANOMALY_SCORE, AnomalyDetector.anomalyScore(score));
+            if (context.zScoreStrategy) {
+                extra.put(AgentTelAttributes.ANOMALY_LATENCY_Z_SCORE, score);
             }
-        });
+        }
     }
 
-    private void enrichSlo(Map<AttributeKey<?>, Object> extra, String operationName) {
-        if (sloTracker == null) return;
+    private void enrichSlo(Map<AttributeKey<?>, Object> extra, SloTracker.SloStatus status) {
+        if (status == null) return;
 
-        for (SloTracker.SloStatus status : sloTracker.getStatuses()) {
-            // Match SLOs that cover this operation (by name prefix or exact match)
-            if (status.sloName().contains(operationName)
-                    || operationName.contains(status.sloName().replace("-availability", "")
-                    .replace("-latency-p99", ""))) {
-                extra.put(AgentTelAttributes.SLO_BUDGET_REMAINING, status.budgetRemaining());
-                extra.put(AgentTelAttributes.SLO_BURN_RATE, status.burnRate());
-                break;
-            }
-        }
+        extra.put(AgentTelAttributes.SLO_BUDGET_REMAINING, status.budgetRemaining());
+        extra.put(AgentTelAttributes.SLO_BURN_RATE, status.burnRate());
     }
 
-    private void enrichBaselineConfidence(Map<AttributeKey<?>, Object> extra, String operationName) {
-        if (rollingBaselines == null) return;
+    private void enrichBaselineConfidence(Map<AttributeKey<?>, Object> extra, RollingWindow.Snapshot snapshot) {
+        if (snapshot == null) return;
 
-        rollingBaselines.getSnapshot(operationName).ifPresent(snapshot -> {
-            if (!snapshot.isEmpty()) {
-                extra.put(AgentTelAttributes.BASELINE_SAMPLE_COUNT, (long) snapshot.sampleCount());
-                extra.put(AgentTelAttributes.BASELINE_CONFIDENCE, snapshot.confidence());
-            }
-        });
+        if (!snapshot.isEmpty()) {
+            extra.put(AgentTelAttributes.BASELINE_SAMPLE_COUNT, (long) snapshot.sampleCount());
+            extra.put(AgentTelAttributes.BASELINE_CONFIDENCE, snapshot.confidence());
+        }
     }
 
     private ErrorCategory enrichErrorClassification(Map<AttributeKey<?>, Object> extra, SpanData span) {
@@ -179,11 +326,10 @@ public class AgentTelEnrichingSpanExporter implements SpanExporter {
     }
 
     private void enrichCausality(Map<AttributeKey<?>, Object> extra,
-                                  String operationName, ErrorCategory errorCategory) {
+                                  OperationContext context, ErrorCategory errorCategory) {
         if (causalityTracker == null) return;
 
-        CausalityTracker.CausalAnalysis analysis =
-                causalityTracker.analyzeCause(operationName, errorCategory);
+        CausalityTracker.CausalAnalysis analysis = context.causalAnalysis(errorCategory);
 
         if (analysis.confidence() > 0.2) {
             extra.put(AgentTelAttributes.CAUSE_HINT, analysis.causeHint());
@@ -223,4 +369,70 @@ public class AgentTelEnrichingSpanExporter implements SpanExporter {
             extra.put(AgentTelAttributes.SEVERITY_BUSINESS_IMPACT, impact);
         }
     }
+
+    /** Positions of one operation's spans within a batch. */
+    private static final class OperationGroup {
+        final String operationName;
+        int[] spans = new int[4];
+        int size;
+
+        OperationGroup(String operationName) {
+            this.operationName = operationName;
+        }
+
+        void add(int index) {
+            if (size == spans.length) {
+                spans = Arrays.copyOf(spans, size * 2);
+            }
+            spans[size++] = index;
+        }
+    }
+
+    /**
+     * What one batch shares across an operation's spans. Used by one thread at a time.
+     */
+    private final class OperationContext {
+        final String operationName;
+        final int operationId;
+        final boolean zScoreStrategy;
+        final RollingWindow.Snapshot snapshot;
+        /** What the anomaly scorer compares a span's latency with; null without a baseline. */
+        final RollingWindow.MeanStddev expected;
+        final SloTracker.SloStatus sloStatus;
+        private final Map<ErrorCategory, CausalityTracker.CausalAnalysis> analyses = new EnumMap<>(ErrorCategory.class);
+        private CausalityTracker.CausalAnalysis uncategorized;
+
+        OperationContext(String operationName, RollingWindow.Snapshot snapshot, SloTracker.SloStatus sloStatus) {
+            this.operationName = operationName;
+            this.operationId = rollingBaselines != null
+                    ? rollingBaselines.operationRegistry().find(operationName) : OperationRegistry.NOT_FOUND;
+            this.zScoreStrategy = anomalyDetector != null && AnomalyStrategy.Z_SCORE.getValue()
+                    .equals(anomalyDetector.scorerFor(operationName).name());
+            this.snapshot = snapshot;
+            this.expected = expectedMoments(operationId, snapshot);
+            this.sloStatus = sloStatus;
+        }
+
+        /** The seasonal blend when configured, as in the span processor, else the snapshot's own. */
+        private RollingWindow.MeanStddev expectedMoments(int operationId, RollingWindow.Snapshot snapshot) {
+            SeasonalBaselineProvider seasonal = seasonalBaselines;
+            if (seasonal != null && operationId != OperationRegistry.NOT_FOUND) {
+                return seasonal.meanStddev(operationId);
+            }
+            return snapshot != null
+                    ? new RollingWindow.MeanStddev(snapshot.mean(), snapshot.stddev(), snapshot.sampleCount())
+                    : null;
+        }
+
+        CausalityTracker.CausalAnalysis causalAnalysis(ErrorCategory errorCategory) {
+            if (errorCategory == null) {
+                if (uncategorized == null) {
+                    uncategorized = causalityTracker.analyzeCause(operationName, null);
+                }
+                return uncategorized;
+            }
+            return analyses.computeIfAbsent(errorCategory,
+                    category -> causalityTracker.analyzeCause(operationName, category));
+        }
+    }
 }
@@ -1,7 +1,7 @@
 package io.agenttel.core.export;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
@@ -11,39 +11,47 @@ import io.opentelemetry.sdk.trace.data.LinkData;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.data.StatusData;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Delegating SpanData that merges additional attributes at export time.
- * All methods delegate to the original span except {@link #getAttributes()}.
+ * All methods delegate to the original span except {@link #getAttributes()}, which lays the
+ * additional attributes over the original ones without copying them.
+ *
+ * <p>Enriching an already enriched span wraps the original span again with the merged
+ * attributes, so chained enriching exporters add no layers.
  */
-class EnrichedSpanData implements SpanData {
+public final class EnrichedSpanData implements SpanData {
 
     private final SpanData delegate;
     private final Attributes enrichedAttributes;
+    private final int addedAttributeCount;
 
-    EnrichedSpanData(SpanData delegate, Map<io.opentelemetry.api.common.AttributeKey<?>, Object> extraAttributes) {
+    private EnrichedSpanData(SpanData delegate, Attributes enrichedAttributes) {
         this.delegate = delegate;
-        AttributesBuilder builder = delegate.getAttributes().toBuilder();
-        for (var entry : extraAttributes.entrySet()) {
-            putAttribute(builder, entry.getKey(), entry.getValue());
-        }
-        this.enrichedAttributes = builder.build();
+        this.enrichedAttributes = enrichedAttributes;
+        this.addedAttributeCount = enrichedAttributes instanceof OverlayAttributes overlay
+                ? overlay.addedCount() : 0;
     }
 
-    @SuppressWarnings("unchecked")
-    private static void putAttribute(AttributesBuilder builder,
-                                      io.opentelemetry.api.common.AttributeKey<?> key, Object value) {
-        if (value instanceof String s) {
-            builder.put((io.opentelemetry.api.common.AttributeKey<String>) key, s);
-        } else if (value instanceof Long l) {
-            builder.put((io.opentelemetry.api.common.AttributeKey<Long>) key, l);
-        } else if (value instanceof Double d) {
-            builder.put((io.opentelemetry.api.common.AttributeKey<Double>) key, d);
-        } else if (value instanceof Boolean b) {
-            builder.put((io.opentelemetry.api.common.AttributeKey<Boolean>) key, b);
-        }
+    /**
+     * Returns the span with {@code extraAttributes} added, replacing any existing values for
+     * the same keys. Values must be a String, Long, Double or Boolean; others are ignored.
+     */
+    public static SpanData withAttributes(SpanData span, Map<AttributeKey<?>, Object> extraAttributes) {
+        SpanData original = span instanceof EnrichedSpanData enriched ? enriched.delegate : span;
+        Attributes attributes = span.getAttributes();
+        Attributes merged = OverlayAttributes.of(attributes, extraAttributes);
+        return merged == attributes ? span : new EnrichedSpanData(original, merged);
+    }
+
+    /**
+     * Returns the span with one attribute added, replacing any existing value for the key.
+     */
+    public static <T> SpanData withAttribute(SpanData span, AttributeKey<T> key, T value) {
+        return withAttributes(span, Collections.singletonMap(key, value));
     }
 
     @Override public SpanContext getSpanContext() { return delegate.getSpanContext(); }
@@ -63,5 +71,5 @@ class EnrichedSpanData implements SpanData {
     @Override public boolean hasEnded() { return delegate.hasEnded(); }
     @Override public int getTotalRecordedEvents() { return delegate.getTotalRecordedEvents(); }
     @Override public int getTotalRecordedLinks() { return delegate.getTotalRecordedLinks(); }
-    @Override public int getTotalAttributeCount() { return enrichedAttributes.size(); }
+    @Override public int getTotalAttributeCount() { return delegate.getTotalAttributeCount() + addedAttributeCount; }
 }
@@ -0,0 +1,156 @@
+package io.agenttel.core.export;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Attributes that layer a few extra keys over a span's original attributes without copying
+ * them. The extras live in two small arrays searched linearly, which beats hashing for the
+ * handful of keys an enricher adds. An extra key replaces the original value for that key.
+ *
+ * <p>{@link #forEach} visits the original attributes, then the extras, so marshalers iterate
+ * without any intermediate collection. Overlaying an overlay merges the extras over the same
+ * original attributes, so stacked enrichers never nest.
+ */
+final class OverlayAttributes implements Attributes {
+
+    private final Attributes base;
+    private final AttributeKey<?>[] keys;
+    private final Object[] values;
+    private final int count;
+    /** Extras that replace a key of the base, which iteration must then skip. */
+    private final int shadowed;
+
+    private OverlayAttributes(Attributes base, AttributeKey<?>[] keys, Object[] values, int count) {
+        this.base = base;
+        this.keys = keys;
+        this.values = values;
+        this.count = count;
+        int replaced = 0;
+        for (int i = 0; i < count; i++) {
+            if (base.get(keys[i]) != null) replaced++;
+        }
+        this.shadowed = replaced;
+    }
+
+    /**
+     * Returns {@code attributes} with {@code extra} laid over them. Values that are not a
+     * String, Long, Double or Boolean are ignored.
+     */
+    static Attributes of(Attributes attributes, Map<AttributeKey<?>, Object> extra) {
+        Attributes base = attributes;
+        AttributeKey<?>[] keys;
+        Object[] values;
+        int count = 0;
+        if (attributes instanceof OverlayAttributes overlay) {
+            base = overlay.base;
+            keys = new AttributeKey<?>[overlay.count + extra.size()];
+            values = new Object[keys.length];
+            System.arraycopy(overlay.keys, 0, keys, 0, overlay.count);
+            System.arraycopy(overlay.values, 0, values, 0, overlay.count);
+            count = overlay.count;
+        } else {
+            keys = new AttributeKey<?>[extra.size()];
+            values = new Object[keys.length];
+        }
+        int layered = count;
+        boolean changed = false;
+        for (Map.Entry<AttributeKey<?>, Object> entry : extra.entrySet()) {
+            Object value = entry.getValue();
+            if (!(value instanceof String || value instanceof Long
+                    || value instanceof Double || value instanceof Boolean)) {
+                continue;
+            }
+            int i = indexOf(keys, layered, entry.getKey());
+            if (i >= 0) {
+                values[i] = value;
+            } else {
+                keys[count] = entry.getKey();
+                values[count++] = value;
+            }
+            changed = true;
+        }
+        return changed ? new OverlayAttributes(base, keys, values, count) : attributes;
+    }
+
+    private static int indexOf(AttributeKey<?>[] keys, int count, AttributeKey<?> key) {
+        for (int i = 0; i < count; i++) {
+            if (keys[i] == key || keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    /** The number of keys this overlay adds to its base, not counting replaced ones. */
+    int addedCount() {
+        return count - shadowed;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(AttributeKey<T> key) {
+        int i = indexOf(keys, count, key);
+        return i >= 0 ? (T) values[i] : base.get(key);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super AttributeKey<?>, ? super Object> consumer) {
+        if (shadowed == 0) {
+            base.forEach(consumer);
+        } else {
+            base.forEach((key, value) -> {
+                if (indexOf(keys, count, key) < 0) consumer.accept(key, value);
+            });
+        }
+        for (int i = 0; i < count; i++) {
+            consumer.accept(keys[i], values[i]);
+        }
+    }
+
+    @Override
+    public int size() {
+        return base.size() + addedCount();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public Map<AttributeKey<?>, Object> asMap() {
+        Map<AttributeKey<?>, Object> map = new LinkedHashMap<>();
+        forEach(map::put);
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public AttributesBuilder toBuilder() {
+        AttributesBuilder builder = base.toBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.put((AttributeKey<Object>) keys[i], values[i]);
+        }
+        return builder;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Attributes other && asMap().equals(other.asMap()));
+    }
+
+    @Override
+    public int hashCode() {
+        return asMap().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+}
@@ -0,0 +1,81 @@
+package io.agenttel.core.operation;
+
+/**
+ * Count-Min sketch estimating how often operation names outside the registry are seen.
+ *
+ * <p>Four rows of saturating byte counters, indexed by independent rehashes of the name's
+ * hash code. The estimate is the minimum across rows, so it may over-count on collisions but
+ * never under-counts. Counters are halved by {@link #age()} so old bursts fade. Updates are
+ * unsynchronized: a lost increment under contention only makes an estimate slightly low.
+ */
+final class FrequencySketch {
+
+    static final int MAX_FREQUENCY = 127;
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final byte[] counters;
+    private final int width;
+    private final int shift;
+
+    /**
+     * @param expectedItems number of distinct names expected to compete for admission
+     */
+    FrequencySketch(int expectedItems) {
+        this.width = Integer.highestOneBit(Math.max(64, expectedItems) * 2 - 1);
+        this.shift = Long.SIZE - Integer.numberOfTrailingZeros(width);
+        this.counters = new byte[width * DEPTH];
+    }
+
+    /**
+     * Counts one occurrence of the key.
+     *
+     * @return the key's frequency estimate after the increment
+     */
+    int increment(Object key) {
+        long hash = spread(key.hashCode());
+        int min = MAX_FREQUENCY;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            int count = counters[index];
+            if (count < MAX_FREQUENCY) {
+                counters[index] = (byte) ++count;
+            }
+            min = Math.min(min, count);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the key's frequency estimate.
+     */
+    int frequency(Object key) {
+        long hash = spread(key.hashCode());
+        int min = MAX_FREQUENCY;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters[indexOf(hash, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Halves every counter.
+     */
+    void age() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = (byte) (counters[i] >>> 1);
+        }
+    }
+
+    private int indexOf(long hash, int row) {
+        // Multiplicative hashing: the top bits of the product depend on every bit of the hash
+        return row * width + (int) ((hash * SEEDS[row]) >>> shift);
+    }
+
+    private static long spread(int hashCode) {
+        long h = hashCode * 0x9e3779b97f4a7c15L;
+        return h ^ (h >>> 29);
+    }
+}
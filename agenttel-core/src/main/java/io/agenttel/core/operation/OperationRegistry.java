@@ -0,0 +1,301 @@
+package io.agenttel.core.operation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Interns operation names to dense integer ids, shared by the per-operation trackers.
+ *
+ * <p>The span path resolves a name once with {@link #intern} and passes the id to every
+ * tracker, which keeps its state in an {@link OperationSlots} array instead of its own
+ * name-keyed map. Ids start at 1.
+ *
+ * <p>The registry holds at most {@code maxOperations} names, so unbounded span-name
+ * cardinality (ids in paths, unparameterized SQL) cannot grow tracker memory. Once full, a new
+ * name is admitted only if it has been seen more often than the coldest sampled operation,
+ * in the style of TinyLFU: candidates are counted in a Count-Min sketch, and each operation
+ * keeps a saturating hit count. Both are halved every aging period, so an operation that stops
+ * receiving traffic decays towards zero and is the first to be evicted. An admitted name takes
+ * over the evicted id, and {@link EvictionListener}s drop the state held for it. Names that
+ * are not admitted map to {@link #OVERFLOW_ID}.
+ */
+public class OperationRegistry {
+
+    /** Id shared by every name the registry has no room for. */
+    public static final int OVERFLOW_ID = 0;
+    /** Name reported for {@link #OVERFLOW_ID}. */
+    public static final String OVERFLOW_OPERATION = "agenttel.other";
+    /** Returned by {@link #find} for names that are not interned. */
+    public static final int NOT_FOUND = -1;
+    public static final int DEFAULT_MAX_OPERATIONS = 10_000;
+
+    private static final int VICTIM_SAMPLE_SIZE = 16;
+
+    /**
+     * Notified when an operation is evicted, before its id is handed to another name.
+     */
+    @FunctionalInterface
+    public interface EvictionListener {
+        void onEvicted(int operationId, String operationName);
+    }
+
+    private final int maxOperations;
+    private final boolean evictColdOperations;
+    private final long agingPeriodNanos;
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<EvictionListener> evictionListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final FrequencySketch candidates;
+    private final int[] hits;
+    private volatile String[] names;
+    private volatile boolean full;
+    private int nextId = 1;
+    private long lastAgedNanos;
+
+    public OperationRegistry() {
+        this(DEFAULT_MAX_OPERATIONS);
+    }
+
+    /**
+     * @param maxOperations distinct names given their own id; cold ones are evicted beyond that
+     */
+    public OperationRegistry(int maxOperations) {
+        this(builder().maxOperations(maxOperations));
+    }
+
+    private OperationRegistry(Builder builder) {
+        if (builder.maxOperations <= 0) {
+            throw new IllegalArgumentException("maxOperations must be positive: " + builder.maxOperations);
+        }
+        this.maxOperations = builder.maxOperations;
+        this.evictColdOperations = builder.evictColdOperations;
+        this.agingPeriodNanos = builder.agingPeriodNanos;
+        this.nanoClock = builder.nanoClock;
+        this.candidates = evictColdOperations ? new FrequencySketch(maxOperations) : null;
+        this.hits = evictColdOperations ? new int[maxOperations + 1] : null;
+        this.lastAgedNanos = nanoClock.getAsLong();
+        this.names = new String[Math.min(maxOperations, 64) + 1];
+        this.names[OVERFLOW_ID] = OVERFLOW_OPERATION;
+        ids.put(OVERFLOW_OPERATION, OVERFLOW_ID);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the id for an operation name, assigning one on first sight if there is room or
+     * the name wins admission. Allocation-free for names already interned.
+     */
+    public int intern(String operationName) {
+        Integer id = ids.get(operationName);
+        if (id != null) {
+            int operationId = id;
+            // Saturated counters are only read, so hot operations do not keep writing the array
+            if (hits != null && hits[operationId] < FrequencySketch.MAX_FREQUENCY) {
+                hits[operationId]++;
+            }
+            return operationId;
+        }
+        if (full) {
+            return evictColdOperations ? admit(operationName) : reject();
+        }
+        return register(operationName);
+    }
+
+    /**
+     * Returns the id of an interned name, or {@link #NOT_FOUND}. Never assigns an id,
+     * so reads for unknown names do not consume capacity.
+     */
+    public int find(String operationName) {
+        Integer id = ids.get(operationName);
+        return id != null ? id : NOT_FOUND;
+    }
+
+    /**
+     * Returns the name currently interned under an id, or null if the id was never assigned.
+     */
+    public String nameOf(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Registers a listener for evictions, typically to drop per-operation state.
+     */
+    public void addEvictionListener(EvictionListener listener) {
+        evictionListeners.add(listener);
+    }
+
+    /** Number of names holding their own id, excluding the overflow bucket. */
+    public int size() {
+        lock.lock();
+        try {
+            return nextId - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int maxOperations() {
+        return maxOperations;
+    }
+
+    /** Number of {@link #intern} calls answered with {@link #OVERFLOW_ID}. */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /** Number of operations evicted to admit a more frequent name. */
+    public long evictionCount() {
+        return evicted.sum();
+    }
+
+    private int register(String operationName) {
+        lock.lock();
+        try {
+            Integer existing = ids.get(operationName);
+            if (existing != null) {
+                return existing;
+            }
+            if (nextId > maxOperations) {
+                full = true;
+                return evictColdOperations ? admit(operationName) : reject();
+            }
+            int id = nextId++;
+            String[] current = names;
+            if (id >= current.length) {
+                current = Arrays.copyOf(current, Math.min(maxOperations + 1, current.length * 2));
+            }
+            assign(current, id, operationName);
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int admit(String operationName) {
+        int frequency = candidates.increment(operationName);
+        // A name seen once never displaces anything, and a contended admission is not worth waiting for
+        if (frequency <= 1 || !lock.tryLock()) {
+            return reject();
+        }
+        try {
+            Integer existing = ids.get(operationName);
+            if (existing != null) {
+                return existing;
+            }
+            if (ageIfDue()) {
+                frequency = candidates.frequency(operationName);
+            }
+            int victim = coldestSampled();
+            if (frequency <= hits[victim]) {
+                return reject();
+            }
+
+            String victimName = names[victim];
+            ids.remove(victimName);
+            for (EvictionListener listener : evictionListeners) {
+                listener.onEvicted(victim, victimName);
+            }
+            evicted.increment();
+            hits[victim] = frequency;
+            assign(names, victim, operationName);
+            return victim;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int reject() {
+        rejected.increment();
+        return OVERFLOW_ID;
+    }
+
+    private void assign(String[] current, int id, String operationName) {
+        current[id] = operationName;
+        // Publish the name before the id so nameOf() sees it for any id handed out
+        names = current;
+        ids.put(operationName, id);
+    }
+
+    private boolean ageIfDue() {
+        long now = nanoClock.getAsLong();
+        long periods = (now - lastAgedNanos) / agingPeriodNanos;
+        if (periods <= 0) {
+            return false;
+        }
+        lastAgedNanos += periods * agingPeriodNanos;
+        // Halve once per elapsed period; counters saturate at 127, so 7 halvings reach zero
+        int shift = (int) Math.min(periods, 7);
+        for (int i = 0; i < shift; i++) {
+            candidates.age();
+        }
+        for (int i = 1; i < hits.length; i++) {
+            hits[i] >>>= shift;
+        }
+        return true;
+    }
+
+    private int coldestSampled() {
+        int start = 1 + ThreadLocalRandom.current().nextInt(maxOperations);
+        int coldest = start;
+        for (int i = 1; i < Math.min(VICTIM_SAMPLE_SIZE, maxOperations); i++) {
+            int id = 1 + (start - 1 + i) % maxOperations;
+            if (hits[id] < hits[coldest]) {
+                coldest = id;
+            }
+        }
+        return coldest;
+    }
+
+    public static class Builder {
+        private int maxOperations = DEFAULT_MAX_OPERATIONS;
+        private boolean evictColdOperations = true;
+        private long agingPeriodNanos = TimeUnit.MINUTES.toNanos(1);
+        private LongSupplier nanoClock = System::nanoTime;
+
+        Builder() {}
+
+        /** Distinct names given their own id. Defaults to 10,000. */
+        public Builder maxOperations(int maxOperations) {
+            this.maxOperations = maxOperations;
+            return this;
+        }
+
+        /**
+         * Whether a frequent new name may evict a cold operation once the registry is full.
+         * When disabled, names beyond capacity always map to {@link #OVERFLOW_ID}. Defaults to true.
+         */
+        public Builder evictColdOperations(boolean evictColdOperations) {
+            this.evictColdOperations = evictColdOperations;
+            return this;
+        }
+
+        /** How often hit counts and candidate frequencies are halved. Defaults to 1 minute. */
+        public Builder agingPeriod(long period, TimeUnit unit) {
+            this.agingPeriodNanos = unit.toNanos(period);
+            return this;
+        }
+
+        Builder nanoClock(LongSupplier nanoClock) {
+            this.nanoClock = nanoClock;
+            return this;
+        }
+
+        public OperationRegistry build() {
+            return new OperationRegistry(this);
+        }
+    }
+}
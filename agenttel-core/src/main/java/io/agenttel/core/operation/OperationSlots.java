@@ -0,0 +1,92 @@
+package io.agenttel.core.operation;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Per-operation state indexed by {@link OperationRegistry} id.
+ *
+ * <p>Slots live in fixed-size chunks allocated on first use, so lookups are two array reads
+ * and growth never copies or blocks readers. A slot is cleared when the registry evicts its
+ * operation, so the next name given that id starts from fresh state. A writer that resolved
+ * the id just before the eviction may still land one update in the new state.
+ *
+ * @param <T> the per-operation state
+ */
+public final class OperationSlots<T> {
+
+    private static final int CHUNK_BITS = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<T>> chunks;
+
+    /**
+     * Creates slots for every id the registry can hand out, including the overflow bucket.
+     */
+    public OperationSlots(OperationRegistry registry) {
+        this.chunks = new AtomicReferenceArray<>((registry.maxOperations() >>> CHUNK_BITS) + 1);
+        registry.addEvictionListener((operationId, operationName) -> remove(operationId));
+    }
+
+    /**
+     * Returns the state for an id, or null if none was created.
+     */
+    public T get(int id) {
+        AtomicReferenceArray<T> chunk = chunks.get(id >>> CHUNK_BITS);
+        return chunk != null ? chunk.get(id & CHUNK_MASK) : null;
+    }
+
+    /**
+     * Returns the state for an id, creating it on first use. If two threads race, both get the
+     * instance that was stored first.
+     */
+    public T computeIfAbsent(int id, IntFunction<? extends T> factory) {
+        T existing = get(id);
+        if (existing != null) {
+            return existing;
+        }
+        AtomicReferenceArray<T> chunk = chunkFor(id >>> CHUNK_BITS);
+        T created = factory.apply(id);
+        if (chunk.compareAndSet(id & CHUNK_MASK, null, created)) {
+            return created;
+        }
+        return chunk.get(id & CHUNK_MASK);
+    }
+
+    /**
+     * Clears the state for an id.
+     */
+    public void remove(int id) {
+        AtomicReferenceArray<T> chunk = chunks.get(id >>> CHUNK_BITS);
+        if (chunk != null) {
+            chunk.set(id & CHUNK_MASK, null);
+        }
+    }
+
+    /**
+     * Visits every populated slot with its id.
+     */
+    public void forEach(ObjIntConsumer<? super T> action) {
+        for (int c = 0; c < chunks.length(); c++) {
+            AtomicReferenceArray<T> chunk = chunks.get(c);
+            if (chunk == null) continue;
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                T value = chunk.get(i);
+                if (value != null) {
+                    action.accept(value, (c << CHUNK_BITS) | i);
+                }
+            }
+        }
+    }
+
+    private AtomicReferenceArray<T> chunkFor(int index) {
+        AtomicReferenceArray<T> chunk = chunks.get(index);
+        if (chunk != null) {
+            return chunk;
+        }
+        chunks.compareAndSet(index, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+        return chunks.get(index);
+    }
+}
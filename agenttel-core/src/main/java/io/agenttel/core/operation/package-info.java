@@ -0,0 +1,9 @@
+/**
+ * Operation identity shared across the per-span trackers.
+ *
+ * <ul>
+ *   <li>{@link io.agenttel.core.operation.OperationRegistry} — Interns span names to dense ids, with an overflow bucket</li>
+ *   <li>{@link io.agenttel.core.operation.OperationSlots} — Array-indexed per-operation state keyed by those ids</li>
+ * </ul>
+ */
+package io.agenttel.core.operation;
@@ -0,0 +1,79 @@
+package io.agenttel.core.slo;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Windowed latency histogram for one operation, shared by all of its latency SLOs.
+ *
+ * <p>Bucket bounds are the distinct thresholds of those SLOs, so a span is recorded once, as
+ * one increment in the bucket its latency falls in, whatever the number of SLOs. An SLO reads
+ * the requests within its threshold as the cumulative count of the buckets up to its bound.
+ * Counts are kept over the burn-rate windows and over each distinct SLO window.
+ */
+final class LatencyHistogram {
+
+    private final double[] thresholds;
+    private final WindowedCounter burnWindows;
+    private final long[] complianceWindowMs;
+    private final WindowedCounter[] complianceWindows;
+
+    /**
+     * @param thresholds         distinct latency bounds in milliseconds, ascending
+     * @param complianceWindowMs distinct SLO window lengths in milliseconds
+     */
+    LatencyHistogram(double[] thresholds, long[] complianceWindowMs, long burnBucketMs,
+                     int[] burnWindowBuckets, LongSupplier clock) {
+        this.thresholds = thresholds.clone();
+        int series = thresholds.length + 1;
+        this.burnWindows = new WindowedCounter(burnBucketMs, burnWindowBuckets, series, clock);
+        this.complianceWindowMs = complianceWindowMs.clone();
+        this.complianceWindows = new WindowedCounter[complianceWindowMs.length];
+        for (int i = 0; i < complianceWindowMs.length; i++) {
+            complianceWindows[i] = SloTracker.complianceCounter(complianceWindowMs[i], series, clock);
+        }
+    }
+
+    void record(double latencyMs) {
+        int bucket = Arrays.binarySearch(thresholds, latencyMs);
+        // A latency equal to a bound is within it; otherwise take the first bound above it
+        int series = bucket >= 0 ? bucket : -bucket - 1;
+        burnWindows.record(series);
+        for (WindowedCounter window : complianceWindows) {
+            window.record(series);
+        }
+    }
+
+    /** Index of a bound, as passed to the {@code within} reads. */
+    int thresholdIndex(double thresholdMs) {
+        return Arrays.binarySearch(thresholds, thresholdMs);
+    }
+
+    /** Index of a compliance window length, as passed to the compliance reads. */
+    int complianceIndex(long windowMs) {
+        for (int i = 0; i < complianceWindowMs.length; i++) {
+            if (complianceWindowMs[i] == windowMs) return i;
+        }
+        throw new IllegalArgumentException("No compliance window of " + windowMs + "ms");
+    }
+
+    /** Requests within the bound at {@code thresholdIndex} in a burn-rate window. */
+    long burnWithin(int window, int thresholdIndex) {
+        return burnWindows.cumulativeCount(window, thresholdIndex);
+    }
+
+    /** All requests in a burn-rate window. */
+    long burnTotal(int window) {
+        return burnWindows.cumulativeCount(window, thresholds.length);
+    }
+
+    /** Requests within the bound at {@code thresholdIndex} in a compliance window. */
+    long complianceWithin(int complianceIndex, int thresholdIndex) {
+        return complianceWindows[complianceIndex].cumulativeCount(0, thresholdIndex);
+    }
+
+    /** All requests in a compliance window. */
+    long complianceTotal(int complianceIndex) {
+        return complianceWindows[complianceIndex].cumulativeCount(0, thresholds.length);
+    }
+}
@@ -3,25 +3,63 @@ package io.agenttel.core.slo;
 /**
  * Defines a Service Level Objective.
  *
- * @param name            SLO name (e.g., "payment-latency-p99")
- * @param operationName   operation this SLO applies to
- * @param type            what the SLO measures
- * @param target          target value (e.g., 0.999 for 99.9% availability)
- * @param windowSeconds   evaluation window in seconds (e.g., 2592000 for 30 days)
+ * <p>Latency SLOs ({@link SloType#LATENCY_P99}, {@link SloType#LATENCY_P50}) with a
+ * {@code thresholdMs} count a request as good when it completes within the threshold, and
+ * are met while at least {@code targetPercentile} of requests are good: "p99 under 300ms" is
+ * 99% of requests within 300ms. Other SLOs count failed requests against {@code target}.
+ *
+ * @param name             SLO name (e.g., "payment-latency-p99")
+ * @param operationName    operation this SLO applies to
+ * @param type             what the SLO measures
+ * @param target           target value (e.g., 0.999 for 99.9% availability)
+ * @param windowSeconds    evaluation window in seconds (e.g., 2592000 for 30 days)
+ * @param thresholdMs      latency bound for latency SLOs, or 0 if not set
+ * @param targetPercentile fraction of requests that must complete within {@code thresholdMs}
+ *                         (e.g., 0.99 for p99); defaults from the type
  */
 public record SloDefinition(
         String name,
         String operationName,
         SloType type,
         double target,
-        long windowSeconds
+        long windowSeconds,
+        double thresholdMs,
+        double targetPercentile
 ) {
 
+    public SloDefinition(String name, String operationName, SloType type, double target, long windowSeconds) {
+        this(name, operationName, type, target, windowSeconds, 0.0, type.defaultPercentile());
+    }
+
     public enum SloType {
         AVAILABILITY,
         LATENCY_P99,
         LATENCY_P50,
-        ERROR_RATE
+        ERROR_RATE;
+
+        /** The percentile a latency type names, or 0 for non-latency types. */
+        public double defaultPercentile() {
+            return switch (this) {
+                case LATENCY_P99 -> 0.99;
+                case LATENCY_P50 -> 0.50;
+                default -> 0.0;
+            };
+        }
+    }
+
+    /**
+     * Whether this SLO is measured against a latency threshold rather than request failures.
+     */
+    public boolean isLatencySlo() {
+        return (type == SloType.LATENCY_P99 || type == SloType.LATENCY_P50) && thresholdMs > 0;
+    }
+
+    /**
+     * The fraction of good requests this SLO requires: {@code targetPercentile} for latency
+     * SLOs, {@code target} otherwise.
+     */
+    public double objective() {
+        return isLatencySlo() ? targetPercentile : target;
     }
 
     public static Builder builder(String name) {
@@ -34,6 +72,8 @@ public record SloDefinition(
         private SloType type = SloType.AVAILABILITY;
         private double target = 0.999;
         private long windowSeconds = 30 * 24 * 3600; // 30 days
+        private double thresholdMs = 0.0;
+        private double targetPercentile = Double.NaN;
 
         Builder(String name) {
             this.name = name;
@@ -59,8 +99,24 @@ public record SloDefinition(
             return this;
         }
 
+        /** Latency bound for a latency SLO, in milliseconds. */
+        public Builder thresholdMs(double thresholdMs) {
+            this.thresholdMs = thresholdMs;
+            return this;
+        }
+
+        /**
+         * Fraction of requests that must complete within the threshold. Defaults to the
+         * percentile named by the type, e.g. 0.99 for {@link SloType#LATENCY_P99}.
+         */
+        public Builder targetPercentile(double targetPercentile) {
+            this.targetPercentile = targetPercentile;
+            return this;
+        }
+
         public SloDefinition build() {
-            return new SloDefinition(name, operationName, type, target, windowSeconds);
+            double percentile = Double.isNaN(targetPercentile) ? type.defaultPercentile() : targetPercentile;
+            return new SloDefinition(name, operationName, type, target, windowSeconds, thresholdMs, percentile);
         }
     }
 }
@@ -4,34 +4,91 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
 
 /**
  * Tracks SLO compliance and error budget consumption.
  * Thread-safe for concurrent recording.
+ *
+ * <p>Each SLO counts good and bad requests in per-minute buckets covering the last six hours,
+ * from which burn rates over 5m, 30m, 1h and 6h are read in O(1), and in coarser buckets
+ * covering its own {@link SloDefinition#windowSeconds()}, from which compliance and remaining
+ * budget are computed. Alerts follow the multi-window, multi-burn-rate pairs from the Google
+ * SRE workbook: a fast burn (1h and 5m both at least {@value #FAST_BURN_RATE}x) is
+ * {@link AlertSeverity#CRITICAL}, a slow burn (6h and 30m both at least
+ * {@value #SLOW_BURN_RATE}x) is {@link AlertSeverity#WARNING}, and half the window's budget
+ * spent without either is {@link AlertSeverity#INFO}. Requiring the short window too means an
+ * alert clears soon after the burn stops. Each window of a pair, and the budget window, must
+ * also hold enough requests that a single bad one cannot reach the threshold on its own, so a
+ * fresh or quiet SLO does not alert on its first error.
+ *
+ * <p>Availability-style SLOs count failed requests as bad. Latency SLOs count requests slower
+ * than their threshold as bad, reading them from a {@link LatencyHistogram} per operation whose
+ * buckets are bounded by the operation's thresholds, so each latency is recorded once however
+ * many latency SLOs the operation has.
+ *
+ * <p>SLOs are indexed by operation name when registered, so recording a request touches
+ * only the SLOs of that operation. Each record also re-derives that SLO's alert severity, a
+ * few arithmetic operations, and queues the SLO when the severity differs from the one last
+ * reported. {@link #drainAlertChanges()} turns the queue into alerts, so callers can check
+ * for alerts on every request without evaluating every SLO.
  */
 public class SloTracker {
 
-    private final Map<String, SloDefinition> sloDefinitions = new ConcurrentHashMap<>();
-    private final Map<String, SloState> sloStates = new ConcurrentHashMap<>();
+    /** Burn rate that spends 2% of a 30-day budget in one hour. */
+    public static final double FAST_BURN_RATE = 14.4;
+    /** Burn rate that spends 5% of a 30-day budget in six hours. */
+    public static final double SLOW_BURN_RATE = 6.0;
+    /** Share of the window's budget spent that raises {@link AlertSeverity#INFO}. */
+    private static final double INFO_BUDGET_SPENT = 0.5;
+
+    private static final SloEntry[] NO_ENTRIES = new SloEntry[0];
+    private static final long MINUTE_MS = 60_000L;
+    private static final long HOUR_MS = 3_600_000L;
+    private static final int[] BURN_WINDOW_MINUTES = {5, 30, 60, 360};
+    private static final int FIVE_MINUTES = 0;
+    private static final int THIRTY_MINUTES = 1;
+    private static final int ONE_HOUR = 2;
+    private static final int SIX_HOURS = 3;
+
+    private final LongSupplier clock;
+
+    private final Map<String, SloEntry> slos = new ConcurrentHashMap<>();
+    private final Map<String, OperationSlos> slosByOperation = new ConcurrentHashMap<>();
+    private final Queue<SloEntry> changed = new ConcurrentLinkedQueue<>();
+
+    public SloTracker() {
+        this(System::currentTimeMillis);
+    }
+
+    SloTracker(LongSupplier clock) {
+        this.clock = clock;
+    }
 
     /**
-     * Registers an SLO definition.
+     * Registers an SLO definition. Registering a name again replaces the earlier definition
+     * and resets its counts. Adding or removing a latency SLO also resets the latency counts
+     * of the operation's other latency SLOs, since they share one histogram.
      */
-    public void register(SloDefinition slo) {
-        sloDefinitions.put(slo.name(), slo);
-        sloStates.put(slo.name(), new SloState());
+    public synchronized void register(SloDefinition slo) {
+        SloEntry previous = slos.remove(slo.name());
+        if (previous != null && !previous.slo.operationName().equals(slo.operationName())) {
+            reindex(previous.slo.operationName(), null);
+        }
+        reindex(slo.operationName(), slo);
     }
 
     /**
      * Records a successful request for all SLOs matching the operation.
      */
     public void recordSuccess(String operationName) {
-        for (var entry : sloDefinitions.entrySet()) {
-            if (entry.getValue().operationName().equals(operationName)) {
-                sloStates.get(entry.getKey()).recordSuccess();
-            }
+        for (SloEntry entry : slosFor(operationName).requestSlos) {
+            entry.state.recordSuccess();
+            checkSeverity(entry);
         }
     }
 
@@ -39,25 +96,55 @@ public class SloTracker {
      * Records a failed request for all SLOs matching the operation.
      */
     public void recordFailure(String operationName) {
-        for (var entry : sloDefinitions.entrySet()) {
-            if (entry.getValue().operationName().equals(operationName)) {
-                sloStates.get(entry.getKey()).recordFailure();
-            }
+        for (SloEntry entry : slosFor(operationName).requestSlos) {
+            entry.state.recordFailure();
+            checkSeverity(entry);
+        }
+    }
+
+    /**
+     * Records the latency of a successful request for the operation's latency SLOs.
+     * The latency is recorded once, however many latency SLOs the operation has.
+     */
+    public void recordLatency(String operationName, double latencyMs) {
+        OperationSlos operation = slosFor(operationName);
+        if (operation.histogram == null) return;
+        operation.histogram.record(latencyMs);
+        for (SloEntry entry : operation.latencySlos) {
+            checkSeverity(entry);
         }
     }
 
     /**
      * Records a latency observation for latency-based SLOs.
+     *
+     * @deprecated thresholds are part of {@link SloDefinition}; {@code thresholdMs} is ignored.
+     *             Use {@link #recordLatency(String, double)}.
      */
+    @Deprecated
     public void recordLatency(String operationName, double latencyMs, double thresholdMs) {
-        for (var entry : sloDefinitions.entrySet()) {
-            SloDefinition slo = entry.getValue();
-            if (slo.operationName().equals(operationName)) {
-                SloState state = sloStates.get(entry.getKey());
-                state.recordSuccess(); // count as total
-                if (latencyMs > thresholdMs) {
-                    state.recordBudgetViolation();
-                }
+        recordLatency(operationName, latencyMs);
+    }
+
+    /**
+     * Records a completed request: a success or failure for the operation's request-based
+     * SLOs and, for a success, its latency for the latency SLOs. Failed requests count against
+     * availability only. Same as the separate calls, with one lookup.
+     */
+    public void recordRequest(String operationName, double latencyMs, boolean failed) {
+        OperationSlos operation = slosFor(operationName);
+        for (SloEntry entry : operation.requestSlos) {
+            if (failed) {
+                entry.state.recordFailure();
+            } else {
+                entry.state.recordSuccess();
+            }
+            checkSeverity(entry);
+        }
+        if (!failed && operation.histogram != null) {
+            operation.histogram.record(latencyMs);
+            for (SloEntry entry : operation.latencySlos) {
+                checkSeverity(entry);
             }
         }
     }
@@ -67,12 +154,8 @@ public class SloTracker {
      */
     public List<SloStatus> getStatuses() {
         List<SloStatus> statuses = new ArrayList<>();
-        for (var entry : sloDefinitions.entrySet()) {
-            SloDefinition slo = entry.getValue();
-            SloState state = sloStates.get(entry.getKey());
-            if (state != null) {
-                statuses.add(state.toStatus(slo));
-            }
+        for (SloEntry entry : slos.values()) {
+            statuses.add(entry.state.toStatus(entry.slo));
         }
         return Collections.unmodifiableList(statuses);
     }
@@ -81,42 +164,227 @@ public class SloTracker {
      * Returns the status for a specific SLO, or null if not found.
      */
     public SloStatus getStatus(String sloName) {
-        SloDefinition slo = sloDefinitions.get(sloName);
-        SloState state = sloStates.get(sloName);
-        if (slo == null || state == null) return null;
-        return state.toStatus(slo);
+        SloEntry entry = slos.get(sloName);
+        if (entry == null) return null;
+        return entry.state.toStatus(entry.slo);
+    }
+
+    /**
+     * Returns the status of the SLO bound to an operation, or null if it has none. An operation
+     * with several SLOs binds to its first registered availability or error-rate SLO, else to
+     * its first latency SLO. The binding is matched on {@link SloDefinition#operationName()}
+     * and resolved when SLOs are registered, so this is a single map lookup.
+     */
+    public SloStatus getStatusForOperation(String operationName) {
+        SloEntry entry = slosFor(operationName).bound;
+        if (entry == null) return null;
+        return entry.state.toStatus(entry.slo);
+    }
+
+    /**
+     * Returns the burn rates of a specific SLO, or null if not found.
+     */
+    public BurnRates getBurnRates(String sloName) {
+        SloEntry entry = slos.get(sloName);
+        if (entry == null) return null;
+        SloState state = entry.state;
+        return new BurnRates(state.burnRate(FIVE_MINUTES), state.burnRate(THIRTY_MINUTES),
+                state.burnRate(ONE_HOUR), state.burnRate(SIX_HOURS));
     }
 
     /**
-     * Returns alerts for SLOs that have crossed budget thresholds.
+     * Returns alerts for SLOs that are burning budget too fast or have spent half of it.
+     * Evaluates every SLO; use {@link #drainAlertChanges()} on the per-request path.
      */
     public List<SloAlert> checkAlerts() {
         List<SloAlert> alerts = new ArrayList<>();
-        for (var entry : sloDefinitions.entrySet()) {
-            SloState state = sloStates.get(entry.getKey());
-            if (state == null) continue;
-            SloStatus status = state.toStatus(entry.getValue());
-            if (status.budgetRemaining() <= 0.10 && status.totalRequests() > 0) {
-                alerts.add(new SloAlert(entry.getKey(), AlertSeverity.CRITICAL,
-                        status.budgetRemaining(), status.burnRate()));
-            } else if (status.budgetRemaining() <= 0.25 && status.totalRequests() > 0) {
-                alerts.add(new SloAlert(entry.getKey(), AlertSeverity.WARNING,
-                        status.budgetRemaining(), status.burnRate()));
-            } else if (status.budgetRemaining() <= 0.50 && status.totalRequests() > 0) {
-                alerts.add(new SloAlert(entry.getKey(), AlertSeverity.INFO,
+        for (SloEntry entry : slos.values()) {
+            AlertSeverity severity = entry.state.severity();
+            if (severity != null) {
+                SloStatus status = entry.state.toStatus(entry.slo);
+                alerts.add(new SloAlert(entry.slo.name(), severity,
                         status.budgetRemaining(), status.burnRate()));
             }
         }
         return Collections.unmodifiableList(alerts);
     }
 
+    /**
+     * Returns whether any SLO's alert severity changed since the last {@link #drainAlertChanges()}.
+     */
+    public boolean hasAlertChanges() {
+        return !changed.isEmpty();
+    }
+
+    /**
+     * Returns an alert for each SLO that entered a new alert severity since the previous call.
+     * An SLO that recovers below every threshold produces no alert, but alerts again when it
+     * next crosses one. Returns an empty list without allocating when nothing changed.
+     */
+    public List<SloAlert> drainAlertChanges() {
+        return drainAlertChanges(AlertFilter.ACCEPT_ALL);
+    }
+
+    /**
+     * Like {@link #drainAlertChanges()}, but reports an alert only if {@code filter} admits it.
+     * A rejected severity is not recorded as reported, so it is offered again after the SLO's
+     * next request; recoveries are passed to {@link AlertFilter#recovered}.
+     */
+    public List<SloAlert> drainAlertChanges(AlertFilter filter) {
+        if (changed.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<SloAlert> alerts = new ArrayList<>();
+        SloEntry entry;
+        while ((entry = changed.poll()) != null) {
+            entry.queued.set(false);
+            if (slos.get(entry.slo.name()) != entry) continue; // replaced since it was queued
+            AlertSeverity severity = entry.state.severity();
+            synchronized (entry) {
+                if (severity == entry.reported) continue;
+                if (severity == null) {
+                    entry.reported = null;
+                    filter.recovered(entry.slo.name());
+                    continue;
+                }
+                if (!filter.admit(entry.slo.name(), severity)) continue;
+                entry.reported = severity;
+            }
+            SloStatus status = entry.state.toStatus(entry.slo);
+            alerts.add(new SloAlert(entry.slo.name(), severity,
+                    status.budgetRemaining(), status.burnRate()));
+        }
+        return Collections.unmodifiableList(alerts);
+    }
+
+    private OperationSlos slosFor(String operationName) {
+        return operationName != null ? slosByOperation.getOrDefault(operationName, OperationSlos.NONE) : OperationSlos.NONE;
+    }
+
+    private void checkSeverity(SloEntry entry) {
+        AlertSeverity severity = entry.state.severity();
+        if (severity != entry.reported && entry.queued.compareAndSet(false, true)) {
+            changed.add(entry);
+        }
+    }
+
+    /**
+     * Rebuilds an operation's index from the SLOs still registered, plus {@code added}.
+     * The latency histogram is kept unless the operation's latency SLOs changed.
+     */
+    private void reindex(String operationName, SloDefinition added) {
+        OperationSlos current = slosByOperation.getOrDefault(operationName, OperationSlos.NONE);
+        List<SloEntry> requestSlos = new ArrayList<>();
+        for (SloEntry entry : current.requestSlos) {
+            if (slos.get(entry.slo.name()) == entry) requestSlos.add(entry);
+        }
+        List<SloDefinition> latencySlos = new ArrayList<>();
+        for (SloEntry entry : current.latencySlos) {
+            if (slos.get(entry.slo.name()) == entry) latencySlos.add(entry.slo);
+        }
+        if (added != null && !added.isLatencySlo()) {
+            SloEntry entry = new SloEntry(added, new RequestState(added, clock));
+            slos.put(added.name(), entry);
+            requestSlos.add(entry);
+        }
+
+        SloEntry[] latencyEntries = current.latencySlos;
+        LatencyHistogram histogram = current.histogram;
+        boolean latencyChanged = (added != null && added.isLatencySlo())
+                || latencySlos.size() != current.latencySlos.length;
+        if (added != null && added.isLatencySlo()) {
+            latencySlos.add(added);
+        }
+        if (latencyChanged) {
+            histogram = latencySlos.isEmpty() ? null : newHistogram(latencySlos);
+            latencyEntries = new SloEntry[latencySlos.size()];
+            for (int i = 0; i < latencyEntries.length; i++) {
+                SloDefinition slo = latencySlos.get(i);
+                latencyEntries[i] = new SloEntry(slo, new LatencyState(slo, histogram));
+                slos.put(slo.name(), latencyEntries[i]);
+            }
+        }
+
+        if (requestSlos.isEmpty() && latencyEntries.length == 0) {
+            slosByOperation.remove(operationName);
+        } else {
+            slosByOperation.put(operationName,
+                    new OperationSlos(requestSlos.toArray(NO_ENTRIES), latencyEntries, histogram));
+        }
+    }
+
+    private LatencyHistogram newHistogram(List<SloDefinition> latencySlos) {
+        double[] thresholds = latencySlos.stream().mapToDouble(SloDefinition::thresholdMs)
+                .distinct().sorted().toArray();
+        long[] windows = latencySlos.stream().mapToLong(SloTracker::windowMs).distinct().toArray();
+        return new LatencyHistogram(thresholds, windows, MINUTE_MS, BURN_WINDOW_MINUTES, clock);
+    }
+
+    private static long windowMs(SloDefinition slo) {
+        return Math.max(1, slo.windowSeconds()) * 1000L;
+    }
+
+    /**
+     * Counter over one SLO window: minute buckets for windows up to six hours, hourly ones beyond.
+     */
+    static WindowedCounter complianceCounter(long windowMs, int series, LongSupplier clock) {
+        long bucketMs = windowMs <= 6 * HOUR_MS ? MINUTE_MS : HOUR_MS;
+        int buckets = (int) Math.max(1, (windowMs + bucketMs - 1) / bucketMs);
+        return new WindowedCounter(bucketMs, new int[] {buckets}, series, clock);
+    }
+
+    /**
+     * Error rate as a multiple of the rate the budget allows. 1.0 spends exactly the budget
+     * over the SLO window.
+     */
+    /**
+     * Smallest request count at which one bad request stays below {@code threshold}: one in
+     * {@code n} burns at {@code 1 / (n * errorBudget)}, e.g. 70 requests for a fast burn of a
+     * 99.9% SLO.
+     */
+    static long minRequests(double errorBudget, double threshold) {
+        if (errorBudget <= 0) {
+            return 1; // A 100% objective burns at 1.0 at most and never reaches a threshold
+        }
+        return (long) Math.floor(1.0 / (errorBudget * threshold)) + 1;
+    }
+
+    private static double burnRate(double errorBudget, long total, long failed) {
+        if (total == 0) return 0.0;
+        return errorBudget > 0
+                ? ((double) failed / total) / errorBudget
+                : (failed > 0 ? 1.0 : 0.0);
+    }
+
     public enum AlertSeverity {
         INFO, WARNING, CRITICAL
     }
 
+    /**
+     * Decides which severity changes {@link #drainAlertChanges(AlertFilter)} reports, typically
+     * by asking an event gate. Called while the SLO's entry is locked, so it must be cheap.
+     */
+    public interface AlertFilter {
+        AlertFilter ACCEPT_ALL = (sloName, severity) -> true;
+
+        /** Returns whether the alert is reported; a rejected one is offered again later. */
+        boolean admit(String sloName, AlertSeverity severity);
+
+        /** Called when an SLO that had alerted drops below every threshold. */
+        default void recovered(String sloName) {}
+    }
+
     public record SloAlert(String sloName, AlertSeverity severity,
                            double budgetRemaining, double burnRate) {}
 
+    /**
+     * Burn rates over the standard alerting windows.
+     */
+    public record BurnRates(double fiveMinutes, double thirtyMinutes, double oneHour, double sixHours) {}
+
+    /**
+     * Compliance over the SLO's window. {@code burnRate} is the burn rate over the last hour.
+     */
     public record SloStatus(
             String sloName,
             double target,
@@ -131,45 +399,198 @@ public class SloTracker {
         }
     }
 
-    private static class SloState {
-        private final AtomicLong totalRequests = new AtomicLong(0);
-        private final AtomicLong failedRequests = new AtomicLong(0);
-        private final AtomicLong budgetViolations = new AtomicLong(0);
+    /**
+     * An operation's SLOs, split by how they are fed, the histogram its latency SLOs share, and
+     * the SLO that span enrichment reports for it.
+     */
+    private static final class OperationSlos {
+        static final OperationSlos NONE = new OperationSlos(NO_ENTRIES, NO_ENTRIES, null);
 
-        void recordSuccess() {
-            totalRequests.incrementAndGet();
+        final SloEntry[] requestSlos;
+        final SloEntry[] latencySlos;
+        final LatencyHistogram histogram;
+        final SloEntry bound;
+
+        OperationSlos(SloEntry[] requestSlos, SloEntry[] latencySlos, LatencyHistogram histogram) {
+            this.requestSlos = requestSlos;
+            this.latencySlos = latencySlos;
+            this.histogram = histogram;
+            this.bound = requestSlos.length > 0 ? requestSlos[0]
+                    : latencySlos.length > 0 ? latencySlos[0] : null;
         }
+    }
 
-        void recordFailure() {
-            totalRequests.incrementAndGet();
-            failedRequests.incrementAndGet();
+    /**
+     * A registered SLO with its counters and the alert severity last reported for it.
+     */
+    private static final class SloEntry {
+        final SloDefinition slo;
+        final SloState state;
+        final AtomicBoolean queued = new AtomicBoolean(false);
+        volatile AlertSeverity reported;
+
+        SloEntry(SloDefinition slo, SloState state) {
+            this.slo = slo;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Good and bad request counts for one SLO, over the burn-rate windows and the SLO window.
+     */
+    private abstract static class SloState {
+        final double errorBudget;
+        // Requests a window needs before it can reach each threshold
+        final long minFastBurnRequests;
+        final long minSlowBurnRequests;
+        final long minBudgetRequests;
+
+        SloState(SloDefinition slo) {
+            this.errorBudget = 1.0 - slo.objective(); // e.g., 0.001 for 99.9%
+            this.minFastBurnRequests = minRequests(errorBudget, FAST_BURN_RATE);
+            this.minSlowBurnRequests = minRequests(errorBudget, SLOW_BURN_RATE);
+            this.minBudgetRequests = minRequests(errorBudget, INFO_BUDGET_SPENT);
         }
 
-        void recordBudgetViolation() {
-            budgetViolations.incrementAndGet();
+        void recordSuccess() {}
+
+        void recordFailure() {}
+
+        abstract long burnTotal(int window);
+
+        abstract long burnBad(int window);
+
+        abstract long complianceTotal();
+
+        abstract long complianceBad();
+
+        double burnRate(int window) {
+            return SloTracker.burnRate(errorBudget, burnTotal(window), burnBad(window));
+        }
+
+        AlertSeverity severity() {
+            if (burning(ONE_HOUR, FAST_BURN_RATE, minFastBurnRequests)
+                    && burning(FIVE_MINUTES, FAST_BURN_RATE, minFastBurnRequests)) {
+                return AlertSeverity.CRITICAL;
+            }
+            if (burning(SIX_HOURS, SLOW_BURN_RATE, minSlowBurnRequests)
+                    && burning(THIRTY_MINUTES, SLOW_BURN_RATE, minSlowBurnRequests)) {
+                return AlertSeverity.WARNING;
+            }
+            long total = complianceTotal();
+            if (total >= minBudgetRequests
+                    && SloTracker.burnRate(errorBudget, total, complianceBad()) >= INFO_BUDGET_SPENT) {
+                return AlertSeverity.INFO;
+            }
+            return null;
+        }
+
+        private boolean burning(int window, double threshold, long minRequests) {
+            long total = burnTotal(window);
+            return total >= minRequests && SloTracker.burnRate(errorBudget, total, burnBad(window)) >= threshold;
         }
 
         SloStatus toStatus(SloDefinition slo) {
-            long total = totalRequests.get();
-            long failed = failedRequests.get();
+            long total = complianceTotal();
+            long failed = complianceBad();
 
             if (total == 0) {
-                return new SloStatus(slo.name(), slo.target(), 1.0, 1.0, 0.0, 0, 0);
+                return new SloStatus(slo.name(), slo.objective(), 1.0, 1.0, 0.0, 0, 0);
             }
 
             double actual = 1.0 - ((double) failed / total);
-            double errorBudget = 1.0 - slo.target(); // e.g., 0.001 for 99.9%
-            double consumedBudget = errorBudget > 0
-                    ? ((double) failed / total) / errorBudget
-                    : (failed > 0 ? 1.0 : 0.0);
+            double consumedBudget = SloTracker.burnRate(errorBudget, total, failed);
             double budgetRemaining = Math.max(0.0, 1.0 - consumedBudget);
 
-            // Burn rate: how fast we're consuming budget relative to window
-            // A burn rate of 1.0 means we'll exactly exhaust budget at end of window
-            double burnRate = consumedBudget > 0 ? consumedBudget : 0.0;
+            return new SloStatus(slo.name(), slo.objective(), actual,
+                    budgetRemaining, burnRate(ONE_HOUR), total, failed);
+        }
+    }
+
+    /**
+     * Availability-style SLO: failed requests are bad.
+     */
+    private static final class RequestState extends SloState {
+        private static final int GOOD = 0;
+        private static final int BAD = 1;
+
+        private final WindowedCounter burnWindows;
+        private final WindowedCounter complianceWindow;
+
+        RequestState(SloDefinition slo, LongSupplier clock) {
+            super(slo);
+            this.burnWindows = new WindowedCounter(MINUTE_MS, BURN_WINDOW_MINUTES, 2, clock);
+            this.complianceWindow = complianceCounter(windowMs(slo), 2, clock);
+        }
+
+        @Override
+        void recordSuccess() {
+            burnWindows.record(GOOD);
+            complianceWindow.record(GOOD);
+        }
+
+        @Override
+        void recordFailure() {
+            burnWindows.record(BAD);
+            complianceWindow.record(BAD);
+        }
+
+        @Override
+        long burnTotal(int window) {
+            return burnWindows.cumulativeCount(window, BAD);
+        }
+
+        @Override
+        long burnBad(int window) {
+            return burnWindows.count(window, BAD);
+        }
+
+        @Override
+        long complianceTotal() {
+            return complianceWindow.cumulativeCount(0, BAD);
+        }
+
+        @Override
+        long complianceBad() {
+            return complianceWindow.count(0, BAD);
+        }
+    }
+
+    /**
+     * Latency SLO: requests slower than the threshold are bad. Reads the operation's shared
+     * histogram and records nothing itself.
+     */
+    private static final class LatencyState extends SloState {
+        private final LatencyHistogram histogram;
+        private final int threshold;
+        private final int complianceWindow;
+
+        LatencyState(SloDefinition slo, LatencyHistogram histogram) {
+            super(slo);
+            this.histogram = histogram;
+            this.threshold = histogram.thresholdIndex(slo.thresholdMs());
+            this.complianceWindow = histogram.complianceIndex(windowMs(slo));
+        }
+
+        @Override
+        long burnTotal(int window) {
+            return histogram.burnTotal(window);
+        }
+
+        @Override
+        long burnBad(int window) {
+            return Math.max(0, histogram.burnTotal(window) - histogram.burnWithin(window, threshold));
+        }
+
+        @Override
+        long complianceTotal() {
+            return histogram.complianceTotal(complianceWindow);
+        }
 
-            return new SloStatus(slo.name(), slo.target(), actual,
-                    budgetRemaining, burnRate, total, failed);
+        @Override
+        long complianceBad() {
+            return Math.max(0, histogram.complianceTotal(complianceWindow)
+                    - histogram.complianceWithin(complianceWindow, threshold));
         }
     }
 }
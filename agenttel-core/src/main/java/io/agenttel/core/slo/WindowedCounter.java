@@ -0,0 +1,160 @@
+package io.agenttel.core.slo;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Request counts in fixed-width time buckets, with running totals over a few trailing windows.
+ *
+ * <p>Each bucket holds one counter per series: good and bad requests for an availability
+ * SLO, or one per latency bucket for a {@link LatencyHistogram}. Writes increment the current
+ * bucket's {@link LongAdder}s. When time moves into a new bucket, the finished bucket is
+ * folded into each window's running total and the buckets that slid out are subtracted, so
+ * reading a window is O(1) no matter how many buckets it spans. Folding costs O(windows) per
+ * elapsed bucket, at most once per bucket width.
+ *
+ * <p>A writer that picked up a bucket just before it was folded may land its increment after
+ * the fold; that request is then missing from the closed totals. This only happens right at a
+ * bucket boundary.
+ */
+final class WindowedCounter {
+
+    private final long bucketMs;
+    private final int[] windows;
+    private final int series;
+    private final AtomicReferenceArray<Bucket> ring;
+    private final LongSupplier clock;
+    private volatile State state;
+
+    /**
+     * @param bucketMs    width of each bucket in milliseconds
+     * @param windows     trailing window lengths, in buckets, including the current bucket
+     * @param series      number of counters per bucket
+     * @param clock       wall clock in milliseconds
+     */
+    WindowedCounter(long bucketMs, int[] windows, int series, LongSupplier clock) {
+        int longest = 0;
+        for (int window : windows) {
+            if (window <= 0) {
+                throw new IllegalArgumentException("Window length must be positive: " + window);
+            }
+            longest = Math.max(longest, window);
+        }
+        this.bucketMs = bucketMs;
+        this.windows = windows.clone();
+        this.series = series;
+        this.ring = new AtomicReferenceArray<>(longest);
+        this.clock = clock;
+        this.state = new State(new Bucket(clock.getAsLong() / bucketMs, series), new long[windows.length * series]);
+        ring.set(slot(state.current.epoch), state.current);
+    }
+
+    void record(int series) {
+        advance().current.counts[series].increment();
+    }
+
+    /**
+     * Count for one series in a window.
+     *
+     * @param window index into the window lengths given at construction
+     */
+    long count(int window, int series) {
+        State s = advance();
+        return s.closed[window * this.series + series] + s.current.counts[series].sum();
+    }
+
+    /**
+     * Sum of series {@code 0..lastSeries} in a window.
+     */
+    long cumulativeCount(int window, int lastSeries) {
+        State s = advance();
+        long total = 0;
+        for (int i = 0; i <= lastSeries; i++) {
+            total += s.closed[window * series + i] + s.current.counts[i].sum();
+        }
+        return total;
+    }
+
+    private State advance() {
+        long epoch = clock.getAsLong() / bucketMs;
+        State s = state;
+        // A thread whose clock read lags another's keeps writing to the newer bucket
+        return s.current.epoch >= epoch ? s : roll(epoch);
+    }
+
+    private synchronized State roll(long epoch) {
+        State s = state;
+        Bucket finished = s.current;
+        if (finished.epoch >= epoch) {
+            return s;
+        }
+        for (int j = 0; j < series; j++) {
+            finished.folded[j] = finished.counts[j].sum();
+        }
+
+        long[] closed = s.closed.clone();
+        for (int i = 0; i < windows.length; i++) {
+            int window = windows[i];
+            long oldest = epoch - window + 1;
+            int base = i * series;
+            if (finished.epoch < oldest) {
+                // Everything closed so far has slid out
+                Arrays.fill(closed, base, base + series, 0L);
+                continue;
+            }
+            // Before: [finished - window + 1, finished - 1]. After: [oldest, epoch - 1].
+            for (long expired = finished.epoch - window + 1; expired < oldest; expired++) {
+                Bucket bucket = ring.get(slot(expired));
+                if (bucket != null && bucket.epoch == expired) {
+                    for (int j = 0; j < series; j++) {
+                        closed[base + j] -= bucket.folded[j];
+                    }
+                }
+            }
+            for (int j = 0; j < series; j++) {
+                closed[base + j] += finished.folded[j];
+            }
+        }
+
+        Bucket next = new Bucket(epoch, series);
+        ring.set(slot(epoch), next);
+        State rolled = new State(next, closed);
+        state = rolled;
+        return rolled;
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) ring.length());
+    }
+
+    /**
+     * The bucket being written plus the windows' totals over the buckets before it,
+     * published together so readers never count a bucket twice.
+     */
+    private static final class State {
+        final Bucket current;
+        final long[] closed;
+
+        State(Bucket current, long[] closed) {
+            this.current = current;
+            this.closed = closed;
+        }
+    }
+
+    private static final class Bucket {
+        final long epoch;
+        final LongAdder[] counts;
+        final long[] folded;
+
+        Bucket(long epoch, int series) {
+            this.epoch = epoch;
+            this.counts = new LongAdder[series];
+            for (int i = 0; i < series; i++) {
+                counts[i] = new LongAdder();
+            }
+            this.folded = new long[series];
+        }
+    }
+}
@@ -41,4 +41,15 @@ class AnomalyDetectorTest {
         assertThat(result.isAnomaly()).isTrue();
         assertThat(result.zScore()).isNegative();
     }
+
+    @Test
+    void primitiveChecksAgreeWithEvaluate() {
+        double zScore = detector.zScore(200.0, 45.0, 10.0);
+        AnomalyResult result = detector.evaluate("latency", 200.0, 45.0, 10.0);
+
+        assertThat(zScore).isEqualTo(result.zScore());
+        assertThat(detector.isAnomaly(zScore)).isEqualTo(result.isAnomaly());
+        assertThat(AnomalyDetector.anomalyScore(zScore)).isEqualTo(result.anomalyScore());
+        assertThat(detector.zScore(200.0, 45.0, 0.0)).isZero();
+    }
 }
@@ -0,0 +1,146 @@
+package io.agenttel.core.anomaly;
+
+import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.baseline.RollingWindow;
+import io.agenttel.core.operation.OperationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class AnomalyScorerTest {
+
+    private static final double THRESHOLD = 3.0;
+
+    private final OperationRegistry registry = new OperationRegistry();
+    private final RollingBaselineProvider baselines = RollingBaselineProvider.builder()
+            .operationRegistry(registry)
+            .windowSize(1000)
+            .maxStaleness(0, 0)
+            .build();
+    private final int op = registry.intern("op");
+
+    @Test
+    void oneGcPauseMasksARegressionFromTheZScoreOnly() {
+        EwmaScorer ewma = new EwmaScorer(registry);
+        // 40-60 ms traffic, one 5 s pause, then enough normal traffic for the EWMA to forget it
+        for (int i = 0; i < 300; i++) {
+            observe(ewma, 40 + i % 21);
+        }
+        observe(ewma, 5000);
+        for (int i = 0; i < 300; i++) {
+            observe(ewma, 40 + i % 21);
+        }
+
+        RollingWindow.MeanStddev moments = baselines.meanStddev(op);
+        double regression = 80.0;
+        assertThat(ZScoreScorer.INSTANCE.score(op, regression, moments, baselines)).isLessThan(THRESHOLD);
+        assertThat(new MedianMadScorer().score(op, regression, moments, baselines)).isGreaterThan(THRESHOLD);
+        assertThat(ewma.score(op, regression, moments, baselines)).isGreaterThan(THRESHOLD);
+    }
+
+    @Test
+    void ewmaReportsNothingDuringWarmup() {
+        EwmaScorer ewma = new EwmaScorer(registry, 0.1, 10);
+        RollingWindow.MeanStddev unused = RollingWindow.MeanStddev.EMPTY;
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(ewma.score(op, i % 2 == 0 ? 10.0 : 1000.0, unused, null)).isZero();
+        }
+        assertThat(ewma.score(op, 700.0, unused, null)).isNotZero();
+    }
+
+    @Test
+    void medianMadNeedsEnoughSamples() {
+        for (int i = 0; i < 10; i++) {
+            baselines.recordLatency(op, 40 + i);
+        }
+
+        assertThat(new MedianMadScorer(30).score(op, 1000.0, baselines.meanStddev(op), baselines)).isZero();
+        assertThat(new MedianMadScorer(5).score(op, 1000.0, baselines.meanStddev(op), baselines)).isGreaterThan(THRESHOLD);
+    }
+
+    @Test
+    void cusumAccumulatesASmallSustainedShift() {
+        CusumScorer cusum = new CusumScorer(registry);
+        RollingWindow.MeanStddev expected = new RollingWindow.MeanStddev(50.0, 5.0, 1000);
+
+        // One standard deviation slower: never anomalous on its own, 0.5 per request in the sum
+        double score = 0;
+        for (int i = 1; i <= 6; i++) {
+            score = cusum.score(op, 55.0, expected, null);
+            assertThat(score).isCloseTo(0.5 * i, within(1e-9));
+        }
+        assertThat(score).isLessThanOrEqualTo(THRESHOLD);
+        assertThat(cusum.score(op, 55.0, expected, null)).isGreaterThan(THRESHOLD);
+
+        // Back to normal, the sum drains by the slack per request
+        assertThat(cusum.score(op, 50.0, expected, null)).isCloseTo(3.0, within(1e-9));
+    }
+
+    @Test
+    void cusumTracksFasterShiftsWithANegativeScore() {
+        CusumScorer cusum = new CusumScorer(registry);
+        RollingWindow.MeanStddev expected = new RollingWindow.MeanStddev(50.0, 5.0, 1000);
+
+        double score = 0;
+        for (int i = 0; i < 10; i++) {
+            score = cusum.score(op, 40.0, expected, null);
+        }
+        assertThat(score).isCloseTo(-CusumScorer.DEFAULT_MAX_SUM, within(1e-9));
+    }
+
+    @Test
+    void peekRepeatsTheLastScoreWithoutLearning() {
+        CusumScorer cusum = new CusumScorer(registry);
+        EwmaScorer peeked = new EwmaScorer(registry, 0.1, 0);
+        EwmaScorer untouched = new EwmaScorer(registry, 0.1, 0);
+        RollingWindow.MeanStddev expected = new RollingWindow.MeanStddev(50.0, 5.0, 1000);
+        for (int i = 0; i < 20; i++) {
+            peeked.score(op, 40 + i % 21, expected, null);
+            untouched.score(op, 40 + i % 21, expected, null);
+        }
+
+        double sum = cusum.score(op, 60.0, expected, null);
+        double ewmaScore = peeked.peek(op, 90.0, 50.0, 5.0, null);
+        for (int i = 0; i < 3; i++) {
+            assertThat(cusum.peek(op, 60.0, 50.0, 5.0, null)).isEqualTo(sum);
+            assertThat(peeked.peek(op, 90.0, 50.0, 5.0, null)).isEqualTo(ewmaScore);
+        }
+        assertThat(cusum.score(op, 50.0, expected, null)).isCloseTo(sum - 0.5, within(1e-9));
+        assertThat(peeked.score(op, 90.0, expected, null)).isEqualTo(untouched.score(op, 90.0, expected, null));
+        // An operation the scorer has never seen, or one the registry does not know, scores zero
+        assertThat(cusum.peek(registry.intern("other"), 60.0, 50.0, 5.0, null)).isZero();
+        assertThat(peeked.peek(OperationRegistry.NOT_FOUND, 60.0, 50.0, 5.0, null)).isZero();
+    }
+
+    @Test
+    void operationsCanUseTheirOwnStrategy() {
+        AnomalyDetector detector = AnomalyDetector.create(THRESHOLD, AnomalyStrategy.Z_SCORE,
+                Map.of("checkout", AnomalyStrategy.CUSUM, "payments", AnomalyStrategy.CUSUM), registry);
+
+        assertThat(detector.scorerFor("op")).isSameAs(ZScoreScorer.INSTANCE);
+        assertThat(detector.scorerFor("checkout")).isInstanceOf(CusumScorer.class);
+        // One scorer per strategy, keyed by operation id
+        assertThat(detector.scorerFor("payments")).isSameAs(detector.scorerFor("checkout"));
+    }
+
+    @Test
+    void strategiesParseFromConfigValues() {
+        assertThat(AnomalyStrategy.fromValue("median_mad")).isEqualTo(AnomalyStrategy.MEDIAN_MAD);
+        assertThat(AnomalyStrategy.fromValue(" EWMA ")).isEqualTo(AnomalyStrategy.EWMA);
+        assertThat(AnomalyStrategy.CUSUM.getValue()).isEqualTo("cusum");
+        assertThatThrownBy(() -> AnomalyStrategy.fromValue("ml"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("z_score, ewma, median_mad or cusum");
+    }
+
+    /** Feeds a sample to the window and to a stateful scorer, as the span processor does. */
+    private void observe(AnomalyScorer scorer, double latencyMs) {
+        scorer.score(op, latencyMs, baselines.meanStddev(op), baselines);
+        baselines.recordLatency(op, latencyMs);
+    }
+}
@@ -0,0 +1,101 @@
+package io.agenttel.core.anomaly;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyTrendTest {
+
+    private final long[] now = {0};
+    private final LatencyTrend trend = new LatencyTrend(1000, 60, 0.5, () -> now[0]);
+
+    @Test
+    void fitsOnePointPerSecondFromItsMean() {
+        for (int second = 0; second < 40; second++) {
+            now[0] = second * 1000L;
+            // Per-second means climb by 2ms a second: 100, 102, 104, ...
+            trend.record(99.0 + 2 * second);
+            trend.record(101.0 + 2 * second);
+        }
+        now[0] = 40_000;
+
+        assertThat(trend.points()).isEqualTo(40);
+        assertThat(trend.slope()).isCloseTo(2.0, within(1e-9));
+        assertThat(trend.isMonotonicallyIncreasing()).isTrue();
+    }
+
+    @Test
+    void needsEnoughPointsBeforeReportingATrend() {
+        for (int second = 0; second < 10; second++) {
+            now[0] = second * 1000L;
+            for (int i = 0; i < 100; i++) {
+                trend.record(100.0 + second * 50);
+            }
+        }
+        now[0] = 10_000;
+
+        assertThat(trend.points()).isEqualTo(10);
+        assertThat(trend.isMonotonicallyIncreasing()).isFalse();
+    }
+
+    @Test
+    void flatOrSlowlyRisingLatencyIsNotALeak() {
+        for (int second = 0; second < 60; second++) {
+            now[0] = second * 1000L;
+            // 10% over the minute, below the 50% needed
+            trend.record(100.0 + second * 10.0 / 60);
+        }
+        now[0] = 60_000;
+
+        assertThat(trend.slope()).isPositive();
+        assertThat(trend.isMonotonicallyIncreasing()).isFalse();
+    }
+
+    @Test
+    void slidingWindowKeepsTheSumsExact() {
+        // Rises for 100 seconds, then flattens: once the rise has slid out, the trend is flat
+        for (int second = 0; second < 200; second++) {
+            now[0] = second * 1000L;
+            trend.record(second < 100 ? 100.0 + second : 200.0);
+        }
+        now[0] = 200_000;
+
+        assertThat(trend.points()).isEqualTo(60);
+        assertThat(trend.slope()).isCloseTo(0.0, within(1e-9));
+        assertThat(trend.isMonotonicallyIncreasing()).isFalse();
+    }
+
+    @Test
+    void rollingWindowSlopeMatchesARecomputedFit() {
+        double[] means = new double[130];
+        for (int second = 0; second < means.length; second++) {
+            now[0] = second * 1000L;
+            means[second] = 50.0 + (second % 7) * 3 + second * 0.5;
+            trend.record(means[second]);
+        }
+        now[0] = means.length * 1000L;
+
+        int n = 60;
+        double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
+        for (int i = 0; i < n; i++) {
+            double y = means[means.length - n + i];
+            sumX += i;
+            sumY += y;
+            sumXY += i * y;
+            sumX2 += (double) i * i;
+        }
+        double expected = (n * sumXY - sumX * sumY) / (n * sumX2 - sumX * sumX);
+        assertThat(trend.slope()).isCloseTo(expected, within(1e-9));
+    }
+
+    @Test
+    void secondsWithoutTrafficAddNoPoint() {
+        trend.record(100.0);
+        now[0] = 5_000;
+        trend.record(100.0);
+        now[0] = 9_000;
+
+        assertThat(trend.points()).isEqualTo(2);
+    }
+}
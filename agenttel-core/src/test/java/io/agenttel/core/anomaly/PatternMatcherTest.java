@@ -1,6 +1,7 @@
 package io.agenttel.core.anomaly;
 
 import io.agenttel.core.baseline.RollingWindow;
+import io.agenttel.core.operation.OperationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -100,4 +101,108 @@ class PatternMatcherTest {
         List<IncidentPattern> patterns = matcher.detectPatterns("op", 50.0, false, null);
         assertThat(patterns).isEmpty();
     }
+
+    @Test
+    void patternMaskMatchesPatternList() {
+        RollingWindow window = new RollingWindow(100);
+        for (int i = 0; i < 20; i++) {
+            window.record(50.0);
+        }
+        matcher.recordDependencyError("service-a");
+        matcher.recordDependencyError("service-b");
+        matcher.recordDependencyError("service-c");
+
+        int mask = matcher.detectPatternMask("op", 150.0, false, window.snapshot());
+        assertThat(IncidentPattern.LATENCY_DEGRADATION.isIn(mask)).isTrue();
+        assertThat(IncidentPattern.CASCADE_FAILURE.isIn(mask)).isTrue();
+        assertThat(IncidentPattern.fromMask(mask))
+                .containsExactlyElementsOf(matcher.detectPatterns("op", 150.0, false, window.snapshot()));
+        assertThat(matcher.detectPatternMask("op", 50.0, false, null)).isZero();
+    }
+
+    @Test
+    void cascadeDetectionRecoversAfterReset() {
+        RollingWindow window = new RollingWindow(100);
+        for (int i = 0; i < 20; i++) {
+            window.record(50.0);
+        }
+        matcher.recordDependencyError("service-a");
+        matcher.recordDependencyError("service-a");
+        matcher.recordDependencyError("service-b");
+        matcher.resetDependencyErrors();
+        matcher.recordDependencyError("service-a");
+        matcher.recordDependencyError("service-b");
+        assertThat(matcher.detectPatterns("op", 50.0, false, window.snapshot()))
+                .doesNotContain(IncidentPattern.CASCADE_FAILURE);
+
+        matcher.recordDependencyError("service-c");
+        assertThat(matcher.detectPatterns("op", 50.0, false, window.snapshot()))
+                .contains(IncidentPattern.CASCADE_FAILURE);
+    }
+
+    @Test
+    void dependencyErrorsExpireFromTheCascadeWindow() {
+        long[] now = {0};
+        PatternMatcher windowed = new PatternMatcher(2.0, 5.0, 3, new OperationRegistry(), 60_000, () -> now[0]);
+        windowed.recordDependencyError("service-a");
+        windowed.recordDependencyError("service-a");
+        now[0] = 30_000;
+        windowed.recordDependencyError("service-b");
+        windowed.recordDependencyError("service-c");
+        assertThat(windowed.failingDependencyCount()).isEqualTo(3);
+        assertThat(windowed.recentDependencyErrors("service-a")).isEqualTo(2);
+
+        // service-a's errors slide out after a minute; b and c are still within theirs
+        now[0] = 65_000;
+        assertThat(windowed.failingDependencyCount()).isEqualTo(2);
+        assertThat(windowed.recentDependencyErrors("service-a")).isZero();
+
+        now[0] = 95_000;
+        assertThat(windowed.failingDependencyCount()).isZero();
+    }
+
+    @Test
+    void cascadeIsNotReportedOnceDependenciesRecover() {
+        long[] now = {0};
+        PatternMatcher windowed = new PatternMatcher(2.0, 5.0, 3, new OperationRegistry(), 60_000, () -> now[0]);
+        RollingWindow window = new RollingWindow(100);
+        for (int i = 0; i < 20; i++) {
+            window.record(50.0);
+        }
+        windowed.recordDependencyError("service-a");
+        windowed.recordDependencyError("service-b");
+        windowed.recordDependencyError("service-c");
+        assertThat(windowed.detectPatterns("op", 50.0, false, window.snapshot()))
+                .contains(IncidentPattern.CASCADE_FAILURE);
+
+        now[0] = 70_000;
+        assertThat(windowed.detectPatterns("op", 50.0, false, window.snapshot()))
+                .doesNotContain(IncidentPattern.CASCADE_FAILURE);
+
+        // A dependency that fails again counts from scratch
+        windowed.recordDependencyError("service-a");
+        assertThat(windowed.failingDependencyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void dependenciesWithAnEmptyWindowMakeRoomForNewOnes() {
+        long[] now = {0};
+        PatternMatcher windowed = new PatternMatcher(2.0, 5.0, 3, new OperationRegistry(), 60_000, () -> now[0]);
+        for (int i = 0; i < DependencyErrorWindow.MAX_DEPENDENCIES; i++) {
+            windowed.recordDependencyError("service-" + i);
+        }
+
+        // At the cap while every dependency still has errors in the window
+        windowed.recordDependencyError("late");
+        assertThat(windowed.recentDependencyErrors("late")).isZero();
+        assertThat(windowed.failingDependencyCount()).isEqualTo(DependencyErrorWindow.MAX_DEPENDENCIES);
+
+        // Once their errors slide out, the idle dependencies are dropped
+        now[0] = 70_000;
+        windowed.recordDependencyError("late");
+        windowed.recordDependencyError("service-0");
+        assertThat(windowed.recentDependencyErrors("late")).isEqualTo(1);
+        assertThat(windowed.recentDependencyErrors("service-0")).isEqualTo(1);
+        assertThat(windowed.failingDependencyCount()).isEqualTo(2);
+    }
 }
@@ -33,7 +33,7 @@ class CompositeBaselineProviderTest {
         // op-b has rolling baseline
         Optional<OperationBaseline> b = composite.getBaseline("op-b");
         assertThat(b).isPresent();
-        assertThat(b.get().source()).isEqualTo(BaselineSource.ROLLING_7D);
+        assertThat(b.get().source()).isEqualTo(BaselineSource.ROLLING_COUNT);
 
         // op-c has nothing
         assertThat(composite.getBaseline("op-c")).isEmpty();
@@ -0,0 +1,121 @@
+package io.agenttel.core.baseline;
+
+import io.agenttel.core.anomaly.IncidentPattern;
+import io.agenttel.core.anomaly.PatternMatcher;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ErrorRateTrackerTest {
+
+    private final long[] now = {0};
+    private final ErrorRateTracker tracker = new ErrorRateTracker(10, 60, () -> now[0]);
+
+    @Test
+    void currentSecondCountsInBothWindows() {
+        record(8, 2);
+
+        assertThat(tracker.shortWindowRate()).isEqualTo(0.2);
+        assertThat(tracker.longWindowRate()).isEqualTo(0.2);
+        assertThat(tracker.shortWindowRequests()).isEqualTo(10);
+    }
+
+    @Test
+    void secondsSlideOutOfTheShortWindowFirst() {
+        // Ten requests a second: one error each for 20 seconds, then 10 clean seconds
+        for (int second = 0; second < 30; second++) {
+            now[0] = second * 1000L;
+            int errors = second < 20 ? 1 : 0;
+            record(10 - errors, errors);
+        }
+
+        assertThat(tracker.shortWindowRate()).isZero();
+        assertThat(tracker.shortWindowRequests()).isEqualTo(100);
+        assertThat(tracker.longWindowRate()).isCloseTo(20.0 / 300, within(1e-12));
+        assertThat(tracker.longWindowRequests()).isEqualTo(300);
+    }
+
+    @Test
+    void longWindowForgetsOldSeconds() {
+        for (int second = 0; second < 200; second++) {
+            now[0] = second * 1000L;
+            record(1, second % 2);
+        }
+
+        // Seconds 140..199: 60 seconds, 30 of them with one error out of two requests
+        assertThat(tracker.longWindowRequests()).isEqualTo(60 + 30);
+        assertThat(tracker.longWindowRate()).isCloseTo(30.0 / 90, within(1e-12));
+    }
+
+    @Test
+    void quietGapsLongerThanTheWindowClearIt() {
+        record(5, 5);
+        now[0] = 500_000;
+
+        assertThat(tracker.longWindowRequests()).isZero();
+        assertThat(tracker.longWindowRate()).isZero();
+
+        record(3, 1);
+        now[0] = 501_000;
+        assertThat(tracker.longWindowRate()).isEqualTo(0.25);
+    }
+
+    @Test
+    void gapsShorterThanTheWindowKeepOlderSeconds() {
+        record(4, 0);
+        now[0] = 30_000;
+        record(3, 1);
+        now[0] = 45_000;
+
+        assertThat(tracker.shortWindowRequests()).isZero();
+        assertThat(tracker.longWindowRequests()).isEqualTo(8);
+        assertThat(tracker.longWindowRate()).isEqualTo(0.125);
+    }
+
+    @Test
+    void patternMatcherFlagsASpikeFromTheSharedTracker() {
+        ErrorRateTracker shared = new ErrorRateTracker(30, 300, () -> now[0]);
+        RollingWindow window = new RollingWindow(1000, new LogHistogramSketch(), shared);
+        PatternMatcher matcher = new PatternMatcher(2.0, 5.0, 3);
+        // Five minutes at 1% errors
+        for (int second = 0; second < 270; second++) {
+            now[0] = second * 1000L;
+            for (int i = 0; i < 99; i++) {
+                window.record(50.0);
+            }
+            window.recordError();
+        }
+        assertThat(matcher.detectPatterns("op", 50.0, true, window.snapshot()))
+                .doesNotContain(IncidentPattern.ERROR_RATE_SPIKE);
+        assertThat(matcher.detectPatternMask("op", 50.0, true, window.snapshot(), shared)
+                & IncidentPattern.ERROR_RATE_SPIKE.mask()).isZero();
+
+        // Then 30 seconds at 20% errors
+        for (int second = 270; second < 300; second++) {
+            now[0] = second * 1000L;
+            for (int i = 0; i < 80; i++) {
+                window.record(50.0);
+            }
+            for (int i = 0; i < 20; i++) {
+                window.recordError();
+            }
+        }
+        assertThat(matcher.detectPatternMask("op", 50.0, true, window.snapshot(), shared)
+                & IncidentPattern.ERROR_RATE_SPIKE.mask()).isNotZero();
+        assertThat(matcher.detectPatterns("op", 50.0, true, window.snapshot(), shared))
+                .contains(IncidentPattern.ERROR_RATE_SPIKE);
+        // Only failing requests are flagged
+        assertThat(matcher.detectPatternMask("op", 50.0, false, window.snapshot(), shared)
+                & IncidentPattern.ERROR_RATE_SPIKE.mask()).isZero();
+    }
+
+    private void record(int successes, int errors) {
+        for (int i = 0; i < successes; i++) {
+            tracker.recordSuccess();
+        }
+        for (int i = 0; i < errors; i++) {
+            tracker.recordError();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.agenttel.core.baseline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LogHistogramSketchTest {
+
+    @Test
+    void emptySketchReturnsZero() {
+        LogHistogramSketch sketch = new LogHistogramSketch();
+        assertThat(sketch.count()).isZero();
+        assertThat(sketch.quantile(0.5)).isZero();
+    }
+
+    @Test
+    void singleValueIsExact() {
+        LogHistogramSketch sketch = new LogHistogramSketch();
+        sketch.add(42.0);
+        assertThat(sketch.quantile(0.0)).isEqualTo(42.0);
+        assertThat(sketch.quantile(0.5)).isEqualTo(42.0);
+        assertThat(sketch.quantile(1.0)).isEqualTo(42.0);
+    }
+
+    @Test
+    void quantilesStayWithinRelativeAccuracy() {
+        LogHistogramSketch sketch = new LogHistogramSketch(0.01);
+        Random random = new Random(42);
+        double[] values = new double[10_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal latencies around 50ms
+            values[i] = Math.exp(Math.log(50) + random.nextGaussian() * 0.8);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        double[] estimates = sketch.quantiles(0.50, 0.95, 0.99);
+        double[] qs = {0.50, 0.95, 0.99};
+        for (int i = 0; i < qs.length; i++) {
+            double exact = values[(int) Math.floor(qs[i] * (values.length - 1))];
+            assertThat(estimates[i]).isCloseTo(exact, within(exact * 0.02));
+        }
+    }
+
+    @Test
+    void quantilesSkipChunksBelowTheRank() {
+        LogHistogramSketch sketch = new LogHistogramSketch();
+        for (int i = 0; i < 1000; i++) {
+            sketch.add(1.0);
+        }
+        for (int i = 0; i < 10; i++) {
+            sketch.add(100.0);
+        }
+        sketch.add(10_000.0);
+        // An emptied chunk between the others is stepped over like an absent one
+        for (int i = 0; i < 10; i++) {
+            sketch.remove(100.0);
+        }
+
+        assertThat(sketch.quantiles(0.0, 0.5, 0.999, 1.0)).containsExactly(1.0, 1.0, 1.0, 10_000.0);
+        sketch.add(100.0);
+        // Rank 1000 of 1002 samples is the one at 100ms
+        assertThat(sketch.quantile(1000.0 / 1001)).isCloseTo(100.0, within(1e-6));
+        assertThat(sketch.quantile(1.0)).isEqualTo(10_000.0);
+    }
+
+    @Test
+    void removeEvictsSamples() {
+        LogHistogramSketch sketch = new LogHistogramSketch();
+        for (int i = 1; i <= 100; i++) {
+            sketch.add(i);
+        }
+        for (int i = 1; i <= 50; i++) {
+            sketch.remove(i);
+        }
+        assertThat(sketch.count()).isEqualTo(50);
+        assertThat(sketch.quantile(0.0)).isCloseTo(51.0, within(0.6));
+        assertThat(sketch.quantile(0.5)).isCloseTo(75.5, within(1.0));
+    }
+
+    @Test
+    void mergeCombinesSamples() {
+        LogHistogramSketch a = new LogHistogramSketch();
+        LogHistogramSketch b = a.emptyCopy();
+        for (int i = 0; i < 100; i++) {
+            a.add(10.0);
+            b.add(1000.0);
+        }
+        a.merge(b);
+        assertThat(a.count()).isEqualTo(200);
+        assertThat(a.quantile(0.25)).isEqualTo(10.0);
+        assertThat(a.quantile(0.75)).isEqualTo(1000.0);
+    }
+
+    @Test
+    void mergeRejectsIncompatibleLayout() {
+        LogHistogramSketch a = new LogHistogramSketch(0.01);
+        LogHistogramSketch b = new LogHistogramSketch(0.05);
+        assertThatThrownBy(() -> a.merge(b)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void valuesOutsideRangeAreClampedToEdgeBuckets() {
+        LogHistogramSketch sketch = new LogHistogramSketch(0.01, 1.0, 1000.0);
+        sketch.add(0.0);
+        sketch.add(5000.0);
+        assertThat(sketch.quantile(0.0)).isEqualTo(0.0);
+        assertThat(sketch.quantile(1.0)).isEqualTo(5000.0);
+    }
+}
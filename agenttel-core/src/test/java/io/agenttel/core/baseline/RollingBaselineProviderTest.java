@@ -2,6 +2,7 @@ package io.agenttel.core.baseline;
 
 import io.agenttel.api.BaselineSource;
 import io.agenttel.api.baseline.OperationBaseline;
+import io.agenttel.core.operation.OperationRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.util.Optional;
@@ -36,7 +37,7 @@ class RollingBaselineProviderTest {
         Optional<OperationBaseline> baseline = provider.getBaseline("op");
         assertThat(baseline).isPresent();
         assertThat(baseline.get().operationName()).isEqualTo("op");
-        assertThat(baseline.get().source()).isEqualTo(BaselineSource.ROLLING_7D);
+        assertThat(baseline.get().source()).isEqualTo(BaselineSource.ROLLING_COUNT);
         assertThat(baseline.get().latencyP50Ms()).isCloseTo(49.5, within(1.0));
         assertThat(baseline.get().latencyP99Ms()).isGreaterThan(55.0);
         assertThat(baseline.get().updatedAt()).isNotEmpty();
@@ -68,4 +69,151 @@ class RollingBaselineProviderTest {
         assertThat(snapshot.get().mean()).isCloseTo(55.0, within(0.1));
         assertThat(snapshot.get().stddev()).isGreaterThan(0);
     }
+
+    @Test
+    void servesCachedSnapshotWithinStalenessBudget() {
+        RollingBaselineProvider provider = RollingBaselineProvider.builder()
+                .windowSize(100).minSamples(5)
+                .maxStaleness(10, 60_000)
+                .build();
+        for (int i = 0; i < 10; i++) {
+            provider.recordLatency("op", 50.0);
+        }
+        RollingWindow.Snapshot first = provider.getSnapshot("op").orElseThrow();
+
+        provider.recordLatency("op", 500.0);
+        assertThat(provider.getSnapshot("op")).containsSame(first);
+        assertThat(provider.getBaseline("op")).containsSame(provider.getBaseline("op").orElseThrow());
+    }
+
+    @Test
+    void recomputesOnceStalenessBudgetIsExceeded() {
+        RollingBaselineProvider provider = RollingBaselineProvider.builder()
+                .windowSize(100).minSamples(5)
+                .maxStaleness(3, 60_000)
+                .build();
+        for (int i = 0; i < 10; i++) {
+            provider.recordLatency("op", 50.0);
+        }
+        RollingWindow.Snapshot first = provider.getSnapshot("op").orElseThrow();
+
+        for (int i = 0; i < 3; i++) {
+            provider.recordLatency("op", 500.0);
+        }
+        RollingWindow.Snapshot second = provider.getSnapshot("op").orElseThrow();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.sampleCount()).isEqualTo(13);
+    }
+
+    @Test
+    void zeroStalenessRecomputesAfterEveryWrite() {
+        RollingBaselineProvider provider = RollingBaselineProvider.builder()
+                .windowSize(100).minSamples(1)
+                .maxStaleness(0, 0)
+                .build();
+        provider.recordLatency("op", 10.0);
+        assertThat(provider.getSnapshot("op").orElseThrow().sampleCount()).isEqualTo(1);
+        provider.recordLatency("op", 20.0);
+        assertThat(provider.getSnapshot("op").orElseThrow().sampleCount()).isEqualTo(2);
+    }
+
+    @Test
+    void warmingUpWindowIsNotHeldBackByCache() {
+        RollingBaselineProvider provider = RollingBaselineProvider.builder()
+                .windowSize(100).minSamples(5)
+                .maxStaleness(1000, 60_000)
+                .build();
+        for (int i = 0; i < 4; i++) {
+            provider.recordLatency("op", 50.0);
+        }
+        assertThat(provider.getBaseline("op")).isEmpty();
+
+        provider.recordLatency("op", 50.0);
+        assertThat(provider.getBaseline("op")).isPresent();
+    }
+
+    @Test
+    void usesTimeWindowWhenConfigured() {
+        RollingBaselineProvider provider = RollingBaselineProvider.builder()
+                .minSamples(5)
+                .timeWindow("1h")
+                .build();
+        for (int i = 0; i < 2000; i++) {
+            provider.recordLatency("op", i < 1000 ? 10.0 : 20.0);
+        }
+
+        // A count-based window of 1000 would only see the most recent half
+        RollingWindow.Snapshot snapshot = provider.getSnapshot("op").orElseThrow();
+        assertThat(snapshot.sampleCount()).isEqualTo(2000);
+        assertThat(snapshot.mean()).isCloseTo(15.0, within(0.01));
+        assertThat(provider.getBaseline("op").orElseThrow().source()).isEqualTo(BaselineSource.ROLLING_1H);
+    }
+
+    @Test
+    void usesCustomWindowFactory() {
+        RollingBaselineProvider provider = RollingBaselineProvider.builder()
+                .minSamples(1)
+                .windowFactory(() -> new RollingWindow(2))
+                .build();
+        provider.recordLatency("op", 10.0);
+        provider.recordLatency("op", 20.0);
+        provider.recordLatency("op", 30.0);
+
+        assertThat(provider.getSnapshot("op").orElseThrow().sampleCount()).isEqualTo(2);
+    }
+
+    @Test
+    void currentSnapshotNeverReturnsNull() {
+        RollingBaselineProvider provider = new RollingBaselineProvider(100, 5);
+        assertThat(provider.currentSnapshot("unknown")).isSameAs(RollingWindow.Snapshot.EMPTY);
+
+        provider.recordLatency("op", 50.0);
+        assertThat(provider.currentSnapshot("op").sampleCount()).isEqualTo(1);
+        assertThat(provider.currentSnapshot("op")).isSameAs(provider.getSnapshot("op").orElseThrow());
+    }
+
+    @Test
+    void idOverloadsShareWindowsWithNames() {
+        OperationRegistry registry = new OperationRegistry();
+        RollingBaselineProvider provider = RollingBaselineProvider.builder()
+                .minSamples(1)
+                .operationRegistry(registry)
+                .build();
+        int id = registry.intern("op");
+
+        provider.recordLatency(id, 10.0);
+        provider.recordLatency("op", 20.0);
+        provider.recordError(id);
+
+        assertThat(provider.operationRegistry()).isSameAs(registry);
+        assertThat(provider.currentSnapshot(id).sampleCount()).isEqualTo(2);
+        assertThat(provider.getSnapshot("op").orElseThrow().errorRate()).isGreaterThan(0.0);
+    }
+
+    @Test
+    void readsDoNotInternUnknownOperations() {
+        RollingBaselineProvider provider = new RollingBaselineProvider();
+
+        provider.getBaseline("unknown");
+        provider.getSnapshot("unknown");
+        provider.currentSnapshot("unknown");
+
+        assertThat(provider.operationRegistry().size()).isZero();
+    }
+
+    @Test
+    void poolsOperationsBeyondRegistryCapacity() {
+        RollingBaselineProvider provider = RollingBaselineProvider.builder()
+                .minSamples(1)
+                .operationRegistry(new OperationRegistry(2))
+                .build();
+        for (int i = 0; i < 5; i++) {
+            provider.recordLatency("op-" + i, 10.0);
+        }
+
+        assertThat(provider.getSnapshot("op-0")).isPresent();
+        assertThat(provider.getSnapshot("op-4")).isEmpty();
+        assertThat(provider.getSnapshot(OperationRegistry.OVERFLOW_OPERATION).orElseThrow().sampleCount())
+                .isEqualTo(3);
+    }
 }
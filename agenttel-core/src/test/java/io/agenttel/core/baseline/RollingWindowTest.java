@@ -81,4 +81,91 @@ class RollingWindowTest {
         window2.record(50.0);
         assertThat(window2.snapshot().stddev()).isGreaterThan(10.0);
     }
+
+    @Test
+    void evictedSamplesLeaveThePercentiles() {
+        RollingWindow window = new RollingWindow(10);
+        for (int i = 0; i < 10; i++) {
+            window.record(1.0);
+        }
+        for (int i = 0; i < 10; i++) {
+            window.record(1000.0);
+        }
+        RollingWindow.Snapshot snapshot = window.snapshot();
+        assertThat(snapshot.p50()).isEqualTo(1000.0);
+        assertThat(snapshot.stddev()).isCloseTo(0.0, within(0.01));
+    }
+
+    @Test
+    void usesProvidedSketch() {
+        RollingWindow window = new RollingWindow(100, new LogHistogramSketch(0.05));
+        for (int i = 1; i <= 100; i++) {
+            window.record(i);
+        }
+        assertThat(window.snapshot().p95()).isCloseTo(95.0, within(95.0 * 0.05));
+    }
+
+    @Test
+    void meanStddevTracksTheRingAsSamplesAreOverwritten() {
+        RollingWindow window = new RollingWindow(4);
+        assertThat(window.meanStddev().isEmpty()).isTrue();
+
+        for (double v : new double[] {1, 2, 3, 4, 10, 20}) {
+            window.record(v);
+        }
+        // Ring holds 3, 4, 10, 20
+        RollingWindow.MeanStddev moments = window.meanStddev();
+        assertThat(moments.sampleCount()).isEqualTo(4);
+        assertThat(moments.mean()).isCloseTo(9.25, within(1e-9));
+        assertThat(moments.stddev()).isCloseTo(Math.sqrt(45.6875), within(1e-9));
+
+        RollingWindow.Snapshot snapshot = window.snapshot();
+        assertThat(snapshot.mean()).isEqualTo(moments.mean());
+        assertThat(snapshot.stddev()).isEqualTo(moments.stddev());
+
+        RollingWindow.MeanStddevBuffer buffer = new RollingWindow.MeanStddevBuffer();
+        window.readMeanStddev(buffer);
+        assertThat(buffer.mean()).isEqualTo(moments.mean());
+        assertThat(buffer.stddev()).isEqualTo(moments.stddev());
+        assertThat(buffer.sampleCount()).isEqualTo(4);
+    }
+
+    @Test
+    void stddevStaysAccurateForLargeMeans() {
+        RollingWindow window = new RollingWindow(1000);
+        // A spread of 1 around 1e9: sums of squares lose every significant digit here
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 1000; i++) {
+                window.record(1e9 + (i % 2 == 0 ? -1 : 1));
+            }
+        }
+        assertThat(window.meanStddev().stddev()).isCloseTo(1.0, within(1e-3));
+    }
+
+    @Test
+    void concurrentWritersRemoveEachOverwrittenSampleOnce() throws InterruptedException {
+        RollingWindow window = new RollingWindow(1000);
+        Thread[] writers = new Thread[8];
+        for (int t = 0; t < writers.length; t++) {
+            double value = 10.0 * (t + 1);
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    window.record(value);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        // Overwriting the whole ring leaves no trace of the racing writes if none was lost
+        for (int i = 0; i < 1000; i++) {
+            window.record(500.0);
+        }
+        RollingWindow.MeanStddev moments = window.meanStddev();
+        assertThat(moments.sampleCount()).isEqualTo(1000);
+        assertThat(moments.mean()).isCloseTo(500.0, within(1e-6));
+        assertThat(moments.stddev()).isCloseTo(0.0, within(1e-3));
+    }
 }
@@ -0,0 +1,109 @@
+package io.agenttel.core.baseline;
+
+import io.agenttel.api.baseline.OperationBaseline;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SeasonalBaselineProviderTest {
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final long WEEK_MS = 168 * HOUR_MS;
+    // Monday 1970-01-05 09:00 UTC, hour of week 9
+    private static final long MONDAY_9AM = (4 * 24 + 9) * HOUR_MS;
+
+    private final long[] now = {MONDAY_9AM};
+    private final RollingBaselineProvider rolling = RollingBaselineProvider.builder()
+            .windowSize(100)
+            .maxStaleness(0, 0)
+            .build();
+    private final SeasonalBaselineProvider seasonal = SeasonalBaselineProvider.builder(rolling)
+            .clock(() -> now[0])
+            .build();
+
+    @Test
+    void hoursOfTheWeekCountFromMondayInTheConfiguredZone() {
+        // The epoch began on a Thursday
+        assertThat(seasonal.hourOfWeek(0)).isEqualTo(72);
+        assertThat(seasonal.hourOfWeek(MONDAY_9AM)).isEqualTo(9);
+        assertThat(seasonal.hourOfWeek(MONDAY_9AM - 10 * HOUR_MS)).isEqualTo(167);
+
+        SeasonalBaselineProvider plusTwo = SeasonalBaselineProvider.builder(rolling)
+                .zone(ZoneOffset.ofHours(2))
+                .build();
+        assertThat(plusTwo.hourOfWeek(MONDAY_9AM)).isEqualTo(11);
+    }
+
+    @Test
+    void usesTheRollingWindowUntilTheHourHasHistory() {
+        record(100, 90.0, 110.0);
+
+        assertThat(seasonal.meanStddev("op")).isEqualTo(rolling.meanStddev("op"));
+        assertThat(seasonal.getBaseline("op")).isEqualTo(rolling.getBaseline("op"));
+    }
+
+    @Test
+    void blendsLastWeeksHourWithTheRollingWindow() {
+        record(100, 90.0, 110.0);
+        now[0] += WEEK_MS;
+        record(100, 190.0, 210.0);
+
+        // 70% of last week's mean of 100 plus 30% of the window's 200; both spreads are 10
+        RollingWindow.MeanStddev expected = seasonal.meanStddev("op");
+        assertThat(expected.mean()).isCloseTo(130.0, within(1e-9));
+        assertThat(expected.stddev()).isCloseTo(10.0, within(1e-9));
+    }
+
+    @Test
+    void anHourIsComparedWithTheSameHourOnly() {
+        record(100, 90.0, 110.0);
+        now[0] += HOUR_MS;
+        record(100, 490.0, 510.0);
+        now[0] += WEEK_MS - HOUR_MS;
+
+        // Back at Monday 9:00, whose history is the quiet hour, not the busy one after it
+        assertThat(seasonal.hourSummary("op", 9).orElseThrow().mean()).isCloseTo(100.0, within(1e-9));
+        assertThat(seasonal.hourSummary("op", 10).orElseThrow().mean()).isCloseTo(500.0, within(1e-9));
+        assertThat(seasonal.meanStddev("op").mean()).isCloseTo(0.7 * 100 + 0.3 * 500, within(1e-9));
+    }
+
+    @Test
+    void olderWeeksAreDecayed() {
+        record(50, 100.0, 100.0);
+        now[0] += WEEK_MS;
+        record(50, 200.0, 200.0);
+        now[0] += WEEK_MS;
+
+        SeasonalBaselineProvider.HourSummary summary = seasonal.hourSummary("op", 9).orElseThrow();
+        // The first week keeps half its weight: (25 x 100 + 50 x 200) / 75
+        assertThat(summary.weight()).isCloseTo(75.0, within(1e-9));
+        assertThat(summary.mean()).isCloseTo(12_500.0 / 75, within(1e-9));
+    }
+
+    @Test
+    void baselineBlendsPercentilesAndTakesTheErrorRateFromTheWindow() {
+        record(100, 100.0, 100.0);
+        now[0] += WEEK_MS;
+        record(90, 200.0, 200.0);
+        for (int i = 0; i < 10; i++) {
+            rolling.recordError("op");
+        }
+
+        OperationBaseline baseline = seasonal.getBaseline("op").orElseThrow();
+        assertThat(baseline.latencyP50Ms()).isCloseTo(0.7 * 100 + 0.3 * 200, within(0.5));
+        assertThat(baseline.errorRate()).isEqualTo(rolling.currentSnapshot("op").errorRate());
+        assertThat(seasonal.getBaseline("op").orElseThrow()).isSameAs(baseline);
+    }
+
+    /** Records {@code count} samples alternating between two values, as the span processor does. */
+    private void record(int count, double even, double odd) {
+        for (int i = 0; i < count; i++) {
+            double latency = i % 2 == 0 ? even : odd;
+            rolling.recordLatency("op", latency);
+            seasonal.recordLatency("op", latency);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package io.agenttel.core.baseline;
+
+import io.agenttel.api.BaselineSource;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class SlidingTimeWindowTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private SlidingTimeWindow window(Duration span, int buckets) {
+        return new SlidingTimeWindow(span, buckets, LogHistogramSketch::new, now::get);
+    }
+
+    @Test
+    void emptyWindowReturnsEmptySnapshot() {
+        SlidingTimeWindow window = window(Duration.ofMinutes(1), 60);
+        assertThat(window.snapshot().isEmpty()).isTrue();
+        assertThat(window.size()).isZero();
+    }
+
+    @Test
+    void mergesSamplesAcrossBuckets() {
+        SlidingTimeWindow window = window(Duration.ofMinutes(1), 60);
+        for (int i = 1; i <= 100; i++) {
+            window.record(i);
+            now.addAndGet(100);
+        }
+
+        RollingWindow.Snapshot snapshot = window.snapshot();
+        assertThat(snapshot.sampleCount()).isEqualTo(100);
+        assertThat(snapshot.mean()).isCloseTo(50.5, within(0.01));
+        assertThat(snapshot.p50()).isCloseTo(50.5, within(1.0));
+        assertThat(snapshot.p99()).isCloseTo(99.0, within(1.5));
+    }
+
+    @Test
+    void stddevStaysAccurateAsALargeMeanDrifts() {
+        SlidingTimeWindow window = window(Duration.ofDays(1), 96);
+        now.set(Duration.ofDays(10).toMillis()); // Bucket-aligned, so the first bucket stays live
+        // A spread of 1 around 1e9 that drifts by 1e9 over the day: each bucket keeps its own shift
+        for (int bucket = 0; bucket < 96; bucket++) {
+            double center = 1e9 + bucket * 1e7;
+            for (int i = 0; i < 1000; i++) {
+                window.record(center + (i % 2 == 0 ? -1 : 1));
+            }
+            now.addAndGet(Duration.ofMinutes(15).toMillis());
+        }
+        now.addAndGet(-1);
+
+        // Within-bucket variance 1 plus the spread of the bucket centers
+        double centers = 1e7 * Math.sqrt((96.0 * 96.0 - 1) / 12);
+        double expected = Math.sqrt(1 + centers * centers);
+        assertThat(window.meanStddev().stddev()).isCloseTo(expected, within(expected * 1e-12));
+        assertThat(window.snapshot().stddev()).isCloseTo(expected, within(expected * 1e-12));
+
+        // Within one bucket, the spread of 1 survives a mean of 2e9
+        SlidingTimeWindow single = window(Duration.ofMinutes(1), 60);
+        for (int i = 0; i < 1000; i++) {
+            single.record(2e9 + (i % 2 == 0 ? -1 : 1));
+        }
+        assertThat(single.meanStddev().stddev()).isCloseTo(1.0, within(1e-6));
+    }
+
+    @Test
+    void expiresSamplesOlderThanTheWindow() {
+        SlidingTimeWindow window = window(Duration.ofMinutes(1), 60);
+        for (int i = 0; i < 50; i++) {
+            window.record(10.0);
+        }
+        now.addAndGet(30_000);
+        for (int i = 0; i < 50; i++) {
+            window.record(1000.0);
+        }
+        assertThat(window.size()).isEqualTo(100);
+
+        now.addAndGet(31_000);
+        RollingWindow.Snapshot snapshot = window.snapshot();
+        assertThat(snapshot.sampleCount()).isEqualTo(50);
+        assertThat(snapshot.p50()).isCloseTo(1000.0, within(10.0));
+
+        now.addAndGet(60_000);
+        assertThat(window.snapshot().isEmpty()).isTrue();
+    }
+
+    @Test
+    void coverageDoesNotDependOnTraffic() {
+        SlidingTimeWindow busy = window(Duration.ofMinutes(1), 60);
+        SlidingTimeWindow quiet = window(Duration.ofMinutes(1), 60);
+        for (int second = 0; second < 120; second++) {
+            for (int i = 0; i < 100; i++) {
+                busy.record(second < 60 ? 10.0 : 20.0);
+            }
+            quiet.record(second < 60 ? 10.0 : 20.0);
+            now.addAndGet(1000);
+        }
+
+        assertThat(busy.snapshot().p50()).isCloseTo(20.0, within(0.5));
+        assertThat(quiet.snapshot().p50()).isCloseTo(20.0, within(0.5));
+    }
+
+    @Test
+    void errorRateCoversOnlyTheWindow() {
+        SlidingTimeWindow window = window(Duration.ofMinutes(1), 60);
+        for (int i = 0; i < 10; i++) {
+            window.recordError();
+        }
+        now.addAndGet(61_000);
+        for (int i = 0; i < 8; i++) {
+            window.record(50.0);
+        }
+        window.recordError();
+        window.recordError();
+
+        assertThat(window.snapshot().errorRate()).isCloseTo(0.2, within(0.001));
+    }
+
+    @Test
+    void versionChangesWhenBucketsRollOver() {
+        SlidingTimeWindow window = window(Duration.ofMinutes(1), 60);
+        window.record(10.0);
+        long version = window.version();
+        assertThat(window.version()).isEqualTo(version);
+
+        now.addAndGet(1000);
+        assertThat(window.version()).isGreaterThan(version);
+    }
+
+    @Test
+    void standardLengthsParseFromLabels() {
+        assertThat(SlidingTimeWindow.Length.fromLabel("7d")).isEqualTo(SlidingTimeWindow.Length.SEVEN_DAYS);
+        assertThat(SlidingTimeWindow.Length.fromLabel(" 1H ")).isEqualTo(SlidingTimeWindow.Length.ONE_HOUR);
+        assertThat(new SlidingTimeWindow(SlidingTimeWindow.Length.SEVEN_DAYS).bucketWidth())
+                .isEqualTo(Duration.ofHours(1));
+        assertThatThrownBy(() -> SlidingTimeWindow.Length.fromLabel("2w"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reportsTheSourceOfTheClosestStandardLength() {
+        assertThat(new SlidingTimeWindow(SlidingTimeWindow.Length.SEVEN_DAYS).source())
+                .isEqualTo(BaselineSource.ROLLING_7D);
+        assertThat(window(Duration.ofMinutes(45), 45).source()).isEqualTo(BaselineSource.ROLLING_1H);
+        assertThat(window(Duration.ofDays(2), 48).source()).isEqualTo(BaselineSource.ROLLING_24H);
+        assertThat(new RollingWindow(100).source()).isEqualTo(BaselineSource.ROLLING_COUNT);
+    }
+}
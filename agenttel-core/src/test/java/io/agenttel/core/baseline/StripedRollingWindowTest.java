@@ -0,0 +1,105 @@
+package io.agenttel.core.baseline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class StripedRollingWindowTest {
+
+    @Test
+    void emptyWindowReturnsEmptySnapshot() {
+        StripedRollingWindow window = new StripedRollingWindow(100);
+        assertThat(window.snapshot().isEmpty()).isTrue();
+    }
+
+    @Test
+    void computesStatisticsFromSingleWriter() {
+        // A single thread writes to one stripe, which holds 800 / 8 samples
+        StripedRollingWindow window = new StripedRollingWindow(800, 8, LogHistogramSketch::new);
+        for (int i = 1; i <= 100; i++) {
+            window.record(i);
+        }
+
+        RollingWindow.Snapshot snapshot = window.snapshot();
+        assertThat(snapshot.mean()).isCloseTo(50.5, within(0.01));
+        assertThat(snapshot.p50()).isCloseTo(50.5, within(1.0));
+        assertThat(snapshot.p99()).isCloseTo(99.0, within(1.5));
+    }
+
+    @Test
+    void mergesConcurrentWriters() throws InterruptedException {
+        StripedRollingWindow window = new StripedRollingWindow(40_000, 8, LogHistogramSketch::new);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            double value = 10.0 * (t + 1);
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 500; i++) {
+                    window.record(value);
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        RollingWindow.Snapshot snapshot = window.snapshot();
+        assertThat(snapshot.sampleCount()).isEqualTo(4000);
+        assertThat(snapshot.mean()).isCloseTo(45.0, within(0.01));
+        // Population stddev of 10, 20, ..., 80 in equal numbers
+        assertThat(snapshot.stddev()).isCloseTo(10 * Math.sqrt(5.25), within(1e-6));
+        assertThat(window.meanStddev().stddev()).isCloseTo(snapshot.stddev(), within(1e-9));
+        RollingWindow.MeanStddevBuffer buffer = new RollingWindow.MeanStddevBuffer();
+        window.readMeanStddev(buffer);
+        assertThat(buffer.sampleCount()).isEqualTo(4000);
+        assertThat(buffer.stddev()).isCloseTo(snapshot.stddev(), within(1e-9));
+        assertThat(window.version()).isEqualTo(4000);
+    }
+
+    @Test
+    void boundsSamplesByCapacity() {
+        StripedRollingWindow window = new StripedRollingWindow(64, 4, LogHistogramSketch::new);
+        for (int i = 0; i < 1000; i++) {
+            window.record(i < 900 ? 1.0 : 1000.0);
+        }
+
+        assertThat(window.size()).isLessThanOrEqualTo(64);
+        assertThat(window.snapshot().p50()).isCloseTo(1000.0, within(10.0));
+    }
+
+    @Test
+    void tracksErrorRate() {
+        StripedRollingWindow window = new StripedRollingWindow(100);
+        for (int i = 0; i < 8; i++) {
+            window.record(50.0);
+        }
+        window.recordError();
+        window.recordError();
+
+        assertThat(window.snapshot().errorRate()).isCloseTo(0.2, within(0.001));
+    }
+
+    @Test
+    void roundsStripeCountToPowerOfTwo() {
+        assertThat(new StripedRollingWindow(1000, 6, LogHistogramSketch::new).stripeCount()).isEqualTo(8);
+        assertThat(new StripedRollingWindow(1000, 1000, LogHistogramSketch::new).stripeCount()).isEqualTo(64);
+        assertThat(new StripedRollingWindow(3, 8, LogHistogramSketch::new).stripeCount()).isEqualTo(2);
+        assertThatThrownBy(() -> new StripedRollingWindow(0, 8, LogHistogramSketch::new))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
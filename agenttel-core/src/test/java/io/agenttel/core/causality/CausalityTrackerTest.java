@@ -14,6 +14,7 @@ class CausalityTrackerTest {
 
     private OperationDependencyTracker dependencyTracker;
     private CausalityTracker tracker;
+    private final long[] now = {1_000_000L};
 
     @BeforeEach
     void setUp() {
@@ -324,4 +325,103 @@ class CausalityTrackerTest {
         assertEquals(DependencyState.UNHEALTHY, state.get().state());
         assertEquals("completely down", state.get().evidence());
     }
+
+    // ── Windowed dependency health ──────────────────────────────────────
+
+    private CausalityTracker trackerWithClock() {
+        return new CausalityTracker(dependencyTracker, () -> now[0]);
+    }
+
+    private static void calls(CausalityTracker tracker, String dependency, int count, int errors, double latencyMs) {
+        for (int i = 0; i < count; i++) {
+            tracker.recordDependencyCall(dependency, latencyMs, i < errors);
+        }
+    }
+
+    private static DependencyState stateOf(CausalityTracker tracker, String dependency) {
+        return tracker.getDependencyState(dependency).orElseThrow().state();
+    }
+
+    @Test
+    void oneFailedCallAmongManyDoesNotMarkADependencyUnhealthy() {
+        CausalityTracker windowed = trackerWithClock();
+        calls(windowed, "postgresql", 100, 1, 5.0);
+        now[0] += 1000;
+
+        assertEquals(DependencyState.HEALTHY, stateOf(windowed, "postgresql"));
+        assertTrue(windowed.getCauseHint().isEmpty());
+    }
+
+    @Test
+    void aSuccessfulCallDoesNotClearAnUnhealthyWindow() {
+        CausalityTracker windowed = trackerWithClock();
+        calls(windowed, "postgresql", 20, 15, 5.0);
+        now[0] += 1000;
+        windowed.recordDependencyCall("postgresql", 5.0, false);
+
+        assertEquals(DependencyState.UNHEALTHY, stateOf(windowed, "postgresql"));
+        String evidence = windowed.getDependencyState("postgresql").orElseThrow().evidence();
+        assertTrue(evidence.contains("15 of 20 calls failed"), evidence);
+    }
+
+    @Test
+    void recoveryTakesTheLowerThresholds() {
+        CausalityTracker windowed = trackerWithClock();
+        calls(windowed, "postgresql", 10, 6, 5.0);
+        now[0] += 1000;
+        assertEquals(DependencyState.UNHEALTHY, stateOf(windowed, "postgresql"));
+
+        // 6 of 20: below the 50% that made it unhealthy, above the 25% it must fall under
+        calls(windowed, "postgresql", 10, 0, 5.0);
+        now[0] += 1000;
+        assertEquals(DependencyState.UNHEALTHY, stateOf(windowed, "postgresql"));
+
+        // 6 of 40 is 15%: degraded, and it stays degraded above 5%
+        calls(windowed, "postgresql", 20, 0, 5.0);
+        now[0] += 1000;
+        assertEquals(DependencyState.DEGRADED, stateOf(windowed, "postgresql"));
+        calls(windowed, "postgresql", 40, 0, 5.0);
+        now[0] += 1000;
+        assertEquals(DependencyState.DEGRADED, stateOf(windowed, "postgresql"));
+
+        // Once the failing second leaves the window
+        now[0] += DependencyHealth.WINDOW_SECONDS * 1000L;
+        calls(windowed, "postgresql", 20, 0, 5.0);
+        now[0] += 1000;
+        assertEquals(DependencyState.HEALTHY, stateOf(windowed, "postgresql"));
+    }
+
+    @Test
+    void slowCallsDegradeADependency() {
+        CausalityTracker windowed = trackerWithClock();
+        for (int second = 0; second < 20; second++) {
+            calls(windowed, "redis", 10, 0, 2.0);
+            now[0] += 1000;
+        }
+        assertEquals(DependencyState.HEALTHY, stateOf(windowed, "redis"));
+
+        // Enough slow calls to lift the window's mean above three times the usual 2 ms
+        calls(windowed, "redis", 300, 0, 10.0);
+        now[0] += 1000;
+
+        CausalityTracker.DependencyHealthState state = windowed.getDependencyState("redis").orElseThrow();
+        assertEquals(DependencyState.DEGRADED, state.state());
+        assertTrue(state.evidence().contains("usually 2.0 ms"), state.evidence());
+    }
+
+    @Test
+    void moreSevereOfReportedAndObservedStateWins() {
+        CausalityTracker windowed = trackerWithClock();
+        dependencyTracker.recordDependencyCall("POST /api/payments", "postgresql");
+        calls(windowed, "postgresql", 20, 20, 5.0);
+        now[0] += 1000;
+        windowed.reportDependencyState("postgresql", DependencyState.DEGRADED, "replica lag");
+
+        CausalityTracker.CausalAnalysis result = windowed.analyzeCause(
+                "POST /api/payments", ErrorCategory.CONNECTION_ERROR);
+
+        assertEquals("postgresql", result.causeDependency());
+        assertTrue(result.causeHint().contains("unhealthy"));
+        assertTrue(result.causeHint().contains("20 of 20 calls failed"));
+    }
 }
@@ -1,5 +1,6 @@
 package io.agenttel.core.causality;
 
+import io.agenttel.core.operation.OperationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -204,4 +205,20 @@ class OperationDependencyTrackerTest {
         Set<String> sharedOpDeps = tracker.getDependencies("shared-op");
         assertFalse(sharedOpDeps.isEmpty());
     }
+
+    @Test
+    void evictedOperationIsForgotten() {
+        OperationRegistry registry = new OperationRegistry(1);
+        OperationDependencyTracker shared = new OperationDependencyTracker(registry);
+        shared.recordDependencyCall("GET /old", "redis");
+
+        // The second sighting of a new name evicts the operation that was never revisited
+        shared.recordDependencyCall("GET /new", "postgresql");
+        shared.recordDependencyCall("GET /new", "postgresql");
+
+        assertTrue(shared.getDependencies("GET /old").isEmpty());
+        assertFalse(shared.getAffectedOperations("redis").contains("GET /old"));
+        assertEquals(Set.of("postgresql"), shared.getDependencies("GET /new"));
+        assertEquals(1, shared.operationCount());
+    }
 }
@@ -4,8 +4,13 @@ import io.agenttel.api.BaselineSource;
 import io.agenttel.api.EscalationLevel;
 import io.agenttel.api.attributes.AgentTelAttributes;
 import io.agenttel.api.baseline.OperationBaseline;
+import io.agenttel.core.baseline.RollingBaselineProvider;
 import io.agenttel.core.baseline.StaticBaselineProvider;
+import io.agenttel.core.causality.OperationDependencyTracker;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.data.SpanData;
@@ -15,6 +20,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -98,4 +104,66 @@ class AgentTelSpanProcessorTest {
         assertThat(span.getAttributes().get(AgentTelAttributes.BASELINE_LATENCY_P99_MS)).isNull();
         assertThat(span.getAttributes().get(AgentTelAttributes.DECISION_RETRYABLE)).isNull();
     }
+
+    @Test
+    void asyncAnalysisFeedsRollingBaselinesOffTheCallingThread() {
+        RollingBaselineProvider rollingBaselines = new RollingBaselineProvider();
+        AgentTelSpanProcessor processor = new AgentTelSpanProcessor(
+                new StaticBaselineProvider(), new OperationContextRegistry(),
+                null, null, rollingBaselines, null, null);
+        AsyncAnalysisPipeline pipeline = processor.enableAsyncAnalysis(AsyncAnalysisPipeline.builder());
+
+        try (SdkTracerProvider asyncProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(processor)
+                .build()) {
+            Tracer asyncTracer = asyncProvider.get("test");
+            for (int i = 0; i < 20; i++) {
+                asyncTracer.spanBuilder("GET /async").startSpan().end();
+            }
+
+            assertThat(processor.forceFlush().join(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+            assertThat(pipeline.processedCount()).isEqualTo(20);
+            assertThat(rollingBaselines.getSnapshot("GET /async")).isPresent();
+        }
+    }
+
+    @Test
+    void learnsDependencyEdgesFromTheNearestOperationSpan() {
+        OperationDependencyTracker dependencyTracker = new OperationDependencyTracker();
+        AgentTelSpanProcessor processor = new AgentTelSpanProcessor(
+                new StaticBaselineProvider(), new OperationContextRegistry(),
+                null, null, null, null, null, dependencyTracker, null);
+
+        try (SdkTracerProvider edgeProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(processor)
+                .build()) {
+            Tracer edgeTracer = edgeProvider.get("test");
+            Span server = edgeTracer.spanBuilder("GET /orders").setSpanKind(SpanKind.SERVER).startSpan();
+            Context serverContext = Context.root().with(server);
+
+            edgeTracer.spanBuilder("SELECT orders").setSpanKind(SpanKind.CLIENT)
+                    .setParent(serverContext)
+                    .setAttribute("db.system", "postgresql")
+                    .startSpan().end();
+            // An HTTP client span under a client wrapper still belongs to the server operation
+            Span wrapper = edgeTracer.spanBuilder("inventory-client").setSpanKind(SpanKind.CLIENT)
+                    .setParent(serverContext).startSpan();
+            edgeTracer.spanBuilder("GET").setSpanKind(SpanKind.CLIENT)
+                    .setParent(Context.root().with(wrapper))
+                    .setAttribute("peer.service", "inventory")
+                    .startSpan().end();
+            wrapper.end();
+            server.end();
+
+            // A client span without an in-process parent has no caller to attribute
+            edgeTracer.spanBuilder("GET").setSpanKind(SpanKind.CLIENT)
+                    .setNoParent()
+                    .setAttribute("peer.service", "billing")
+                    .startSpan().end();
+        }
+
+        assertThat(dependencyTracker.getDependencies("GET /orders"))
+                .containsExactlyInAnyOrder("postgresql", "inventory", "inventory-client");
+        assertThat(dependencyTracker.getAffectedOperations("billing")).isEmpty();
+    }
 }
@@ -0,0 +1,214 @@
+package io.agenttel.core.enrichment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncAnalysisPipelineTest {
+
+    @Test
+    void deliversRecordFieldsToAnalyzer() {
+        List<String> seen = new ArrayList<>();
+        AsyncAnalysisPipeline pipeline = AsyncAnalysisPipeline.builder()
+                .build((op, latency, isError, isClient, dep) ->
+                        seen.add(op + "|" + latency + "|" + isError + "|" + isClient + "|" + dep));
+        pipeline.start();
+
+        pipeline.offer("GET /users", 12.5, false, false, null);
+        pipeline.offer("db-call", 3.0, true, true, "postgres");
+
+        assertThat(pipeline.flush(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(seen).containsExactly(
+                "GET /users|12.5|false|false|null",
+                "db-call|3.0|true|true|postgres");
+        pipeline.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void roundsCapacityUpToPowerOfTwo() {
+        AsyncAnalysisPipeline pipeline = AsyncAnalysisPipeline.builder()
+                .queueCapacity(100)
+                .build((op, latency, isError, isClient, dep) -> {});
+        assertThat(pipeline.capacity()).isEqualTo(128);
+    }
+
+    @Test
+    void dropPolicyCountsRejectedRecordsWhenFull() {
+        // Not started, so nothing drains the ring
+        AsyncAnalysisPipeline pipeline = AsyncAnalysisPipeline.builder()
+                .queueCapacity(16)
+                .overflowPolicy(AsyncAnalysisPipeline.OverflowPolicy.DROP)
+                .build((op, latency, isError, isClient, dep) -> {});
+
+        int accepted = 0;
+        for (int i = 0; i < 40; i++) {
+            if (pipeline.offer("op", i, false, false, null)) accepted++;
+        }
+
+        assertThat(accepted).isEqualTo(16);
+        assertThat(pipeline.size()).isEqualTo(16);
+        assertThat(pipeline.droppedCount()).isEqualTo(24);
+    }
+
+    @Test
+    void samplePolicyThinsRecordsAboveHighWaterMark() {
+        AsyncAnalysisPipeline pipeline = AsyncAnalysisPipeline.builder()
+                .queueCapacity(1024)
+                .overflowPolicy(AsyncAnalysisPipeline.OverflowPolicy.SAMPLE)
+                .sampleRate(10)
+                .build((op, latency, isError, isClient, dep) -> {});
+
+        for (int i = 0; i < 2000; i++) {
+            pipeline.offer("op", i, false, false, null);
+        }
+
+        // The first half fills unconditionally, then roughly 1 in 10 are admitted
+        assertThat(pipeline.size()).isBetween(512, 1024);
+        assertThat(pipeline.sampledOutCount()).isGreaterThan(1000);
+        assertThat(pipeline.size() + pipeline.sampledOutCount() + pipeline.droppedCount())
+                .isEqualTo(2000);
+    }
+
+    @Test
+    void blockPolicyLosesNothing() throws InterruptedException {
+        LongAdder analyzed = new LongAdder();
+        AsyncAnalysisPipeline pipeline = AsyncAnalysisPipeline.builder()
+                .queueCapacity(8)
+                .overflowPolicy(AsyncAnalysisPipeline.OverflowPolicy.BLOCK)
+                .build((op, latency, isError, isClient, dep) -> analyzed.increment());
+        pipeline.start();
+
+        int threads = 4;
+        int perThread = 5_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread producer = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < perThread; i++) {
+                    pipeline.offer("op", i, false, false, null);
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertThat(pipeline.flush(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(analyzed.sum()).isEqualTo((long) threads * perThread);
+        assertThat(pipeline.droppedCount()).isZero();
+        pipeline.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void multipleWorkersProcessEachRecordOnce() {
+        Map<Integer, AtomicInteger> counts = new ConcurrentHashMap<>();
+        AsyncAnalysisPipeline pipeline = AsyncAnalysisPipeline.builder()
+                .queueCapacity(64)
+                .workers(4)
+                .batchSize(8)
+                .overflowPolicy(AsyncAnalysisPipeline.OverflowPolicy.BLOCK)
+                .build((op, latency, isError, isClient, dep) ->
+                        counts.computeIfAbsent((int) latency, k -> new AtomicInteger()).incrementAndGet());
+        pipeline.start();
+
+        for (int i = 0; i < 10_000; i++) {
+            pipeline.offer("op", i, false, false, null);
+        }
+
+        assertThat(pipeline.flush(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(counts).hasSize(10_000);
+        assertThat(counts.values()).allMatch(count -> count.get() == 1);
+        pipeline.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void analyzerFailureDoesNotStopWorker() {
+        LongAdder analyzed = new LongAdder();
+        AsyncAnalysisPipeline pipeline = AsyncAnalysisPipeline.builder()
+                .build((op, latency, isError, isClient, dep) -> {
+                    analyzed.increment();
+                    if (isError) throw new IllegalStateException("boom");
+                });
+        pipeline.start();
+
+        pipeline.offer("op", 1.0, true, false, null);
+        pipeline.offer("op", 2.0, false, false, null);
+
+        assertThat(pipeline.flush(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(analyzed.sum()).isEqualTo(2);
+        pipeline.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shutdownDrainsQueuedRecords() {
+        LongAdder analyzed = new LongAdder();
+        AsyncAnalysisPipeline pipeline = AsyncAnalysisPipeline.builder()
+                .queueCapacity(1024)
+                .build((op, latency, isError, isClient, dep) -> analyzed.increment());
+        for (int i = 0; i < 500; i++) {
+            pipeline.offer("op", i, false, false, null);
+        }
+        pipeline.start();
+
+        pipeline.shutdown(5, TimeUnit.SECONDS);
+
+        assertThat(analyzed.sum()).isEqualTo(500);
+        assertThat(pipeline.size()).isZero();
+    }
+
+    @Test
+    void rejectsRecordsAfterShutdownUnderEveryPolicy() {
+        for (AsyncAnalysisPipeline.OverflowPolicy policy : AsyncAnalysisPipeline.OverflowPolicy.values()) {
+            LongAdder analyzed = new LongAdder();
+            AsyncAnalysisPipeline pipeline = AsyncAnalysisPipeline.builder()
+                    .overflowPolicy(policy)
+                    .build((op, latency, isError, isClient, dep) -> analyzed.increment());
+            pipeline.start();
+            pipeline.shutdown(1, TimeUnit.SECONDS);
+
+            assertThat(pipeline.offer("op", 1.0, false, false, null)).as(policy.name()).isFalse();
+            assertThat(pipeline.droppedCount()).as(policy.name()).isEqualTo(1);
+            assertThat(pipeline.size()).as(policy.name()).isZero();
+            assertThat(analyzed.sum()).as(policy.name()).isZero();
+        }
+    }
+
+    @Test
+    void parsesOverflowPolicy() {
+        assertThat(AsyncAnalysisPipeline.OverflowPolicy.fromValue("sample"))
+                .isEqualTo(AsyncAnalysisPipeline.OverflowPolicy.SAMPLE);
+        assertThat(AsyncAnalysisPipeline.OverflowPolicy.fromValue(" BLOCK "))
+                .isEqualTo(AsyncAnalysisPipeline.OverflowPolicy.BLOCK);
+        assertThatThrownBy(() -> AsyncAnalysisPipeline.OverflowPolicy.fromValue("retry"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThatThrownBy(() -> AsyncAnalysisPipeline.builder().workers(0)
+                .build((op, latency, isError, isClient, dep) -> {}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
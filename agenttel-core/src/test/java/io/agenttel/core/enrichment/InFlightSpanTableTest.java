@@ -0,0 +1,66 @@
+package io.agenttel.core.enrichment;
+
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightSpanTableTest {
+
+    private static final long TTL = 1_000L;
+
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder().build();
+    private final ReadableSpan owner = (ReadableSpan) tracerProvider.get("test").spanBuilder("GET /orders").startSpan();
+    private final long[] now = {0L};
+    private final InFlightSpanTable table = new InFlightSpanTable(128, TTL, () -> now[0]);
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void removeReturnsTheOwnerOnce() {
+        table.put(42L, owner);
+
+        assertThat(table.get(42L)).isSameAs(owner);
+        assertThat(table.remove(42L)).isSameAs(owner);
+        assertThat(table.remove(42L)).isNull();
+        assertThat(table.get(42L)).isNull();
+    }
+
+    @Test
+    void spansThatNeverEndExpire() {
+        table.put(42L, owner);
+        now[0] += TTL + 1;
+
+        assertThat(table.get(42L)).isNull();
+        // The expired slot is reused without counting as an overwrite
+        table.put(43L, owner);
+        assertThat(table.overwrittenCount()).isZero();
+    }
+
+    @Test
+    void aFullTableOverwritesInsteadOfGrowing() {
+        for (long id = 1; id <= 1_000; id++) {
+            table.put(id, owner);
+            now[0]++;
+        }
+
+        assertThat(table.capacity()).isEqualTo(128);
+        assertThat(table.overwrittenCount()).isGreaterThanOrEqualTo(1_000 - 128);
+        // The newest entries survive, having the latest expiry in their probe range
+        assertThat(table.get(1_000L)).isSameAs(owner);
+    }
+
+    @Test
+    void parsesHexSpanIds() {
+        assertThat(InFlightSpanTable.spanId("00000000000000ff")).isEqualTo(255L);
+        assertThat(InFlightSpanTable.spanId("ffffffffffffffff")).isEqualTo(-1L);
+        assertThat(InFlightSpanTable.spanId("0000000000000000")).isZero();
+        assertThat(InFlightSpanTable.spanId("not-a-span-id!!!")).isZero();
+        assertThat(InFlightSpanTable.spanId("ff")).isZero();
+    }
+}
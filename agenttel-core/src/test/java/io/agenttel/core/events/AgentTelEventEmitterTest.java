@@ -0,0 +1,159 @@
+package io.agenttel.core.events;
+
+import io.agenttel.api.events.AgentTelEvents;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.KeyValue;
+import io.opentelemetry.api.common.Value;
+import io.opentelemetry.api.common.ValueType;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.SimpleLogRecordProcessor;
+import io.opentelemetry.sdk.testing.exporter.InMemoryLogRecordExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AgentTelEventEmitterTest {
+
+    private final InMemoryLogRecordExporter logs = InMemoryLogRecordExporter.create();
+    private final OpenTelemetrySdk otel = OpenTelemetrySdk.builder()
+            .setLoggerProvider(SdkLoggerProvider.builder()
+                    .addLogRecordProcessor(SimpleLogRecordProcessor.create(logs))
+                    .build())
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        otel.close();
+    }
+
+    @Test
+    void writesJsonBodiesByDefault() {
+        new AgentTelEventEmitter(otel).emitEvent(AgentTelEvents.ANOMALY_DETECTED, anomaly(), Severity.WARN);
+
+        LogRecordData record = logs.getFinishedLogRecordItems().get(0);
+        assertThat(record.getAttributes().get(AttributeKey.stringKey("event.name")))
+                .isEqualTo(AgentTelEvents.ANOMALY_DETECTED);
+        assertThat(record.getSeverity()).isEqualTo(Severity.WARN);
+        assertThat(record.getBodyValue().asString())
+                .isEqualTo("{\"operation\":\"GET /orders\",\"latency_ms\":412.5,\"samples\":3,\"patterns\":[{\"pattern\":\"latency_degradation\"}]}");
+    }
+
+    @Test
+    void structuredBodiesKeepTypesAndNestingWithoutJson() {
+        AgentTelEventEmitter.builder(otel)
+                .bodyFormat(LogEventSink.BodyFormat.STRUCTURED)
+                .build()
+                .emitEvent(AgentTelEvents.ANOMALY_DETECTED, anomaly(), Severity.WARN);
+
+        Value<?> body = logs.getFinishedLogRecordItems().get(0).getBodyValue();
+        assertThat(body.getType()).isEqualTo(ValueType.KEY_VALUE_LIST);
+        Map<String, Value<?>> fields = fields(body);
+        assertThat(fields.get("operation").getValue()).isEqualTo("GET /orders");
+        assertThat(fields.get("latency_ms").getValue()).isEqualTo(412.5);
+        assertThat(fields.get("samples").getValue()).isEqualTo(3L);
+
+        Value<?> patterns = fields.get("patterns");
+        assertThat(patterns.getType()).isEqualTo(ValueType.ARRAY);
+        Value<?> pattern = ((List<?>) patterns.getValue()).stream().map(Value.class::cast).findFirst().orElseThrow();
+        assertThat(fields(pattern).get("pattern").getValue()).isEqualTo("latency_degradation");
+    }
+
+    @Test
+    void sampleRateKeepsOneInNEventsOfThatName() {
+        AgentTelEventEmitter emitter = AgentTelEventEmitter.builder(otel)
+                .sampleRate(AgentTelEvents.ANOMALY_DETECTED, 4)
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            emitter.emitEvent(AgentTelEvents.ANOMALY_DETECTED, anomaly());
+            emitter.emitEvent(AgentTelEvents.DEPLOYMENT_INFO, Map.of("version", "1.0." + i));
+        }
+
+        // The 1st, 5th and 9th anomaly; every deployment event
+        assertThat(logs.getFinishedLogRecordItems()).hasSize(3 + 10);
+        assertThat(emitter.sampledOutCount()).isEqualTo(7);
+    }
+
+    @Test
+    void stateChangeEventsCannotBeSampled() {
+        AgentTelEventEmitter.Builder builder = AgentTelEventEmitter.builder(otel);
+
+        assertThatThrownBy(() -> builder.sampleRate(AgentTelEvents.SLO_BUDGET_ALERT, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(AgentTelEvents.SLO_BUDGET_ALERT);
+        assertThatThrownBy(() -> builder.sampleRate(AgentTelEvents.DEPENDENCY_STATE_CHANGE, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Keeping every event is still allowed
+        AgentTelEventEmitter emitter = builder.sampleRate(AgentTelEvents.SLO_BUDGET_ALERT, 1).build();
+        for (int i = 0; i < 5; i++) {
+            emitter.emitEvent(AgentTelEvents.SLO_BUDGET_ALERT, Map.of("slo_name", "slo-" + i));
+        }
+        assertThat(logs.getFinishedLogRecordItems()).hasSize(5);
+        assertThat(emitter.sampledOutCount()).isZero();
+    }
+
+    @Test
+    void asyncSinkDeliversOnItsWorkerAndDropsWhenTheQueueIsFull() throws InterruptedException {
+        CountDownLatch first = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        EventSink blocking = (eventName, body, severity) -> {
+            threads.add(Thread.currentThread().getName());
+            first.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AgentTelEventEmitter emitter = AgentTelEventEmitter.builder(otel)
+                .sink(blocking)
+                .async(AsyncEventSink.builder().queueCapacity(2).threadName("events-test"))
+                .build();
+
+        emitter.emitEvent(AgentTelEvents.DEPLOYMENT_INFO, Map.of("version", "1"));
+        assertThat(first.await(5, TimeUnit.SECONDS)).isTrue();
+        // The worker is stuck on the first event: two fit in the queue, the rest are dropped
+        for (int i = 0; i < 5; i++) {
+            emitter.emitEvent(AgentTelEvents.DEPLOYMENT_INFO, Map.of("version", "2"));
+        }
+        release.countDown();
+
+        assertThat(emitter.flush(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(threads).hasSize(3).containsOnly("events-test");
+        assertThat(emitter.droppedCount()).isEqualTo(3);
+        emitter.shutdown(5, TimeUnit.SECONDS);
+        emitter.emitEvent(AgentTelEvents.DEPLOYMENT_INFO, Map.of("version", "3"));
+        assertThat(emitter.droppedCount()).isEqualTo(4);
+    }
+
+    private static Map<String, Object> anomaly() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("operation", "GET /orders");
+        body.put("latency_ms", 412.5);
+        body.put("samples", 3);
+        body.put("patterns", List.of(Map.of("pattern", "latency_degradation")));
+        return body;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Value<?>> fields(Value<?> value) {
+        Map<String, Value<?>> fields = new LinkedHashMap<>();
+        for (KeyValue entry : (List<KeyValue>) value.getValue()) {
+            fields.put(entry.getKey(), entry.getValue());
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,240 @@
+package io.agenttel.core.events;
+
+import io.agenttel.api.events.AgentTelEvents;
+import io.agenttel.core.operation.OperationRegistry;
+import io.agenttel.core.slo.SloDefinition;
+import io.agenttel.core.slo.SloTracker;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventGateTest {
+
+    private static final String ANOMALY = AgentTelEvents.ANOMALY_DETECTED;
+    private static final String SLO_ALERT = AgentTelEvents.SLO_BUDGET_ALERT;
+
+    private final long[] now = {0};
+
+    private EventGate.Builder gate() {
+        return EventGate.builder().nanoClock(() -> now[0]);
+    }
+
+    @Test
+    void ungatedEventsAlwaysPass() {
+        EventGate gate = gate().build();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(gate.tryAcquire(AgentTelEvents.DEPLOYMENT_INFO, "app", "INFO")).isTrue();
+        }
+        assertThat(gate.suppressedCount()).isZero();
+    }
+
+    @Test
+    void rateLimitAllowsABurstThenOneEventPerInterval() {
+        EventGate gate = gate().policy(ANOMALY, EventGate.Policy.rateLimited(2, 10, TimeUnit.SECONDS)).build();
+
+        assertThat(gate.tryAcquire(ANOMALY, "GET /a", "z_score")).isTrue();
+        assertThat(gate.tryAcquire(ANOMALY, "GET /a", "z_score")).isTrue();
+        assertThat(gate.tryAcquire(ANOMALY, "GET /a", "z_score")).isFalse();
+
+        now[0] = TimeUnit.SECONDS.toNanos(4);
+        assertThat(gate.tryAcquire(ANOMALY, "GET /a", "z_score")).isFalse();
+        now[0] = TimeUnit.SECONDS.toNanos(5);
+        assertThat(gate.tryAcquire(ANOMALY, "GET /a", "z_score")).isTrue();
+        assertThat(gate.tryAcquire(ANOMALY, "GET /a", "z_score")).isFalse();
+        assertThat(gate.suppressedCount()).isEqualTo(3);
+    }
+
+    @Test
+    void keysAreLimitedIndependently() {
+        EventGate gate = gate().policy(ANOMALY, EventGate.Policy.rateLimited(1, 1, TimeUnit.MINUTES)).build();
+
+        assertThat(gate.tryAcquire(ANOMALY, "GET /a", "z_score")).isTrue();
+        assertThat(gate.tryAcquire(ANOMALY, "GET /a", "error_rate_spike")).isTrue();
+        assertThat(gate.tryAcquire(ANOMALY, "GET /b", "z_score")).isTrue();
+        assertThat(gate.tryAcquire(ANOMALY, "GET /a", "z_score")).isFalse();
+    }
+
+    @Test
+    void onChangeEmitsOnlyStateTransitions() {
+        EventGate gate = gate().policy(SLO_ALERT, EventGate.Policy.onStateChange()).build();
+
+        assertThat(gate.tryAcquire(SLO_ALERT, "checkout", "WARNING")).isTrue();
+        assertThat(gate.tryAcquire(SLO_ALERT, "checkout", "WARNING")).isFalse();
+        assertThat(gate.tryAcquire(SLO_ALERT, "checkout", "CRITICAL")).isTrue();
+        assertThat(gate.tryAcquire(SLO_ALERT, "checkout", "WARNING")).isTrue();
+        assertThat(gate.tryAcquire(SLO_ALERT, "payments", "WARNING")).isTrue();
+    }
+
+    @Test
+    void rateLimitedTransitionIsNotRecordedAsTheLastState() {
+        EventGate gate = gate()
+                .policy(SLO_ALERT, EventGate.Policy.onStateChange().withRateLimit(1, 1, TimeUnit.MINUTES))
+                .build();
+
+        assertThat(gate.tryAcquire(SLO_ALERT, "checkout", "CRITICAL")).isTrue();
+        assertThat(gate.tryAcquire(SLO_ALERT, "checkout", "WARNING")).isTrue();
+        // Flapping back within the minute is suppressed
+        assertThat(gate.tryAcquire(SLO_ALERT, "checkout", "CRITICAL")).isFalse();
+
+        now[0] = TimeUnit.MINUTES.toNanos(1);
+        assertThat(gate.tryAcquire(SLO_ALERT, "checkout", "CRITICAL")).isTrue();
+    }
+
+    @Test
+    void clearedSubjectEmitsTheSameStateAgain() {
+        EventGate gate = gate().policy(SLO_ALERT, EventGate.Policy.onStateChange()).build();
+
+        assertThat(gate.tryAcquire(SLO_ALERT, "checkout", "CRITICAL")).isTrue();
+        gate.clearState(SLO_ALERT, "checkout");
+        assertThat(gate.tryAcquire(SLO_ALERT, "checkout", "CRITICAL")).isTrue();
+        assertThat(gate.tryAcquire(SLO_ALERT, "checkout", "CRITICAL")).isFalse();
+    }
+
+    @Test
+    void sloBreachingAgainAfterRecoveryAlertsAgain() {
+        EventGate gate = gate().policy(SLO_ALERT, EventGate.Policy.onStateChange()).build();
+        SloTracker tracker = paymentsTracker();
+
+        breach(tracker);
+        assertThat(tracker.drainAlertChanges(filter(gate))).extracting(SloTracker.SloAlert::severity)
+                .containsExactly(SloTracker.AlertSeverity.CRITICAL);
+
+        for (int i = 0; i < 10_000; i++) {
+            tracker.recordSuccess("POST /api/payments");
+        }
+        assertThat(tracker.drainAlertChanges(filter(gate))).isEmpty();
+
+        for (int i = 0; i < 200; i++) {
+            tracker.recordFailure("POST /api/payments");
+        }
+        assertThat(tracker.drainAlertChanges(filter(gate))).extracting(SloTracker.SloAlert::severity)
+                .containsExactly(SloTracker.AlertSeverity.CRITICAL);
+    }
+
+    @Test
+    void rateLimitedSloAlertIsRetried() {
+        EventGate gate = gate().build();
+        SloTracker tracker = paymentsTracker();
+
+        breach(tracker);
+        assertThat(tracker.drainAlertChanges(filter(gate))).hasSize(1);
+        for (int i = 0; i < 10_000; i++) {
+            tracker.recordSuccess("POST /api/payments");
+        }
+        assertThat(tracker.drainAlertChanges(filter(gate))).isEmpty();
+
+        // Breaching again within the minute is rate limited, and offered again on later requests
+        for (int i = 0; i < 200; i++) {
+            tracker.recordFailure("POST /api/payments");
+        }
+        assertThat(tracker.drainAlertChanges(filter(gate))).isEmpty();
+        tracker.recordFailure("POST /api/payments");
+        assertThat(tracker.drainAlertChanges(filter(gate))).isEmpty();
+
+        now[0] = TimeUnit.MINUTES.toNanos(1);
+        tracker.recordFailure("POST /api/payments");
+        assertThat(tracker.drainAlertChanges(filter(gate))).extracting(SloTracker.SloAlert::severity)
+                .containsExactly(SloTracker.AlertSeverity.CRITICAL);
+        assertThat(tracker.hasAlertChanges()).isFalse();
+    }
+
+    @Test
+    void summaryReportsSuppressionsSinceThePreviousDrain() {
+        EventGate gate = gate()
+                .policy(ANOMALY, EventGate.Policy.rateLimited(1, 1, TimeUnit.MINUTES))
+                .summaryInterval(30, TimeUnit.SECONDS)
+                .build();
+        for (int i = 0; i < 5; i++) {
+            gate.tryAcquire(ANOMALY, "GET /a", "z_score");
+        }
+
+        assertThat(gate.summaryDue()).isFalse();
+        now[0] = TimeUnit.SECONDS.toNanos(30);
+        assertThat(gate.summaryDue()).isTrue();
+        assertThat(gate.summaryDue()).isFalse();
+        assertThat(gate.drainSuppressed())
+                .containsExactly(new EventGate.Suppressed(ANOMALY, "GET /a", "z_score", 4));
+
+        assertThat(gate.drainSuppressed()).isEmpty();
+        gate.tryAcquire(ANOMALY, "GET /a", "z_score");
+        assertThat(gate.drainSuppressed())
+                .containsExactly(new EventGate.Suppressed(ANOMALY, "GET /a", "z_score", 1));
+    }
+
+    @Test
+    void subjectsBeyondCapacityShareTheOverflowKey() {
+        EventGate gate = gate()
+                .policy(ANOMALY, EventGate.Policy.rateLimited(1, 1, TimeUnit.MINUTES))
+                .maxSubjects(2)
+                .build();
+
+        assertThat(gate.tryAcquire(ANOMALY, "GET /a", "z_score")).isTrue();
+        assertThat(gate.tryAcquire(ANOMALY, "GET /b", "z_score")).isTrue();
+        assertThat(gate.tryAcquire(ANOMALY, "GET /c", "z_score")).isTrue();
+        assertThat(gate.tryAcquire(ANOMALY, "GET /d", "z_score")).isFalse();
+
+        assertThat(gate.drainSuppressed()).containsExactly(
+                new EventGate.Suppressed(ANOMALY, OperationRegistry.OVERFLOW_OPERATION, "z_score", 1));
+    }
+
+    @Test
+    void concurrentCallersShareOneBurst() throws InterruptedException {
+        EventGate gate = gate().policy(ANOMALY, EventGate.Policy.rateLimited(10, 1, TimeUnit.HOURS)).build();
+        int threads = 8;
+        int perThread = 1000;
+        AtomicInteger allowed = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    if (gate.tryAcquire(ANOMALY, "GET /a", "z_score")) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(allowed.get()).isEqualTo(10);
+        assertThat(gate.suppressedCount()).isEqualTo(threads * perThread - 10);
+    }
+
+    private static SloTracker paymentsTracker() {
+        SloTracker tracker = new SloTracker();
+        tracker.register(SloDefinition.builder("payment-availability")
+                .operationName("POST /api/payments")
+                .target(0.999)
+                .build());
+        return tracker;
+    }
+
+    /** Two failures after enough traffic for them to count as a fast burn. */
+    private static void breach(SloTracker tracker) {
+        for (int i = 0; i < 100; i++) {
+            tracker.recordSuccess("POST /api/payments");
+        }
+        tracker.recordFailure("POST /api/payments");
+        tracker.recordFailure("POST /api/payments");
+    }
+
+    private static SloTracker.AlertFilter filter(EventGate gate) {
+        return new SloTracker.AlertFilter() {
+            @Override
+            public boolean admit(String sloName, SloTracker.AlertSeverity severity) {
+                return gate.tryAcquire(SLO_ALERT, sloName, severity.name());
+            }
+
+            @Override
+            public void recovered(String sloName) {
+                gate.clearState(SLO_ALERT, sloName);
+            }
+        };
+    }
+}
@@ -0,0 +1,183 @@
+package io.agenttel.core.export;
+
+import io.agenttel.api.DependencyState;
+import io.agenttel.api.attributes.AgentTelAttributes;
+import io.agenttel.core.anomaly.AnomalyDetector;
+import io.agenttel.core.anomaly.AnomalyStrategy;
+import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.baseline.RollingWindow;
+import io.agenttel.core.baseline.SeasonalBaselineProvider;
+import io.agenttel.core.causality.CausalityTracker;
+import io.agenttel.core.error.ErrorClassifier;
+import io.agenttel.core.slo.SloDefinition;
+import io.agenttel.core.slo.SloTracker;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AgentTelEnrichingSpanExporterTest {
+
+    private static final int OPERATIONS = 12;
+
+    private final RollingBaselineProvider rollingBaselines = new RollingBaselineProvider();
+    private final SloTracker sloTracker = new SloTracker();
+    private final CausalityTracker causalityTracker = new CausalityTracker();
+    private List<SpanData> batch;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            sloTracker.register(SloDefinition.builder("GET /items/" + i + "-availability")
+                    .operationName("GET /items/" + i)
+                    .type(SloDefinition.SloType.AVAILABILITY)
+                    .target(0.999)
+                    .build());
+        }
+        causalityTracker.reportDependencyState("postgresql", DependencyState.UNHEALTHY, "down");
+
+        InMemorySpanExporter finished = InMemorySpanExporter.create();
+        try (SdkTracerProvider provider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(finished))
+                .build()) {
+            Tracer tracer = provider.get("test");
+            long start = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+            for (int i = 0; i < 400; i++) {
+                String name = "GET /items/" + (i % OPERATIONS);
+                long latencyNanos = TimeUnit.MILLISECONDS.toNanos(20 + i % 7);
+                var span = tracer.spanBuilder(name).setStartTimestamp(start, TimeUnit.NANOSECONDS).startSpan();
+                if (i % 10 == 0) {
+                    span.setStatus(StatusCode.ERROR);
+                }
+                span.end(start + latencyNanos, TimeUnit.NANOSECONDS);
+                rollingBaselines.recordLatency(name, latencyNanos / 1e6);
+            }
+            // Read before closing: shutting the provider down resets the exporter
+            batch = finished.getFinishedSpanItems();
+        }
+    }
+
+    @Test
+    void enrichesEverySpanOfAGroupFromTheSameOperationState() {
+        InMemorySpanExporter delegate = InMemorySpanExporter.create();
+        exporter(delegate).export(batch);
+
+        List<SpanData> exported = delegate.getFinishedSpanItems();
+        assertThat(exported).extracting(SpanData::getName)
+                .containsExactlyElementsOf(batch.stream().map(SpanData::getName).toList());
+        SpanData first = exported.get(0);
+        assertThat(first.getAttributes().get(AgentTelAttributes.SLO_BUDGET_REMAINING)).isNotNull();
+        assertThat(first.getAttributes().get(AgentTelAttributes.BASELINE_SAMPLE_COUNT)).isNotNull();
+        // Errors and successes of one operation share its causal analysis
+        assertThat(exported.get(0).getAttributes().get(AgentTelAttributes.CAUSE_DEPENDENCY)).isEqualTo("postgresql");
+        assertThat(exported.get(OPERATIONS).getAttributes().get(AgentTelAttributes.CAUSE_DEPENDENCY)).isEqualTo("postgresql");
+    }
+
+    @Test
+    void parallelEnrichmentMatchesSequentialAndKeepsOrder() {
+        InMemorySpanExporter sequential = InMemorySpanExporter.create();
+        InMemorySpanExporter parallel = InMemorySpanExporter.create();
+        AgentTelEnrichingSpanExporter parallelExporter = exporter(parallel);
+        parallelExporter.enableParallelEnrichment(3, 64);
+
+        exporter(sequential).export(batch);
+        parallelExporter.export(batch);
+        List<SpanData> expected = sequential.getFinishedSpanItems();
+        List<SpanData> actual = parallel.getFinishedSpanItems();
+        parallelExporter.shutdown();
+
+        assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i).getSpanContext()).isEqualTo(expected.get(i).getSpanContext());
+            assertThat(actual.get(i).getAttributes()).isEqualTo(expected.get(i).getAttributes());
+        }
+    }
+
+    @Test
+    void anomalyAttributesComeFromTheConfiguredScorer() {
+        InMemorySpanExporter zScores = InMemorySpanExporter.create();
+        InMemorySpanExporter cusum = InMemorySpanExporter.create();
+        exporter(zScores).export(batch);
+        new AgentTelEnrichingSpanExporter(cusum, rollingBaselines, sloTracker, causalityTracker,
+                AnomalyDetector.create(3.0, AnomalyStrategy.CUSUM, Map.of(), rollingBaselines.operationRegistry()),
+                new ErrorClassifier(), null).export(batch);
+
+        SpanData zScored = zScores.getFinishedSpanItems().get(0);
+        assertThat(zScored.getAttributes().get(AgentTelAttributes.ANOMALY_LATENCY_Z_SCORE)).isNotNull();
+        // CUSUM's score is a cumulative sum, not a z-score, and the exporter never adds to it
+        SpanData summed = cusum.getFinishedSpanItems().get(0);
+        assertThat(summed.getAttributes().get(AgentTelAttributes.ANOMALY_DETECTED)).isFalse();
+        assertThat(summed.getAttributes().get(AgentTelAttributes.ANOMALY_SCORE)).isZero();
+        assertThat(summed.getAttributes().get(AgentTelAttributes.ANOMALY_LATENCY_Z_SCORE)).isNull();
+    }
+
+    @Test
+    void scoresAgainstTheSeasonalExpectationLikeTheProcessor() {
+        long hourMs = TimeUnit.HOURS.toMillis(1);
+        long[] now = {(4 * 24 + 9) * hourMs};
+        RollingBaselineProvider rolling = RollingBaselineProvider.builder()
+                .windowSize(100)
+                .maxStaleness(0, 0)
+                .build();
+        SeasonalBaselineProvider seasonal = SeasonalBaselineProvider.builder(rolling)
+                .clock(() -> now[0])
+                .build();
+        // Last week this hour ran at 100 +/- 10 ms, the window now sees 200 +/- 10 ms
+        recordAround(rolling, seasonal, 100.0);
+        now[0] += TimeUnit.DAYS.toMillis(7);
+        recordAround(rolling, seasonal, 200.0);
+
+        List<SpanData> spans;
+        InMemorySpanExporter finished = InMemorySpanExporter.create();
+        try (SdkTracerProvider provider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(finished))
+                .build()) {
+            long start = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+            provider.get("test").spanBuilder("op").setStartTimestamp(start, TimeUnit.NANOSECONDS).startSpan()
+                    .end(start + TimeUnit.MILLISECONDS.toNanos(160), TimeUnit.NANOSECONDS);
+            spans = finished.getFinishedSpanItems();
+        }
+
+        AnomalyDetector detector = new AnomalyDetector(3.0);
+        InMemorySpanExporter delegate = InMemorySpanExporter.create();
+        AgentTelEnrichingSpanExporter exporter = new AgentTelEnrichingSpanExporter(delegate, rolling,
+                null, null, detector, new ErrorClassifier(), null);
+        exporter.setSeasonalBaselines(seasonal);
+        exporter.export(spans);
+
+        // The score the span processor computes for the same span
+        RollingWindow.MeanStddev expected = seasonal.meanStddev(rolling.operationRegistry().find("op"));
+        double processorScore = detector.score(rolling.operationRegistry().find("op"), "op", 160.0,
+                expected.mean(), expected.stddev(), rolling);
+        Double exported = delegate.getFinishedSpanItems().get(0).getAttributes()
+                .get(AgentTelAttributes.ANOMALY_LATENCY_Z_SCORE);
+        assertThat(processorScore).isCloseTo(3.0, within(1e-9));
+        assertThat(exported).isCloseTo(processorScore, within(1e-9));
+    }
+
+    /** Records 100 samples 10 ms either side of {@code center}, as the span processor does. */
+    private static void recordAround(RollingBaselineProvider rolling, SeasonalBaselineProvider seasonal,
+                                     double center) {
+        for (int i = 0; i < 100; i++) {
+            double latency = center + (i % 2 == 0 ? -10 : 10);
+            rolling.recordLatency("op", latency);
+            seasonal.recordLatency("op", latency);
+        }
+    }
+
+    private AgentTelEnrichingSpanExporter exporter(InMemorySpanExporter delegate) {
+        return new AgentTelEnrichingSpanExporter(delegate, rollingBaselines, sloTracker, causalityTracker,
+                new AnomalyDetector(3.0), new ErrorClassifier(), null);
+    }
+}
@@ -0,0 +1,84 @@
+package io.agenttel.core.export;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EnrichedSpanDataTest {
+
+    private static final AttributeKey<String> ROUTE = AttributeKey.stringKey("http.route");
+    private static final AttributeKey<Long> STATUS = AttributeKey.longKey("http.response.status_code");
+    private static final AttributeKey<Double> SCORE = AttributeKey.doubleKey("agenttel.anomaly.score");
+    private static final AttributeKey<Boolean> ANOMALY = AttributeKey.booleanKey("agenttel.anomaly.detected");
+    private static final AttributeKey<Double> COST = AttributeKey.doubleKey("agenttel.genai.cost_usd");
+
+    private SpanData span;
+
+    @BeforeEach
+    void setUp() {
+        InMemorySpanExporter finished = InMemorySpanExporter.create();
+        try (SdkTracerProvider provider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(finished))
+                .build()) {
+            provider.get("test").spanBuilder("GET /orders")
+                    .setAttribute(ROUTE, "/orders")
+                    .setAttribute(STATUS, 200L)
+                    .startSpan()
+                    .end();
+            // Read before closing: shutting the provider down resets the exporter
+            span = finished.getFinishedSpanItems().get(0);
+        }
+    }
+
+    @Test
+    void laysExtraAttributesOverTheOriginals() {
+        Map<AttributeKey<?>, Object> extra = new LinkedHashMap<>();
+        extra.put(SCORE, 4.2);
+        extra.put(STATUS, 503L);
+        SpanData enriched = EnrichedSpanData.withAttributes(span, extra);
+
+        Attributes attributes = enriched.getAttributes();
+        assertThat(attributes.get(ROUTE)).isEqualTo("/orders");
+        assertThat(attributes.get(STATUS)).isEqualTo(503L);
+        assertThat(attributes.get(SCORE)).isEqualTo(4.2);
+        assertThat(attributes.size()).isEqualTo(3);
+        assertThat(enriched.getTotalAttributeCount()).isEqualTo(3);
+
+        Map<AttributeKey<?>, Object> visited = new LinkedHashMap<>();
+        attributes.forEach(visited::put);
+        assertThat(visited).containsOnly(Map.entry(ROUTE, "/orders"), Map.entry(STATUS, 503L), Map.entry(SCORE, 4.2));
+        assertThat(attributes).isEqualTo(span.getAttributes().toBuilder().put(STATUS, 503L).put(SCORE, 4.2).build());
+        assertThat(attributes.toBuilder().build().asMap()).isEqualTo(attributes.asMap());
+    }
+
+    @Test
+    void stackedEnrichmentsMergeIntoOneLayer() {
+        SpanData once = EnrichedSpanData.withAttributes(span, Map.of(SCORE, 1.0, ANOMALY, false));
+        SpanData twice = EnrichedSpanData.withAttribute(once, SCORE, 4.2);
+        SpanData thrice = EnrichedSpanData.withAttribute(twice, COST, 0.01);
+
+        assertThat(thrice).isInstanceOf(EnrichedSpanData.class);
+        assertThat(thrice.getAttributes().asMap()).containsOnly(
+                Map.entry(ROUTE, "/orders"), Map.entry(STATUS, 200L),
+                Map.entry(SCORE, 4.2), Map.entry(ANOMALY, false), Map.entry(COST, 0.01));
+        assertThat(thrice.getTotalAttributeCount()).isEqualTo(5);
+        assertThat(thrice.getSpanContext()).isEqualTo(span.getSpanContext());
+        // The first enrichment is unchanged
+        assertThat(once.getAttributes().get(SCORE)).isEqualTo(1.0);
+    }
+
+    @Test
+    void unsupportedValuesLeaveTheSpanAsItIs() {
+        assertThat(EnrichedSpanData.withAttributes(span, Map.of(STATUS, 503))).isSameAs(span);
+    }
+}
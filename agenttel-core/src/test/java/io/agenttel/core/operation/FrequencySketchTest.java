@@ -0,0 +1,48 @@
+package io.agenttel.core.operation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrequencySketchTest {
+
+    @Test
+    void estimatesNeverUnderCount() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int i = 0; i < 1000; i++) {
+            for (int n = 0; n <= i % 10; n++) {
+                sketch.increment("key-" + i);
+            }
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sketch.frequency("key-" + i)).isGreaterThanOrEqualTo(i % 10 + 1);
+        }
+    }
+
+    @Test
+    void unseenKeysAreMostlyZero() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("seen-" + i);
+        }
+
+        int nonZero = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (sketch.frequency("unseen-" + i) > 0) nonZero++;
+        }
+        assertThat(nonZero).isLessThan(10);
+    }
+
+    @Test
+    void saturatesAndAges() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 500; i++) {
+            sketch.increment("hot");
+        }
+        assertThat(sketch.frequency("hot")).isEqualTo(FrequencySketch.MAX_FREQUENCY);
+
+        sketch.age();
+        assertThat(sketch.frequency("hot")).isEqualTo(FrequencySketch.MAX_FREQUENCY / 2);
+    }
+}
@@ -0,0 +1,203 @@
+package io.agenttel.core.operation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OperationRegistryTest {
+
+    @Test
+    void internAssignsDenseIdsStartingAtOne() {
+        OperationRegistry registry = new OperationRegistry();
+
+        assertThat(registry.intern("GET /users")).isEqualTo(1);
+        assertThat(registry.intern("POST /orders")).isEqualTo(2);
+        assertThat(registry.intern("GET /users")).isEqualTo(1);
+        assertThat(registry.size()).isEqualTo(2);
+    }
+
+    @Test
+    void nameOfReturnsInternedName() {
+        OperationRegistry registry = new OperationRegistry();
+        int id = registry.intern("GET /users");
+
+        assertThat(registry.nameOf(id)).isEqualTo("GET /users");
+        assertThat(registry.nameOf(OperationRegistry.OVERFLOW_ID))
+                .isEqualTo(OperationRegistry.OVERFLOW_OPERATION);
+        assertThat(registry.nameOf(999)).isNull();
+    }
+
+    @Test
+    void findDoesNotAssignIds() {
+        OperationRegistry registry = new OperationRegistry();
+
+        assertThat(registry.find("GET /users")).isEqualTo(OperationRegistry.NOT_FOUND);
+        assertThat(registry.size()).isZero();
+
+        int id = registry.intern("GET /users");
+        assertThat(registry.find("GET /users")).isEqualTo(id);
+    }
+
+    @Test
+    void namesBeyondCapacityShareOverflowId() {
+        OperationRegistry registry = new OperationRegistry(2);
+        registry.intern("a");
+        registry.intern("b");
+
+        assertThat(registry.intern("c")).isEqualTo(OperationRegistry.OVERFLOW_ID);
+        assertThat(registry.intern("d")).isEqualTo(OperationRegistry.OVERFLOW_ID);
+        assertThat(registry.find("c")).isEqualTo(OperationRegistry.NOT_FOUND);
+        assertThat(registry.rejectedCount()).isEqualTo(2);
+        // Names interned before the registry filled keep their ids
+        assertThat(registry.intern("a")).isEqualTo(1);
+    }
+
+    @Test
+    void growsNameTablePastInitialSize() {
+        OperationRegistry registry = new OperationRegistry(500);
+        for (int i = 0; i < 500; i++) {
+            assertThat(registry.intern("op-" + i)).isEqualTo(i + 1);
+        }
+        assertThat(registry.nameOf(500)).isEqualTo("op-499");
+    }
+
+    @Test
+    void concurrentInternAssignsOneIdPerName() throws InterruptedException {
+        OperationRegistry registry = new OperationRegistry();
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    ids.add(registry.intern("op-" + i));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(registry.size()).isEqualTo(1000);
+        assertThat(ids).hasSize(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(registry.nameOf(registry.find("op-" + i))).isEqualTo("op-" + i);
+        }
+    }
+
+    @Test
+    void frequentNameEvictsColdOperation() {
+        OperationRegistry registry = new OperationRegistry(2);
+        int hot = registry.intern("hot");
+        int cold = registry.intern("cold");
+        for (int i = 0; i < 10; i++) {
+            registry.intern("hot");
+        }
+        List<String> evicted = new ArrayList<>();
+        registry.addEvictionListener((id, name) -> evicted.add(id + ":" + name));
+
+        // First sighting is rejected, the second outranks the never-revisited operation
+        assertThat(registry.intern("new")).isEqualTo(OperationRegistry.OVERFLOW_ID);
+        assertThat(registry.intern("new")).isEqualTo(cold);
+
+        assertThat(evicted).containsExactly(cold + ":cold");
+        assertThat(registry.find("cold")).isEqualTo(OperationRegistry.NOT_FOUND);
+        assertThat(registry.nameOf(cold)).isEqualTo("new");
+        assertThat(registry.intern("hot")).isEqualTo(hot);
+        assertThat(registry.evictionCount()).isEqualTo(1);
+        assertThat(registry.rejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void hotOperationsResistOneOffNames() {
+        OperationRegistry registry = new OperationRegistry(2);
+        for (int i = 0; i < 20; i++) {
+            registry.intern("a");
+            registry.intern("b");
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(registry.intern("user-" + i)).isEqualTo(OperationRegistry.OVERFLOW_ID);
+        }
+        assertThat(registry.evictionCount()).isZero();
+        assertThat(registry.rejectedCount()).isEqualTo(100);
+    }
+
+    @Test
+    void agingLetsNewTrafficReplaceOperationsThatWentQuiet() {
+        long[] now = {0};
+        OperationRegistry registry = OperationRegistry.builder()
+                .maxOperations(2)
+                .agingPeriod(1, TimeUnit.MINUTES)
+                .nanoClock(() -> now[0])
+                .build();
+        for (int i = 0; i < 50; i++) {
+            registry.intern("a");
+            registry.intern("b");
+        }
+        for (int i = 0; i < 5; i++) {
+            registry.intern("c");
+        }
+        assertThat(registry.find("c")).isEqualTo(OperationRegistry.NOT_FOUND);
+
+        // a and b receive no traffic for ten aging periods
+        now[0] += TimeUnit.MINUTES.toNanos(10);
+        int id = OperationRegistry.OVERFLOW_ID;
+        for (int i = 0; i < 5 && id == OperationRegistry.OVERFLOW_ID; i++) {
+            id = registry.intern("c");
+        }
+
+        assertThat(id).isNotEqualTo(OperationRegistry.OVERFLOW_ID);
+        assertThat(registry.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictionCanBeDisabled() {
+        OperationRegistry registry = OperationRegistry.builder()
+                .maxOperations(1)
+                .evictColdOperations(false)
+                .build();
+        registry.intern("a");
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(registry.intern("b")).isEqualTo(OperationRegistry.OVERFLOW_ID);
+        }
+        assertThat(registry.evictionCount()).isZero();
+        assertThat(registry.rejectedCount()).isEqualTo(10);
+    }
+
+    @Test
+    void evictionClearsSlots() {
+        OperationRegistry registry = new OperationRegistry(1);
+        OperationSlots<String> slots = new OperationSlots<>(registry);
+        int id = registry.intern("old");
+        slots.computeIfAbsent(id, k -> "state-of-old");
+
+        registry.intern("new");
+        assertThat(registry.intern("new")).isEqualTo(id);
+
+        assertThat(slots.get(id)).isNull();
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThatThrownBy(() -> new OperationRegistry(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
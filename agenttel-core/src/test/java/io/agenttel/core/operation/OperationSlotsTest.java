@@ -0,0 +1,53 @@
+package io.agenttel.core.operation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OperationSlotsTest {
+
+    @Test
+    void getReturnsNullForEmptySlot() {
+        OperationSlots<String> slots = new OperationSlots<>(new OperationRegistry());
+        assertThat(slots.get(5)).isNull();
+    }
+
+    @Test
+    void computeIfAbsentCreatesOnce() {
+        OperationSlots<StringBuilder> slots = new OperationSlots<>(new OperationRegistry());
+
+        StringBuilder first = slots.computeIfAbsent(3, id -> new StringBuilder("slot-" + id));
+        StringBuilder second = slots.computeIfAbsent(3, id -> new StringBuilder("other"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.toString()).isEqualTo("slot-3");
+    }
+
+    @Test
+    void coversEveryIdTheRegistryCanAssign() {
+        OperationRegistry registry = new OperationRegistry(1000);
+        OperationSlots<Integer> slots = new OperationSlots<>(registry);
+
+        slots.computeIfAbsent(OperationRegistry.OVERFLOW_ID, id -> id);
+        slots.computeIfAbsent(1000, id -> id);
+
+        assertThat(slots.get(1000)).isEqualTo(1000);
+        assertThat(slots.get(OperationRegistry.OVERFLOW_ID)).isZero();
+    }
+
+    @Test
+    void forEachVisitsPopulatedSlotsInIdOrder() {
+        OperationSlots<String> slots = new OperationSlots<>(new OperationRegistry());
+        slots.computeIfAbsent(700, id -> "c");
+        slots.computeIfAbsent(1, id -> "a");
+        slots.computeIfAbsent(2, id -> "b");
+
+        Map<Integer, String> visited = new LinkedHashMap<>();
+        slots.forEach((value, id) -> visited.put(id, value));
+
+        assertThat(visited).containsExactly(Map.entry(1, "a"), Map.entry(2, "b"), Map.entry(700, "c"));
+    }
+}
@@ -3,7 +3,9 @@ package io.agenttel.core.slo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
@@ -74,9 +76,8 @@ class SloTrackerTest {
 
     @Test
     void alertsTriggeredAtThresholds() {
-        // 99.9% SLO, error budget = 0.1%
-        // To trigger warning (<=25% remaining), need to consume >75% of budget
-        for (int i = 0; i < 998; i++) {
+        // 99.9% SLO, error budget = 0.1%: 2 failures in 2,500 requests spend 80% of it
+        for (int i = 0; i < 2498; i++) {
             tracker.recordSuccess("POST /api/payments");
         }
         tracker.recordFailure("POST /api/payments");
@@ -123,4 +124,295 @@ class SloTrackerTest {
         assertThat(paymentStatus.actual()).isEqualTo(1.0);
         assertThat(userStatus.actual()).isEqualTo(0.0);
     }
+
+    @Test
+    void singleEarlyFailureRaisesNoAlert() {
+        tracker.recordFailure("POST /api/payments");
+        // One failure in one request burns at 1000x, but one request is not enough to tell
+        assertThat(tracker.getBurnRates("payment-availability").fiveMinutes()).isGreaterThan(SloTracker.FAST_BURN_RATE);
+        assertThat(tracker.hasAlertChanges()).isFalse();
+        assertThat(tracker.checkAlerts()).isEmpty();
+
+        // Nor does one failure once the windows hold the minimum for a fast burn
+        SloTracker quiet = new SloTracker();
+        quiet.register(SloDefinition.builder("payment-availability")
+                .operationName("POST /api/payments")
+                .target(0.999)
+                .build());
+        for (int i = 0; i < SloTracker.minRequests(0.001, SloTracker.FAST_BURN_RATE) - 1; i++) {
+            quiet.recordSuccess("POST /api/payments");
+        }
+        quiet.recordFailure("POST /api/payments");
+        assertThat(quiet.drainAlertChanges()).isEmpty();
+    }
+
+    @Test
+    void alertChangesAreReportedOncePerSeverity() {
+        for (int i = 0; i < 2498; i++) {
+            tracker.recordSuccess("POST /api/payments");
+        }
+        assertThat(tracker.hasAlertChanges()).isFalse();
+
+        tracker.recordFailure("POST /api/payments");
+        tracker.recordFailure("POST /api/payments");
+        assertThat(tracker.hasAlertChanges()).isTrue();
+        List<SloTracker.SloAlert> alerts = tracker.drainAlertChanges();
+        assertThat(alerts).hasSize(1);
+        // 0.08% errors spend most of the budget, but burn neither fast nor slow
+        assertThat(alerts.get(0).severity()).isEqualTo(SloTracker.AlertSeverity.INFO);
+
+        // Still the same severity: nothing new to report
+        tracker.recordFailure("POST /api/payments");
+        assertThat(tracker.hasAlertChanges()).isFalse();
+        assertThat(tracker.drainAlertChanges()).isEmpty();
+    }
+
+    @Test
+    void recoveringAndBreachingAgainReportsAgain() {
+        breach();
+        assertThat(tracker.drainAlertChanges()).hasSize(1);
+
+        for (int i = 0; i < 10_000; i++) {
+            tracker.recordSuccess("POST /api/payments");
+        }
+        assertThat(tracker.drainAlertChanges()).isEmpty();
+
+        for (int i = 0; i < 200; i++) {
+            tracker.recordFailure("POST /api/payments");
+        }
+        assertThat(tracker.drainAlertChanges())
+                .extracting(SloTracker.SloAlert::severity)
+                .containsExactly(SloTracker.AlertSeverity.CRITICAL);
+    }
+
+    @Test
+    void rejectedAlertIsOfferedAgainOnTheNextRequest() {
+        breach();
+        assertThat(tracker.drainAlertChanges((slo, severity) -> false)).isEmpty();
+        assertThat(tracker.hasAlertChanges()).isFalse();
+
+        tracker.recordFailure("POST /api/payments");
+        assertThat(tracker.hasAlertChanges()).isTrue();
+        assertThat(tracker.drainAlertChanges())
+                .extracting(SloTracker.SloAlert::severity)
+                .containsExactly(SloTracker.AlertSeverity.CRITICAL);
+    }
+
+    @Test
+    void recoveryIsReportedToTheFilter() {
+        List<String> recovered = new ArrayList<>();
+        SloTracker.AlertFilter filter = new SloTracker.AlertFilter() {
+            @Override
+            public boolean admit(String sloName, SloTracker.AlertSeverity severity) {
+                return true;
+            }
+
+            @Override
+            public void recovered(String sloName) {
+                recovered.add(sloName);
+            }
+        };
+        breach();
+        assertThat(tracker.drainAlertChanges(filter)).hasSize(1);
+
+        for (int i = 0; i < 10_000; i++) {
+            tracker.recordSuccess("POST /api/payments");
+        }
+        assertThat(tracker.drainAlertChanges(filter)).isEmpty();
+        assertThat(recovered).containsExactly("payment-availability");
+    }
+
+    @Test
+    void reRegisteringReplacesTheDefinition() {
+        tracker.recordFailure("POST /api/payments");
+        tracker.register(SloDefinition.builder("payment-availability")
+                .operationName("POST /api/checkout")
+                .target(0.99)
+                .build());
+
+        tracker.recordSuccess("POST /api/payments");
+        tracker.recordSuccess("POST /api/checkout");
+
+        SloTracker.SloStatus status = tracker.getStatus("payment-availability");
+        assertThat(status.target()).isEqualTo(0.99);
+        assertThat(status.totalRequests()).isEqualTo(1);
+        assertThat(status.failedRequests()).isZero();
+        assertThat(tracker.drainAlertChanges()).isEmpty();
+    }
+
+    @Test
+    void operationsBindToTheirOwnSloByOperationName() {
+        tracker.register(SloDefinition.builder("payments-latency-p99")
+                .operationName("POST /api/payments/refund")
+                .type(SloDefinition.SloType.LATENCY_P99)
+                .thresholdMs(300)
+                .build());
+        tracker.register(SloDefinition.builder("payment-latency-p99")
+                .operationName("POST /api/payments")
+                .type(SloDefinition.SloType.LATENCY_P99)
+                .thresholdMs(300)
+                .build());
+
+        // Availability takes precedence over latency; a name that only shares a prefix does not match
+        assertThat(tracker.getStatusForOperation("POST /api/payments").sloName()).isEqualTo("payment-availability");
+        assertThat(tracker.getStatusForOperation("POST /api/payments/refund").sloName()).isEqualTo("payments-latency-p99");
+        assertThat(tracker.getStatusForOperation("POST /api")).isNull();
+        assertThat(tracker.getStatusForOperation(null)).isNull();
+
+        // Moving the availability SLO elsewhere rebinds both operations
+        tracker.register(SloDefinition.builder("payment-availability")
+                .operationName("POST /api/checkout")
+                .target(0.99)
+                .build());
+        assertThat(tracker.getStatusForOperation("POST /api/payments").sloName()).isEqualTo("payment-latency-p99");
+        assertThat(tracker.getStatusForOperation("POST /api/checkout").sloName()).isEqualTo("payment-availability");
+    }
+
+    @Test
+    void fastBurnAlertsEvenWhenLifetimeBudgetIsHealthy() {
+        long[] now = {0};
+        SloTracker clocked = new SloTracker(() -> now[0]);
+        clocked.register(SloDefinition.builder("payment-availability")
+                .operationName("POST /api/payments")
+                .target(0.999)
+                .build());
+        for (int i = 0; i < 1_000_000; i++) {
+            clocked.recordSuccess("POST /api/payments");
+        }
+
+        // Hours later, 5% of requests fail: 50x the sustainable rate
+        now[0] += TimeUnit.HOURS.toMillis(7);
+        for (int i = 0; i < 950; i++) {
+            clocked.recordSuccess("POST /api/payments");
+        }
+        for (int i = 0; i < 50; i++) {
+            clocked.recordFailure("POST /api/payments");
+        }
+
+        SloTracker.BurnRates burnRates = clocked.getBurnRates("payment-availability");
+        assertThat(burnRates.fiveMinutes()).isCloseTo(50.0, within(0.01));
+        assertThat(burnRates.sixHours()).isCloseTo(50.0, within(0.01));
+        assertThat(clocked.getStatus("payment-availability").budgetRemaining()).isGreaterThan(0.9);
+        assertThat(clocked.drainAlertChanges())
+                .extracting(SloTracker.SloAlert::severity)
+                .containsExactly(SloTracker.AlertSeverity.CRITICAL);
+    }
+
+    @Test
+    void burnAlertsClearOnceTheShortWindowRecovers() {
+        long[] now = {0};
+        SloTracker clocked = new SloTracker(() -> now[0]);
+        clocked.register(SloDefinition.builder("payment-availability")
+                .operationName("POST /api/payments")
+                .target(0.999)
+                .build());
+        for (int i = 0; i < 100; i++) {
+            clocked.recordFailure("POST /api/payments");
+        }
+        assertThat(clocked.drainAlertChanges())
+                .extracting(SloTracker.SloAlert::severity)
+                .containsExactly(SloTracker.AlertSeverity.CRITICAL);
+
+        // Forty healthy minutes: 1h and 6h still burn fast, 5m and 30m do not
+        for (int minute = 0; minute < 40; minute++) {
+            now[0] += TimeUnit.MINUTES.toMillis(1);
+            for (int i = 0; i < 100; i++) {
+                clocked.recordSuccess("POST /api/payments");
+            }
+        }
+        SloTracker.BurnRates burnRates = clocked.getBurnRates("payment-availability");
+        assertThat(burnRates.oneHour()).isGreaterThan(SloTracker.FAST_BURN_RATE);
+        assertThat(burnRates.fiveMinutes()).isZero();
+        assertThat(burnRates.thirtyMinutes()).isZero();
+
+        // The budget over the 30-day window is still spent
+        assertThat(clocked.drainAlertChanges())
+                .extracting(SloTracker.SloAlert::severity)
+                .containsExactly(SloTracker.AlertSeverity.INFO);
+    }
+
+    @Test
+    void latencySlosShareOneRecordingPerRequest() {
+        tracker.register(SloDefinition.builder("payment-latency-p99")
+                .operationName("POST /api/payments")
+                .type(SloDefinition.SloType.LATENCY_P99)
+                .thresholdMs(300)
+                .build());
+        tracker.register(SloDefinition.builder("payment-latency-p50")
+                .operationName("POST /api/payments")
+                .type(SloDefinition.SloType.LATENCY_P50)
+                .thresholdMs(100)
+                .build());
+
+        // 60 fast, 39 medium, 1 slow
+        for (int i = 0; i < 60; i++) {
+            tracker.recordLatency("POST /api/payments", 50);
+        }
+        for (int i = 0; i < 39; i++) {
+            tracker.recordLatency("POST /api/payments", 200);
+        }
+        tracker.recordLatency("POST /api/payments", 300); // exactly at the threshold is within it
+
+        SloTracker.SloStatus p99 = tracker.getStatus("payment-latency-p99");
+        assertThat(p99.target()).isEqualTo(0.99);
+        assertThat(p99.totalRequests()).isEqualTo(100);
+        assertThat(p99.failedRequests()).isZero();
+
+        SloTracker.SloStatus p50 = tracker.getStatus("payment-latency-p50");
+        assertThat(p50.target()).isEqualTo(0.50);
+        assertThat(p50.totalRequests()).isEqualTo(100);
+        assertThat(p50.failedRequests()).isEqualTo(40);
+        assertThat(p50.actual()).isCloseTo(0.60, within(1e-9));
+        assertThat(p50.budgetRemaining()).isCloseTo(0.20, within(1e-9));
+
+        // Latencies never reach the availability SLO
+        assertThat(tracker.getStatus("payment-availability").totalRequests()).isZero();
+    }
+
+    @Test
+    void recordRequestFeedsAvailabilityAndLatencySlos() {
+        tracker.register(SloDefinition.builder("payment-latency-p99")
+                .operationName("POST /api/payments")
+                .type(SloDefinition.SloType.LATENCY_P99)
+                .thresholdMs(300)
+                .targetPercentile(0.9)
+                .build());
+
+        tracker.recordRequest("POST /api/payments", 500, false);
+        tracker.recordRequest("POST /api/payments", 20, false);
+        tracker.recordRequest("POST /api/payments", 20, true);
+
+        SloTracker.SloStatus availability = tracker.getStatus("payment-availability");
+        assertThat(availability.totalRequests()).isEqualTo(3);
+        assertThat(availability.failedRequests()).isEqualTo(1);
+
+        // Failed requests count against availability only
+        SloTracker.SloStatus latency = tracker.getStatus("payment-latency-p99");
+        assertThat(latency.target()).isEqualTo(0.9);
+        assertThat(latency.totalRequests()).isEqualTo(2);
+        assertThat(latency.failedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void latencySloWithoutThresholdCountsFailures() {
+        SloDefinition slo = SloDefinition.builder("legacy-latency")
+                .operationName("GET /api/users")
+                .type(SloDefinition.SloType.LATENCY_P99)
+                .build();
+        assertThat(slo.isLatencySlo()).isFalse();
+        assertThat(slo.targetPercentile()).isEqualTo(0.99);
+
+        tracker.register(slo);
+        tracker.recordFailure("GET /api/users");
+        assertThat(tracker.getStatus("legacy-latency").failedRequests()).isEqualTo(1);
+    }
+
+    /** Two failures after enough traffic for them to count as a fast burn. */
+    private void breach() {
+        for (int i = 0; i < 100; i++) {
+            tracker.recordSuccess("POST /api/payments");
+        }
+        tracker.recordFailure("POST /api/payments");
+        tracker.recordFailure("POST /api/payments");
+    }
 }
@@ -0,0 +1,56 @@
+package io.agenttel.core.slo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WindowedCounterTest {
+
+    private final long[] now = {0};
+    private final WindowedCounter counter = new WindowedCounter(1000, new int[] {1, 3, 10}, 2, () -> now[0]);
+
+    @Test
+    void countsTheCurrentBucketInEveryWindow() {
+        counter.record(0);
+        counter.record(0);
+        counter.record(1);
+
+        for (int window = 0; window < 3; window++) {
+            assertThat(counter.count(window, 0)).isEqualTo(2);
+            assertThat(counter.count(window, 1)).isEqualTo(1);
+            assertThat(counter.cumulativeCount(window, 1)).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void bucketsSlideOutOfEachWindow() {
+        for (int second = 0; second < 10; second++) {
+            now[0] = second * 1000L;
+            counter.record(1);
+        }
+
+        assertThat(counter.count(0, 1)).isEqualTo(1);
+        assertThat(counter.count(1, 1)).isEqualTo(3);
+        assertThat(counter.count(2, 1)).isEqualTo(10);
+
+        now[0] = 11_000;
+        assertThat(counter.count(0, 1)).isZero();
+        assertThat(counter.count(1, 1)).isEqualTo(1);
+        assertThat(counter.count(2, 1)).isEqualTo(8);
+    }
+
+    @Test
+    void longIdleGapEmptiesEveryWindow() {
+        counter.record(0);
+        counter.record(1);
+
+        now[0] = 3_600_000;
+        for (int window = 0; window < 3; window++) {
+            assertThat(counter.count(window, 0)).isZero();
+            assertThat(counter.count(window, 1)).isZero();
+        }
+
+        counter.record(0);
+        assertThat(counter.count(2, 0)).isEqualTo(1);
+    }
+}
@@ -1,20 +1,12 @@
 package io.agenttel.genai.springai;
 
+import io.agenttel.core.export.EnrichedSpanData;
 import io.agenttel.genai.conventions.AgentTelGenAiAttributes;
 import io.agenttel.genai.conventions.GenAiAttributes;
 import io.agenttel.genai.cost.ModelCostCalculator;
-import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
-import io.opentelemetry.api.trace.SpanContext;
-import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.sdk.common.CompletableResultCode;
-import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
-import io.opentelemetry.sdk.resources.Resource;
-import io.opentelemetry.sdk.trace.data.EventData;
-import io.opentelemetry.sdk.trace.data.LinkData;
 import io.opentelemetry.sdk.trace.data.SpanData;
-import io.opentelemetry.sdk.trace.data.StatusData;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
 
 import java.util.ArrayList;
@@ -87,40 +79,6 @@ public class CostEnrichingSpanExporter implements SpanExporter {
             return span; // unknown model, skip
         }
 
-        return new CostEnrichedSpanData(span, cost);
-    }
-
-    /**
-     * Delegating SpanData that adds cost_usd to attributes.
-     */
-    private static class CostEnrichedSpanData implements SpanData {
-        private final SpanData delegate;
-        private final Attributes enrichedAttributes;
-
-        CostEnrichedSpanData(SpanData delegate, double costUsd) {
-            this.delegate = delegate;
-            AttributesBuilder builder = delegate.getAttributes().toBuilder();
-            builder.put(AgentTelGenAiAttributes.GENAI_COST_USD, costUsd);
-            this.enrichedAttributes = builder.build();
-        }
-
-        @Override public SpanContext getSpanContext() { return delegate.getSpanContext(); }
-        @Override public SpanContext getParentSpanContext() { return delegate.getParentSpanContext(); }
-        @Override public Resource getResource() { return delegate.getResource(); }
-        @Override public InstrumentationScopeInfo getInstrumentationScopeInfo() { return delegate.getInstrumentationScopeInfo(); }
-        @SuppressWarnings("deprecation")
-        @Override public io.opentelemetry.sdk.common.InstrumentationLibraryInfo getInstrumentationLibraryInfo() { return delegate.getInstrumentationLibraryInfo(); }
-        @Override public String getName() { return delegate.getName(); }
-        @Override public SpanKind getKind() { return delegate.getKind(); }
-        @Override public long getStartEpochNanos() { return delegate.getStartEpochNanos(); }
-        @Override public Attributes getAttributes() { return enrichedAttributes; }
-        @Override public List<EventData> getEvents() { return delegate.getEvents(); }
-        @Override public List<LinkData> getLinks() { return delegate.getLinks(); }
-        @Override public StatusData getStatus() { return delegate.getStatus(); }
-        @Override public long getEndEpochNanos() { return delegate.getEndEpochNanos(); }
-        @Override public boolean hasEnded() { return delegate.hasEnded(); }
-        @Override public int getTotalRecordedEvents() { return delegate.getTotalRecordedEvents(); }
-        @Override public int getTotalRecordedLinks() { return delegate.getTotalRecordedLinks(); }
-        @Override public int getTotalAttributeCount() { return enrichedAttributes.size(); }
+        return EnrichedSpanData.withAttribute(span, AgentTelGenAiAttributes.GENAI_COST_USD, cost);
     }
 }
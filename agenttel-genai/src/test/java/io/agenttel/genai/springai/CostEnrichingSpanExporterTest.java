@@ -1,5 +1,7 @@
 package io.agenttel.genai.springai;
 
+import io.agenttel.api.attributes.AgentTelAttributes;
+import io.agenttel.core.export.EnrichedSpanData;
 import io.agenttel.genai.conventions.AgentTelGenAiAttributes;
 import io.agenttel.genai.conventions.GenAiAttributes;
 import io.opentelemetry.api.common.Attributes;
@@ -43,6 +45,23 @@ class CostEnrichingSpanExporterTest {
         assertThat(cost).isGreaterThan(0.0);
     }
 
+    @Test
+    void addsCostToAnAlreadyEnrichedSpanWithoutNesting() {
+        List<SpanData> captured = new ArrayList<>();
+        CostEnrichingSpanExporter exporter = new CostEnrichingSpanExporter(new CapturingExporter(captured));
+
+        SpanData original = createGenAiSpan("claude-sonnet-4-20250514", 1000L, 500L);
+        SpanData enriched = EnrichedSpanData.withAttribute(original, AgentTelAttributes.ANOMALY_DETECTED, true);
+        exporter.export(List.of(enriched));
+
+        SpanData exported = captured.get(0);
+        assertThat(exported).isInstanceOf(EnrichedSpanData.class);
+        assertThat(exported.getAttributes().get(AgentTelAttributes.ANOMALY_DETECTED)).isTrue();
+        assertThat(exported.getAttributes().get(AgentTelGenAiAttributes.GENAI_COST_USD)).isGreaterThan(0.0);
+        assertThat(exported.getAttributes().get(GenAiAttributes.GEN_AI_REQUEST_MODEL)).isEqualTo("claude-sonnet-4-20250514");
+        assertThat(exported.getAttributes().size()).isEqualTo(original.getAttributes().size() + 2);
+    }
+
     @Test
     void skipsSpansWithoutTokens() {
         List<SpanData> captured = new ArrayList<>();
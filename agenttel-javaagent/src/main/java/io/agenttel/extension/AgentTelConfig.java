@@ -25,6 +25,7 @@ public class AgentTelConfig {
     private BaselineConfig baselines = new BaselineConfig();
     @JsonProperty("anomaly-detection")
     private AnomalyDetectionConfig anomalyDetection = new AnomalyDetectionConfig();
+    private AnalysisConfig analysis = new AnalysisConfig();
 
     public boolean isEnabled() { return enabled; }
     public void setEnabled(boolean enabled) { this.enabled = enabled; }
@@ -42,6 +43,8 @@ public class AgentTelConfig {
     public void setBaselines(BaselineConfig baselines) { this.baselines = baselines; }
     public AnomalyDetectionConfig getAnomalyDetection() { return anomalyDetection; }
     public void setAnomalyDetection(AnomalyDetectionConfig anomalyDetection) { this.anomalyDetection = anomalyDetection; }
+    public AnalysisConfig getAnalysis() { return analysis; }
+    public void setAnalysis(AnalysisConfig analysis) { this.analysis = analysis; }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class TopologyConfig {
@@ -118,11 +121,34 @@ public class AgentTelConfig {
         private int rollingWindowSize = 1000;
         @JsonProperty("rolling-min-samples")
         private int rollingMinSamples = 10;
+        @JsonProperty("rolling-max-stale-samples")
+        private long rollingMaxStaleSamples = 32;
+        @JsonProperty("rolling-max-stale-ms")
+        private long rollingMaxStaleMs = 1000;
+        @JsonProperty("rolling-window-duration")
+        private String rollingWindowDuration;
+        private boolean seasonal = false;
+        @JsonProperty("seasonal-weight")
+        private double seasonalWeight = 0.7;
+        @JsonProperty("seasonal-zone")
+        private String seasonalZone = "UTC";
 
         public int getRollingWindowSize() { return rollingWindowSize; }
         public void setRollingWindowSize(int rollingWindowSize) { this.rollingWindowSize = rollingWindowSize; }
         public int getRollingMinSamples() { return rollingMinSamples; }
         public void setRollingMinSamples(int rollingMinSamples) { this.rollingMinSamples = rollingMinSamples; }
+        public long getRollingMaxStaleSamples() { return rollingMaxStaleSamples; }
+        public void setRollingMaxStaleSamples(long rollingMaxStaleSamples) { this.rollingMaxStaleSamples = rollingMaxStaleSamples; }
+        public long getRollingMaxStaleMs() { return rollingMaxStaleMs; }
+        public void setRollingMaxStaleMs(long rollingMaxStaleMs) { this.rollingMaxStaleMs = rollingMaxStaleMs; }
+        public String getRollingWindowDuration() { return rollingWindowDuration; }
+        public void setRollingWindowDuration(String rollingWindowDuration) { this.rollingWindowDuration = rollingWindowDuration; }
+        public boolean isSeasonal() { return seasonal; }
+        public void setSeasonal(boolean seasonal) { this.seasonal = seasonal; }
+        public double getSeasonalWeight() { return seasonalWeight; }
+        public void setSeasonalWeight(double seasonalWeight) { this.seasonalWeight = seasonalWeight; }
+        public String getSeasonalZone() { return seasonalZone; }
+        public void setSeasonalZone(String seasonalZone) { this.seasonalZone = seasonalZone; }
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -130,11 +156,61 @@ public class AgentTelConfig {
         private boolean enabled = true;
         @JsonProperty("z-score-threshold")
         private double zScoreThreshold = 3.0;
+        @JsonProperty("cascade-window-ms")
+        private long cascadeWindowMs = 60_000;
+        private String strategy = "z_score";
 
         public boolean isEnabled() { return enabled; }
         public void setEnabled(boolean enabled) { this.enabled = enabled; }
         public double getZScoreThreshold() { return zScoreThreshold; }
         public void setZScoreThreshold(double zScoreThreshold) { this.zScoreThreshold = zScoreThreshold; }
+        public long getCascadeWindowMs() { return cascadeWindowMs; }
+        public void setCascadeWindowMs(long cascadeWindowMs) { this.cascadeWindowMs = cascadeWindowMs; }
+        public String getStrategy() { return strategy; }
+        public void setStrategy(String strategy) { this.strategy = strategy; }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class AnalysisConfig {
+        private boolean async = false;
+        @JsonProperty("queue-capacity")
+        private int queueCapacity = 8192;
+        private int workers = 1;
+        @JsonProperty("batch-size")
+        private int batchSize = 256;
+        @JsonProperty("overflow-policy")
+        private String overflowPolicy = "drop";
+        @JsonProperty("sample-rate")
+        private int sampleRate = 10;
+        @JsonProperty("max-operations")
+        private int maxOperations = 10_000;
+        @JsonProperty("evict-cold-operations")
+        private boolean evictColdOperations = true;
+        @JsonProperty("export-workers")
+        private int exportWorkers = 0;
+        @JsonProperty("export-parallel-min-batch")
+        private int exportParallelMinBatch = 256;
+
+        public boolean isAsync() { return async; }
+        public void setAsync(boolean async) { this.async = async; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+        public int getWorkers() { return workers; }
+        public void setWorkers(int workers) { this.workers = workers; }
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+        public String getOverflowPolicy() { return overflowPolicy; }
+        public void setOverflowPolicy(String overflowPolicy) { this.overflowPolicy = overflowPolicy; }
+        public int getSampleRate() { return sampleRate; }
+        public void setSampleRate(int sampleRate) { this.sampleRate = sampleRate; }
+        public int getMaxOperations() { return maxOperations; }
+        public void setMaxOperations(int maxOperations) { this.maxOperations = maxOperations; }
+        public boolean isEvictColdOperations() { return evictColdOperations; }
+        public void setEvictColdOperations(boolean evictColdOperations) { this.evictColdOperations = evictColdOperations; }
+        public int getExportWorkers() { return exportWorkers; }
+        public void setExportWorkers(int exportWorkers) { this.exportWorkers = exportWorkers; }
+        public int getExportParallelMinBatch() { return exportParallelMinBatch; }
+        public void setExportParallelMinBatch(int exportParallelMinBatch) { this.exportParallelMinBatch = exportParallelMinBatch; }
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -183,6 +259,8 @@ public class AgentTelConfig {
         private String escalationLevel = "auto_resolve";
         @JsonProperty("safe-to-restart")
         private boolean safeToRestart = true;
+        @JsonProperty("anomaly-strategy")
+        private String anomalyStrategy = "";
 
         public String getProfile() { return profile; }
         public void setProfile(String profile) { this.profile = profile; }
@@ -204,5 +282,7 @@ public class AgentTelConfig {
         public void setEscalationLevel(String escalationLevel) { this.escalationLevel = escalationLevel; }
         public boolean isSafeToRestart() { return safeToRestart; }
         public void setSafeToRestart(boolean safeToRestart) { this.safeToRestart = safeToRestart; }
+        public String getAnomalyStrategy() { return anomalyStrategy; }
+        public void setAnomalyStrategy(String anomalyStrategy) { this.anomalyStrategy = anomalyStrategy; }
     }
 }
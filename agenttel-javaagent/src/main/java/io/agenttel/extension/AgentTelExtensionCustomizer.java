@@ -10,15 +10,19 @@ import io.agenttel.api.baseline.OperationBaseline;
 import io.agenttel.api.topology.ConsumerDescriptor;
 import io.agenttel.api.topology.DependencyDescriptor;
 import io.agenttel.core.anomaly.AnomalyDetector;
+import io.agenttel.core.anomaly.AnomalyStrategy;
 import io.agenttel.core.anomaly.PatternMatcher;
 import io.agenttel.core.baseline.DurationParser;
 import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.baseline.SeasonalBaselineProvider;
 import io.agenttel.core.baseline.StaticBaselineProvider;
 import io.agenttel.core.causality.CausalityTracker;
 import io.agenttel.core.causality.OperationDependencyTracker;
 import io.agenttel.core.enrichment.AgentTelSpanProcessor;
+import io.agenttel.core.enrichment.AsyncAnalysisPipeline;
 import io.agenttel.core.enrichment.OperationContext;
 import io.agenttel.core.enrichment.OperationContextRegistry;
+import io.agenttel.core.operation.OperationRegistry;
 import io.agenttel.core.error.ErrorClassifier;
 import io.agenttel.core.export.AgentTelEnrichingSpanExporter;
 import io.agenttel.core.resource.AgentTelGlobalState;
@@ -27,6 +31,9 @@ import io.agenttel.core.topology.TopologyRegistry;
 import io.opentelemetry.sdk.autoconfigure.spi.AutoConfigurationCustomizer;
 import io.opentelemetry.sdk.autoconfigure.spi.AutoConfigurationCustomizerProvider;
 
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -65,14 +72,32 @@ public class AgentTelExtensionCustomizer implements AutoConfigurationCustomizerP
         registerOperations(config, baselines, opContexts);
 
         // 3. Build analysis components
-        AnomalyDetector anomalyDetector = new AnomalyDetector(
-                config.getAnomalyDetection().getZScoreThreshold());
-        PatternMatcher patternMatcher = new PatternMatcher();
-        RollingBaselineProvider rollingBaselines = new RollingBaselineProvider(
-                config.getBaselines().getRollingWindowSize(),
-                config.getBaselines().getRollingMinSamples());
+        OperationRegistry operationRegistry = OperationRegistry.builder()
+                .maxOperations(config.getAnalysis().getMaxOperations())
+                .evictColdOperations(config.getAnalysis().isEvictColdOperations())
+                .build();
+        Map<String, AnomalyStrategy> operationStrategies = new HashMap<>();
+        config.getOperations().forEach((operationName, op) -> {
+            if (!op.getAnomalyStrategy().isEmpty()) {
+                operationStrategies.put(operationName, AnomalyStrategy.fromValue(op.getAnomalyStrategy()));
+            }
+        });
+        AnomalyDetector anomalyDetector = AnomalyDetector.create(
+                config.getAnomalyDetection().getZScoreThreshold(),
+                AnomalyStrategy.fromValue(config.getAnomalyDetection().getStrategy()),
+                operationStrategies, operationRegistry);
+        PatternMatcher patternMatcher = new PatternMatcher(2.0, 5.0, 3, operationRegistry,
+                config.getAnomalyDetection().getCascadeWindowMs());
+        RollingBaselineProvider rollingBaselines = RollingBaselineProvider.builder()
+                .operationRegistry(operationRegistry)
+                .windowSize(config.getBaselines().getRollingWindowSize())
+                .minSamples(config.getBaselines().getRollingMinSamples())
+                .maxStaleness(config.getBaselines().getRollingMaxStaleSamples(),
+                        config.getBaselines().getRollingMaxStaleMs())
+                .timeWindow(config.getBaselines().getRollingWindowDuration())
+                .build();
         SloTracker sloTracker = new SloTracker();
-        OperationDependencyTracker dependencyTracker = new OperationDependencyTracker();
+        OperationDependencyTracker dependencyTracker = new OperationDependencyTracker(operationRegistry);
         CausalityTracker causalityTracker = new CausalityTracker(dependencyTracker);
         ErrorClassifier errorClassifier = new ErrorClassifier();
 
@@ -81,16 +106,37 @@ public class AgentTelExtensionCustomizer implements AutoConfigurationCustomizerP
                 baselines, opContexts,
                 anomalyDetector, patternMatcher, rollingBaselines, sloTracker, null,
                 dependencyTracker, causalityTracker);
+        if (config.getBaselines().isSeasonal()) {
+            processor.setSeasonalBaselines(SeasonalBaselineProvider.builder(rollingBaselines)
+                    .seasonalWeight(config.getBaselines().getSeasonalWeight())
+                    .zone(ZoneId.of(config.getBaselines().getSeasonalZone()))
+                    .build());
+        }
+        AgentTelConfig.AnalysisConfig analysis = config.getAnalysis();
+        if (analysis.isAsync()) {
+            processor.enableAsyncAnalysis(AsyncAnalysisPipeline.builder()
+                    .queueCapacity(analysis.getQueueCapacity())
+                    .workers(analysis.getWorkers())
+                    .batchSize(analysis.getBatchSize())
+                    .overflowPolicy(AsyncAnalysisPipeline.OverflowPolicy.fromValue(analysis.getOverflowPolicy()))
+                    .sampleRate(analysis.getSampleRate()));
+        }
 
         // 5. Register with OTel SDK
         customizer.addTracerProviderCustomizer(
                 (builder, cfg) -> builder.addSpanProcessor(processor));
 
         // 6. Register enriching exporter to add computed attributes at export time
-        customizer.addSpanExporterCustomizer(
-                (exporter, cfg) -> new AgentTelEnrichingSpanExporter(
-                        exporter, rollingBaselines, sloTracker, causalityTracker,
-                        anomalyDetector, errorClassifier, topology));
+        customizer.addSpanExporterCustomizer((exporter, cfg) -> {
+            AgentTelEnrichingSpanExporter enriching = new AgentTelEnrichingSpanExporter(
+                    exporter, rollingBaselines, sloTracker, causalityTracker,
+                    anomalyDetector, errorClassifier, topology);
+            enriching.setSeasonalBaselines(processor.seasonalBaselines());
+            if (analysis.getExportWorkers() > 0) {
+                enriching.enableParallelEnrichment(analysis.getExportWorkers(), analysis.getExportParallelMinBatch());
+            }
+            return enriching;
+        });
 
         logger.info("AgentTel extension initialized — topology: team=" + topology.getTeam()
                 + ", tier=" + topology.getTier().getValue()
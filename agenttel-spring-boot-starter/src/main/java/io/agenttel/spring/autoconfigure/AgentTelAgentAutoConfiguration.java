@@ -193,7 +193,8 @@ public class AgentTelAgentAutoConfiguration {
             AgentTelSpanProcessor spanProcessor,
             ServiceHealthAggregator healthAggregator) {
         return args -> {
-            spanProcessor.setSpanCompletionListener(healthAggregator::recordSpan);
+            spanProcessor.setSpanCompletionListener(
+                    healthAggregator.spanCompletionListener(spanProcessor.operationRegistry()));
             log.info("AgentTel health aggregation wired to span processor");
         };
     }
@@ -10,17 +10,24 @@ import io.agenttel.api.baseline.OperationBaseline;
 import io.agenttel.api.topology.ConsumerDescriptor;
 import io.agenttel.api.topology.DependencyDescriptor;
 import io.agenttel.core.anomaly.AnomalyDetector;
+import io.agenttel.core.anomaly.AnomalyStrategy;
 import io.agenttel.core.anomaly.PatternMatcher;
 import io.agenttel.core.baseline.DurationParser;
 import io.agenttel.core.baseline.RollingBaselineProvider;
+import io.agenttel.core.baseline.SeasonalBaselineProvider;
 import io.agenttel.core.baseline.StaticBaselineProvider;
 import io.agenttel.core.causality.CausalityTracker;
 import io.agenttel.core.causality.OperationDependencyTracker;
 import io.agenttel.core.engine.AgentTelEngine;
 import io.agenttel.core.error.ErrorClassifier;
+import io.agenttel.core.events.AgentTelEventEmitter;
+import io.agenttel.core.events.AsyncEventSink;
+import io.agenttel.core.events.LogEventSink;
 import io.agenttel.core.enrichment.AgentTelSpanProcessor;
+import io.agenttel.core.enrichment.AsyncAnalysisPipeline;
 import io.agenttel.core.enrichment.OperationContext;
 import io.agenttel.core.enrichment.OperationContextRegistry;
+import io.agenttel.core.operation.OperationRegistry;
 import io.agenttel.core.resource.AgentTelGlobalState;
 import io.agenttel.core.slo.SloTracker;
 import io.agenttel.core.topology.TopologyRegistry;
@@ -36,6 +43,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Auto-configuration for AgentTel in Spring Boot applications.
  */
@@ -106,11 +117,25 @@ public class AgentTelAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public RollingBaselineProvider agentTelRollingBaselineProvider(AgentTelProperties props) {
+    public OperationRegistry agentTelOperationRegistry(AgentTelProperties props) {
+        return OperationRegistry.builder()
+                .maxOperations(props.getAnalysis().getMaxOperations())
+                .evictColdOperations(props.getAnalysis().isEvictColdOperations())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RollingBaselineProvider agentTelRollingBaselineProvider(AgentTelProperties props,
+                                                                    OperationRegistry operationRegistry) {
         var baselineProps = props.getBaselines();
-        return new RollingBaselineProvider(
-                baselineProps.getRollingWindowSize(),
-                baselineProps.getRollingMinSamples());
+        return RollingBaselineProvider.builder()
+                .operationRegistry(operationRegistry)
+                .windowSize(baselineProps.getRollingWindowSize())
+                .minSamples(baselineProps.getRollingMinSamples())
+                .maxStaleness(baselineProps.getRollingMaxStaleSamples(), baselineProps.getRollingMaxStaleMs())
+                .timeWindow(baselineProps.getRollingWindowDuration())
+                .build();
     }
 
     @Bean
@@ -179,14 +204,23 @@ public class AgentTelAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public AnomalyDetector agentTelAnomalyDetector(AgentTelProperties props) {
-        return new AnomalyDetector(props.getAnomalyDetection().getZScoreThreshold());
+    public AnomalyDetector agentTelAnomalyDetector(AgentTelProperties props, OperationRegistry operationRegistry) {
+        var anomalyProps = props.getAnomalyDetection();
+        Map<String, AnomalyStrategy> operationStrategies = new HashMap<>();
+        props.getOperations().forEach((operationName, op) -> {
+            if (!op.getAnomalyStrategy().isEmpty()) {
+                operationStrategies.put(operationName, AnomalyStrategy.fromValue(op.getAnomalyStrategy()));
+            }
+        });
+        return AnomalyDetector.create(anomalyProps.getZScoreThreshold(),
+                AnomalyStrategy.fromValue(anomalyProps.getStrategy()), operationStrategies, operationRegistry);
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public PatternMatcher agentTelPatternMatcher() {
-        return new PatternMatcher();
+    public PatternMatcher agentTelPatternMatcher(OperationRegistry operationRegistry, AgentTelProperties props) {
+        return new PatternMatcher(2.0, 5.0, 3, operationRegistry,
+                props.getAnomalyDetection().getCascadeWindowMs());
     }
 
     @Bean
@@ -203,8 +237,8 @@ public class AgentTelAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public OperationDependencyTracker agentTelOperationDependencyTracker() {
-        return new OperationDependencyTracker();
+    public OperationDependencyTracker agentTelOperationDependencyTracker(OperationRegistry operationRegistry) {
+        return new OperationDependencyTracker(operationRegistry);
     }
 
     @Bean
@@ -239,7 +273,18 @@ public class AgentTelAutoConfiguration {
                                           PatternMatcher patternMatcher,
                                           SloTracker sloTracker,
                                           CausalityTracker causalityTracker,
-                                          OpenTelemetry otel) {
+                                          OpenTelemetry otel,
+                                          AgentTelProperties props) {
+        AgentTelProperties.EventsProperties eventProps = props.getEvents();
+        AgentTelEventEmitter.Builder events = AgentTelEventEmitter.builder(otel)
+                .bodyFormat(LogEventSink.BodyFormat.fromValue(eventProps.getBodyFormat()));
+        if (eventProps.isAsync()) {
+            events.async(AsyncEventSink.builder()
+                    .queueCapacity(eventProps.getQueueCapacity())
+                    .batchSize(eventProps.getBatchSize()));
+        }
+        eventProps.getSampleRates().forEach(events::sampleRate);
+
         return AgentTelEngine.builder()
                 .topologyRegistry(topology)
                 .baselineProvider(baselines)
@@ -250,6 +295,7 @@ public class AgentTelAutoConfiguration {
                 .sloTracker(sloTracker)
                 .causalityTracker(causalityTracker)
                 .openTelemetry(otel)
+                .eventEmitter(events.build())
                 .build();
     }
 
@@ -261,15 +307,35 @@ public class AgentTelAutoConfiguration {
                                                         RollingBaselineProvider rollingBaselines,
                                                         SloTracker sloTracker,
                                                         OperationDependencyTracker dependencyTracker,
-                                                        CausalityTracker causalityTracker) {
-        return new AgentTelSpanProcessor(
+                                                        CausalityTracker causalityTracker,
+                                                        AgentTelProperties props) {
+        AgentTelSpanProcessor processor = new AgentTelSpanProcessor(
                 baselines, operationContexts,
                 anomalyDetector, patternMatcher, rollingBaselines, sloTracker, null,
                 dependencyTracker, causalityTracker);
+        var baselineProps = props.getBaselines();
+        if (baselineProps.isSeasonal()) {
+            processor.setSeasonalBaselines(SeasonalBaselineProvider.builder(rollingBaselines)
+                    .seasonalWeight(baselineProps.getSeasonalWeight())
+                    .zone(ZoneId.of(baselineProps.getSeasonalZone()))
+                    .build());
+        }
+
+        AgentTelProperties.AnalysisProperties analysis = props.getAnalysis();
+        if (analysis.isAsync()) {
+            processor.enableAsyncAnalysis(AsyncAnalysisPipeline.builder()
+                    .queueCapacity(analysis.getQueueCapacity())
+                    .workers(analysis.getWorkers())
+                    .batchSize(analysis.getBatchSize())
+                    .overflowPolicy(AsyncAnalysisPipeline.OverflowPolicy.fromValue(analysis.getOverflowPolicy()))
+                    .sampleRate(analysis.getSampleRate()));
+        }
+        return processor;
     }
 
     @Bean
     public AutoConfigurationCustomizerProvider agentTelOtelCustomizer(
+            AgentTelProperties props,
             AgentTelSpanProcessor spanProcessor,
             RollingBaselineProvider rollingBaselines,
             SloTracker sloTracker,
@@ -281,10 +347,17 @@ public class AgentTelAutoConfiguration {
         return customizer -> {
             customizer.addTracerProviderCustomizer(
                     (builder, config) -> builder.addSpanProcessor(spanProcessor));
-            customizer.addSpanExporterCustomizer(
-                    (exporter, config) -> new AgentTelEnrichingSpanExporter(
-                            exporter, rollingBaselines, sloTracker, causalityTracker,
-                            anomalyDetector, errorClassifier, topology));
+            customizer.addSpanExporterCustomizer((exporter, config) -> {
+                AgentTelEnrichingSpanExporter enriching = new AgentTelEnrichingSpanExporter(
+                        exporter, rollingBaselines, sloTracker, causalityTracker,
+                        anomalyDetector, errorClassifier, topology);
+                enriching.setSeasonalBaselines(spanProcessor.seasonalBaselines());
+                AgentTelProperties.AnalysisProperties analysis = props.getAnalysis();
+                if (analysis.getExportWorkers() > 0) {
+                    enriching.enableParallelEnrichment(analysis.getExportWorkers(), analysis.getExportParallelMinBatch());
+                }
+                return enriching;
+            });
         };
     }
 
@@ -22,6 +22,8 @@ public class AgentTelProperties {
     private Map<String, OperationProperties> operations = new LinkedHashMap<>();
     private BaselineProperties baselines = new BaselineProperties();
     private AnomalyDetectionProperties anomalyDetection = new AnomalyDetectionProperties();
+    private AnalysisProperties analysis = new AnalysisProperties();
+    private EventsProperties events = new EventsProperties();
     private DeploymentProperties deployment = new DeploymentProperties();
     private Map<String, List<String>> agentRoles = new LinkedHashMap<>();
     private AgenticProperties agentic = new AgenticProperties();
@@ -42,6 +44,10 @@ public class AgentTelProperties {
     public void setBaselines(BaselineProperties baselines) { this.baselines = baselines; }
     public AnomalyDetectionProperties getAnomalyDetection() { return anomalyDetection; }
     public void setAnomalyDetection(AnomalyDetectionProperties anomalyDetection) { this.anomalyDetection = anomalyDetection; }
+    public AnalysisProperties getAnalysis() { return analysis; }
+    public void setAnalysis(AnalysisProperties analysis) { this.analysis = analysis; }
+    public EventsProperties getEvents() { return events; }
+    public void setEvents(EventsProperties events) { this.events = events; }
     public DeploymentProperties getDeployment() { return deployment; }
     public void setDeployment(DeploymentProperties deployment) { this.deployment = deployment; }
     public Map<String, List<String>> getAgentRoles() { return agentRoles; }
@@ -113,6 +119,12 @@ public class AgentTelProperties {
         private String source = "static";
         private int rollingWindowSize = 1000;
         private int rollingMinSamples = 10;
+        private long rollingMaxStaleSamples = 32;
+        private long rollingMaxStaleMs = 1000;
+        private String rollingWindowDuration;
+        private boolean seasonal = false;
+        private double seasonalWeight = 0.7;
+        private String seasonalZone = "UTC";
 
         public String getSource() { return source; }
         public void setSource(String source) { this.source = source; }
@@ -120,16 +132,94 @@ public class AgentTelProperties {
         public void setRollingWindowSize(int rollingWindowSize) { this.rollingWindowSize = rollingWindowSize; }
         public int getRollingMinSamples() { return rollingMinSamples; }
         public void setRollingMinSamples(int rollingMinSamples) { this.rollingMinSamples = rollingMinSamples; }
+        public long getRollingMaxStaleSamples() { return rollingMaxStaleSamples; }
+        public void setRollingMaxStaleSamples(long rollingMaxStaleSamples) { this.rollingMaxStaleSamples = rollingMaxStaleSamples; }
+        public long getRollingMaxStaleMs() { return rollingMaxStaleMs; }
+        public void setRollingMaxStaleMs(long rollingMaxStaleMs) { this.rollingMaxStaleMs = rollingMaxStaleMs; }
+        public String getRollingWindowDuration() { return rollingWindowDuration; }
+        public void setRollingWindowDuration(String rollingWindowDuration) { this.rollingWindowDuration = rollingWindowDuration; }
+        public boolean isSeasonal() { return seasonal; }
+        public void setSeasonal(boolean seasonal) { this.seasonal = seasonal; }
+        public double getSeasonalWeight() { return seasonalWeight; }
+        public void setSeasonalWeight(double seasonalWeight) { this.seasonalWeight = seasonalWeight; }
+        public String getSeasonalZone() { return seasonalZone; }
+        public void setSeasonalZone(String seasonalZone) { this.seasonalZone = seasonalZone; }
     }
 
     public static class AnomalyDetectionProperties {
         private boolean enabled = true;
         private double zScoreThreshold = 3.0;
+        private long cascadeWindowMs = 60_000;
+        private String strategy = "z_score";
 
         public boolean isEnabled() { return enabled; }
         public void setEnabled(boolean enabled) { this.enabled = enabled; }
         public double getZScoreThreshold() { return zScoreThreshold; }
         public void setZScoreThreshold(double zScoreThreshold) { this.zScoreThreshold = zScoreThreshold; }
+        public long getCascadeWindowMs() { return cascadeWindowMs; }
+        public void setCascadeWindowMs(long cascadeWindowMs) { this.cascadeWindowMs = cascadeWindowMs; }
+        public String getStrategy() { return strategy; }
+        public void setStrategy(String strategy) { this.strategy = strategy; }
+    }
+
+    /**
+     * Where per-span analysis runs. With {@code async} enabled, span end only enqueues a
+     * compact record and background workers run baselines, SLOs and anomaly detection.
+     * {@code maxOperations} bounds the distinct span names tracked. With {@code exportWorkers}
+     * above zero, export batches of at least {@code exportParallelMinBatch} spans are enriched
+     * on that many extra threads.
+     */
+    public static class AnalysisProperties {
+        private boolean async = false;
+        private int queueCapacity = 8192;
+        private int workers = 1;
+        private int batchSize = 256;
+        private String overflowPolicy = "drop";
+        private int sampleRate = 10;
+        private int maxOperations = 10_000;
+        private boolean evictColdOperations = true;
+        private int exportWorkers = 0;
+        private int exportParallelMinBatch = 256;
+
+        public boolean isAsync() { return async; }
+        public void setAsync(boolean async) { this.async = async; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+        public int getWorkers() { return workers; }
+        public void setWorkers(int workers) { this.workers = workers; }
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+        public String getOverflowPolicy() { return overflowPolicy; }
+        public void setOverflowPolicy(String overflowPolicy) { this.overflowPolicy = overflowPolicy; }
+        public int getSampleRate() { return sampleRate; }
+        public void setSampleRate(int sampleRate) { this.sampleRate = sampleRate; }
+        public int getMaxOperations() { return maxOperations; }
+        public void setMaxOperations(int maxOperations) { this.maxOperations = maxOperations; }
+        public boolean isEvictColdOperations() { return evictColdOperations; }
+        public void setEvictColdOperations(boolean evictColdOperations) { this.evictColdOperations = evictColdOperations; }
+        public int getExportWorkers() { return exportWorkers; }
+        public void setExportWorkers(int exportWorkers) { this.exportWorkers = exportWorkers; }
+        public int getExportParallelMinBatch() { return exportParallelMinBatch; }
+        public void setExportParallelMinBatch(int exportParallelMinBatch) { this.exportParallelMinBatch = exportParallelMinBatch; }
+    }
+
+    public static class EventsProperties {
+        private String bodyFormat = "json";
+        private boolean async = false;
+        private int queueCapacity = 1024;
+        private int batchSize = 64;
+        private Map<String, Integer> sampleRates = new LinkedHashMap<>();
+
+        public String getBodyFormat() { return bodyFormat; }
+        public void setBodyFormat(String bodyFormat) { this.bodyFormat = bodyFormat; }
+        public boolean isAsync() { return async; }
+        public void setAsync(boolean async) { this.async = async; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+        public Map<String, Integer> getSampleRates() { return sampleRates; }
+        public void setSampleRates(Map<String, Integer> sampleRates) { this.sampleRates = sampleRates; }
     }
 
     public static class DeploymentProperties {
@@ -187,6 +277,7 @@ public class AgentTelProperties {
         private String fallbackDescription = "";
         private String escalationLevel = "auto_resolve";
         private boolean safeToRestart = true;
+        private String anomalyStrategy = "";
 
         public String getProfile() { return profile; }
         public void setProfile(String profile) { this.profile = profile; }
@@ -208,6 +299,8 @@ public class AgentTelProperties {
         public void setEscalationLevel(String escalationLevel) { this.escalationLevel = escalationLevel; }
         public boolean isSafeToRestart() { return safeToRestart; }
         public void setSafeToRestart(boolean safeToRestart) { this.safeToRestart = safeToRestart; }
+        public String getAnomalyStrategy() { return anomalyStrategy; }
+        public void setAnomalyStrategy(String anomalyStrategy) { this.anomalyStrategy = anomalyStrategy; }
     }
 
     /**
@@ -16,6 +16,7 @@ extra["junitVersion"] = "5.11.4"
 extra["assertjVersion"] = "3.27.3"
 extra["mockitoVersion"] = "5.14.2"
 extra["slf4jVersion"] = "2.0.16"
+extra["jmhVersion"] = "1.37"
 
 // GenAI dependencies (Phase 2)
 extra["otelSemconvIncubatingVersion"] = "1.40.0-alpha"
@@ -89,7 +89,7 @@ public class McpDemoConfiguration {
             sloTracker.register(SloDefinition.builder("payment-latency-p99")
                     .operationName("POST /api/payments")
                     .type(SloDefinition.SloType.LATENCY_P99)
-                    .target(200.0)
+                    .thresholdMs(200.0)
                     .build());
 
             // --- Sample change events for correlation demo ---
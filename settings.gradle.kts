@@ -11,6 +11,7 @@ include(
     "agenttel-javaagent",
     "agenttel-spring-boot-starter",
     "agenttel-testing",
+    "agenttel-benchmarks",
     "examples:spring-boot-example",
     "examples:langchain4j-example"
 )